@@ -0,0 +1,43 @@
+package de.leidenheit;
+
+import de.leidenheit.core.exception.ItarazzoIllegalStateException;
+import de.leidenheit.infrastructure.transport.InProcessTransport;
+import io.restassured.http.Header;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Handles in-process requests with a {@link MockMvc} of the application's controllers.
+ */
+class MockMvcInProcessHandler implements InProcessTransport.Handler {
+
+    private final MockMvc mockMvc;
+
+    MockMvcInProcessHandler(final MockMvc mockMvc) {
+        this.mockMvc = mockMvc;
+    }
+
+    @Override
+    public InProcessTransport.InProcessResponse handle(final InProcessTransport.InProcessRequest request) {
+        var requestBuilder = MockMvcRequestBuilders
+                .request(HttpMethod.valueOf(request.method()), request.uri())
+                .content(request.body());
+        request.headers().forEach(header -> requestBuilder.header(header.getName(), header.getValue()));
+
+        try {
+            var response = mockMvc.perform(requestBuilder).andReturn().getResponse();
+            List<Header> headers = new ArrayList<>();
+            for (String headerName : response.getHeaderNames()) {
+                response.getHeaders(headerName).forEach(value -> headers.add(new Header(headerName, value)));
+            }
+            return new InProcessTransport.InProcessResponse(response.getStatus(), headers, response.getContentAsByteArray());
+        } catch (Exception e) {
+            throw new ItarazzoIllegalStateException(
+                    "Failed to handle %s %s in-process".formatted(request.method(), request.uri()), e);
+        }
+    }
+}
@@ -1,25 +1,51 @@
 package de.leidenheit;
 
+import de.leidenheit.controller.CookieApi;
+import de.leidenheit.core.execution.transport.StepTransports;
 import de.leidenheit.core.model.ArazzoSpecification;
+import de.leidenheit.infrastructure.transport.InProcessTransport;
 import de.leidenheit.integration.ArazzoDynamicTest;
+import de.leidenheit.integration.WorkflowSelection;
 import de.leidenheit.integration.extension.ArazzoExtension;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.TestFactory;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.Objects;
 import java.util.stream.Stream;
 
 @ExtendWith(ArazzoExtension.class)
 class MyApplicationIT {
 
+    private static InProcessTransport inProcessTransport;
+
+    @BeforeAll
+    static void registerInProcessTransport() {
+        if (!Boolean.getBoolean("arazzo.in-process")) return;
+        var mockMvc = MockMvcBuilders.standaloneSetup(new CookieApi()).build();
+        inProcessTransport = new InProcessTransport("cookieApi", new MockMvcInProcessHandler(mockMvc));
+        StepTransports.register(inProcessTransport);
+    }
+
+    @AfterAll
+    static void unregisterInProcessTransport() {
+        if (Objects.isNull(inProcessTransport)) return;
+        StepTransports.unregister(inProcessTransport);
+        inProcessTransport = null;
+    }
+
     @TestFactory
     @DisplayName("Testing")
     Stream<DynamicTest> testMyArazzo(final ArazzoSpecification arazzo,
-                                      final String inputsFilePath) {
+                                      final String inputsFilePath,
+                                      final WorkflowSelection workflowSelection) {
         ArazzoDynamicTest dynamicTest = new ArazzoDynamicTest();
         return Assertions.assertDoesNotThrow(
-                () -> dynamicTest.generateWorkflowTests(arazzo, inputsFilePath));
+                () -> dynamicTest.generateWorkflowTests(arazzo, inputsFilePath, workflowSelection));
     }
 }
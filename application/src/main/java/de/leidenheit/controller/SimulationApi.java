@@ -0,0 +1,360 @@
+package de.leidenheit.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import de.leidenheit.model.CookieDto;
+import de.leidenheit.model.CookiePageDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Endpoints simulating the behaviour of real services, such as large payloads, latencies, throttling and slow
+ * responses, in order to load test the execution of workflows end to end on a single machine.
+ */
+@RestController
+@RequestMapping("/simulation")
+public class SimulationApi {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private static final String CATALOG_ETAG = "\"catalog-v1\"";
+
+    private final Map<String, AtomicLong> throttleAttempts = new ConcurrentHashMap<>();
+
+    @Value("${simulation.max-page-size:100000}")
+    private int maxPageSize;
+    @Value("${simulation.max-delay-ms:60000}")
+    private long maxDelayMs;
+    @Value("${simulation.max-bytes:104857600}")
+    private long maxBytes;
+
+    @Operation(
+            operationId = "listCookies",
+            summary = "Returns a page of generated cookies as JSON or XML",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "A page of cookies; pages of many cookies with long names are megabytes in size.",
+                            headers = @Header(name = "X-Total-Count", description = "Number of cookies of all pages.", schema = @Schema(type = "integer")),
+                            content = {
+                                    @Content(schema = @Schema(implementation = CookiePageDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE),
+                                    @Content(schema = @Schema(implementation = CookiePageDto.class), mediaType = MediaType.APPLICATION_XML_VALUE)
+                            }
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Limits of the simulation exceeded.", content = @Content)
+            }
+    )
+    @GetMapping("/cookies")
+    public ResponseEntity<StreamingResponseBody> listCookies(
+            @Parameter(description = "Index of the page, starting at 0.") @RequestParam(name = "page", defaultValue = "0") final int page,
+            @Parameter(description = "Maximum number of cookies of a page.") @RequestParam(name = "size", defaultValue = "100") final int size,
+            @Parameter(description = "Number of cookies of all pages.") @RequestParam(name = "total", defaultValue = "10000") final long total,
+            @Parameter(description = "Length of the name of each cookie.") @RequestParam(name = "nameLength", defaultValue = "16") final int nameLength,
+            @Parameter(description = "Delay before responding in milliseconds.") @RequestParam(name = "latencyMs", defaultValue = "0") final long latencyMs,
+            @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.APPLICATION_JSON_VALUE) final String accept) {
+        if (page < 0 || size < 1 || size > maxPageSize || total < 0 || nameLength < 1
+                || (long) size * nameLength > maxBytes || latencyMs < 0 || latencyMs > maxDelayMs) {
+            return ResponseEntity.badRequest().build();
+        }
+        sleep(latencyMs);
+
+        long first = Math.min((long) page * size, total);
+        long last = Math.min(first + size, total);
+        Integer next = last < total ? page + 1 : null;
+        boolean xml = accept.contains("xml") && !accept.contains("json");
+
+        StreamingResponseBody body = xml
+                ? outputStream -> writeCookiePageAsXml(outputStream, page, size, total, next, first, last, nameLength)
+                : outputStream -> writeCookiePageAsJson(outputStream, page, size, total, next, first, last, nameLength);
+        return ResponseEntity.ok()
+                .contentType(xml ? MediaType.APPLICATION_XML : MediaType.APPLICATION_JSON)
+                .header("X-Total-Count", String.valueOf(total))
+                .body(body);
+    }
+
+    @Operation(
+            operationId = "delayCookie",
+            summary = "Returns a cookie after a delay",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Here is the cookie, eventually.",
+                            content = @Content(schema = @Schema(implementation = CookieDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Limits of the simulation exceeded.", content = @Content)
+            }
+    )
+    @GetMapping("/latency")
+    public ResponseEntity<CookieDto> delayCookie(
+            @Parameter(description = "Delay before responding in milliseconds.") @RequestParam(name = "delayMs", defaultValue = "100") final long delayMs,
+            @Parameter(description = "Uniformly distributed deviation of the delay in milliseconds.") @RequestParam(name = "jitterMs", defaultValue = "0") final long jitterMs) {
+        if (delayMs < 0 || jitterMs < 0 || delayMs + jitterMs > maxDelayMs) {
+            return ResponseEntity.badRequest().build();
+        }
+        sleep(delayMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(-Math.min(jitterMs, delayMs), jitterMs + 1) : 0));
+        return ResponseEntity.ok(cookieOf(4711, 16));
+    }
+
+    @Operation(
+            operationId = "throttleCookie",
+            summary = "Returns a cookie after a number of throttled attempts",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Here is the cookie, after the throttled attempts.",
+                            content = @Content(schema = @Schema(implementation = CookieDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Unsupported status.", content = @Content),
+                    @ApiResponse(
+                            responseCode = "429",
+                            description = "Too many requests.",
+                            headers = @Header(name = "Retry-After", description = "Seconds to wait before retrying.", schema = @Schema(type = "integer")),
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "503",
+                            description = "Service unavailable.",
+                            headers = @Header(name = "Retry-After", description = "Seconds to wait before retrying.", schema = @Schema(type = "integer")),
+                            content = @Content
+                    )
+            }
+    )
+    @GetMapping("/throttle")
+    public ResponseEntity<CookieDto> throttleCookie(
+            @Parameter(description = "Key of the attempts which are counted together; each cycle of 'failures' throttled attempts is followed by a successful one.") @RequestParam(name = "key", defaultValue = "default") final String key,
+            @Parameter(description = "Number of throttled attempts before a successful one.") @RequestParam(name = "failures", defaultValue = "1") final int failures,
+            @Parameter(description = "Status of throttled attempts, either 429 or 503.") @RequestParam(name = "status", defaultValue = "429") final int status,
+            @Parameter(description = "Value of the 'Retry-After' header in seconds.") @RequestParam(name = "retryAfter", defaultValue = "1") final long retryAfter) {
+        if ((status != 429 && status != 503) || failures < 0 || retryAfter < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        long attempt = throttleAttempts.computeIfAbsent(key, k -> new AtomicLong()).getAndIncrement();
+        if (attempt % (failures + 1) < failures) {
+            return ResponseEntity.status(HttpStatus.valueOf(status))
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .build();
+        }
+        return ResponseEntity.ok(cookieOf(4711, 16));
+    }
+
+    @Operation(
+            operationId = "findCatalog",
+            summary = "Returns a cacheable catalog of cookies",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "The catalog, fresh for the given age and validated by its ETag.",
+                            headers = {
+                                    @Header(name = "Cache-Control", description = "Freshness of the catalog.", schema = @Schema(type = "string")),
+                                    @Header(name = "ETag", description = "Version of the catalog.", schema = @Schema(type = "string"))
+                            },
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = CookieDto.class)), mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    ),
+                    @ApiResponse(responseCode = "304", description = "The catalog has not been modified.", content = @Content),
+                    @ApiResponse(responseCode = "400", description = "Limits of the simulation exceeded.", content = @Content)
+            }
+    )
+    @GetMapping("/catalog")
+    public ResponseEntity<List<CookieDto>> findCatalog(
+            @Parameter(description = "Seconds the catalog is fresh for.") @RequestParam(name = "maxAge", defaultValue = "60") final long maxAge,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        if (maxAge < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        var cacheControl = CacheControl.maxAge(maxAge, TimeUnit.SECONDS);
+        if (CATALOG_ETAG.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).eTag(CATALOG_ETAG).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(CATALOG_ETAG)
+                .body(LongStream.range(0, 100).mapToObj(id -> cookieOf(id, 16)).toList());
+    }
+
+    @Operation(
+            operationId = "streamCookies",
+            summary = "Streams a JSON array of cookies in chunks",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Cookies sent with chunked transfer encoding.",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = CookieDto.class)), mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Limits of the simulation exceeded.", content = @Content)
+            }
+    )
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamCookies(
+            @Parameter(description = "Number of chunks.") @RequestParam(name = "chunks", defaultValue = "10") final int chunks,
+            @Parameter(description = "Number of cookies per chunk.") @RequestParam(name = "chunkSize", defaultValue = "100") final int chunkSize,
+            @Parameter(description = "Pause between two chunks in milliseconds.") @RequestParam(name = "intervalMs", defaultValue = "0") final long intervalMs) {
+        if (chunks < 1 || chunkSize < 1 || (long) chunks * chunkSize > maxPageSize
+                || intervalMs < 0 || intervalMs * chunks > maxDelayMs) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    if (chunk > 0) sleep(intervalMs);
+                    for (int i = 0; i < chunkSize; i++) {
+                        writeCookie(generator, (long) chunk * chunkSize + i, 16);
+                    }
+                    // each flush is sent as a chunk of its own
+                    generator.flush();
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @Operation(
+            operationId = "dripBytes",
+            summary = "Drips a body evenly over a duration",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "A body of asterisks, the last of which arrives after the duration.",
+                            content = @Content(mediaType = MediaType.TEXT_PLAIN_VALUE)
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Limits of the simulation exceeded.", content = @Content)
+            }
+    )
+    @GetMapping("/drip")
+    public ResponseEntity<StreamingResponseBody> dripBytes(
+            @Parameter(description = "Size of the body in bytes.") @RequestParam(name = "bytes", defaultValue = "1024") final long bytes,
+            @Parameter(description = "Duration of sending the body in milliseconds.") @RequestParam(name = "durationMs", defaultValue = "1000") final long durationMs) {
+        if (bytes < 1 || bytes > maxBytes || durationMs < 0 || durationMs > maxDelayMs) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // a drip every 10ms at most
+        long drips = Math.max(1, Math.min(bytes, durationMs / 10));
+        StreamingResponseBody body = outputStream -> {
+            byte[] drip = new byte[(int) Math.min(bytes / drips + bytes % drips, Integer.MAX_VALUE)];
+            Arrays.fill(drip, (byte) '*');
+            for (long i = 0; i < drips; i++) {
+                sleep(durationMs / drips);
+                outputStream.write(drip, 0, (int) (i == drips - 1 ? bytes / drips + bytes % drips : bytes / drips));
+                outputStream.flush();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_PLAIN)
+                .contentLength(bytes)
+                .body(body);
+    }
+
+    private static void writeCookiePageAsJson(final OutputStream outputStream, final int page, final int size,
+                                              final long total, final Integer next, final long first, final long last,
+                                              final int nameLength) throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+            generator.writeStartObject();
+            generator.writeNumberField("page", page);
+            generator.writeNumberField("size", size);
+            generator.writeNumberField("total", total);
+            if (next != null) generator.writeNumberField("next", next);
+            generator.writeArrayFieldStart("cookies");
+            for (long id = first; id < last; id++) {
+                writeCookie(generator, id, nameLength);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeCookiePageAsXml(final OutputStream outputStream, final int page, final int size,
+                                             final long total, final Integer next, final long first, final long last,
+                                             final int nameLength) throws IOException {
+        try {
+            XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(outputStream, "UTF-8");
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeStartElement("cookiePage");
+            writeElement(writer, "page", String.valueOf(page));
+            writeElement(writer, "size", String.valueOf(size));
+            writeElement(writer, "total", String.valueOf(total));
+            if (next != null) writeElement(writer, "next", String.valueOf(next));
+            writer.writeStartElement("cookies");
+            for (long id = first; id < last; id++) {
+                var cookie = cookieOf(id, nameLength);
+                writer.writeStartElement("cookie");
+                writeElement(writer, "id", String.valueOf(cookie.getId()));
+                writeElement(writer, "name", cookie.getName());
+                writer.writeEndElement();
+            }
+            writer.writeEndElement();
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void writeElement(final XMLStreamWriter writer, final String name, final String value) throws XMLStreamException {
+        writer.writeStartElement(name);
+        writer.writeCharacters(value);
+        writer.writeEndElement();
+    }
+
+    private static void writeCookie(final JsonGenerator generator, final long id, final int nameLength) throws IOException {
+        var cookie = cookieOf(id, nameLength);
+        generator.writeStartObject();
+        generator.writeNumberField("id", cookie.getId());
+        generator.writeStringField("name", cookie.getName());
+        generator.writeEndObject();
+    }
+
+    private static CookieDto cookieOf(final long id, final int nameLength) {
+        var unit = "Cookie %d ".formatted(id);
+        return CookieDto.builder()
+                .id(id)
+                .name(unit.repeat(nameLength / unit.length() + 1).substring(0, nameLength))
+                .build();
+    }
+
+    private static void sleep(final long millis) {
+        if (millis <= 0) return;
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package de.leidenheit.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "A page of cookies.")
+public class CookiePageDto {
+
+    @Schema(description = "Index of the page, starting at 0.")
+    private int page;
+    @Schema(description = "Maximum number of cookies of a page.")
+    private int size;
+    @Schema(description = "Number of cookies of all pages.")
+    private long total;
+    @Schema(description = "Index of the next page; absent on the last page.", nullable = true)
+    private Integer next;
+    @Schema(description = "Cookies of the page.")
+    private List<CookieDto> cookies;
+}
@@ -0,0 +1,206 @@
+package de.leidenheit.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.w3c.dom.Document;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SimulationApiTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testCookiesArePagedBySize() throws Exception {
+        // when
+        var firstPage = stream(get("/simulation/cookies").param("page", "1").param("size", "3").param("total", "7"));
+        var lastPage = stream(get("/simulation/cookies").param("page", "2").param("size", "3").param("total", "7"));
+
+        // then
+        assertThat(firstPage.getStatus()).isEqualTo(200);
+        assertThat(firstPage.getHeader("X-Total-Count")).isEqualTo("7");
+        var first = OBJECT_MAPPER.readTree(firstPage.getContentAsByteArray());
+        assertThat(first.get("page").asInt()).isEqualTo(1);
+        assertThat(first.get("size").asInt()).isEqualTo(3);
+        assertThat(first.get("next").asInt()).isEqualTo(2);
+        assertThat(idsOf(first.get("cookies"))).containsExactly(3L, 4L, 5L);
+
+        var last = OBJECT_MAPPER.readTree(lastPage.getContentAsByteArray());
+        assertThat(last.has("next")).isFalse();
+        assertThat(idsOf(last.get("cookies"))).containsExactly(6L);
+    }
+
+    @Test
+    void testNamesHaveTheRequestedLength() throws Exception {
+        // when
+        var response = stream(get("/simulation/cookies").param("size", "2").param("nameLength", "40"));
+
+        // then
+        var cookies = OBJECT_MAPPER.readTree(response.getContentAsByteArray()).get("cookies");
+        assertThat(cookies.get(0).get("name").asText()).hasSize(40).startsWith("Cookie 0 Cookie 0");
+        assertThat(cookies.get(1).get("name").asText()).hasSize(40);
+    }
+
+    @Test
+    void testPagesExceedingTheLimitsAreRejected() throws Exception {
+        // when
+        var tooLarge = mockMvc.perform(get("/simulation/cookies").param("size", "100001")).andReturn().getResponse();
+        var empty = mockMvc.perform(get("/simulation/cookies").param("size", "0")).andReturn().getResponse();
+
+        // then
+        assertThat(tooLarge.getStatus()).isEqualTo(400);
+        assertThat(empty.getStatus()).isEqualTo(400);
+    }
+
+    @Test
+    void testCookiesAreWrittenAsXmlIfAccepted() throws Exception {
+        // when
+        var response = stream(get("/simulation/cookies")
+                .param("page", "0").param("size", "2").param("total", "3")
+                .accept(MediaType.APPLICATION_XML));
+
+        // then
+        assertThat(response.getContentType()).startsWith(MediaType.APPLICATION_XML_VALUE);
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(response.getContentAsByteArray()));
+        var root = document.getDocumentElement();
+        assertThat(root.getTagName()).isEqualTo("cookiePage");
+        assertThat(root.getElementsByTagName("next").item(0).getTextContent()).isEqualTo("1");
+        var ids = root.getElementsByTagName("id");
+        assertThat(ids.getLength()).isEqualTo(2);
+        assertThat(ids.item(1).getTextContent()).isEqualTo("1");
+    }
+
+    @Test
+    void testJsonIsPreferredIfBothAreAccepted() throws Exception {
+        // when
+        var response = stream(get("/simulation/cookies")
+                .param("size", "1")
+                .header(HttpHeaders.ACCEPT, "application/xml, application/json"));
+
+        // then
+        assertThat(response.getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(OBJECT_MAPPER.readTree(response.getContentAsByteArray()).get("cookies")).hasSize(1);
+    }
+
+    @Test
+    void testThrottledAttemptsAreAnsweredWithRetryAfter() throws Exception {
+        // given
+        var key = UUID.randomUUID().toString();
+
+        // when
+        List<MockHttpServletResponse> responses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            responses.add(mockMvc.perform(get("/simulation/throttle")
+                    .param("key", key).param("failures", "2").param("retryAfter", "5"))
+                    .andReturn().getResponse());
+        }
+
+        // then
+        assertThat(responses).extracting(MockHttpServletResponse::getStatus).containsExactly(429, 429, 200);
+        assertThat(responses.get(0).getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+        assertThat(responses.get(1).getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+        assertThat(responses.get(2).getHeader(HttpHeaders.RETRY_AFTER)).isNull();
+        assertThat(OBJECT_MAPPER.readTree(responses.get(2).getContentAsByteArray()).get("id").asLong()).isEqualTo(4711);
+    }
+
+    @Test
+    void testUnavailableAttemptsAreAnsweredWithRetryAfter() throws Exception {
+        // given
+        var key = UUID.randomUUID().toString();
+
+        // when
+        var unavailable = mockMvc.perform(get("/simulation/throttle")
+                .param("key", key).param("status", "503").param("retryAfter", "2")).andReturn().getResponse();
+        var available = mockMvc.perform(get("/simulation/throttle")
+                .param("key", key).param("status", "503").param("retryAfter", "2")).andReturn().getResponse();
+        var unsupported = mockMvc.perform(get("/simulation/throttle").param("status", "500")).andReturn().getResponse();
+
+        // then
+        assertThat(unavailable.getStatus()).isEqualTo(503);
+        assertThat(unavailable.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(available.getStatus()).isEqualTo(200);
+        assertThat(unsupported.getStatus()).isEqualTo(400);
+    }
+
+    @Test
+    void testCookiesAreStreamedInChunks() throws Exception {
+        // given
+        long startNanos = System.nanoTime();
+
+        // when
+        var response = stream(get("/simulation/stream")
+                .param("chunks", "3").param("chunkSize", "2").param("intervalMs", "50"));
+
+        // then
+        // a pause between two chunks each
+        assertThat(System.nanoTime() - startNanos).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(response.getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(idsOf(OBJECT_MAPPER.readTree(response.getContentAsByteArray())))
+                .containsExactly(0L, 1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void testBytesAreDrippedOverTheDuration() throws Exception {
+        // given
+        long startNanos = System.nanoTime();
+
+        // when
+        var response = stream(get("/simulation/drip").param("bytes", "105").param("durationMs", "200"));
+
+        // then
+        assertThat(System.nanoTime() - startNanos).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+        assertThat(response.getContentLength()).isEqualTo(105);
+        assertThat(response.getContentAsString()).hasSize(105).matches("\\*+");
+    }
+
+    @Test
+    void testSlowResponsesExceedingTheLimitsAreRejected() throws Exception {
+        // when
+        var drip = mockMvc.perform(get("/simulation/drip").param("durationMs", "60001")).andReturn().getResponse();
+        var stream = mockMvc.perform(get("/simulation/stream").param("chunks", "2").param("intervalMs", "30001"))
+                .andReturn().getResponse();
+
+        // then
+        assertThat(drip.getStatus()).isEqualTo(400);
+        assertThat(stream.getStatus()).isEqualTo(400);
+    }
+
+    // streamed bodies are written once the request is dispatched again
+    private MockHttpServletResponse stream(final MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        return mockMvc.perform(asyncDispatch(result)).andReturn().getResponse();
+    }
+
+    private static List<Long> idsOf(final JsonNode cookies) {
+        List<Long> ids = new ArrayList<>();
+        cookies.forEach(cookie -> ids.add(cookie.get("id").asLong()));
+        return ids;
+    }
+}
@@ -5,210 +5,304 @@ import de.leidenheit.core.exception.ItarazzoIllegalStateException;
 import de.leidenheit.core.exception.ItarazzoInterruptException;
 import de.leidenheit.core.exception.ItarazzoUnsupportedException;
 import de.leidenheit.core.execution.context.ExecutionResultContext;
+import de.leidenheit.core.execution.context.StepTimings;
+import de.leidenheit.core.execution.context.WorkflowOutputStore;
+import de.leidenheit.core.execution.listener.ExecutionListener;
+import de.leidenheit.core.execution.listener.ExecutionListeners;
 import de.leidenheit.core.model.ArazzoSpecification;
 import de.leidenheit.core.model.FailureAction;
-import de.leidenheit.core.model.SourceDescription;
 import de.leidenheit.core.model.Step;
 import de.leidenheit.core.model.SuccessAction;
 import de.leidenheit.core.model.Workflow;
 import de.leidenheit.infrastructure.evaluation.CriterionEvaluator;
 import de.leidenheit.infrastructure.resolving.ArazzoExpressionResolver;
-import lombok.Builder;
-import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
+@Slf4j
 public class ArazzoWorkflowExecutor {
 
-    private final ArazzoSpecification arazzo;
-    private final Map<String, Object> inputs;
-    private final Map<String, Map<String, Object>> outputsOfWorkflows; // key must start with sourceDescription
+    // step outputs are dropped from the resolver after their last use unless disabled
+    private static final boolean RELEASE_STEP_OUTPUTS =
+            Boolean.parseBoolean(System.getProperty("arazzo.step-outputs.release", "true"));
+
+    private final ExecutionPlan plan;
+    private final WorkflowOutputStore outputStore;
     private final ArazzoExpressionResolver resolver;
-    private final StepExecutor stepExecutor;
+    private final CriterionEvaluator criterionEvaluator;
+    private final Map<ArazzoSpecification, StepExecutor> stepExecutors = new IdentityHashMap<>(); // one per executed specification
+    private final ExecutionListener listener;
+    private final Map<String, List<StepTimings>> stepTimings = new LinkedHashMap<>(); // key is 'workflowId.stepId'
 
     public ArazzoWorkflowExecutor(final ArazzoSpecification arazzo, final Map<String, Object> inputs, final Map<String, Map<String, Object>> outputsOfWorkflows) {
-        this.arazzo = arazzo;
-        this.inputs = inputs;
-        this.outputsOfWorkflows = new HashMap<>(outputsOfWorkflows);
+        this(arazzo, inputs, WorkflowOutputStore.of(outputsOfWorkflows), ExecutionListeners.current());
+    }
 
-        this.resolver = ArazzoExpressionResolver.getInstance(arazzo, inputs);
+    public ArazzoWorkflowExecutor(final ArazzoSpecification arazzo,
+                                  final Map<String, Object> inputs,
+                                  final WorkflowOutputStore outputStore,
+                                  final ExecutionListener listener) {
+        this(ExecutionPlan.of(arazzo), inputs, outputStore, listener);
+    }
 
-        var criterionEvaluator = new CriterionEvaluator(resolver);
-        this.stepExecutor = new RestAssuredStepExecutor(arazzo, criterionEvaluator, resolver); // TODO step executor as dynamic factory
+    public ArazzoWorkflowExecutor(final ExecutionPlan plan,
+                                  final Map<String, Object> inputs,
+                                  final WorkflowOutputStore outputStore,
+                                  final ExecutionListener listener) {
+        this.plan = plan;
+        this.outputStore = outputStore;
+        this.listener = listener;
+
+        // the resolver holds the state of this execution, so executions running in parallel do not share it
+        this.resolver = new ArazzoExpressionResolver(plan.getArazzo(), inputs);
+        this.resolver.setWorkflowOutputs(outputStore);
+        this.criterionEvaluator = new CriterionEvaluator(resolver);
     }
 
     public Map<String, Map<String, Object>> executeWorkflow(final Workflow workflow) {
-        Map<String, Integer> retryCounters = new HashMap<>();
+        return executeWorkflow(plan.workflow(workflow));
+    }
+
+    private Map<String, Map<String, Object>> executeWorkflow(final WorkflowPlan workflowPlan) {
+        var workflow = workflowPlan.getWorkflow();
+        long startNanos = System.nanoTime();
+        listener.onWorkflowStart(workflow, startNanos);
+        boolean completed = false;
+        try {
+            var outputs = doExecuteWorkflow(workflowPlan);
+            completed = true;
+            return outputs;
+        } finally {
+            listener.onExpressionCacheStatistics(workflow, resolver.getCacheStatistics());
+            listener.onWorkflowEnd(workflow, startNanos, System.nanoTime() - startNanos, completed);
+        }
+    }
+
+    private Map<String, Map<String, Object>> doExecuteWorkflow(final WorkflowPlan workflowPlan) {
+        var workflow = workflowPlan.getWorkflow();
+        var stateMachine = workflowPlan.stateMachine();
+        var liveness = workflowPlan.liveness();
+        int[] retryCounters = stateMachine.newRetryCounters();
 
         int currentStepIndex = 0;
-        while (currentStepIndex < workflow.getSteps().size()) {
-            Step currentStep = workflow.getSteps().get(currentStepIndex);
+        while (currentStepIndex < stateMachine.stepCount()) {
+            Step currentStep = stateMachine.step(currentStepIndex);
 
             // execute referenced workflow as content of this step
             if (Objects.nonNull(currentStep.getWorkflowId())) {
-                executeToReferencedWorkflow(arazzo, currentStep, inputs);
+                executeToReferencedWorkflow(workflowPlan, currentStepIndex);
+                releaseStepOutputs(liveness.releasableAfter(currentStepIndex));
                 currentStepIndex++;
             } else {
                 // execute step content
-                System.out.printf("%nRunning step '%s' of workflow '%s'%n", currentStep.getStepId(), workflow.getWorkflowId());
-                var executionResult = stepExecutor.executeStep(workflow, currentStep);
-                ExecutionDecision executionDecision = handleExecutionResultActions(arazzo, workflow, currentStep, executionResult, inputs, retryCounters, resolver);
+                log.info("Running step '{}' of workflow '{}'", currentStep.getStepId(), workflow.getWorkflowId());
+                var executionResult = executeStep(workflowPlan, currentStepIndex);
+                int transition = handleExecutionResultActions(workflowPlan, currentStepIndex, executionResult, retryCounters);
+                releaseStepOutputs(liveness.releasableAfter(currentStepIndex));
 
-                if (executionDecision.isMustEnd()) break;
+                if (transition == WorkflowStateMachine.END) break;
 
-                if (Objects.isNull(executionDecision.nextStepIndex)) {
+                if (transition == WorkflowStateMachine.NEXT) {
                     // no specific reference, so choose sequentially the next step
                     currentStepIndex++;
                 } else {
                     // we got a reference, so apply it
-                    currentStepIndex = executionDecision.getNextStepIndex();
+                    currentStepIndex = transition;
                 }
             }
         }
 
-        outputsOfWorkflows.put(workflow.getWorkflowId(),handleOutputs(workflow, resolver));
-        return outputsOfWorkflows;
+        outputStore.put(workflow.getWorkflowId(), handleOutputs(workflow, resolver));
+        releaseStepOutputs(liveness.releasableAtEnd());
+        return outputStore.snapshot();
     }
 
-    private ExecutionDecision handleExecutionResultActions(final ArazzoSpecification arazzo,
-                                                           final Workflow workflow,
-                                                           final Step currentStep,
-                                                           final ExecutionResultContext executionResultContext,
-                                                           final Map<String, Object> inputs,
-                                                           final Map<String, Integer> retryCounters,
-                                                           final ArazzoExpressionResolver resolver) {
-        if (executionResultContext.isSuccessful()) {
-            var successActions = collectSuccessActions(workflow, executionResultContext);
-            return handleSuccessActions(arazzo, successActions, workflow);
-        } else {
-            var failureActions = collectFailureActions(workflow, executionResultContext);
+    private ExecutionResultContext executeStep(final WorkflowPlan workflowPlan, final int stepIndex) {
+        var workflow = workflowPlan.getWorkflow();
+        var stateMachine = workflowPlan.stateMachine();
+        var step = stateMachine.step(stepIndex);
+        long startNanos = System.nanoTime();
+        listener.onStepStart(workflow, step, startNanos);
+        ExecutionResultContext executionResult = null;
+        try {
+            executionResult = stepExecutorOf(workflowPlan.getPlan().getArazzo()).executeStep(workflow, step);
+            return executionResult;
+        } finally {
+            long durationNanos = System.nanoTime() - startNanos;
+            if (Objects.nonNull(executionResult) && Objects.nonNull(executionResult.getTimings())) {
+                stepTimings.computeIfAbsent(stateMachine.stepKey(stepIndex), k -> new ArrayList<>())
+                        .add(executionResult.getTimings());
+                listener.onStepTimings(workflow, step, executionResult.getTimings());
+            }
+            listener.onStepEnd(workflow, step, startNanos, durationNanos,
+                    Objects.nonNull(executionResult) && executionResult.isSuccessful());
+        }
+    }
 
-            if (failureActions.isEmpty()) throw new ItarazzoInterruptException(
-                    "Empty set of failure actions for unsuccessful operation: workflowId='%s' stepId='%s'".formatted(
-                            workflow.getWorkflowId(), currentStep.getStepId()));
+    private void releaseStepOutputs(final Collection<String> keys) {
+        if (!RELEASE_STEP_OUTPUTS || keys.isEmpty()) return;
+        log.debug("Releasing step outputs {}", keys);
+        keys.forEach(resolver::removeResolved);
+    }
 
-            return handleFailureActions(arazzo, failureActions, currentStep, workflow, retryCounters, inputs, resolver);
-        }
+    public WorkflowOutputStore getOutputStore() {
+        return outputStore;
     }
 
-    private ExecutionDecision handleGotoStepAction(final String stepId, final Workflow workflow) {
-        var index = findStepIndexById(workflow, stepId);
-        return ExecutionDecision.builder().nextStepIndex(index).mustEnd(false).build();
+    /**
+     * @return timings of all executed steps by 'workflowId.stepId' in execution order; retried steps have one
+     * entry per attempt
+     */
+    public Map<String, List<StepTimings>> getStepTimings() {
+        return Collections.unmodifiableMap(stepTimings);
     }
 
-    private ExecutionDecision handleGotoWorkflowAction(final ArazzoSpecification arazzo,
-                                                       final String workflowId) {
-        var refOutputs = handleWorkflowIdExecutionReference(arazzo, workflowId);
-        outputsOfWorkflows.putAll(refOutputs);
-        // one-way to another workflow will end the current workflow execution
-        return ExecutionDecision.builder().mustEnd(true).build();
+    /**
+     * @return index of the step to continue with, {@link WorkflowStateMachine#NEXT} or {@link WorkflowStateMachine#END}
+     */
+    private int handleExecutionResultActions(final WorkflowPlan workflowPlan,
+                                             final int stepIndex,
+                                             final ExecutionResultContext executionResultContext,
+                                             final int[] retryCounters) {
+        var workflow = workflowPlan.getWorkflow();
+        var stateMachine = workflowPlan.stateMachine();
+        if (executionResultContext.isSuccessful()) {
+            // actions of the workflow take precedence over the action chosen by the step
+            for (SuccessAction successAction : stateMachine.workflowSuccessActions()) {
+                int transition = handleSuccessAction(workflowPlan, stepIndex, successAction);
+                if (transition != WorkflowStateMachine.NEXT) return transition;
+            }
+            if (Objects.nonNull(executionResultContext.getSuccessAction())) {
+                return handleSuccessAction(workflowPlan, stepIndex, executionResultContext.getSuccessAction());
+            }
+            // stick to sequential execution due to no success actions
+            return WorkflowStateMachine.NEXT;
+        }
+
+        if (stateMachine.workflowFailureActions().length == 0 && Objects.isNull(executionResultContext.getFailureAction())) {
+            throw new ItarazzoInterruptException(
+                    "Empty set of failure actions for unsuccessful operation: workflowId='%s' stepId='%s'".formatted(
+                            workflow.getWorkflowId(), stateMachine.step(stepIndex).getStepId()));
+        }
+        for (FailureAction failureAction : stateMachine.workflowFailureActions()) {
+            int transition = handleFailureAction(workflowPlan, stepIndex, failureAction, retryCounters);
+            if (transition != WorkflowStateMachine.NEXT) return transition;
+        }
+        if (Objects.nonNull(executionResultContext.getFailureAction())) {
+            return handleFailureAction(workflowPlan, stepIndex, executionResultContext.getFailureAction(), retryCounters);
+        }
+        // stick to sequential execution due to no failure actions
+        return WorkflowStateMachine.NEXT;
     }
 
-    private ExecutionDecision handleEndAction() {
-        return ExecutionDecision.builder().mustEnd(true).build();
+    private int handleGotoStepAction(final int targetStepIndex, final String stepId) {
+        if (targetStepIndex < 0) throw new ItarazzoIllegalStateException("Step not found: '%s'".formatted(stepId));
+        return targetStepIndex;
     }
 
-    private ExecutionDecision handleRetryAction(final Workflow workflow, final String retryStepId, final Long retryAfter) {
-        doWait(retryAfter);
-        return ExecutionDecision.builder()
-                .nextStepIndex(findStepIndexById(workflow, retryStepId))
-                .mustEnd(false)
-                .build();
+    private int handleGotoWorkflowAction(final WorkflowPlan workflowPlan, final String workflowId) {
+        handleWorkflowIdExecutionReference(workflowPlan, workflowId);
+        // one-way to another workflow will end the current workflow execution
+        return WorkflowStateMachine.END;
     }
 
-    private ExecutionDecision handleSuccessActions(final ArazzoSpecification arazzo,
-                                                   final List<SuccessAction> actionList,
-                                                   final Workflow workflow) {
-        for (SuccessAction successAction : actionList) {
-            switch (successAction.getType()) {
-                case GOTO -> {
-                    // find referenced step or workflow to execute
-                    if (Objects.nonNull(successAction.getStepId())) {
-                        System.out.printf("=> SuccessAction ['%s' as %s]: interrupts sequential execution and moves to step '%s'%n",
-                                successAction.getName(), successAction.getType(), successAction.getStepId());
-                        return handleGotoStepAction(successAction.getStepId(), workflow);
-                    } else if (Objects.nonNull(successAction.getWorkflowId())) {
-                        System.out.printf("=> SuccessAction ['%s' as %s]: interrupts sequential execution and moves to workflow '%s'%n",
-                                successAction.getName(), successAction.getType(), successAction.getWorkflowId());
-
-                        return handleGotoWorkflowAction(arazzo, successAction.getWorkflowId());
-                    }
+    private int handleSuccessAction(final WorkflowPlan workflowPlan,
+                                    final int stepIndex,
+                                    final SuccessAction successAction) {
+        var workflow = workflowPlan.getWorkflow();
+        var stateMachine = workflowPlan.stateMachine();
+        var currentStep = stateMachine.step(stepIndex);
+        listener.onActionChosen(workflow, currentStep, successAction.getName(), successAction.getType().name(), System.nanoTime());
+        switch (successAction.getType()) {
+            case GOTO -> {
+                // find referenced step or workflow to execute
+                if (Objects.nonNull(successAction.getStepId())) {
+                    log.info("=> SuccessAction ['{}' as {}]: interrupts sequential execution and moves to step '{}'",
+                            successAction.getName(), successAction.getType(), successAction.getStepId());
+                    return handleGotoStepAction(stateMachine.targetOf(stepIndex, successAction), successAction.getStepId());
+                } else if (Objects.nonNull(successAction.getWorkflowId())) {
+                    log.info("=> SuccessAction ['{}' as {}]: interrupts sequential execution and moves to workflow '{}'",
+                            successAction.getName(), successAction.getType(), successAction.getWorkflowId());
+                    return handleGotoWorkflowAction(workflowPlan, successAction.getWorkflowId());
                 }
-                case END -> {
-                    System.out.printf("=> SuccessAction ['%s' as %s]: ends workflow%n", successAction.getName(), successAction.getType());
-                    return handleEndAction();
-                }
-                default -> throw new ItarazzoUnsupportedException("No implementation for action: name='%s' type='%s'".formatted(
-                        successAction.getName(), successAction.getType()));
+                return WorkflowStateMachine.NEXT;
+            }
+            case END -> {
+                log.info("=> SuccessAction ['{}' as {}]: ends workflow", successAction.getName(), successAction.getType());
+                return WorkflowStateMachine.END;
             }
+            default -> throw new ItarazzoUnsupportedException("No implementation for action: name='%s' type='%s'".formatted(
+                    successAction.getName(), successAction.getType()));
         }
-        // stick to sequential execution due to no success actions
-        return ExecutionDecision.builder().mustEnd(false).build();
     }
 
-    private ExecutionDecision handleFailureActions(final ArazzoSpecification arazzo,
-                                                   final List<FailureAction> actionList,
-                                                   final Step currentStep,
-                                                   final Workflow workflow,
-                                                   final Map<String, Integer> retryCounters,
-                                                   final Map<String, Object> inputs,
-                                                   final ArazzoExpressionResolver resolver) {
-        for (FailureAction failureAction : actionList) {
-            switch (failureAction.getType()) {
-                case GOTO -> {
-                    // find referenced step or workflow to execute
-                    if (Objects.nonNull(failureAction.getStepId())) {
-                        System.out.printf("=> FailureAction ['%s' as %s]: interrupts sequential execution and moves to step '%s'%n",
-                                failureAction.getName(), failureAction.getType(), failureAction.getStepId());
-                        return handleGotoStepAction(failureAction.getStepId(), workflow);
-                    } else if (Objects.nonNull(failureAction.getWorkflowId())) {
-                        System.out.printf("=> FailureAction ['%s' as %s]: interrupts sequential execution and moves to workflow '%s'%n",
-                                failureAction.getName(), failureAction.getType(), failureAction.getWorkflowId());
-                        return handleGotoWorkflowAction(arazzo, failureAction.getWorkflowId());
-                    }
+    private int handleFailureAction(final WorkflowPlan workflowPlan,
+                                    final int stepIndex,
+                                    final FailureAction failureAction,
+                                    final int[] retryCounters) {
+        var workflow = workflowPlan.getWorkflow();
+        var stateMachine = workflowPlan.stateMachine();
+        var currentStep = stateMachine.step(stepIndex);
+        listener.onActionChosen(workflow, currentStep, failureAction.getName(), failureAction.getType().name(), System.nanoTime());
+        switch (failureAction.getType()) {
+            case GOTO -> {
+                // find referenced step or workflow to execute
+                if (Objects.nonNull(failureAction.getStepId())) {
+                    log.info("=> FailureAction ['{}' as {}]: interrupts sequential execution and moves to step '{}'",
+                            failureAction.getName(), failureAction.getType(), failureAction.getStepId());
+                    return handleGotoStepAction(stateMachine.targetOf(stepIndex, failureAction), failureAction.getStepId());
+                } else if (Objects.nonNull(failureAction.getWorkflowId())) {
+                    log.info("=> FailureAction ['{}' as {}]: interrupts sequential execution and moves to workflow '{}'",
+                            failureAction.getName(), failureAction.getType(), failureAction.getWorkflowId());
+                    return handleGotoWorkflowAction(workflowPlan, failureAction.getWorkflowId());
                 }
-                case END -> {
-                    System.out.printf("=> FailureAction ['%s' as %s]: ends workflow%n", failureAction.getName(), failureAction.getType());
-                    return handleEndAction();
-                }
-                case RETRY -> {
-                    int retryCount = retryCounters.getOrDefault(currentStep.getStepId(), 0);
-                    retryCount++;
-
-                    if (retryCount >= failureAction.getRetryLimit()) throw new ItarazzoInterruptException(
-                            "Reached retry limit for step failure action %s(type=%s)".formatted(
-                                    failureAction.getName(), failureAction.getType()));
-
-                    retryCounters.put(currentStep.getStepId(), retryCount);
-                    System.out.printf("=> FailureAction ['%s as %s']: Retrying %s/%s after waiting %s seconds%n",
-                            failureAction.getName(),
-                            failureAction.getType(),
-                            retryCount + 1,
-                            failureAction.getRetryLimit(),
-                            failureAction.getRetryAfter().longValue());
-
-                    // execute actions defined to run before any retry attempt
-                    if (Objects.nonNull(failureAction.getStepId())) {
-                        handleStepIdExecutionReference(arazzo, workflow, failureAction.getStepId(), inputs, resolver);
-                    } else if (Objects.nonNull(failureAction.getWorkflowId())) {
-                        var refOutputs = handleWorkflowIdExecutionReference(arazzo, failureAction.getWorkflowId());
-                        outputsOfWorkflows.putAll(refOutputs);
-                    }
-
-                    // retry the current step
-                    var retryAfter = failureAction.getRetryAfter().longValue();
-                    return handleRetryAction(workflow, currentStep.getStepId(), retryAfter);
+                return WorkflowStateMachine.NEXT;
+            }
+            case END -> {
+                log.info("=> FailureAction ['{}' as {}]: ends workflow", failureAction.getName(), failureAction.getType());
+                return WorkflowStateMachine.END;
+            }
+            case RETRY -> {
+                int retryCount = retryCounters[stepIndex] + 1;
+
+                if (retryCount >= failureAction.getRetryLimit()) throw new ItarazzoInterruptException(
+                        "Reached retry limit for step failure action %s(type=%s)".formatted(
+                                failureAction.getName(), failureAction.getType()));
+
+                retryCounters[stepIndex] = retryCount;
+                listener.onRetryScheduled(workflow, currentStep, retryCount + 1, failureAction.getRetryLimit(),
+                        System.nanoTime(), TimeUnit.SECONDS.toNanos(failureAction.getRetryAfter().longValue()));
+                log.info("=> FailureAction ['{}' as {}]: Retrying {}/{} after waiting {} seconds",
+                        failureAction.getName(),
+                        failureAction.getType(),
+                        retryCount + 1,
+                        failureAction.getRetryLimit(),
+                        failureAction.getRetryAfter());
+
+                // execute actions defined to run before any retry attempt
+                if (Objects.nonNull(failureAction.getStepId())) {
+                    handleStepIdExecutionReference(workflowPlan, stateMachine.targetOf(stepIndex, failureAction), retryCounters);
+                } else if (Objects.nonNull(failureAction.getWorkflowId())) {
+                    handleWorkflowIdExecutionReference(workflowPlan, failureAction.getWorkflowId());
                 }
-                default -> throw new ItarazzoUnsupportedException("No implementation for action: name='%s' type='%s'".formatted(
-                        failureAction.getName(), failureAction.getType()));
+
+                // retry the current step
+                doWait(failureAction.getRetryAfter().longValue());
+                return stepIndex;
             }
+            default -> throw new ItarazzoUnsupportedException("No implementation for action: name='%s' type='%s'".formatted(
+                    failureAction.getName(), failureAction.getType()));
         }
-        // stick to sequential execution due to no failure actions
-        return ExecutionDecision.builder().mustEnd(false).build();
     }
 
     private Map<String, Object> handleOutputs(final Workflow workflow, final ArazzoExpressionResolver resolver) {
@@ -232,103 +326,43 @@ public class ArazzoWorkflowExecutor {
         return resolvedOutputs;
     }
 
-    private ExecutionDecision handleStepIdExecutionReference(final ArazzoSpecification arazzo,
-                                                             final Workflow workflow,
-                                                             final String referencedStepId,
-                                                             final Map<String, Object> inputs,
-                                                             final ArazzoExpressionResolver resolver) {
-        var refStep = workflow.getSteps().stream()
-                .filter(step -> referencedStepId.contains(step.getStepId()))
-                .findFirst()
-                // TODO replace with exception
-                .orElseThrow(() -> new RuntimeException("Unexpected"));
-        var executionResult = stepExecutor.executeStep(workflow, refStep);
-        return handleExecutionResultActions(arazzo, workflow, refStep, executionResult, inputs, null, resolver);
+    private void handleStepIdExecutionReference(final WorkflowPlan workflowPlan,
+                                                final int referencedStepIndex,
+                                                final int[] retryCounters) {
+        if (referencedStepIndex < 0) throw new ItarazzoIllegalStateException(
+                "Step to run before the retry not found in workflow '%s'".formatted(workflowPlan.getWorkflow().getWorkflowId()));
+        var executionResult = executeStep(workflowPlan, referencedStepIndex);
+        handleExecutionResultActions(workflowPlan, referencedStepIndex, executionResult, retryCounters);
+        releaseStepOutputs(workflowPlan.liveness().releasableAfter(referencedStepIndex));
     }
 
-    private Map<String, Map<String, Object>> handleWorkflowIdExecutionReference(final ArazzoSpecification arazzo,
+    private Map<String, Map<String, Object>> handleWorkflowIdExecutionReference(final WorkflowPlan workflowPlan,
                                                                                 final String referencedWorkflowId) {
-        var workflowToTransferTo = findWorkflowByWorkflowId(arazzo, referencedWorkflowId);
-        return executeWorkflow(workflowToTransferTo);
-    }
-
-    private SourceDescription findRelevantSourceDescriptionByWorkflowId(final ArazzoSpecification arazzo, final String workflowId) {
-        var sourceDescription = arazzo.getSourceDescriptions().get(0);
-        if (arazzo.getSourceDescriptions().size() > 1) {
-            sourceDescription = arazzo.getSourceDescriptions().stream()
-                    .filter(s -> workflowId.contains(s.getName()))
-                    .findFirst()
-                    // TODO replace with exception
-                    .orElseThrow(() -> new RuntimeException("Unexpected"));
-        }
-        return sourceDescription;
-    }
-
-    private Workflow findWorkflowByWorkflowId(final ArazzoSpecification arazzo, final String workflowId) {
-        return arazzo.getWorkflows().stream()
-                .filter(wf -> workflowId.contains(wf.getWorkflowId()))
-                .findFirst()
-                // TODO replace with exception
-                .orElseThrow(() -> new RuntimeException("Unexpected"));
+        return executeWorkflow(workflowPlan.getPlan().workflow(referencedWorkflowId));
     }
 
-    private int findStepIndexById(final Workflow workflow, final String stepId) {
-        for (int i = 0; i < workflow.getSteps().size(); i++) {
-            if (workflow.getSteps().get(i).getStepId().equals(stepId)) {
-                return i;
-            }
-        }
-        // TODO replace with exception
-        throw new RuntimeException("Step not found: " + stepId);
-    }
+    private void executeToReferencedWorkflow(final WorkflowPlan workflowPlan, final int stepIndex) {
+        var currentStep = workflowPlan.stateMachine().step(stepIndex);
+        var referencedWorkflow = workflowPlan.referencedWorkflow(stepIndex);
+        if (Objects.isNull(referencedWorkflow)) throw new ItarazzoIllegalStateException(
+                "Workflow '%s' referenced by step '%s' not found".formatted(currentStep.getWorkflowId(), currentStep.getStepId()));
+        var refWorkflowPlan = referencedWorkflow.resolve();
 
-    private List<SuccessAction> collectSuccessActions(final Workflow workflow, final ExecutionResultContext executionResultContext) {
-        List<SuccessAction> actions = new ArrayList<>();
-        if (workflow.getSuccessActions() != null) {
-            actions.addAll(workflow.getSuccessActions());
-        }
-        if (executionResultContext.getSuccessAction() != null) {
-            actions.add(executionResultContext.getSuccessAction());
-        }
-        return actions;
+        log.info("Step ['{}']: delegates to workflow '{}' by reference", currentStep.getStepId(), refWorkflowPlan.getWorkflow().getWorkflowId());
+        executeWorkflow(refWorkflowPlan);
     }
 
-    private List<FailureAction> collectFailureActions(final Workflow workflow, final ExecutionResultContext executionResultContext) {
-        List<FailureAction> actions = new ArrayList<>();
-        if (workflow.getFailureActions() != null) {
-            actions.addAll(workflow.getFailureActions());
-        }
-        if (executionResultContext.getFailureAction() != null) {
-            actions.add(executionResultContext.getFailureAction());
-        }
-        return actions;
-    }
-
-    private void executeToReferencedWorkflow(final ArazzoSpecification arazzo,
-                                             final Step currentStep,
-                                             final Map<String, Object> inputs) {
-        var sourceDescription = findRelevantSourceDescriptionByWorkflowId(arazzo, currentStep.getWorkflowId());
-        var refWorkflow = findWorkflowByWorkflowId(sourceDescription.getReferencedArazzo(), currentStep.getWorkflowId());
-
-        System.out.printf("Step ['%s']: delegates to workflow '%s' by reference%n", currentStep.getStepId(), refWorkflow.getWorkflowId());
-        var workflowExecutor = new ArazzoWorkflowExecutor(sourceDescription.getReferencedArazzo(), inputs, outputsOfWorkflows);
-        var refWorkflowOutputs = workflowExecutor.executeWorkflow(refWorkflow);
-        outputsOfWorkflows.putAll(refWorkflowOutputs);
+    private StepExecutor stepExecutorOf(final ArazzoSpecification arazzo) {
+        // TODO step executor as dynamic factory
+        return stepExecutors.computeIfAbsent(arazzo, spec -> new RestAssuredStepExecutor(spec, criterionEvaluator, resolver, listener));
     }
 
     private void doWait(final Long seconds) {
         try {
             Thread.sleep(seconds * 1000L);
         } catch (InterruptedException e) {
-            // TODO replace with exception
-            throw new RuntimeException(e);
+            Thread.currentThread().interrupt();
+            throw new ItarazzoInterruptException("Interrupted while waiting to retry", e);
         }
     }
-
-    @Data
-    @Builder
-    private static class ExecutionDecision {
-        private Integer nextStepIndex;
-        private boolean mustEnd;
-    }
 }
@@ -0,0 +1,119 @@
+package de.leidenheit.core.execution;
+
+import de.leidenheit.core.exception.ItarazzoIllegalStateException;
+import de.leidenheit.core.model.ArazzoSpecification;
+import de.leidenheit.core.model.Workflow;
+import de.leidenheit.infrastructure.parsing.LazyWorkflowList;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Compiled form of an arazzo specification that is executed by {@link ArazzoWorkflowExecutor}.
+ * <p>
+ * Workflows are compiled into {@link WorkflowPlan}s on first use in order to keep lazy workflows unmaterialized;
+ * {@link #compile(ArazzoSpecification)} compiles all of them upfront. Plans hold no execution state, so a single
+ * plan is shared by all executions and threads; it is cached per specification instance.
+ */
+public final class ExecutionPlan {
+
+    private static final Map<ArazzoSpecification, ExecutionPlan> PLANS = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final ArazzoSpecification arazzo;
+    private final List<String> workflowIds;
+    private final AtomicReferenceArray<WorkflowPlan> workflowPlans;
+
+    private ExecutionPlan(final ArazzoSpecification arazzo) {
+        this.arazzo = arazzo;
+        this.workflowIds = List.copyOf(LazyWorkflowList.workflowIdsOf(arazzo.getWorkflows()));
+        this.workflowPlans = new AtomicReferenceArray<>(workflowIds.size());
+    }
+
+    public static ExecutionPlan of(final ArazzoSpecification arazzo) {
+        return PLANS.computeIfAbsent(arazzo, ExecutionPlan::new);
+    }
+
+    /**
+     * @return the plan of the specification with all of its workflows compiled
+     */
+    public static ExecutionPlan compile(final ArazzoSpecification arazzo) {
+        var plan = of(arazzo);
+        for (int i = 0; i < plan.workflowIds.size(); i++) {
+            plan.workflowAt(i);
+        }
+        return plan;
+    }
+
+    public ArazzoSpecification getArazzo() {
+        return arazzo;
+    }
+
+    /**
+     * @param workflowId id of the workflow or an expression containing it, e.g. '$sourceDescriptions.api.workflowId'
+     */
+    public WorkflowPlan workflow(final String workflowId) {
+        var index = indexOf(workflowId);
+        if (index < 0) {
+            throw new ItarazzoIllegalStateException("Workflow '%s' is not declared by the arazzo specification".formatted(workflowId));
+        }
+        return workflowAt(index);
+    }
+
+    public WorkflowPlan workflow(final Workflow workflow) {
+        var index = workflowIds.indexOf(workflow.getWorkflowId());
+        if (index >= 0) {
+            var workflowPlan = workflowAt(index);
+            if (workflowPlan.getWorkflow() == workflow) return workflowPlan;
+        }
+        // workflows which are not part of the specification are compiled for this use only
+        return new WorkflowPlan(this, workflow);
+    }
+
+    /**
+     * @return handle of a workflow referenced by a step, located through the source descriptions of this specification
+     */
+    WorkflowHandle referencedWorkflow(final String workflowId) {
+        var sourceDescription = arazzo.getSourceDescriptions().get(0);
+        if (arazzo.getSourceDescriptions().size() > 1) {
+            sourceDescription = arazzo.getSourceDescriptions().stream()
+                    .filter(s -> workflowId.contains(s.getName()))
+                    .findFirst()
+                    .orElse(null);
+        }
+        if (Objects.isNull(sourceDescription) || Objects.isNull(sourceDescription.getReferencedArazzo())) return null;
+
+        var referencedPlan = ExecutionPlan.of(sourceDescription.getReferencedArazzo());
+        var index = referencedPlan.indexOf(workflowId);
+        return index < 0 ? null : new WorkflowHandle(referencedPlan, index);
+    }
+
+    private int indexOf(final String workflowId) {
+        for (int i = 0; i < workflowIds.size(); i++) {
+            if (workflowId.contains(workflowIds.get(i))) return i;
+        }
+        return -1;
+    }
+
+    private WorkflowPlan workflowAt(final int index) {
+        var workflowPlan = workflowPlans.get(index);
+        if (Objects.isNull(workflowPlan)) {
+            workflowPlans.compareAndSet(index, null, new WorkflowPlan(this, arazzo.getWorkflows().get(index)));
+            workflowPlan = workflowPlans.get(index);
+        }
+        return workflowPlan;
+    }
+
+    /**
+     * Workflow of a plan addressed by its index; compiled into its plan on first use, which allows cyclic references.
+     */
+    record WorkflowHandle(ExecutionPlan plan, int index) {
+
+        WorkflowPlan resolve() {
+            return plan.workflowAt(index);
+        }
+    }
+}
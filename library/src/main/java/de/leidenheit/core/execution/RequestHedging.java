@@ -0,0 +1,263 @@
+package de.leidenheit.core.execution;
+
+import de.leidenheit.core.execution.context.StepTimings;
+import de.leidenheit.core.execution.listener.ExecutionListener;
+import de.leidenheit.core.execution.listener.LatencyHistogram;
+import de.leidenheit.core.execution.transport.StepTransport;
+import de.leidenheit.core.model.Step;
+import de.leidenheit.core.model.Workflow;
+import io.restassured.RestAssured;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hedges the requests of safe steps: if no response arrived within a percentile of the latencies observed for the
+ * step, a duplicate request is sent, the first response is taken and the other request is aborted.
+ * <p>
+ * Steps opt in by the extension {@value #EXTENSION_HEDGING}, either 'true' or an object of a 'percentile' and
+ * a 'budget', the share of the requests of the step which may be hedged; otherwise the defaults apply if hedging is
+ * enabled for all steps. A step is hedged only once its latencies have been observed {@value #MINIMUM_SAMPLES} times.
+ * <p>
+ * The duplicate passes through the filters following the hedging one, i.e. the rate and concurrency limits and the
+ * bookkeeping of the server, and is sent to the same server.
+ */
+@Slf4j
+final class RequestHedging {
+
+    static final String EXTENSION_HEDGING = "x-arazzo-hedging";
+
+    // duplicated requests have to be free of side effects
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final int MINIMUM_SAMPLES = 20;
+    private static final int PENDING = 0;
+    private static final int PRIMARY_WON = 1;
+    private static final int HEDGE_WON = 2;
+
+    private static final ExecutorService HEDGES = Executors.newCachedThreadPool(runnable -> {
+        var thread = new Thread(runnable, "arazzo-hedge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final boolean enabledByDefault;
+    private final double defaultPercentile;
+    private final double defaultBudget;
+    private final Map<Step, StepHedging> steps = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    RequestHedging(final boolean enabledByDefault, final double defaultPercentile, final double defaultBudget) {
+        this.enabledByDefault = enabledByDefault;
+        this.defaultPercentile = defaultPercentile;
+        this.defaultBudget = defaultBudget;
+    }
+
+    /**
+     * @return filter hedging the requests of the step, or null if the step is not hedged
+     */
+    Filter filterFor(final Workflow workflow, final Step step, final ExecutionListener listener) {
+        var stepHedging = steps.computeIfAbsent(step, this::stepHedgingOf);
+        if (Objects.isNull(stepHedging)) return null;
+        return new HedgingFilter(stepHedging, workflow, step, listener);
+    }
+
+    private StepHedging stepHedgingOf(final Step step) {
+        var extension = Objects.nonNull(step.getExtensions()) ? step.getExtensions().get(EXTENSION_HEDGING) : null;
+        if (Objects.isNull(extension)) return enabledByDefault ? new StepHedging(defaultPercentile, defaultBudget) : null;
+        if (extension instanceof Map<?, ?> values) {
+            return new StepHedging(
+                    numberOf(values.get("percentile"), defaultPercentile),
+                    numberOf(values.get("budget"), defaultBudget));
+        }
+        return Boolean.parseBoolean(String.valueOf(extension)) ? new StepHedging(defaultPercentile, defaultBudget) : null;
+    }
+
+    private static Response filter(final HedgingFilter hedgingFilter,
+                                   final FilterableRequestSpecification requestSpec,
+                                   final FilterableResponseSpecification responseSpec,
+                                   final FilterContext ctx) {
+        var stepHedging = hedgingFilter.stepHedging;
+        if (!SAFE_METHODS.contains(requestSpec.getMethod().toUpperCase(Locale.ROOT)) || Objects.nonNull(requestSpec.getBody())) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+
+        long sentNanos = System.nanoTime();
+        long delayNanos = stepHedging.delayNanos();
+        var abortPrimary = TimingHttpClientFactory.currentAbort();
+        if (delayNanos < 0 || Objects.isNull(abortPrimary)) {
+            var response = ctx.next(requestSpec, responseSpec);
+            stepHedging.record(System.nanoTime() - sentNanos);
+            return response;
+        }
+
+        var winner = new AtomicInteger(PENDING);
+        var hedged = new AtomicBoolean();
+        var abortHedge = new AtomicReference<Runnable>();
+        var hedge = CompletableFuture.supplyAsync(() -> {
+            if (winner.get() != PENDING || !stepHedging.tryHedge()) return null;
+            hedged.set(true);
+            var response = sendHedge(requestSpec, downstreamOf(requestSpec, hedgingFilter), abortHedge, winner);
+            if (winner.compareAndSet(PENDING, HEDGE_WON)) abortPrimary.run();
+            return response;
+        }, CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, HEDGES));
+
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (Exception e) {
+            // an aborted request fails by whatever the http client throws
+            if (winner.get() != HEDGE_WON) {
+                abandon(hedge, abortHedge, winner);
+                throw e;
+            }
+            response = null;
+        }
+        if (Objects.nonNull(response) && winner.compareAndSet(PENDING, PRIMARY_WON)) {
+            abandon(hedge, abortHedge, winner);
+        } else {
+            // the hedge won; the primary request has been aborted or completed in the meantime
+            response = hedge.join();
+        }
+
+        stepHedging.record(System.nanoTime() - sentNanos);
+        if (hedged.get()) {
+            hedgingFilter.listener.onRequestHedged(
+                    hedgingFilter.workflow, hedgingFilter.step, sentNanos, delayNanos, winner.get() == HEDGE_WON);
+        }
+        return response;
+    }
+
+    /**
+     * @return the filters of the request following the given one
+     */
+    private static List<Filter> downstreamOf(final FilterableRequestSpecification requestSpec, final Filter filter) {
+        var filters = requestSpec.getDefinedFilters();
+        for (int i = 0; i < filters.size(); i++) {
+            if (filters.get(i) == filter) return List.copyOf(filters.subList(i + 1, filters.size()));
+        }
+        return List.of();
+    }
+
+    /**
+     * Sends a duplicate of the request through the given filters.
+     */
+    private static Response sendHedge(final FilterableRequestSpecification requestSpec,
+                                      final List<Filter> filters,
+                                      final AtomicReference<Runnable> abortHedge,
+                                      final AtomicInteger winner) {
+        TimingHttpClientFactory.bind(new StepTimings());
+        try {
+            abortHedge.set(TimingHttpClientFactory.currentAbort());
+            // the primary may have won while the abort was not yet set
+            if (winner.get() == PRIMARY_WON) abortHedge.get().run();
+            var response = RestAssured.given()
+                    .config(requestSpec.getConfig())
+                    .urlEncodingEnabled(false)
+                    .headers(requestSpec.getHeaders())
+                    .cookies(requestSpec.getCookies())
+                    .filters(filters)
+                    .request(requestSpec.getMethod(), requestSpec.getURI());
+            // detached from the connection of the hedge
+            return StepTransport.responseOf(response.statusCode(), List.copyOf(response.getHeaders().asList()),
+                    response.asByteArray());
+        } finally {
+            TimingHttpClientFactory.unbind();
+        }
+    }
+
+    private static void abandon(final CompletableFuture<Response> hedge,
+                                final AtomicReference<Runnable> abortHedge,
+                                final AtomicInteger winner) {
+        winner.compareAndSet(PENDING, PRIMARY_WON);
+        // a hedge not yet sent is not sent at all, one in flight is aborted
+        hedge.cancel(false);
+        var abort = abortHedge.get();
+        if (Objects.nonNull(abort)) abort.run();
+    }
+
+    private static double numberOf(final Object value, final double defaultValue) {
+        if (Objects.isNull(value)) return defaultValue;
+        if (value instanceof Number number) return number.doubleValue();
+        return Double.parseDouble(String.valueOf(value));
+    }
+
+    private static final class HedgingFilter implements Filter {
+
+        private final StepHedging stepHedging;
+        private final Workflow workflow;
+        private final Step step;
+        private final ExecutionListener listener;
+
+        private HedgingFilter(final StepHedging stepHedging, final Workflow workflow, final Step step,
+                              final ExecutionListener listener) {
+            this.stepHedging = stepHedging;
+            this.workflow = workflow;
+            this.step = step;
+            this.listener = listener;
+        }
+
+        @Override
+        public Response filter(final FilterableRequestSpecification requestSpec,
+                               final FilterableResponseSpecification responseSpec,
+                               final FilterContext ctx) {
+            return RequestHedging.filter(this, requestSpec, responseSpec, ctx);
+        }
+    }
+
+    private static final class StepHedging {
+
+        private final double percentile;
+        private final double budget;
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private long requests;
+        private long hedges;
+
+        StepHedging(final double percentile, final double budget) {
+            if (percentile <= 0 || percentile >= 100 || budget < 0 || budget > 1) {
+                throw new IllegalArgumentException("Invalid hedging of percentile %s and budget %s".formatted(percentile, budget));
+            }
+            this.percentile = percentile;
+            this.budget = budget;
+        }
+
+        /**
+         * @return delay after which the request is hedged, or -1 if too few latencies have been observed
+         */
+        long delayNanos() {
+            synchronized (this) {
+                requests++;
+            }
+            return latencies.getCount() < MINIMUM_SAMPLES ? -1 : latencies.getPercentileNanos(percentile);
+        }
+
+        void record(final long latencyNanos) {
+            latencies.record(latencyNanos);
+        }
+
+        /**
+         * @return whether the budget allows another hedge
+         */
+        synchronized boolean tryHedge() {
+            if (hedges + 1 > budget * requests) return false;
+            hedges++;
+            return true;
+        }
+    }
+}
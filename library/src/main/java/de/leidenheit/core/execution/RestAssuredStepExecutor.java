@@ -2,9 +2,13 @@ package de.leidenheit.core.execution;
 
 import com.fasterxml.jackson.databind.node.TextNode;
 import com.google.common.base.Strings;
-import com.jayway.jsonpath.JsonPath;
 import de.leidenheit.core.execution.context.ExecutionResultContext;
 import de.leidenheit.core.execution.context.RestAssuredContext;
+import de.leidenheit.core.execution.context.StepTimings;
+import de.leidenheit.core.execution.listener.ExecutionListener;
+import de.leidenheit.core.execution.listener.ExecutionListeners;
+import de.leidenheit.core.execution.transport.StepTransport;
+import de.leidenheit.core.execution.transport.StepTransports;
 import de.leidenheit.core.model.ArazzoSpecification;
 import de.leidenheit.core.model.Criterion;
 import de.leidenheit.core.model.FailureAction;
@@ -15,13 +19,17 @@ import de.leidenheit.core.model.Step;
 import de.leidenheit.core.model.SuccessAction;
 import de.leidenheit.core.model.Workflow;
 import de.leidenheit.infrastructure.evaluation.CriterionEvaluator;
+import de.leidenheit.infrastructure.json.JsonRuntime;
 import de.leidenheit.infrastructure.resolving.ArazzoExpressionResolver;
+import de.leidenheit.infrastructure.transport.ServerSelectionPolicy;
+import de.leidenheit.infrastructure.transport.ServerSelector;
 import de.leidenheit.infrastructure.utils.JsonPointerUtils;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import io.restassured.http.Method;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
+import lombok.extern.slf4j.Slf4j;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.xml.sax.InputSource;
@@ -42,32 +50,67 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
+/**
+ * Executes the requests of steps by RestAssured. A request passes through its filters in this order:
+ * <ol>
+ *     <li>the instrumentation notifying the listener and recording the timings of the step</li>
+ *     <li>the registered {@link StepTransport transports} responding to requests themselves, then the ones
+ *     coalescing them</li>
+ *     <li>the hedging of the request, unless a transport responding itself applies; the duplicate passes the filters below</li>
+ *     <li>the registered transports rate limiting, then the ones concurrency limiting requests</li>
+ *     <li>the selected server keeping track of its health and load</li>
+ *     <li>the mark of the request as dispatched to the http client</li>
+ * </ol>
+ */
+@Slf4j
 public class RestAssuredStepExecutor implements StepExecutor {
 
-    // TODO designated servers support
-    //  public static final String SERVER_MARKER = "x-itarazzo-designated-server"; // move to global constants
+    // port of servers declared as 'localhost' without one
+    private static final int LOCALHOST_FALLBACK_PORT = Integer.getInteger("arazzo.localhost.port", 8080);
+    // selects the server of each request among the ones of the source description
+    private static final ServerSelector SERVER_SELECTOR = new ServerSelector(
+            ServerSelectionPolicy.of(System.getProperty("arazzo.server-selection", "first")),
+            LOCALHOST_FALLBACK_PORT,
+            Integer.getInteger("arazzo.server-selection.failures-to-eject", 3),
+            Long.getLong("arazzo.server-selection.ejection-ms", 30_000));
+    // hedges the requests of steps enabling it, or of all safe steps
+    private static final RequestHedging REQUEST_HEDGING = new RequestHedging(
+            Boolean.parseBoolean(System.getProperty("arazzo.hedging", "false")),
+            Double.parseDouble(System.getProperty("arazzo.hedging.percentile", "95")),
+            Double.parseDouble(System.getProperty("arazzo.hedging.budget", "0.05")));
 
     private final ArazzoSpecification arazzo;
     private final CriterionEvaluator criterionEvaluator;
     private final ArazzoExpressionResolver resolver;
+    private final ExecutionListener listener;
 
     public RestAssuredStepExecutor(final ArazzoSpecification arazzo,
                                    final CriterionEvaluator criterionEvaluator,
                                    final ArazzoExpressionResolver resolver) {
+        this(arazzo, criterionEvaluator, resolver, ExecutionListeners.current());
+    }
+
+    public RestAssuredStepExecutor(final ArazzoSpecification arazzo,
+                                   final CriterionEvaluator criterionEvaluator,
+                                   final ArazzoExpressionResolver resolver,
+                                   final ExecutionListener listener) {
         this.arazzo = arazzo;
         this.resolver = resolver;
         this.criterionEvaluator = criterionEvaluator;
+        this.listener = listener;
     }
 
     @Override
     public ExecutionResultContext executeStep(final Workflow workflow, final Step step) {
         RestAssuredContext restAssuredContext = RestAssuredContext.builder().build();
+        StepTimings timings = new StepTimings();
+        long buildStartNanos = System.nanoTime();
 
         SourceDescription sourceDescription = null;
         Map.Entry<String, Method> pathMethodEntry = null;
@@ -79,39 +122,73 @@ public class RestAssuredStepExecutor implements StepExecutor {
             pathMethodEntry = extractPathAndMethodByOperationPath(step.getOperationPath());
         }
 
-        var requestSpecification = buildRequest(sourceDescription, step, restAssuredContext, resolver);
-        var response = makeRequest(requestSpecification, pathMethodEntry);
+        var requestSpecification = buildRequest(sourceDescription, workflow, step, restAssuredContext, resolver, timings);
+        timings.setRequestBuildNanos(System.nanoTime() - buildStartNanos - timings.getPayloadReplacementNanos());
+        var response = makeRequest(requestSpecification, pathMethodEntry, timings);
 
-        return handleResponseAndOutputs(step, response, restAssuredContext);
+        return handleResponseAndOutputs(workflow, step, response, restAssuredContext, timings);
     }
 
     private RequestSpecification buildRequest(final SourceDescription sourceDescription,
+                                              final Workflow workflow,
                                               final Step step,
                                               final RestAssuredContext restAssuredContext,
-                                              final ArazzoExpressionResolver resolver) {
+                                              final ArazzoExpressionResolver resolver,
+                                              final StepTimings timings) {
         var requestSpecification = RestAssured
                 .given()
+                .config(RestAssured.config().httpClient(
+                        TimingHttpClientFactory.instrument(RestAssured.config().getHttpClientConfig())))
                 .filter((requestSpec, responseSpec, ctx) -> {
                     restAssuredContext.setLatestUrl(requestSpec.getURI());
                     restAssuredContext.setLatestHttpMethod(requestSpec.getMethod());
                     restAssuredContext.setLatestRequest(requestSpec);
 
-                    return ctx.next(requestSpec, responseSpec);
+                    long sentNanos = System.nanoTime();
+                    listener.onRequestSent(workflow, step, requestSpec.getMethod(), requestSpec.getURI(), sentNanos);
+                    var response = ctx.next(requestSpec, responseSpec);
+                    long receivedNanos = System.nanoTime();
+                    // the response body has been fully read at this point
+                    long headersReceivedNanos = TimingHttpClientFactory.responseHeadersReceivedNanos();
+                    if (headersReceivedNanos > 0) {
+                        timings.setBodyDownloadNanos(receivedNanos - headersReceivedNanos);
+                    }
+                    timings.setResponseBytes(response.asByteArray().length);
+                    listener.onResponseReceived(workflow, step, response.statusCode(), sentNanos, receivedNanos - sentNanos);
+                    return response;
                 });
 
-        // apply uri
-        String serverUrl = findServerUrl(sourceDescription);
-        requestSpecification.baseUri(serverUrl);
+        // apply transports by their stage; they run after the instrumentation above so replayed responses are
+        // reported alike
+        var responding = StepTransports.applicableTo(sourceDescription, step, StepTransport.Stage.RESPONDING);
+        requestSpecification.filters(responding);
+        requestSpecification.filters(StepTransports.applicableTo(sourceDescription, step, StepTransport.Stage.COALESCING));
+        // hedges pass through the filters below like the request itself; requests which may be answered without
+        // the network are not hedged
+        var hedging = responding.isEmpty() ? REQUEST_HEDGING.filterFor(workflow, step, listener) : null;
+        if (Objects.nonNull(hedging)) {
+            requestSpecification.filter(hedging);
+        }
+        requestSpecification.filters(StepTransports.applicableTo(sourceDescription, step, StepTransport.Stage.RATE_LIMITING));
+        requestSpecification.filters(StepTransports.applicableTo(sourceDescription, step, StepTransport.Stage.CONCURRENCY_LIMITING));
+
+        // apply uri; the server keeps track of its health and load, hence comes last
+        var server = SERVER_SELECTOR.select(sourceDescription);
+        requestSpecification.baseUri(server.getUrl());
+        requestSpecification.filter(server);
+        requestSpecification.filter(TimingHttpClientFactory.DISPATCH_FILTER);
 
-        // apply path params
-        Map<String, Object> pathParameterMap;
+        // apply params; parameters without location are path params
         if (Objects.nonNull(step.getParameters())) {
-            pathParameterMap = step.getParameters().stream()
-                    .collect(Collectors.toMap(
-                            Parameter::getName,
-                            parameter -> resolver.resolveExpression(parameter.getValue().toString(), null)
-                    ));
-
+            Map<String, Object> pathParameterMap = new HashMap<>();
+            for (Parameter parameter : step.getParameters()) {
+                var value = resolver.resolveExpression(parameter.getValue().toString(), null);
+                switch (Objects.requireNonNullElse(parameter.getIn(), Parameter.ParameterEnum.PATH)) {
+                    case QUERY -> requestSpecification.queryParam(parameter.getName(), value);
+                    case HEADER -> requestSpecification.header(parameter.getName(), value);
+                    default -> pathParameterMap.put(parameter.getName(), value);
+                }
+            }
             requestSpecification.pathParams(pathParameterMap);
         }
 
@@ -124,6 +201,7 @@ public class RestAssuredStepExecutor implements StepExecutor {
             String resolvedPayload = resolver.resolveString(step.getRequestBody().getPayload().toString());
 
             if (Objects.nonNull(step.getRequestBody().getReplacements())) {
+                long replacementStartNanos = System.nanoTime();
                 var replacements = step.getRequestBody().getReplacements();
                 for (PayloadReplacementObject replacementObject : replacements) {
                     if (replacementObject.getTarget().startsWith("$")) {
@@ -134,6 +212,7 @@ public class RestAssuredStepExecutor implements StepExecutor {
                         resolvedPayload = (applyPayloadFromXPath(resolvedPayload, replacementObject));
                     }
                 }
+                timings.setPayloadReplacementNanos(System.nanoTime() - replacementStartNanos);
             }
             requestSpecification.body(resolvedPayload);
         }
@@ -141,6 +220,17 @@ public class RestAssuredStepExecutor implements StepExecutor {
         return requestSpecification;
     }
 
+    private Response makeRequest(final RequestSpecification requestSpecification,
+                                 final Map.Entry<String, Method> pathMethodEntry,
+                                 final StepTimings timings) {
+        TimingHttpClientFactory.bind(timings);
+        try {
+            return makeRequest(requestSpecification, pathMethodEntry);
+        } finally {
+            TimingHttpClientFactory.unbind();
+        }
+    }
+
     private Response makeRequest(final RequestSpecification requestSpecification,
                                  final Map.Entry<String, Method> pathMethodEntry) {
         var pathAsString = pathMethodEntry.getKey();
@@ -174,6 +264,16 @@ public class RestAssuredStepExecutor implements StepExecutor {
 
     private Map.Entry<String, Method> findPathAndMethodByOperationId(final SourceDescription sourceDescription,
                                                                      final String operationId) {
+        // prefer the precomputed routing table; operationId may be prefixed by the source description
+        var operationRoutes = sourceDescription.getOperationRoutes();
+        if (Objects.nonNull(operationRoutes)) {
+            var prefix = "$sourceDescriptions.%s.".formatted(sourceDescription.getName());
+            var route = operationRoutes.get(operationId.startsWith(prefix) ? operationId.substring(prefix.length()) : operationId);
+            if (Objects.nonNull(route)) {
+                return Map.entry(route.path(), Method.valueOf(route.method()));
+            }
+        }
+        // otherwise matched as before, e.g. for operation ids prefixed differently
         return sourceDescription.getReferencedOpenAPI().getPaths().entrySet().stream()
                 .flatMap(pathsEntry -> pathsEntry.getValue().readOperationsMap().entrySet().stream()
                         .filter(operationEntry -> operationId.contains(operationEntry.getValue().getOperationId()))
@@ -203,13 +303,13 @@ public class RestAssuredStepExecutor implements StepExecutor {
         }
     }
 
-    private SuccessAction findFittingSuccessAction(final Step step,
-                                                   final CriterionEvaluator criterionEvaluator,
+    private SuccessAction findFittingSuccessAction(final Workflow workflow,
+                                                   final Step step,
                                                    final RestAssuredContext restAssuredContext) {
         if (Objects.nonNull(step.getOnSuccess())) {
             // return the first success action object that fulfills its criteria
             var fittingSuccessAction = step.getOnSuccess().stream()
-                    .filter(f -> shouldExecuteAction(f.getCriteria(), criterionEvaluator, restAssuredContext))
+                    .filter(f -> shouldExecuteAction(workflow, step, f.getCriteria(), restAssuredContext))
                     .findFirst()
                     .orElse(null);
 
@@ -221,13 +321,13 @@ public class RestAssuredStepExecutor implements StepExecutor {
         return null;
     }
 
-    private FailureAction findFittingFailureAction(final Step step,
-                                                   final CriterionEvaluator criterionEvaluator,
+    private FailureAction findFittingFailureAction(final Workflow workflow,
+                                                   final Step step,
                                                    final RestAssuredContext restAssuredContext) {
         if (Objects.nonNull(step.getOnFailure())) {
             // return the first failure action object that fulfills its criteria
             var fittingFailureAction = step.getOnFailure().stream()
-                    .filter(f -> shouldExecuteAction(f.getCriteria(), criterionEvaluator, restAssuredContext))
+                    .filter(f -> shouldExecuteAction(workflow, step, f.getCriteria(), restAssuredContext))
                     .findFirst()
                     .orElse(null);
 
@@ -238,7 +338,7 @@ public class RestAssuredStepExecutor implements StepExecutor {
                 // apply provided retry-after header value to the action
                 var retryAfter = restAssuredContext.getLastestResponse().getHeader("Retry-After");
                 if (Objects.nonNull(retryAfter)) {
-                    System.out.printf("=> FailureAction ['%s' as '%s']: applying header 'Retry-After' with a value of '%s'%n", fittingFailureAction.getName(), fittingFailureAction.getType(), retryAfter);
+                    log.debug("=> FailureAction ['{}' as '{}']: applying header 'Retry-After' with a value of '{}'", fittingFailureAction.getName(), fittingFailureAction.getType(), retryAfter);
                     fittingFailureAction.setRetryAfter(new BigDecimal(retryAfter));
                 }
             }
@@ -247,44 +347,40 @@ public class RestAssuredStepExecutor implements StepExecutor {
         return null;
     }
 
-    private String findServerUrl(final SourceDescription sourceDescription) {
-        // TODO support multiple servers
-        var serverUrl = sourceDescription.getReferencedOpenAPI().getServers().get(0).getUrl();
-
-        if (serverUrl.contains("localhost") && !serverUrl.matches(".*:\\d{1,5}")) {
-            // TODO make fallback port configurable
-            serverUrl = "%s:8080".formatted(sourceDescription.getReferencedOpenAPI().getServers().get(0).getUrl());
-        }
-        return serverUrl;
-    }
-
     private void handleResponse(final RestAssuredContext restAssuredContext, final Response response) {
         restAssuredContext.setLastestResponse(response);
         restAssuredContext.setLatestStatusCode(response.statusCode());
     }
 
-    private ExecutionResultContext handleResponseAndOutputs(final Step step,
+    private ExecutionResultContext handleResponseAndOutputs(final Workflow workflow,
+                                                            final Step step,
                                                             final Response response,
-                                                            final RestAssuredContext restAssuredContext) {
+                                                            final RestAssuredContext restAssuredContext,
+                                                            final StepTimings timings) {
         var stepExecutionResultBuilder = ExecutionResultContext.builder();
 
         // Handle response
         handleResponse(restAssuredContext, response);
 
         // Evaluate success criteria
-        var success = evaluateSuccessCriteria(step, restAssuredContext);
-        System.out.printf("=> Step ['%s']: successful: '%s'%n", step.getStepId(), success);
+        long criteriaStartNanos = System.nanoTime();
+        var success = evaluateSuccessCriteria(workflow, step, restAssuredContext);
+        log.info("=> Step ['{}']: successful: '{}'", step.getStepId(), success);
         if (!success) {
             stepExecutionResultBuilder.failureAction(
-                    findFittingFailureAction(step, criterionEvaluator, restAssuredContext));
+                    findFittingFailureAction(workflow, step, restAssuredContext));
+            timings.setCriteriaEvaluationNanos(System.nanoTime() - criteriaStartNanos);
         } else {
             stepExecutionResultBuilder.successAction(
-                    findFittingSuccessAction(step, criterionEvaluator, restAssuredContext));
+                    findFittingSuccessAction(workflow, step, restAssuredContext));
+            long outputsStartNanos = System.nanoTime();
+            timings.setCriteriaEvaluationNanos(outputsStartNanos - criteriaStartNanos);
 
             // Resolve outputs
             applyOutputs(step, restAssuredContext);
+            timings.setOutputExtractionNanos(System.nanoTime() - outputsStartNanos);
         }
-        return stepExecutionResultBuilder.successful(success).build();
+        return stepExecutionResultBuilder.successful(success).timings(timings).build();
     }
 
     private String applyPayloadFromXPath(final String payload, final PayloadReplacementObject replacement) {
@@ -317,7 +413,7 @@ public class RestAssuredStepExecutor implements StepExecutor {
                                             final PayloadReplacementObject replacement,
                                             final ArazzoExpressionResolver resolver) {
         var resolvedValue = resolver.resolveString(replacement.getValue().toString());
-        return JsonPath.parse(payload).set(replacement.getTarget(), resolvedValue).jsonString();
+        return JsonRuntime.jsonPath().parse(payload).set(replacement.getTarget(), resolvedValue).jsonString();
     }
 
     private void applyOutputs(final Step step, final RestAssuredContext restAssuredContext) {
@@ -340,12 +436,12 @@ public class RestAssuredStepExecutor implements StepExecutor {
         }
     }
 
-    private boolean evaluateSuccessCriteria(final Step step, final RestAssuredContext restAssuredContext) {
+    private boolean evaluateSuccessCriteria(final Workflow workflow, final Step step, final RestAssuredContext restAssuredContext) {
         return step.getSuccessCriteria().stream()
                 .allMatch(c -> {
-                    var isSatisfied = criterionEvaluator.evalCriterion(c, restAssuredContext);
+                    var isSatisfied = evalCriterion(workflow, step, c, restAssuredContext);
                     if (!isSatisfied) {
-                        System.out.printf("@@@===> Unsatisfied success criterion condition '%s' in step '%s'('%s %s -> %s')%n",
+                        log.warn("@@@===> Unsatisfied success criterion condition '{}' in step '{}'('{} {} -> {}')",
                                 c.getCondition(),
                                 step.getStepId(),
                                 restAssuredContext.getLatestHttpMethod(),
@@ -356,10 +452,21 @@ public class RestAssuredStepExecutor implements StepExecutor {
                 });
     }
 
-    private boolean shouldExecuteAction(final List<Criterion> actionCriteria,
-                                        final CriterionEvaluator criterionEvaluator,
+    private boolean shouldExecuteAction(final Workflow workflow,
+                                        final Step step,
+                                        final List<Criterion> actionCriteria,
                                         final RestAssuredContext restAssuredContext) {
         return actionCriteria.stream()
-                .allMatch(criterion -> criterionEvaluator.evalCriterion(criterion, restAssuredContext));
+                .allMatch(criterion -> evalCriterion(workflow, step, criterion, restAssuredContext));
+    }
+
+    private boolean evalCriterion(final Workflow workflow,
+                                  final Step step,
+                                  final Criterion criterion,
+                                  final RestAssuredContext restAssuredContext) {
+        long startNanos = System.nanoTime();
+        var isSatisfied = criterionEvaluator.evalCriterion(criterion, restAssuredContext);
+        listener.onCriterionEvaluated(workflow, step, criterion, isSatisfied, startNanos, System.nanoTime() - startNanos);
+        return isSatisfied;
     }
 }
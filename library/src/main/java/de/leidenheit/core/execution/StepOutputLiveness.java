@@ -0,0 +1,199 @@
+package de.leidenheit.core.execution;
+
+import de.leidenheit.core.model.FailureAction;
+import de.leidenheit.core.model.Step;
+import de.leidenheit.core.model.SuccessAction;
+import de.leidenheit.core.model.Workflow;
+import de.leidenheit.infrastructure.json.JsonRuntime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Static liveness analysis of the step outputs of a workflow.
+ * <p>
+ * For every '$steps.{stepId}.outputs.{name}' produced by a step of the workflow, the index of the step after
+ * whose execution the value is not referenced anymore is computed. Loops introduced by backward 'goto' and
+ * 'retry' actions keep the values used within the loop alive until the step following the loop has been executed.
+ * Outputs referenced by the workflow outputs are never released, since '$workflows.{workflowId}.outputs.{name}'
+ * is resolved through them later on.
+ */
+final class StepOutputLiveness {
+
+    private static final Map<Workflow, StepOutputLiveness> CACHE = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final List<List<String>> releasableAfterStep;
+    private final Set<String> releasableAtEnd;
+
+    private StepOutputLiveness(final List<List<String>> releasableAfterStep, final Set<String> releasableAtEnd) {
+        this.releasableAfterStep = releasableAfterStep;
+        this.releasableAtEnd = releasableAtEnd;
+    }
+
+    static StepOutputLiveness of(final Workflow workflow) {
+        return CACHE.computeIfAbsent(workflow, StepOutputLiveness::analyze);
+    }
+
+    /**
+     * @return keys of step outputs that are dead once the step at the given index has been executed
+     */
+    List<String> releasableAfter(final int stepIndex) {
+        return stepIndex < releasableAfterStep.size() ? releasableAfterStep.get(stepIndex) : List.of();
+    }
+
+    /**
+     * @return keys of all step outputs that are not required after the workflow has ended
+     */
+    Set<String> releasableAtEnd() {
+        return releasableAtEnd;
+    }
+
+    private static StepOutputLiveness analyze(final Workflow workflow) {
+        List<Step> steps = Objects.requireNonNullElse(workflow.getSteps(), List.of());
+        int stepCount = steps.size();
+
+        // index of the step after whose execution the output is dead; 'stepCount' denotes the end of the workflow
+        Map<String, Integer> releaseIndex = new LinkedHashMap<>();
+        Map<String, Pattern> referencePatterns = new HashMap<>();
+        for (int i = 0; i < stepCount; i++) {
+            var step = steps.get(i);
+            if (Objects.isNull(step.getOutputs())) continue;
+            for (String name : step.getOutputs().keySet()) {
+                var key = "$steps.%s.outputs.%s".formatted(step.getStepId(), name);
+                releaseIndex.merge(key, i, Math::max);
+                referencePatterns.computeIfAbsent(key, k -> referencePattern(step.getStepId(), name));
+            }
+        }
+        if (releaseIndex.isEmpty()) {
+            return new StepOutputLiveness(List.of(), Set.of());
+        }
+
+        for (int i = 0; i < stepCount; i++) {
+            markUses(releaseIndex, referencePatterns, textOf(steps.get(i)), i);
+        }
+        // parameters and actions of the workflow apply to every step
+        markUses(releaseIndex, referencePatterns, textOf(workflow.getParameters()), stepCount);
+        markUses(releaseIndex, referencePatterns, textOf(workflow.getSuccessActions()), stepCount);
+        markUses(releaseIndex, referencePatterns, textOf(workflow.getFailureActions()), stepCount);
+
+        Set<String> pinned = new LinkedHashSet<>();
+        String workflowOutputs = textOf(workflow.getOutputs());
+        releaseIndex.keySet().stream()
+                .filter(key -> references(workflowOutputs, referencePatterns.get(key)))
+                .forEach(pinned::add);
+
+        extendAcrossLoops(releaseIndex, backwardEdges(workflow, steps));
+
+        List<List<String>> releasableAfterStep = new ArrayList<>(stepCount);
+        for (int i = 0; i < stepCount; i++) {
+            releasableAfterStep.add(new ArrayList<>());
+        }
+        Set<String> releasableAtEnd = new LinkedHashSet<>();
+        releaseIndex.forEach((key, index) -> {
+            if (pinned.contains(key)) return;
+            releasableAtEnd.add(key);
+            if (index < stepCount) {
+                releasableAfterStep.get(index).add(key);
+            }
+        });
+        return new StepOutputLiveness(releasableAfterStep.stream().map(List::copyOf).toList(), Set.copyOf(releasableAtEnd));
+    }
+
+    private static void markUses(final Map<String, Integer> releaseIndex,
+                                 final Map<String, Pattern> referencePatterns,
+                                 final String text,
+                                 final int stepIndex) {
+        if (text.isEmpty()) return;
+        releaseIndex.replaceAll((key, index) ->
+                references(text, referencePatterns.get(key)) ? Math.max(index, stepIndex) : index);
+    }
+
+    private static boolean references(final String text, final Pattern referencePattern) {
+        return !text.isEmpty() && referencePattern.matcher(text).find();
+    }
+
+    /**
+     * Matches '$steps.{stepId}.outputs.{name}', also followed by a json pointer or property, as well as expressions
+     * spanning all outputs of the step, i.e. '$steps.{stepId}.outputs' and '$steps.{stepId}'. Another output whose
+     * name merely starts with the same characters does not match.
+     */
+    private static Pattern referencePattern(final String stepId, final String name) {
+        var step = Pattern.quote("$steps." + stepId);
+        return Pattern.compile(step + "(?:\\.outputs\\." + Pattern.quote(name) + "(?![\\w-])|\\.outputs(?![\\w.-])|(?![\\w.-]))");
+    }
+
+    /**
+     * @return pairs of {from, to} step indices with to <= from
+     */
+    private static List<int[]> backwardEdges(final Workflow workflow, final List<Step> steps) {
+        int lastIndex = steps.size() - 1;
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 0; i <= lastIndex; i++) {
+            var step = steps.get(i);
+            for (SuccessAction action : Objects.requireNonNullElse(step.getOnSuccess(), List.<SuccessAction>of())) {
+                addEdge(edges, i, indexOf(steps, action.getStepId()));
+            }
+            for (FailureAction action : Objects.requireNonNullElse(step.getOnFailure(), List.<FailureAction>of())) {
+                addEdge(edges, i, indexOf(steps, action.getStepId()));
+                if (action.getType() == FailureAction.FailureActionType.RETRY) {
+                    addEdge(edges, i, i);
+                }
+            }
+        }
+        // actions of the workflow may be taken by any step
+        for (SuccessAction action : Objects.requireNonNullElse(workflow.getSuccessActions(), List.<SuccessAction>of())) {
+            addEdge(edges, lastIndex, indexOf(steps, action.getStepId()));
+        }
+        for (FailureAction action : Objects.requireNonNullElse(workflow.getFailureActions(), List.<FailureAction>of())) {
+            addEdge(edges, lastIndex, indexOf(steps, action.getStepId()));
+            if (action.getType() == FailureAction.FailureActionType.RETRY) {
+                addEdge(edges, lastIndex, 0);
+            }
+        }
+        return edges;
+    }
+
+    private static void addEdge(final List<int[]> edges, final int from, final int to) {
+        if (to < 0) return;
+        // a retry running another step first loops between both steps regardless of their order
+        edges.add(new int[]{Math.max(from, to), Math.min(from, to)});
+    }
+
+    private static void extendAcrossLoops(final Map<String, Integer> releaseIndex, final List<int[]> edges) {
+        boolean changed = !edges.isEmpty();
+        while (changed) {
+            changed = false;
+            for (Map.Entry<String, Integer> entry : releaseIndex.entrySet()) {
+                for (int[] edge : edges) {
+                    int index = entry.getValue();
+                    if (index >= edge[1] && index <= edge[0]) {
+                        entry.setValue(edge[0] + 1);
+                        changed = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private static int indexOf(final List<Step> steps, final String stepId) {
+        if (Objects.isNull(stepId)) return -1;
+        for (int i = 0; i < steps.size(); i++) {
+            if (stepId.equals(steps.get(i).getStepId())) return i;
+        }
+        return -1;
+    }
+
+    private static String textOf(final Object value) {
+        if (Objects.isNull(value)) return "";
+        return JsonRuntime.jsonMapper().valueToTree(value).toString();
+    }
+}
@@ -0,0 +1,154 @@
+package de.leidenheit.core.execution;
+
+import de.leidenheit.core.execution.context.StepTimings;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.filter.Filter;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.AbortableHttpRequest;
+import org.apache.http.impl.client.AbstractHttpClient;
+import org.apache.http.impl.client.RequestWrapper;
+
+import java.util.Objects;
+
+/**
+ * Instruments the http clients of the configured factory to record connection acquisition and time to first byte
+ * into the {@link StepTimings} bound to the executing thread, and to abort their request from another one.
+ * <p>
+ * RestAssured only accepts the classic {@link AbstractHttpClient} of HttpClient 4, which is deprecated there.
+ */
+@SuppressWarnings("deprecation")
+public final class TimingHttpClientFactory implements HttpClientConfig.HttpClientFactory {
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    // marks the request as dispatched to the http client; has to be the last filter of a request
+    static final Filter DISPATCH_FILTER = (requestSpec, responseSpec, ctx) -> {
+        var recording = CURRENT.get();
+        if (Objects.nonNull(recording)) recording.dispatchedNanos = System.nanoTime();
+        return ctx.next(requestSpec, responseSpec);
+    };
+
+    // request interceptors run once the connection is established, right before the request is written
+    private static final HttpRequestInterceptor REQUEST_INTERCEPTOR = (request, context) -> {
+        var recording = CURRENT.get();
+        if (Objects.isNull(recording)) return;
+        recording.requestSentNanos = System.nanoTime();
+        if (recording.dispatchedNanos > 0) {
+            recording.timings.setConnectionAcquisitionNanos(recording.timings.getConnectionAcquisitionNanos()
+                    + recording.requestSentNanos - recording.dispatchedNanos);
+        }
+        if (request instanceof RequestWrapper wrapper && wrapper.getOriginal() instanceof AbortableHttpRequest abortable) {
+            recording.request = abortable;
+            if (recording.aborted) abortable.abort();
+        }
+        if (request instanceof HttpEntityEnclosingRequest entityRequest && Objects.nonNull(entityRequest.getEntity())) {
+            recording.timings.setRequestBytes(Math.max(0, entityRequest.getEntity().getContentLength()));
+        }
+    };
+
+    // response interceptors run as soon as the headers are parsed and before the body is consumed
+    private static final HttpResponseInterceptor RESPONSE_INTERCEPTOR = (response, context) -> {
+        var recording = CURRENT.get();
+        if (Objects.isNull(recording) || recording.requestSentNanos == 0) return;
+        recording.headersReceivedNanos = System.nanoTime();
+        recording.timings.setTimeToFirstByteNanos(recording.headersReceivedNanos - recording.requestSentNanos);
+    };
+
+    private static volatile Instrumented instrumented;
+
+    private final HttpClientConfig delegate;
+
+    private TimingHttpClientFactory(final HttpClientConfig delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return the given configuration whose http clients are created by its own factory and instrumented
+     */
+    static HttpClientConfig instrument(final HttpClientConfig httpClientConfig) {
+        var current = instrumented;
+        if (Objects.isNull(current) || current.original() != httpClientConfig) {
+            current = new Instrumented(httpClientConfig,
+                    httpClientConfig.httpClientFactory(new TimingHttpClientFactory(httpClientConfig)));
+            instrumented = current;
+        }
+        return current.instrumented();
+    }
+
+    static void bind(final StepTimings timings) {
+        CURRENT.set(new Recording(timings));
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return nano time at which the response headers have been received, or -1 if unknown
+     */
+    static long responseHeadersReceivedNanos() {
+        var recording = CURRENT.get();
+        return Objects.isNull(recording) ? -1 : recording.headersReceivedNanos;
+    }
+
+    /**
+     * @return whether the request of the executing thread has been aborted on purpose, e.g. as the loser of a hedged
+     * request; transports do not hold its failure against the service
+     */
+    public static boolean isAborted() {
+        var recording = CURRENT.get();
+        return Objects.nonNull(recording) && recording.aborted;
+    }
+
+    /**
+     * @return aborts the request of the executing thread when run, even if it has not been sent yet, or null if no
+     * timings are bound to the executing thread
+     */
+    static Runnable currentAbort() {
+        var recording = CURRENT.get();
+        return Objects.isNull(recording) ? null : recording::abort;
+    }
+
+    @Override
+    public HttpClient createHttpClient() {
+        var httpClient = delegate.httpClientInstance();
+        if (httpClient instanceof AbstractHttpClient abstractHttpClient && !isInstrumented(abstractHttpClient)) {
+            abstractHttpClient.addRequestInterceptor(REQUEST_INTERCEPTOR);
+            abstractHttpClient.addResponseInterceptor(RESPONSE_INTERCEPTOR);
+        }
+        return httpClient;
+    }
+
+    // an instance reused by the configuration is instrumented once
+    private static boolean isInstrumented(final AbstractHttpClient httpClient) {
+        for (int i = 0; i < httpClient.getRequestInterceptorCount(); i++) {
+            if (httpClient.getRequestInterceptor(i) == REQUEST_INTERCEPTOR) return true;
+        }
+        return false;
+    }
+
+    private record Instrumented(HttpClientConfig original, HttpClientConfig instrumented) {
+    }
+
+    private static final class Recording {
+        private final StepTimings timings;
+        private long dispatchedNanos;
+        private long requestSentNanos;
+        private long headersReceivedNanos = -1;
+        private volatile AbortableHttpRequest request;
+        private volatile boolean aborted;
+
+        private Recording(final StepTimings timings) {
+            this.timings = timings;
+        }
+
+        private void abort() {
+            aborted = true;
+            var abortable = request;
+            if (Objects.nonNull(abortable)) abortable.abort();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package de.leidenheit.core.execution;
+
+import com.fasterxml.jackson.databind.node.TextNode;
+import de.leidenheit.core.model.Criterion;
+import de.leidenheit.core.model.FailureAction;
+import de.leidenheit.core.model.Parameter;
+import de.leidenheit.core.model.Step;
+import de.leidenheit.core.model.SuccessAction;
+import de.leidenheit.core.model.Workflow;
+import de.leidenheit.infrastructure.evaluation.CompiledCriterion;
+import de.leidenheit.infrastructure.resolving.ExpressionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compiled workflow of an {@link ExecutionPlan}: its control flow as {@link WorkflowStateMachine}, the liveness of
+ * its step outputs and handles of the workflows referenced by its steps. Criteria and expression templates of the
+ * workflow are compiled along with it.
+ */
+public final class WorkflowPlan {
+
+    private final ExecutionPlan plan;
+    private final Workflow workflow;
+    private final WorkflowStateMachine stateMachine;
+    private final StepOutputLiveness liveness;
+    private final ExecutionPlan.WorkflowHandle[] referencedWorkflows;
+
+    WorkflowPlan(final ExecutionPlan plan, final Workflow workflow) {
+        this.plan = plan;
+        this.workflow = workflow;
+        this.stateMachine = WorkflowStateMachine.of(workflow);
+        this.liveness = StepOutputLiveness.of(workflow);
+
+        this.referencedWorkflows = new ExecutionPlan.WorkflowHandle[stateMachine.stepCount()];
+        for (int i = 0; i < stateMachine.stepCount(); i++) {
+            var step = stateMachine.step(i);
+            if (Objects.nonNull(step.getWorkflowId())) {
+                referencedWorkflows[i] = plan.referencedWorkflow(step.getWorkflowId());
+            }
+            compile(step);
+        }
+        compileActions(workflow.getSuccessActions(), workflow.getFailureActions());
+        compileParameters(workflow.getParameters());
+        compileTemplates(workflow.getOutputs());
+    }
+
+    public ExecutionPlan getPlan() {
+        return plan;
+    }
+
+    public Workflow getWorkflow() {
+        return workflow;
+    }
+
+    WorkflowStateMachine stateMachine() {
+        return stateMachine;
+    }
+
+    StepOutputLiveness liveness() {
+        return liveness;
+    }
+
+    /**
+     * @return handle of the workflow the step at the given index delegates to, or null if it cannot be located
+     */
+    ExecutionPlan.WorkflowHandle referencedWorkflow(final int stepIndex) {
+        return referencedWorkflows[stepIndex];
+    }
+
+    private static void compile(final Step step) {
+        compileCriteria(step.getSuccessCriteria());
+        compileActions(step.getOnSuccess(), step.getOnFailure());
+        compileParameters(step.getParameters());
+        compileTemplate(step.getOperationPath());
+        compileTemplates(step.getOutputs());
+    }
+
+    private static void compileActions(final List<SuccessAction> successActions, final List<FailureAction> failureActions) {
+        if (Objects.nonNull(successActions)) successActions.forEach(action -> compileCriteria(action.getCriteria()));
+        if (Objects.nonNull(failureActions)) failureActions.forEach(action -> compileCriteria(action.getCriteria()));
+    }
+
+    private static void compileCriteria(final List<Criterion> criteria) {
+        if (Objects.nonNull(criteria)) criteria.forEach(CompiledCriterion::of);
+    }
+
+    private static void compileParameters(final List<Parameter> parameters) {
+        if (Objects.nonNull(parameters)) parameters.forEach(parameter -> compileTemplate(parameter.getValue()));
+    }
+
+    private static void compileTemplates(final Map<String, Object> expressions) {
+        if (Objects.nonNull(expressions)) expressions.values().forEach(WorkflowPlan::compileTemplate);
+    }
+
+    private static void compileTemplate(final Object expression) {
+        String text = expression instanceof TextNode textNode ? textNode.asText()
+                : expression instanceof String string ? string : null;
+        if (Objects.isNull(text)) return;
+        try {
+            ExpressionTemplate.of(text);
+        } catch (IllegalArgumentException e) {
+            // malformed templates are reported when they are resolved
+        }
+    }
+}
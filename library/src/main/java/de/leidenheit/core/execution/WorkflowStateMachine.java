@@ -0,0 +1,176 @@
+package de.leidenheit.core.execution;
+
+import de.leidenheit.core.model.FailureAction;
+import de.leidenheit.core.model.Step;
+import de.leidenheit.core.model.SuccessAction;
+import de.leidenheit.core.model.Workflow;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Control flow of a workflow compiled into index based tables.
+ * <p>
+ * Steps are addressed by their index, goto and retry targets are resolved in advance and retry counters are kept
+ * in a primitive array per run, so that moving from one step to the next does not allocate. Instances are
+ * immutable and cached per workflow.
+ */
+final class WorkflowStateMachine {
+
+    /**
+     * Transition to the sequentially next step.
+     */
+    static final int NEXT = -1;
+    /**
+     * Transition that ends the workflow.
+     */
+    static final int END = -2;
+
+    private static final int NO_TARGET = -1;
+    private static final Map<Workflow, WorkflowStateMachine> CACHE = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final Step[] steps;
+    private final String[] stepKeys;
+    private final SuccessAction[] workflowSuccessActions;
+    private final int[] workflowSuccessTargets;
+    private final FailureAction[] workflowFailureActions;
+    private final int[] workflowFailureTargets;
+    private final SuccessAction[][] stepSuccessActions;
+    private final int[][] stepSuccessTargets;
+    private final FailureAction[][] stepFailureActions;
+    private final int[][] stepFailureTargets;
+
+    private WorkflowStateMachine(final Workflow workflow) {
+        List<Step> stepList = Objects.requireNonNullElse(workflow.getSteps(), List.of());
+        this.steps = stepList.toArray(new Step[0]);
+        this.stepKeys = new String[steps.length];
+        for (int i = 0; i < steps.length; i++) {
+            stepKeys[i] = "%s.%s".formatted(workflow.getWorkflowId(), steps[i].getStepId());
+        }
+
+        this.workflowSuccessActions = successActionsOf(workflow.getSuccessActions());
+        this.workflowSuccessTargets = successTargetsOf(workflowSuccessActions);
+        this.workflowFailureActions = failureActionsOf(workflow.getFailureActions());
+        this.workflowFailureTargets = failureTargetsOf(workflowFailureActions);
+
+        this.stepSuccessActions = new SuccessAction[steps.length][];
+        this.stepSuccessTargets = new int[steps.length][];
+        this.stepFailureActions = new FailureAction[steps.length][];
+        this.stepFailureTargets = new int[steps.length][];
+        for (int i = 0; i < steps.length; i++) {
+            stepSuccessActions[i] = successActionsOf(steps[i].getOnSuccess());
+            stepSuccessTargets[i] = successTargetsOf(stepSuccessActions[i]);
+            stepFailureActions[i] = failureActionsOf(steps[i].getOnFailure());
+            stepFailureTargets[i] = failureTargetsOf(stepFailureActions[i]);
+        }
+    }
+
+    static WorkflowStateMachine of(final Workflow workflow) {
+        return CACHE.computeIfAbsent(workflow, WorkflowStateMachine::new);
+    }
+
+    int stepCount() {
+        return steps.length;
+    }
+
+    Step step(final int stepIndex) {
+        return steps[stepIndex];
+    }
+
+    /**
+     * @return 'workflowId.stepId' of the step
+     */
+    String stepKey(final int stepIndex) {
+        return stepKeys[stepIndex];
+    }
+
+    /**
+     * @return retry counters of a single run, indexed like the steps
+     */
+    int[] newRetryCounters() {
+        return new int[steps.length];
+    }
+
+    SuccessAction[] workflowSuccessActions() {
+        return workflowSuccessActions;
+    }
+
+    FailureAction[] workflowFailureActions() {
+        return workflowFailureActions;
+    }
+
+    /**
+     * @return index of the step referenced by the action, or -1 if it does not reference a step of this workflow
+     */
+    int targetOf(final int stepIndex, final SuccessAction action) {
+        return targetOf(action, workflowSuccessActions, workflowSuccessTargets, stepSuccessActions[stepIndex], stepSuccessTargets[stepIndex]);
+    }
+
+    /**
+     * @return index of the step referenced by the action, or -1 if it does not reference a step of this workflow
+     */
+    int targetOf(final int stepIndex, final FailureAction action) {
+        return targetOf(action, workflowFailureActions, workflowFailureTargets, stepFailureActions[stepIndex], stepFailureTargets[stepIndex]);
+    }
+
+    private int targetOf(final Object action,
+                         final Object[] workflowActions,
+                         final int[] workflowTargets,
+                         final Object[] stepActions,
+                         final int[] stepTargets) {
+        for (int i = 0; i < stepActions.length; i++) {
+            if (stepActions[i] == action) return stepTargets[i];
+        }
+        for (int i = 0; i < workflowActions.length; i++) {
+            if (workflowActions[i] == action) return workflowTargets[i];
+        }
+        return NO_TARGET;
+    }
+
+    private int[] successTargetsOf(final SuccessAction[] actions) {
+        int[] targets = new int[actions.length];
+        for (int i = 0; i < actions.length; i++) {
+            targets[i] = indexOf(actions[i].getStepId());
+        }
+        return targets;
+    }
+
+    private int[] failureTargetsOf(final FailureAction[] actions) {
+        int[] targets = new int[actions.length];
+        for (int i = 0; i < actions.length; i++) {
+            var action = actions[i];
+            // steps run before a retry attempt are matched the same way the executor looks them up
+            targets[i] = FailureAction.FailureActionType.RETRY.equals(action.getType())
+                    ? indexOfContained(action.getStepId())
+                    : indexOf(action.getStepId());
+        }
+        return targets;
+    }
+
+    private int indexOf(final String stepId) {
+        if (Objects.isNull(stepId)) return NO_TARGET;
+        for (int i = 0; i < steps.length; i++) {
+            if (stepId.equals(steps[i].getStepId())) return i;
+        }
+        return NO_TARGET;
+    }
+
+    private int indexOfContained(final String stepId) {
+        if (Objects.isNull(stepId)) return NO_TARGET;
+        for (int i = 0; i < steps.length; i++) {
+            if (stepId.contains(steps[i].getStepId())) return i;
+        }
+        return NO_TARGET;
+    }
+
+    private static SuccessAction[] successActionsOf(final List<SuccessAction> actions) {
+        return Objects.isNull(actions) ? new SuccessAction[0] : actions.toArray(new SuccessAction[0]);
+    }
+
+    private static FailureAction[] failureActionsOf(final List<FailureAction> actions) {
+        return Objects.isNull(actions) ? new FailureAction[0] : actions.toArray(new FailureAction[0]);
+    }
+}
@@ -11,4 +11,5 @@ public class ExecutionResultContext {
     final boolean successful;
     final SuccessAction successAction;
     final FailureAction failureAction;
+    final StepTimings timings;
 }
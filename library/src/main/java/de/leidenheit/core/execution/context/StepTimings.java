@@ -0,0 +1,28 @@
+package de.leidenheit.core.execution.context;
+
+import lombok.Data;
+
+/**
+ * Phases of a single step execution in nanoseconds plus the transferred body sizes in bytes.
+ * <p>
+ * Connection acquisition spans from dispatching the request to the http client until it is written, i.e. leasing a
+ * pooled connection or DNS resolution, TCP connect and TLS handshake of a new one; time to first byte spans from
+ * writing the request until the response headers arrived.
+ */
+@Data
+public class StepTimings {
+    private long requestBuildNanos;
+    private long payloadReplacementNanos;
+    private long connectionAcquisitionNanos;
+    private long timeToFirstByteNanos;
+    private long bodyDownloadNanos;
+    private long criteriaEvaluationNanos;
+    private long outputExtractionNanos;
+    private long requestBytes;
+    private long responseBytes;
+
+    public long getTotalNanos() {
+        return requestBuildNanos + payloadReplacementNanos + connectionAcquisitionNanos + timeToFirstByteNanos
+                + bodyDownloadNanos + criteriaEvaluationNanos + outputExtractionNanos;
+    }
+}
@@ -0,0 +1,167 @@
+package de.leidenheit.core.execution.context;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import de.leidenheit.core.model.ArazzoSpecification;
+import de.leidenheit.infrastructure.json.JsonRuntime;
+import de.leidenheit.infrastructure.parsing.LazyWorkflowList;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Outputs of executed workflows keyed by workflowId and output name, shared by all executors of a run.
+ * <p>
+ * Writes replace an immutable map (copy-on-write), so {@link #snapshot()} is free and never observes a partial
+ * update. Once every workflow depending on a workflow (according to the dependsOn graph) has completed, and thereby
+ * consumed its outputs, they are released as configured by the {@link ReleasePolicy}; workflows no other workflow
+ * of the run depends on, or unknown to the graph, are always retained.
+ * <p>
+ * {@link #get(String)} reads spilled outputs back from disk, whereas {@link #snapshot()} only holds the ones in memory.
+ */
+public class WorkflowOutputStore {
+
+    public enum ReleasePolicy {
+        /** keep all outputs in memory */
+        RETAIN,
+        /** drop outputs which are not referenced by any pending workflow */
+        EVICT,
+        /** move outputs which are not referenced by any pending workflow to disk and reload them on access */
+        SPILL
+    }
+
+    private static final TypeReference<LinkedHashMap<String, Object>> OUTPUTS_TYPE = new TypeReference<>() {
+    };
+
+    private final ReleasePolicy releasePolicy;
+    // workflowId -> workflows listing it in their dependsOn
+    private final Map<String, Set<String>> dependents;
+    private final Set<String> completed = new HashSet<>();
+    private final Map<String, Path> spilled = new HashMap<>();
+    private volatile Map<String, Map<String, Object>> outputs = Collections.emptyMap();
+    private Path spillDirectory;
+
+    private WorkflowOutputStore(final ReleasePolicy releasePolicy, final Map<String, Set<String>> dependents) {
+        this.releasePolicy = releasePolicy;
+        this.dependents = dependents;
+    }
+
+    /**
+     * @return a store retaining all outputs, initialized with the given ones
+     */
+    public static WorkflowOutputStore of(final Map<String, Map<String, Object>> initialOutputs) {
+        var store = new WorkflowOutputStore(ReleasePolicy.RETAIN, Collections.emptyMap());
+        initialOutputs.forEach(store::put);
+        return store;
+    }
+
+    /**
+     * @param workflowIds the workflows executed in this run; outputs are released with respect to them only
+     */
+    public static WorkflowOutputStore forWorkflows(final ArazzoSpecification arazzo,
+                                                   final Collection<String> workflowIds,
+                                                   final ReleasePolicy releasePolicy) {
+        var allWorkflowIds = LazyWorkflowList.workflowIdsOf(arazzo.getWorkflows());
+        Map<String, Set<String>> dependents = new HashMap<>();
+        workflowIds.forEach(workflowId -> dependents.putIfAbsent(workflowId, new HashSet<>()));
+        for (String workflowId : workflowIds) {
+            var index = allWorkflowIds.indexOf(workflowId);
+            if (index < 0) continue;
+            List<String> dependsOn = LazyWorkflowList.dependsOnOf(arazzo.getWorkflows(), index);
+            if (Objects.isNull(dependsOn)) continue;
+            dependsOn.forEach(dependency -> dependents.computeIfAbsent(dependency, k -> new HashSet<>()).add(workflowId));
+        }
+        return new WorkflowOutputStore(releasePolicy, dependents);
+    }
+
+    /**
+     * Stores the outputs of a completed workflow and releases outputs no longer referenced.
+     */
+    public synchronized void put(final String workflowId, final Map<String, Object> workflowOutputs) {
+        var updated = new LinkedHashMap<>(outputs);
+        updated.put(workflowId, Collections.unmodifiableMap(new LinkedHashMap<>(workflowOutputs)));
+        spilled.remove(workflowId);
+        outputs = Collections.unmodifiableMap(updated);
+
+        completed.add(workflowId);
+        if (releasePolicy == ReleasePolicy.RETAIN) return;
+        dependents.forEach((dependency, dependentIds) -> {
+            if (dependentIds.contains(workflowId)) releaseIfUnreferenced(dependency);
+        });
+    }
+
+    /**
+     * @return outputs of the workflow, reloaded from disk if spilled, or null if unknown or evicted
+     */
+    public Map<String, Object> get(final String workflowId) {
+        var workflowOutputs = outputs.get(workflowId);
+        if (Objects.nonNull(workflowOutputs)) return workflowOutputs;
+        return readSpilled(workflowId);
+    }
+
+    public Object get(final String workflowId, final String outputName) {
+        var workflowOutputs = get(workflowId);
+        return Objects.isNull(workflowOutputs) ? null : workflowOutputs.get(outputName);
+    }
+
+    /**
+     * @return immutable view of the outputs held in memory
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        return outputs;
+    }
+
+    public synchronized boolean isSpilled(final String workflowId) {
+        return spilled.containsKey(workflowId);
+    }
+
+    private void releaseIfUnreferenced(final String workflowId) {
+        var dependentIds = dependents.get(workflowId);
+        // outputs without any dependent have not been consumed, but are the result of the run
+        if (Objects.isNull(dependentIds) || dependentIds.isEmpty() || !completed.containsAll(dependentIds)) return;
+        var workflowOutputs = outputs.get(workflowId);
+        if (Objects.isNull(workflowOutputs)) return;
+
+        if (releasePolicy == ReleasePolicy.SPILL) {
+            spilled.put(workflowId, writeSpilled(workflowId, workflowOutputs));
+        }
+        var updated = new LinkedHashMap<>(outputs);
+        updated.remove(workflowId);
+        outputs = Collections.unmodifiableMap(updated);
+    }
+
+    private Path writeSpilled(final String workflowId, final Map<String, Object> workflowOutputs) {
+        try {
+            if (Objects.isNull(spillDirectory)) {
+                spillDirectory = Files.createTempDirectory("arazzo-outputs");
+                spillDirectory.toFile().deleteOnExit();
+            }
+            var file = Files.createTempFile(spillDirectory, "workflow", ".smile");
+            file.toFile().deleteOnExit();
+            JsonRuntime.smileMapper().writeValue(file.toFile(), workflowOutputs);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Spilling outputs of workflow '%s' failed".formatted(workflowId), e);
+        }
+    }
+
+    private synchronized Map<String, Object> readSpilled(final String workflowId) {
+        var file = spilled.get(workflowId);
+        if (Objects.isNull(file)) return null;
+        try {
+            return Collections.unmodifiableMap(JsonRuntime.smileMapper().readValue(file.toFile(), OUTPUTS_TYPE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading spilled outputs of workflow '%s' failed".formatted(workflowId), e);
+        }
+    }
+}
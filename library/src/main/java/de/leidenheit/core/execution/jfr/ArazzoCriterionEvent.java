@@ -0,0 +1,41 @@
+package de.leidenheit.core.execution.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("de.leidenheit.arazzo.Criterion")
+@Label("Arazzo Criterion")
+@Description("Evaluation of a success or action criterion")
+@Category({"Arazzo", "Execution"})
+@StackTrace(false)
+public class ArazzoCriterionEvent extends jdk.jfr.Event {
+
+    @Label("Workflow Id")
+    String workflowId;
+
+    @Label("Step Id")
+    String stepId;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Status Code")
+    int statusCode;
+
+    @Label("Condition")
+    String condition;
+
+    @Label("Type")
+    String type;
+
+    @Label("Satisfied")
+    boolean satisfied;
+
+    @Label("Evaluation Duration")
+    @Timespan
+    long evaluationDuration;
+}
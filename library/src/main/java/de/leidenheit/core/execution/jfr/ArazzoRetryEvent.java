@@ -0,0 +1,38 @@
+package de.leidenheit.core.execution.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("de.leidenheit.arazzo.Retry")
+@Label("Arazzo Retry")
+@Description("Retry of a step scheduled by a failure action")
+@Category({"Arazzo", "Execution"})
+@StackTrace(false)
+public class ArazzoRetryEvent extends jdk.jfr.Event {
+
+    @Label("Workflow Id")
+    String workflowId;
+
+    @Label("Step Id")
+    String stepId;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Status Code")
+    int statusCode;
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Retry Limit")
+    int retryLimit;
+
+    @Label("Delay")
+    @Timespan
+    long delay;
+}
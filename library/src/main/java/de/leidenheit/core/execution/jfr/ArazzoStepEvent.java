@@ -0,0 +1,68 @@
+package de.leidenheit.core.execution.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("de.leidenheit.arazzo.Step")
+@Label("Arazzo Step")
+@Description("Execution of an arazzo step including its request, criteria and outputs")
+@Category({"Arazzo", "Execution"})
+@StackTrace(false)
+public class ArazzoStepEvent extends jdk.jfr.Event {
+
+    @Label("Workflow Id")
+    String workflowId;
+
+    @Label("Step Id")
+    String stepId;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Status Code")
+    int statusCode;
+
+    @Label("Successful")
+    boolean successful;
+
+    @Label("Request Build")
+    @Timespan
+    long requestBuild;
+
+    @Label("Payload Replacement")
+    @Timespan
+    long payloadReplacement;
+
+    @Label("Connection Acquisition")
+    @Timespan
+    long connectionAcquisition;
+
+    @Label("Time To First Byte")
+    @Timespan
+    long timeToFirstByte;
+
+    @Label("Body Download")
+    @Timespan
+    long bodyDownload;
+
+    @Label("Criteria Evaluation")
+    @Timespan
+    long criteriaEvaluation;
+
+    @Label("Output Extraction")
+    @Timespan
+    long outputExtraction;
+
+    @Label("Request Bytes")
+    @DataAmount
+    long requestBytes;
+
+    @Label("Response Bytes")
+    @DataAmount
+    long responseBytes;
+}
@@ -0,0 +1,21 @@
+package de.leidenheit.core.execution.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("de.leidenheit.arazzo.Workflow")
+@Label("Arazzo Workflow")
+@Description("Execution of an arazzo workflow")
+@Category({"Arazzo", "Execution"})
+@StackTrace(false)
+public class ArazzoWorkflowEvent extends jdk.jfr.Event {
+
+    @Label("Workflow Id")
+    String workflowId;
+
+    @Label("Completed")
+    boolean completed;
+}
@@ -0,0 +1,146 @@
+package de.leidenheit.core.execution.jfr;
+
+import de.leidenheit.core.execution.context.StepTimings;
+import de.leidenheit.core.execution.listener.ExecutionListener;
+import de.leidenheit.core.model.Criterion;
+import de.leidenheit.core.model.Step;
+import de.leidenheit.core.model.Workflow;
+import jdk.jfr.EventType;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+
+/**
+ * Emits the arazzo flight recorder events; registered by default through {@link java.util.ServiceLoader}.
+ * <p>
+ * Events are only created if the respective event type is enabled in a running recording, so the listener
+ * costs no more than a few checks per step otherwise.
+ */
+public class JfrExecutionListener implements ExecutionListener {
+
+    // workflows and steps nest (e.g. goto workflow), hence in-flight events are tracked as stacks per thread
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+    // stands in for events of workflows and steps started while their type was disabled, to keep the stacks aligned
+    private static final ArazzoWorkflowEvent DISABLED_WORKFLOW_EVENT = new ArazzoWorkflowEvent();
+    private static final ArazzoStepEvent DISABLED_STEP_EVENT = new ArazzoStepEvent();
+
+    private static final EventType WORKFLOW_EVENT_TYPE = EventType.getEventType(ArazzoWorkflowEvent.class);
+    private static final EventType STEP_EVENT_TYPE = EventType.getEventType(ArazzoStepEvent.class);
+    private static final EventType CRITERION_EVENT_TYPE = EventType.getEventType(ArazzoCriterionEvent.class);
+    private static final EventType RETRY_EVENT_TYPE = EventType.getEventType(ArazzoRetryEvent.class);
+
+    @Override
+    public void onWorkflowStart(final Workflow workflow, final long startNanos) {
+        if (!WORKFLOW_EVENT_TYPE.isEnabled()) {
+            STATE.get().workflows.push(DISABLED_WORKFLOW_EVENT);
+            return;
+        }
+        var event = new ArazzoWorkflowEvent();
+        event.begin();
+        STATE.get().workflows.push(event);
+    }
+
+    @Override
+    public void onWorkflowEnd(final Workflow workflow, final long startNanos, final long durationNanos, final boolean completed) {
+        var event = STATE.get().workflows.poll();
+        if (Objects.isNull(event) || event == DISABLED_WORKFLOW_EVENT) return;
+        event.end();
+        if (event.shouldCommit()) {
+            event.workflowId = workflow.getWorkflowId();
+            event.completed = completed;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onStepStart(final Workflow workflow, final Step step, final long startNanos) {
+        if (!STEP_EVENT_TYPE.isEnabled()) {
+            STATE.get().steps.push(DISABLED_STEP_EVENT);
+            return;
+        }
+        var event = new ArazzoStepEvent();
+        event.begin();
+        STATE.get().steps.push(event);
+    }
+
+    @Override
+    public void onResponseReceived(final Workflow workflow, final Step step, final int statusCode, final long sentNanos, final long latencyNanos) {
+        var state = STATE.get();
+        state.lastStatusCode = statusCode;
+        var event = state.steps.peek();
+        if (Objects.nonNull(event) && event != DISABLED_STEP_EVENT) event.statusCode = statusCode;
+    }
+
+    @Override
+    public void onStepTimings(final Workflow workflow, final Step step, final StepTimings timings) {
+        var event = STATE.get().steps.peek();
+        if (Objects.isNull(event) || event == DISABLED_STEP_EVENT || !event.isEnabled()) return;
+        event.requestBuild = timings.getRequestBuildNanos();
+        event.payloadReplacement = timings.getPayloadReplacementNanos();
+        event.connectionAcquisition = timings.getConnectionAcquisitionNanos();
+        event.timeToFirstByte = timings.getTimeToFirstByteNanos();
+        event.bodyDownload = timings.getBodyDownloadNanos();
+        event.criteriaEvaluation = timings.getCriteriaEvaluationNanos();
+        event.outputExtraction = timings.getOutputExtractionNanos();
+        event.requestBytes = timings.getRequestBytes();
+        event.responseBytes = timings.getResponseBytes();
+    }
+
+    @Override
+    public void onStepEnd(final Workflow workflow, final Step step, final long startNanos, final long durationNanos, final boolean successful) {
+        var event = STATE.get().steps.poll();
+        if (Objects.isNull(event) || event == DISABLED_STEP_EVENT) return;
+        event.end();
+        if (event.shouldCommit()) {
+            event.workflowId = workflow.getWorkflowId();
+            event.stepId = step.getStepId();
+            event.operation = operationOf(step);
+            event.successful = successful;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onCriterionEvaluated(final Workflow workflow, final Step step, final Criterion criterion, final boolean satisfied, final long startNanos, final long durationNanos) {
+        if (!CRITERION_EVENT_TYPE.isEnabled()) return;
+        var event = new ArazzoCriterionEvent();
+        if (!event.shouldCommit()) return;
+        event.workflowId = workflow.getWorkflowId();
+        event.stepId = step.getStepId();
+        event.operation = operationOf(step);
+        event.statusCode = STATE.get().lastStatusCode;
+        event.condition = criterion.getCondition();
+        event.type = String.valueOf(criterion.getType());
+        event.satisfied = satisfied;
+        event.evaluationDuration = durationNanos;
+        event.commit();
+    }
+
+    @Override
+    public void onRetryScheduled(final Workflow workflow, final Step step, final int attempt, final int retryLimit, final long scheduledNanos, final long delayNanos) {
+        if (!RETRY_EVENT_TYPE.isEnabled()) return;
+        var event = new ArazzoRetryEvent();
+        if (!event.shouldCommit()) return;
+        event.workflowId = workflow.getWorkflowId();
+        event.stepId = step.getStepId();
+        event.operation = operationOf(step);
+        event.statusCode = STATE.get().lastStatusCode;
+        event.attempt = attempt;
+        event.retryLimit = retryLimit;
+        event.delay = delayNanos;
+        event.commit();
+    }
+
+    private static String operationOf(final Step step) {
+        if (Objects.nonNull(step.getOperationId())) return step.getOperationId();
+        if (Objects.nonNull(step.getOperationPath())) return step.getOperationPath();
+        return step.getWorkflowId();
+    }
+
+    private static final class State {
+        private final Deque<ArazzoWorkflowEvent> workflows = new ArrayDeque<>();
+        private final Deque<ArazzoStepEvent> steps = new ArrayDeque<>();
+        private int lastStatusCode;
+    }
+}
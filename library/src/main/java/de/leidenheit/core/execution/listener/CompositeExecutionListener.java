@@ -0,0 +1,85 @@
+package de.leidenheit.core.execution.listener;
+
+import de.leidenheit.core.execution.context.StepTimings;
+import de.leidenheit.core.model.Criterion;
+import de.leidenheit.core.model.Step;
+import de.leidenheit.core.model.Workflow;
+import de.leidenheit.infrastructure.resolving.ExpressionCache;
+
+import java.util.List;
+
+/**
+ * Dispatches every callback to a fixed list of listeners in order.
+ */
+public class CompositeExecutionListener implements ExecutionListener {
+
+    private final ExecutionListener[] listeners;
+
+    public CompositeExecutionListener(final List<ExecutionListener> listeners) {
+        this.listeners = listeners.toArray(ExecutionListener[]::new);
+    }
+
+    public boolean isEmpty() {
+        return listeners.length == 0;
+    }
+
+    @Override
+    public void onWorkflowStart(final Workflow workflow, final long startNanos) {
+        for (ExecutionListener listener : listeners) listener.onWorkflowStart(workflow, startNanos);
+    }
+
+    @Override
+    public void onWorkflowEnd(final Workflow workflow, final long startNanos, final long durationNanos, final boolean completed) {
+        for (ExecutionListener listener : listeners) listener.onWorkflowEnd(workflow, startNanos, durationNanos, completed);
+    }
+
+    @Override
+    public void onStepStart(final Workflow workflow, final Step step, final long startNanos) {
+        for (ExecutionListener listener : listeners) listener.onStepStart(workflow, step, startNanos);
+    }
+
+    @Override
+    public void onStepEnd(final Workflow workflow, final Step step, final long startNanos, final long durationNanos, final boolean successful) {
+        for (ExecutionListener listener : listeners) listener.onStepEnd(workflow, step, startNanos, durationNanos, successful);
+    }
+
+    @Override
+    public void onStepTimings(final Workflow workflow, final Step step, final StepTimings timings) {
+        for (ExecutionListener listener : listeners) listener.onStepTimings(workflow, step, timings);
+    }
+
+    @Override
+    public void onRequestSent(final Workflow workflow, final Step step, final String method, final String url, final long sentNanos) {
+        for (ExecutionListener listener : listeners) listener.onRequestSent(workflow, step, method, url, sentNanos);
+    }
+
+    @Override
+    public void onResponseReceived(final Workflow workflow, final Step step, final int statusCode, final long sentNanos, final long latencyNanos) {
+        for (ExecutionListener listener : listeners) listener.onResponseReceived(workflow, step, statusCode, sentNanos, latencyNanos);
+    }
+
+    @Override
+    public void onCriterionEvaluated(final Workflow workflow, final Step step, final Criterion criterion, final boolean satisfied, final long startNanos, final long durationNanos) {
+        for (ExecutionListener listener : listeners) listener.onCriterionEvaluated(workflow, step, criterion, satisfied, startNanos, durationNanos);
+    }
+
+    @Override
+    public void onActionChosen(final Workflow workflow, final Step step, final String actionName, final String actionType, final long chosenNanos) {
+        for (ExecutionListener listener : listeners) listener.onActionChosen(workflow, step, actionName, actionType, chosenNanos);
+    }
+
+    @Override
+    public void onRetryScheduled(final Workflow workflow, final Step step, final int attempt, final int retryLimit, final long scheduledNanos, final long delayNanos) {
+        for (ExecutionListener listener : listeners) listener.onRetryScheduled(workflow, step, attempt, retryLimit, scheduledNanos, delayNanos);
+    }
+
+    @Override
+    public void onRequestHedged(final Workflow workflow, final Step step, final long sentNanos, final long delayNanos, final boolean hedgeWon) {
+        for (ExecutionListener listener : listeners) listener.onRequestHedged(workflow, step, sentNanos, delayNanos, hedgeWon);
+    }
+
+    @Override
+    public void onExpressionCacheStatistics(final Workflow workflow, final ExpressionCache.Statistics statistics) {
+        for (ExecutionListener listener : listeners) listener.onExpressionCacheStatistics(workflow, statistics);
+    }
+}
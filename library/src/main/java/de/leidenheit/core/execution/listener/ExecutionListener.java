@@ -0,0 +1,64 @@
+package de.leidenheit.core.execution.listener;
+
+import de.leidenheit.core.execution.context.StepTimings;
+import de.leidenheit.core.model.Criterion;
+import de.leidenheit.core.model.Step;
+import de.leidenheit.core.model.Workflow;
+import de.leidenheit.infrastructure.resolving.ExpressionCache;
+
+/**
+ * Callbacks of a workflow run; all timestamps are taken from {@link System#nanoTime()} and all durations are
+ * given in nanoseconds.
+ * <p>
+ * Implementations are discovered through {@link java.util.ServiceLoader} or registered via
+ * {@link ExecutionListeners#register(ExecutionListener)}. Callbacks are invoked on the executing thread and
+ * should return quickly.
+ */
+public interface ExecutionListener {
+
+    default void onWorkflowStart(final Workflow workflow, final long startNanos) {
+    }
+
+    default void onWorkflowEnd(final Workflow workflow, final long startNanos, final long durationNanos, final boolean completed) {
+    }
+
+    default void onStepStart(final Workflow workflow, final Step step, final long startNanos) {
+    }
+
+    default void onStepEnd(final Workflow workflow, final Step step, final long startNanos, final long durationNanos, final boolean successful) {
+    }
+
+    /**
+     * Invoked right before {@link #onStepEnd} for steps that executed an http request.
+     */
+    default void onStepTimings(final Workflow workflow, final Step step, final StepTimings timings) {
+    }
+
+    default void onRequestSent(final Workflow workflow, final Step step, final String method, final String url, final long sentNanos) {
+    }
+
+    default void onResponseReceived(final Workflow workflow, final Step step, final int statusCode, final long sentNanos, final long latencyNanos) {
+    }
+
+    default void onCriterionEvaluated(final Workflow workflow, final Step step, final Criterion criterion, final boolean satisfied, final long startNanos, final long durationNanos) {
+    }
+
+    default void onActionChosen(final Workflow workflow, final Step step, final String actionName, final String actionType, final long chosenNanos) {
+    }
+
+    default void onRetryScheduled(final Workflow workflow, final Step step, final int attempt, final int retryLimit, final long scheduledNanos, final long delayNanos) {
+    }
+
+    /**
+     * Invoked once the response of a hedged request has been taken, either the one of the original request or the one
+     * of its duplicate sent after the given delay.
+     */
+    default void onRequestHedged(final Workflow workflow, final Step step, final long sentNanos, final long delayNanos, final boolean hedgeWon) {
+    }
+
+    /**
+     * Invoked right before {@link #onWorkflowEnd} with the cumulative statistics of the expression cache.
+     */
+    default void onExpressionCacheStatistics(final Workflow workflow, final ExpressionCache.Statistics statistics) {
+    }
+}
@@ -0,0 +1,51 @@
+package de.leidenheit.core.execution.listener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of the listeners attached to workflow executions: listeners provided through
+ * {@code META-INF/services/de.leidenheit.core.execution.listener.ExecutionListener} plus programmatically
+ * registered ones.
+ */
+public final class ExecutionListeners {
+
+    private static final List<ExecutionListener> DISCOVERED = discover();
+    private static final List<ExecutionListener> REGISTERED = new CopyOnWriteArrayList<>();
+
+    private static volatile CompositeExecutionListener current = compose();
+
+    public static void register(final ExecutionListener listener) {
+        REGISTERED.add(listener);
+        current = compose();
+    }
+
+    public static void unregister(final ExecutionListener listener) {
+        REGISTERED.remove(listener);
+        current = compose();
+    }
+
+    /**
+     * @return a listener dispatching to all discovered and registered listeners
+     */
+    public static CompositeExecutionListener current() {
+        return current;
+    }
+
+    private static List<ExecutionListener> discover() {
+        List<ExecutionListener> listeners = new ArrayList<>();
+        ServiceLoader.load(ExecutionListener.class).forEach(listeners::add);
+        return List.copyOf(listeners);
+    }
+
+    private static CompositeExecutionListener compose() {
+        List<ExecutionListener> listeners = new ArrayList<>(DISCOVERED);
+        listeners.addAll(REGISTERED);
+        return new CompositeExecutionListener(listeners);
+    }
+
+    private ExecutionListeners() {
+    }
+}
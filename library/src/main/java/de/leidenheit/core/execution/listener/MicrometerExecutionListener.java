@@ -0,0 +1,148 @@
+package de.leidenheit.core.execution.listener;
+
+import de.leidenheit.core.model.Criterion;
+import de.leidenheit.core.model.Step;
+import de.leidenheit.core.model.Workflow;
+import de.leidenheit.infrastructure.resolving.ExpressionCache;
+import de.leidenheit.infrastructure.transport.AdaptiveConcurrencyLimiter;
+import de.leidenheit.infrastructure.transport.HttpCacheTransport;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes workflow runs as Micrometer meters; requires {@code io.micrometer:micrometer-core} on the classpath.
+ * <p>
+ * Timers: {@code arazzo.workflow.duration}, {@code arazzo.step.duration}, {@code arazzo.request.duration} and
+ * {@code arazzo.criterion.duration}; counters: {@code arazzo.action.chosen}, {@code arazzo.retry.scheduled} and
+ * {@code arazzo.request.hedged} (tagged by whether the hedge won), whose rate relative to the count of
+ * {@code arazzo.request.duration} is the hedge rate.
+ * The expression cache is published as {@code arazzo.expression.cache.gets} (tagged by result hit/miss),
+ * {@code arazzo.expression.cache.evictions} and {@code arazzo.expression.cache.size}; an http cache bound by
+ * {@link #bindHttpCache(HttpCacheTransport)} likewise as {@code arazzo.http.cache.requests} (tagged by result
+ * hit/revalidated/miss), {@code arazzo.http.cache.evictions} and {@code arazzo.http.cache.bytes}. The limits of an
+ * adaptive concurrency limiter bound by {@link #bindAdaptiveConcurrency(AdaptiveConcurrencyLimiter)} are published as
+ * {@code arazzo.concurrency.limit} (tagged by source).
+ */
+public class MicrometerExecutionListener implements ExecutionListener {
+
+    private final MeterRegistry registry;
+    private final AtomicReference<ExpressionCache.Statistics> expressionCacheStatistics =
+            new AtomicReference<>(new ExpressionCache.Statistics(0, 0, 0, 0, 0));
+
+    public MicrometerExecutionListener(final MeterRegistry registry) {
+        this.registry = registry;
+
+        FunctionCounter.builder("arazzo.expression.cache.gets", expressionCacheStatistics, ref -> ref.get().hitCount())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("arazzo.expression.cache.gets", expressionCacheStatistics, ref -> ref.get().missCount())
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("arazzo.expression.cache.evictions", expressionCacheStatistics, ref -> ref.get().evictionCount())
+                .register(registry);
+        Gauge.builder("arazzo.expression.cache.size", expressionCacheStatistics, ref -> ref.get().size())
+                .register(registry);
+    }
+
+    @Override
+    public void onWorkflowEnd(final Workflow workflow, final long startNanos, final long durationNanos, final boolean completed) {
+        Timer.builder("arazzo.workflow.duration")
+                .tag("workflow", workflow.getWorkflowId())
+                .tag("completed", String.valueOf(completed))
+                .register(registry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onStepEnd(final Workflow workflow, final Step step, final long startNanos, final long durationNanos, final boolean successful) {
+        Timer.builder("arazzo.step.duration")
+                .tag("workflow", workflow.getWorkflowId())
+                .tag("step", step.getStepId())
+                .tag("successful", String.valueOf(successful))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onResponseReceived(final Workflow workflow, final Step step, final int statusCode, final long sentNanos, final long latencyNanos) {
+        Timer.builder("arazzo.request.duration")
+                .tag("workflow", workflow.getWorkflowId())
+                .tag("step", step.getStepId())
+                .tag("status", String.valueOf(statusCode))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onCriterionEvaluated(final Workflow workflow, final Step step, final Criterion criterion, final boolean satisfied, final long startNanos, final long durationNanos) {
+        Timer.builder("arazzo.criterion.duration")
+                .tag("workflow", workflow.getWorkflowId())
+                .tag("step", step.getStepId())
+                .tag("type", String.valueOf(criterion.getType()))
+                .tag("satisfied", String.valueOf(satisfied))
+                .register(registry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onActionChosen(final Workflow workflow, final Step step, final String actionName, final String actionType, final long chosenNanos) {
+        registry.counter("arazzo.action.chosen",
+                        "workflow", workflow.getWorkflowId(),
+                        "step", step.getStepId(),
+                        "type", actionType)
+                .increment();
+    }
+
+    @Override
+    public void onRetryScheduled(final Workflow workflow, final Step step, final int attempt, final int retryLimit, final long scheduledNanos, final long delayNanos) {
+        registry.counter("arazzo.retry.scheduled",
+                        "workflow", workflow.getWorkflowId(),
+                        "step", step.getStepId())
+                .increment();
+    }
+
+    @Override
+    public void onRequestHedged(final Workflow workflow, final Step step, final long sentNanos, final long delayNanos, final boolean hedgeWon) {
+        registry.counter("arazzo.request.hedged",
+                        "workflow", workflow.getWorkflowId(),
+                        "step", step.getStepId(),
+                        "won", String.valueOf(hedgeWon))
+                .increment();
+    }
+
+    public MicrometerExecutionListener bindHttpCache(final HttpCacheTransport httpCache) {
+        FunctionCounter.builder("arazzo.http.cache.requests", httpCache, cache -> cache.getStatistics().hitCount())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("arazzo.http.cache.requests", httpCache, cache -> cache.getStatistics().revalidationCount())
+                .tag("result", "revalidated")
+                .register(registry);
+        FunctionCounter.builder("arazzo.http.cache.requests", httpCache, cache -> cache.getStatistics().missCount())
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("arazzo.http.cache.evictions", httpCache, cache -> cache.getStatistics().evictionCount())
+                .register(registry);
+        Gauge.builder("arazzo.http.cache.bytes", httpCache, cache -> cache.getStatistics().bytes())
+                .register(registry);
+        return this;
+    }
+
+    public MicrometerExecutionListener bindAdaptiveConcurrency(final AdaptiveConcurrencyLimiter limiter) {
+        limiter.whenLimited(name -> Gauge.builder("arazzo.concurrency.limit", limiter, l -> l.getLimit(name))
+                .tag("source", name)
+                .register(registry));
+        return this;
+    }
+
+    @Override
+    public void onExpressionCacheStatistics(final Workflow workflow, final ExpressionCache.Statistics statistics) {
+        expressionCacheStatistics.set(statistics);
+    }
+}
@@ -0,0 +1,103 @@
+package de.leidenheit.core.execution.listener;
+
+import de.leidenheit.core.model.Criterion;
+import de.leidenheit.core.model.Step;
+import de.leidenheit.core.model.Workflow;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregates latency histograms per step, per request and per criterion, keyed by {@code workflowId.stepId}
+ * (criteria additionally by their condition).
+ */
+public class StepLatencyHistogramListener implements ExecutionListener {
+
+    private final Map<String, LatencyHistogram> workflowHistograms = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> stepHistograms = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> requestHistograms = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> criterionHistograms = new ConcurrentHashMap<>();
+
+    @Override
+    public void onWorkflowEnd(final Workflow workflow, final long startNanos, final long durationNanos, final boolean completed) {
+        histogramOf(workflowHistograms, workflow.getWorkflowId()).record(durationNanos);
+    }
+
+    @Override
+    public void onStepEnd(final Workflow workflow, final Step step, final long startNanos, final long durationNanos, final boolean successful) {
+        histogramOf(stepHistograms, keyOf(workflow, step)).record(durationNanos);
+    }
+
+    @Override
+    public void onResponseReceived(final Workflow workflow, final Step step, final int statusCode, final long sentNanos, final long latencyNanos) {
+        histogramOf(requestHistograms, keyOf(workflow, step)).record(latencyNanos);
+    }
+
+    @Override
+    public void onCriterionEvaluated(final Workflow workflow, final Step step, final Criterion criterion, final boolean satisfied, final long startNanos, final long durationNanos) {
+        histogramOf(criterionHistograms, "%s [%s]".formatted(keyOf(workflow, step), criterion.getCondition())).record(durationNanos);
+    }
+
+    public Map<String, LatencyHistogram> getWorkflowHistograms() {
+        return Collections.unmodifiableMap(workflowHistograms);
+    }
+
+    public Map<String, LatencyHistogram> getStepHistograms() {
+        return Collections.unmodifiableMap(stepHistograms);
+    }
+
+    public Map<String, LatencyHistogram> getRequestHistograms() {
+        return Collections.unmodifiableMap(requestHistograms);
+    }
+
+    public Map<String, LatencyHistogram> getCriterionHistograms() {
+        return Collections.unmodifiableMap(criterionHistograms);
+    }
+
+    /**
+     * @return a table per category listing the entries ordered by their total time, most expensive first
+     */
+    public String summary() {
+        var summary = new StringBuilder();
+        appendSummary(summary, "workflows", workflowHistograms);
+        appendSummary(summary, "steps", stepHistograms);
+        appendSummary(summary, "requests", requestHistograms);
+        appendSummary(summary, "criteria", criterionHistograms);
+        return summary.toString();
+    }
+
+    private static void appendSummary(final StringBuilder summary,
+                                      final String title,
+                                      final Map<String, LatencyHistogram> histograms) {
+        summary.append("%s (count, total, mean, p50, p99, max in ms):%n".formatted(title));
+        histograms.entrySet().stream()
+                .sorted(Map.Entry.<String, LatencyHistogram>comparingByValue(
+                        Comparator.comparingLong(LatencyHistogram::getTotalNanos)).reversed())
+                .forEach(entry -> {
+                    var histogram = entry.getValue();
+                    summary.append("  %s: %d, %.3f, %.3f, %.3f, %.3f, %.3f%n".formatted(
+                            entry.getKey(),
+                            histogram.getCount(),
+                            toMillis(histogram.getTotalNanos()),
+                            histogram.getMeanNanos() / TimeUnit.MILLISECONDS.toNanos(1),
+                            toMillis(histogram.getPercentileNanos(50)),
+                            toMillis(histogram.getPercentileNanos(99)),
+                            toMillis(histogram.getMaxNanos())));
+                });
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static LatencyHistogram histogramOf(final Map<String, LatencyHistogram> histograms, final String key) {
+        return histograms.computeIfAbsent(key, k -> new LatencyHistogram());
+    }
+
+    private static String keyOf(final Workflow workflow, final Step step) {
+        return "%s.%s".formatted(workflow.getWorkflowId(), step.getStepId());
+    }
+}
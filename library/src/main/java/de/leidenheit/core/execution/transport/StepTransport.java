@@ -0,0 +1,83 @@
+package de.leidenheit.core.execution.transport;
+
+import de.leidenheit.core.model.SourceDescription;
+import de.leidenheit.core.model.Step;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+import java.util.List;
+
+/**
+ * Transport of the http requests of steps executed by {@link de.leidenheit.core.execution.RestAssuredStepExecutor}.
+ * <p>
+ * A transport is a RestAssured {@link Filter}: it either forwards the request to the next transport, and finally
+ * the network, via {@link io.restassured.filter.FilterContext#next}, or answers the request itself. Requests pass
+ * through the transports by their {@link Stage}, and through the ones of the same stage in the order of their
+ * registration.
+ */
+public interface StepTransport extends Filter {
+
+    /**
+     * Stages of the transports in the order requests pass through them; the filters the executor applies in
+     * between are listed by {@link de.leidenheit.core.execution.RestAssuredStepExecutor}.
+     */
+    enum Stage {
+        // answer requests themselves instead of the network, e.g. caches, cassettes, stubs and in-process handlers
+        RESPONDING,
+        // share the responses of identical requests
+        COALESCING,
+        // delay the requests about to be sent by a fixed rate or concurrency
+        RATE_LIMITING,
+        // delay the requests about to be sent by a concurrency adapting to the latency of the ones sent
+        CONCURRENCY_LIMITING
+    }
+
+    /**
+     * @return stage of the transport
+     */
+    default Stage stage() {
+        return Stage.RESPONDING;
+    }
+
+    /**
+     * @return whether the transport handles requests to the operations of the given source description
+     */
+    default boolean appliesTo(final SourceDescription sourceDescription) {
+        return true;
+    }
+
+    /**
+     * @return whether the transport handles the requests of the given step to the given source description
+     */
+    default boolean appliesTo(final SourceDescription sourceDescription, final Step step) {
+        return appliesTo(sourceDescription);
+    }
+
+    /**
+     * @return the filter handling the requests of the given step; transports keeping state per source description
+     * return one bound to it
+     */
+    default Filter filterFor(final SourceDescription sourceDescription, final Step step) {
+        return this;
+    }
+
+    /**
+     * @return a response of the given parts, detached from any connection, for transports answering requests
+     * themselves
+     */
+    static Response responseOf(final int statusCode, final List<Header> headerList, final byte[] body) {
+        var headers = new Headers(headerList);
+        var responseBuilder = new ResponseBuilder()
+                .setStatusCode(statusCode)
+                .setStatusLine("HTTP/1.1 %d".formatted(statusCode))
+                .setHeaders(headers)
+                .setBody(body);
+        if (headers.hasHeaderWithName("Content-Type")) {
+            responseBuilder.setContentType(headers.getValue("Content-Type"));
+        }
+        return responseBuilder.build();
+    }
+}
@@ -0,0 +1,48 @@
+package de.leidenheit.core.execution.transport;
+
+import de.leidenheit.core.model.SourceDescription;
+import de.leidenheit.core.model.Step;
+import io.restassured.filter.Filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of the transports requests of steps pass through, in the order of their stage and, within a stage, of
+ * their registration.
+ */
+public final class StepTransports {
+
+    private static final List<StepTransport> REGISTERED = new CopyOnWriteArrayList<>();
+
+    public static synchronized void register(final StepTransport transport) {
+        int index = 0;
+        while (index < REGISTERED.size() && REGISTERED.get(index).stage().compareTo(transport.stage()) <= 0) index++;
+        REGISTERED.add(index, transport);
+    }
+
+    public static void unregister(final StepTransport transport) {
+        REGISTERED.remove(transport);
+    }
+
+    /**
+     * @return the transports of the given stage applying to the requests of the given step to the given source
+     * description
+     */
+    public static List<Filter> applicableTo(final SourceDescription sourceDescription,
+                                            final Step step,
+                                            final StepTransport.Stage stage) {
+        if (REGISTERED.isEmpty()) return List.of();
+        List<Filter> transports = new ArrayList<>(2);
+        for (StepTransport transport : REGISTERED) {
+            if (transport.stage() == stage && transport.appliesTo(sourceDescription, step)) {
+                transports.add(transport.filterFor(sourceDescription, step));
+            }
+        }
+        return transports;
+    }
+
+    private StepTransports() {
+    }
+}
@@ -1,5 +1,6 @@
 package de.leidenheit.core.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.swagger.v3.oas.models.OpenAPI;
 import lombok.*;
@@ -20,6 +21,9 @@ public class SourceDescription {
 
     private OpenAPI referencedOpenAPI;
     private ArazzoSpecification referencedArazzo;
+    // operationId to path and http method of the referenced openapi
+    @JsonIgnore
+    private Map<String, OperationRoute> operationRoutes;
 
     @Getter
     @AllArgsConstructor
@@ -29,4 +33,7 @@ public class SourceDescription {
 
         private final String value;
     }
+
+    public record OperationRoute(String path, String method) {
+    }
 }
@@ -0,0 +1,169 @@
+package de.leidenheit.infrastructure.evaluation;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.jayway.jsonpath.JsonPath;
+import de.leidenheit.core.model.Criterion;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Criterion whose condition has been parsed once: simple conditions are split into operands and operator,
+ * regular expressions are compiled and JSONPath conditions are split into a compiled query (or JSON pointer),
+ * operator and expected value.
+ * <p>
+ * Conditions that cannot be parsed leave the respective parts null; the evaluator then falls back to
+ * interpreting the raw condition and reports the error there. Instances are immutable and cached per criterion.
+ */
+public final class CompiledCriterion {
+
+    private static final Pattern JSON_POINTER_CONDITION = Pattern.compile("#(?<ptr>/[^ ]+)\\s*(?<operator>==|!=|<=|>=|<|>)\\s*(?<expected>.+)");
+    private static final Pattern JSON_PATH_CONDITION = Pattern.compile("(?<query>[$][^ ]+)\\s*(?<operator>==|!=|<=|>=|<|>)\\s*(?<expected>.+)");
+    private static final Pattern OPERATORS = Pattern.compile("==|!=|<=|>=|<|>");
+    private static final Map<Criterion, CompiledCriterion> CACHE = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final Criterion criterion;
+
+    // simple condition
+    private final String leftOperand;
+    private final String rightOperand;
+    private final String operator;
+
+    // regex condition
+    private final Pattern regex;
+
+    // jsonpath condition
+    private final JsonPointer jsonPointer;
+    private final JsonPath jsonPathQuery;
+    private final String jsonOperator;
+    private final String jsonExpected;
+
+    private CompiledCriterion(final Criterion criterion) {
+        this.criterion = criterion;
+        var type = Objects.requireNonNullElse(criterion.getType(), Criterion.CriterionType.SIMPLE);
+        var condition = criterion.getCondition();
+
+        String[] operands = type == Criterion.CriterionType.SIMPLE && Objects.nonNull(condition)
+                ? OPERATORS.split(condition) : null;
+        if (Objects.nonNull(operands) && operands.length == 2) {
+            this.leftOperand = operands[0].trim();
+            this.rightOperand = operands[1].trim();
+            this.operator = operatorOf(condition);
+        } else {
+            this.leftOperand = null;
+            this.rightOperand = null;
+            this.operator = null;
+        }
+
+        this.regex = type == Criterion.CriterionType.REGEX ? compileRegex(condition) : null;
+
+        JsonPointer pointer = null;
+        JsonPath query = null;
+        String compiledOperator = null;
+        String expected = null;
+        if (type == Criterion.CriterionType.JSONPATH && Objects.nonNull(condition)) {
+            try {
+                if (condition.startsWith("#/")) {
+                    Matcher matcher = JSON_POINTER_CONDITION.matcher(condition);
+                    if (matcher.find()) {
+                        pointer = JsonPointer.compile(matcher.group("ptr"));
+                        compiledOperator = matcher.group("operator");
+                        expected = matcher.group("expected");
+                    }
+                } else {
+                    Matcher matcher = JSON_PATH_CONDITION.matcher(condition);
+                    if (matcher.find()) {
+                        query = JsonPath.compile(matcher.group("query"));
+                        compiledOperator = matcher.group("operator");
+                        expected = matcher.group("expected");
+                    }
+                }
+            } catch (RuntimeException e) {
+                // left to the evaluator to report
+                pointer = null;
+                query = null;
+                compiledOperator = null;
+                expected = null;
+            }
+        }
+        this.jsonPointer = pointer;
+        this.jsonPathQuery = query;
+        this.jsonOperator = compiledOperator;
+        this.jsonExpected = expected;
+    }
+
+    public static CompiledCriterion of(final Criterion criterion) {
+        return CACHE.computeIfAbsent(criterion, CompiledCriterion::new);
+    }
+
+    /**
+     * @return the operator of a simple condition; the first match in the order '==', '!=', '<=', '>=', '<', '>'
+     */
+    static String operatorOf(final String condition) {
+        if (condition.contains("==")) return "==";
+        if (condition.contains("!=")) return "!=";
+        if (condition.contains("<=")) return "<=";
+        if (condition.contains(">=")) return ">=";
+        if (condition.contains("<")) return "<";
+        if (condition.contains(">")) return ">";
+        return null;
+    }
+
+    private static Pattern compileRegex(final String condition) {
+        if (Objects.isNull(condition)) return null;
+        try {
+            return Pattern.compile(condition);
+        } catch (RuntimeException e) {
+            // left to the evaluator to report
+            return null;
+        }
+    }
+
+    public Criterion getCriterion() {
+        return criterion;
+    }
+
+    public boolean isSimpleCompiled() {
+        return Objects.nonNull(operator);
+    }
+
+    public String getLeftOperand() {
+        return leftOperand;
+    }
+
+    public String getRightOperand() {
+        return rightOperand;
+    }
+
+    public String getOperator() {
+        return operator;
+    }
+
+    public Pattern getRegex() {
+        return regex;
+    }
+
+    public boolean isJsonPathCompiled() {
+        return Objects.nonNull(jsonOperator);
+    }
+
+    public JsonPointer getJsonPointer() {
+        return jsonPointer;
+    }
+
+    public JsonPath getJsonPathQuery() {
+        return jsonPathQuery;
+    }
+
+    public String getJsonOperator() {
+        return jsonOperator;
+    }
+
+    public String getJsonExpected() {
+        return jsonExpected;
+    }
+}
@@ -2,9 +2,8 @@ package de.leidenheit.infrastructure.evaluation;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.jayway.jsonpath.JsonPath;
 import de.leidenheit.core.model.Criterion;
+import de.leidenheit.infrastructure.json.JsonRuntime;
 import de.leidenheit.infrastructure.resolving.ArazzoExpressionResolver;
 import de.leidenheit.infrastructure.resolving.ResolverContext;
 import org.w3c.dom.Document;
@@ -16,28 +15,26 @@ import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathFactory;
 import java.io.StringReader;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class CriterionEvaluator {
 
     private final ArazzoExpressionResolver resolver;
-    private final ObjectMapper mapper = new ObjectMapper();
 
     public CriterionEvaluator(final ArazzoExpressionResolver resolver) {
         this.resolver = resolver;
     }
 
     public boolean evalCriterion(final Criterion criterion, final ResolverContext resolverContext) {
+        var compiledCriterion = CompiledCriterion.of(criterion);
         if (criterion.getType() != null) {
             return switch (criterion.getType()) {
-                case REGEX -> evaluateRegex(criterion, resolverContext);
-                case JSONPATH -> evaluateJsonPath(criterion, resolverContext);
+                case REGEX -> evaluateRegex(compiledCriterion, resolverContext);
+                case JSONPATH -> evaluateJsonPath(compiledCriterion, resolverContext);
                 case XPATH -> evaluateXPath(criterion, resolverContext);
-                case SIMPLE -> evaluateSimpleCondition(criterion, resolverContext);
+                case SIMPLE -> evaluateSimpleCondition(compiledCriterion, resolverContext);
             };
         } else {
-            return evaluateSimpleCondition(criterion, resolverContext);
+            return evaluateSimpleCondition(compiledCriterion, resolverContext);
         }
     }
 
@@ -49,90 +46,58 @@ public class CriterionEvaluator {
         return null;
     }
 
-    private boolean evaluateSimpleCondition(final Criterion criterion, final ResolverContext resolverContext) {
+    private boolean evaluateSimpleCondition(final CompiledCriterion compiledCriterion, final ResolverContext resolverContext) {
         // e.g. $statusCode == 200
-        return evaluateLogicalExpression(criterion.getCondition(), resolverContext);
+        if (compiledCriterion.isSimpleCompiled()) {
+            return evaluateComparison(compiledCriterion.getLeftOperand(), compiledCriterion.getOperator(),
+                    compiledCriterion.getRightOperand(), resolverContext);
+        }
+        return evaluateLogicalExpression(compiledCriterion.getCriterion().getCondition(), resolverContext);
     }
 
-    private boolean evaluateRegex(final Criterion criterion, final ResolverContext resolverContext) {
+    private boolean evaluateRegex(final CompiledCriterion compiledCriterion, final ResolverContext resolverContext) {
+        var criterion = compiledCriterion.getCriterion();
         String contextValue = resolveCriterionContext(criterion.getContext(), resolverContext);
         if (Objects.isNull(contextValue)) return false;
         // e.g. $response.body.fieldHugo -> ^FieldHugoValue$
-        return contextValue.matches(criterion.getCondition());
+        if (Objects.isNull(compiledCriterion.getRegex())) return contextValue.matches(criterion.getCondition());
+        return compiledCriterion.getRegex().matcher(contextValue).matches();
     }
 
-    private boolean evaluateJsonPath(final Criterion criterion, final ResolverContext resolverContext) {
+    private boolean evaluateJsonPath(final CompiledCriterion compiledCriterion, final ResolverContext resolverContext) {
         // resolve the context value (e.g., response body)
-        String contextValue = resolveCriterionContext(criterion.getContext(), resolverContext);
+        String contextValue = resolveCriterionContext(compiledCriterion.getCriterion().getContext(), resolverContext);
         if (Objects.isNull(contextValue)) return false;
 
         // parse the contextValue into a JSON Node
         JsonNode jsonNode;
         try {
-            jsonNode = mapper.readTree(contextValue);
-
-            // check if the criterion uses a JSON Pointer (starts with #/)
-            if (criterion.getCondition().startsWith("#/")) {
-                // extract JSON pointer, operator and expected value
-                Pattern pattern = Pattern.compile("#(?<ptr>/[^ ]+)\\s*(?<operator>==|!=|<=|>=|<|>)\\s*(?<expected>.+)");
-                Matcher matcher = pattern.matcher(criterion.getCondition());
-
-                if (matcher.find()) {
-                    String ptr = matcher.group("ptr");
-                    String operator = matcher.group("operator");
-                    String expected = matcher.group("expected");
-
-                    // use JSON Pointer to resolve the node
-                    JsonNode nodeAtPointer = jsonNode.at(ptr);
-                    // TODO replace with exception
-                    if (Objects.isNull(nodeAtPointer)) throw new RuntimeException("Unexpected");
-
-                    // resolve expected if it is an expression
-                    expected = resolver.resolveString(expected);
-
-                    // evaluate condition based on the extracted node (simple condition)
-                    var resolvedCriterion = Criterion.builder()
-                            .type(Criterion.CriterionType.SIMPLE)
-                            .condition(String.format("%s %s %s", nodeAtPointer.asText(), operator, expected))
-                            .context(criterion.getContext())
-                            .build();
-                    return evaluateSimpleCondition(resolvedCriterion, resolverContext);
-                } else {
-                    // TODO replace with exception
-                    throw new RuntimeException("Unexpected");
-                }
-            } else {
-                // extract query, operator and expected value
-                Pattern pattern = Pattern.compile("(?<query>[$][^ ]+)\\s*(?<operator>==|!=|<=|>=|<|>)\\s*(?<expected>.+)");
-                Matcher matcher = pattern.matcher(criterion.getCondition());
-
-                if (matcher.find()) {
-                    String query = matcher.group("query");
-                    String operator = matcher.group("operator");
-                    String expected = matcher.group("expected");
-
-                    // resolve expected if it is an expression
-                    expected = resolver.resolveString(expected);
-
-                    var jsonNodeValue = JsonPath.parse(jsonNode.toString()).read(query);
-                    // TODO replace with exception
-                    if (Objects.isNull(jsonNodeValue)) throw new RuntimeException("Unexpected");
-                    // Evaluate condition based on the extracted node (simple condition)
-                    var resolvedCriterion = Criterion.builder()
-                            .type(Criterion.CriterionType.SIMPLE)
-                            .condition(String.format("%s %s %s", jsonNodeValue, operator, expected))
-                            .context(criterion.getContext())
-                            .build();
-                    return evaluateSimpleCondition(resolvedCriterion, resolverContext);
-                } else {
-                    // TODO replace with exception
-                    throw new RuntimeException("Unexpected");
-                }
-            }
+            jsonNode = JsonRuntime.jsonMapper().readTree(contextValue);
         } catch (JsonProcessingException e) {
             // TODO replace with exception
             throw new RuntimeException(e);
         }
+
+        // TODO replace with exception
+        if (!compiledCriterion.isJsonPathCompiled()) throw new RuntimeException("Unexpected");
+
+        Object actual;
+        if (Objects.nonNull(compiledCriterion.getJsonPointer())) {
+            // use JSON Pointer to resolve the node
+            actual = jsonNode.at(compiledCriterion.getJsonPointer()).asText();
+        } else {
+            // query the already parsed tree instead of re-parsing its string representation
+            actual = JsonRuntime.unwrap(JsonRuntime.jsonPath().parse(jsonNode).read(compiledCriterion.getJsonPathQuery()));
+            // TODO replace with exception
+            if (Objects.isNull(actual)) throw new RuntimeException("Unexpected");
+        }
+
+        // resolve expected if it is an expression
+        var expected = resolver.resolveString(compiledCriterion.getJsonExpected());
+
+        // evaluate condition based on the extracted node (simple condition)
+        return evaluateLogicalExpression(
+                String.format("%s %s %s", actual, compiledCriterion.getJsonOperator(), expected), resolverContext);
     }
 
     private boolean evaluateXPath(final Criterion criterion, final ResolverContext resolverContext) {
@@ -147,31 +112,30 @@ public class CriterionEvaluator {
         if (parts.length != 2) {
             throw new IllegalArgumentException("Invalid simple condition format: " + condition);
         }
+        var operator = CompiledCriterion.operatorOf(condition);
+        // TODO replace with exception
+        if (Objects.isNull(operator)) throw new UnsupportedOperationException("Unsupported operator in condition: " + condition);
+        return evaluateComparison(parts[0].trim(), operator, parts[1].trim(), resolverContext);
+    }
 
-        String leftPart = parts[0].trim();
-        String rightPart = parts[1].trim();
-
+    private boolean evaluateComparison(final String leftPart,
+                                       final String operator,
+                                       final String rightPart,
+                                       final ResolverContext resolverContext) {
         // resolved left and right, e.g. $statusCode
         Object leftValue = resolver.resolveExpression(leftPart, resolverContext);
         Object rightValue = resolver.resolveExpression(rightPart, resolverContext);
 
-        // determine operator
-        if (condition.contains("==")) {
-            return compareValues(leftValue, rightValue) == 0;
-        } else if (condition.contains("!=")) {
-            return compareValues(leftValue, rightValue) != 0;
-        } else if (condition.contains("<=")) {
-            return compareValues(leftValue, rightValue) <= 0;
-        } else if (condition.contains(">=")) {
-            return compareValues(leftValue, rightValue) >= 0;
-        } else if (condition.contains("<")) {
-            return compareValues(leftValue, rightValue) < 0;
-        } else if (condition.contains(">")) {
-            return compareValues(leftValue, rightValue) > 0;
-        } else {
+        return switch (operator) {
+            case "==" -> compareValues(leftValue, rightValue) == 0;
+            case "!=" -> compareValues(leftValue, rightValue) != 0;
+            case "<=" -> compareValues(leftValue, rightValue) <= 0;
+            case ">=" -> compareValues(leftValue, rightValue) >= 0;
+            case "<" -> compareValues(leftValue, rightValue) < 0;
+            case ">" -> compareValues(leftValue, rightValue) > 0;
             // TODO replace with exception
-            throw new UnsupportedOperationException("Unsupported operator in condition: " + condition);
-        }
+            default -> throw new UnsupportedOperationException("Unsupported operator: " + operator);
+        };
     }
 
     private int compareValues(final Object leftValue, final Object rightValue) {
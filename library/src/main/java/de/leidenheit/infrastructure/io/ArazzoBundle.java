@@ -0,0 +1,154 @@
+package de.leidenheit.infrastructure.io;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import de.leidenheit.core.exception.ItarazzoIllegalStateException;
+import de.leidenheit.core.exception.ItarazzoUnsupportedException;
+import de.leidenheit.core.model.ArazzoSpecification;
+import de.leidenheit.core.model.SourceDescription;
+import de.leidenheit.infrastructure.json.JsonRuntime;
+import de.leidenheit.infrastructure.parsing.ArazzoDeserializer;
+import de.leidenheit.infrastructure.parsing.ArazzoParseOptions;
+import de.leidenheit.infrastructure.parsing.ArazzoParser;
+import de.leidenheit.infrastructure.parsing.SourceDescriptionInitializer;
+import de.leidenheit.infrastructure.validation.ArazzoValidationOptions;
+import de.leidenheit.infrastructure.validation.ArazzoValidatorRegistry;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Binary (smile) bundle of a validated arazzo specification.
+ * <p>
+ * The bundle holds the arazzo document, the fully resolved documents of all source descriptions and the
+ * operation routing tables. It is created once by a build step ({@link #main(String[])}) and loaded with a single
+ * memory-mapped read, skipping YAML parsing, OpenAPI resolution and validation.
+ */
+@Slf4j
+public class ArazzoBundle {
+
+    private static final int FORMAT_VERSION = 1;
+
+    public static void main(final String[] args) {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: ArazzoBundle <arazzo file> <bundle file>");
+        }
+        write(args[0], Path.of(args[1]));
+        log.info("Bundled arazzo '{}' into '{}'", args[0], args[1]);
+    }
+
+    public static void write(final String arazzoPath, final Path bundlePath) {
+        ArazzoParser parser = new ArazzoParser();
+        var parseResult = parser.readLocation(arazzoPath, ArazzoParseOptions.ofDefault());
+        if (parseResult.isInvalid()) {
+            throw new ItarazzoIllegalStateException("Parsing result is invalid: %s".formatted(parseResult.getMessages()));
+        }
+
+        // initializes arazzo/oas referenced through source descriptions
+        SourceDescriptionInitializer.initialize(parseResult.getArazzo());
+
+        ArazzoValidatorRegistry validatorRegistry = new ArazzoValidatorRegistry();
+        var validationResult = validatorRegistry.validate(parseResult.getArazzo(), ArazzoValidationOptions.ofDefault());
+        if (validationResult.isInvalid()) {
+            throw new ItarazzoIllegalStateException("Validation result is invalid: %s".formatted(validationResult.getMessages()));
+        }
+
+        ObjectNode bundleNode = JsonRuntime.smileMapper().createObjectNode();
+        bundleNode.put("formatVersion", FORMAT_VERSION);
+        bundleNode.set("arazzo", bundleArazzo(parser, arazzoPath, validationResult.getArazzo()));
+        try {
+            if (Objects.nonNull(bundlePath.getParent())) {
+                Files.createDirectories(bundlePath.getParent());
+            }
+            JsonRuntime.smileMapper().writeValue(bundlePath.toFile(), bundleNode);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static ArazzoSpecification read(final Path bundlePath, final ArazzoParseOptions options) {
+        JsonNode bundleNode;
+        try (FileChannel channel = FileChannel.open(bundlePath, StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            bundleNode = JsonRuntime.smileMapper().readTree(new ByteBufferBackedInputStream(buffer));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (bundleNode.path("formatVersion").asInt() != FORMAT_VERSION) {
+            throw new ItarazzoUnsupportedException("Unsupported bundle format version '%s' of '%s'; expected '%s'"
+                    .formatted(bundleNode.path("formatVersion").asText(), bundlePath, FORMAT_VERSION));
+        }
+        return unbundleArazzo(bundleNode.get("arazzo"), options);
+    }
+
+    private static ObjectNode bundleArazzo(final ArazzoParser parser,
+                                           final String location,
+                                           final ArazzoSpecification arazzo) {
+        ObjectNode arazzoNode = JsonRuntime.smileMapper().createObjectNode();
+        arazzoNode.put("location", location);
+        arazzoNode.set("document", parser.readTreeFromLocation(location));
+
+        ObjectNode sourceDescriptionsNode = arazzoNode.putObject("sourceDescriptions");
+        for (SourceDescription sourceDescription : arazzo.getSourceDescriptions()) {
+            ObjectNode sourceDescriptionNode = sourceDescriptionsNode.putObject(sourceDescription.getName());
+            if (Objects.nonNull(sourceDescription.getReferencedOpenAPI())) {
+                sourceDescriptionNode.set("openapi", Json.mapper().valueToTree(sourceDescription.getReferencedOpenAPI()));
+                sourceDescriptionNode.set("operationRoutes",
+                        JsonRuntime.smileMapper().valueToTree(sourceDescription.getOperationRoutes()));
+            } else if (Objects.nonNull(sourceDescription.getReferencedArazzo())) {
+                sourceDescriptionNode.set("arazzo",
+                        bundleArazzo(parser, sourceDescription.getUrl(), sourceDescription.getReferencedArazzo()));
+            }
+        }
+        return arazzoNode;
+    }
+
+    private static ArazzoSpecification unbundleArazzo(final JsonNode arazzoNode, final ArazzoParseOptions options) {
+        var location = arazzoNode.get("location").asText();
+        var parseResult = new ArazzoDeserializer().deserialize(arazzoNode.get("document"), location, options);
+        if (parseResult.isInvalid()) {
+            throw new ItarazzoIllegalStateException("Parsing result is invalid: %s".formatted(parseResult.getMessages()));
+        }
+
+        var arazzo = parseResult.getArazzo();
+        var sourceDescriptionsNode = arazzoNode.get("sourceDescriptions");
+        for (SourceDescription sourceDescription : arazzo.getSourceDescriptions()) {
+            var sourceDescriptionNode = sourceDescriptionsNode.get(sourceDescription.getName());
+            if (Objects.isNull(sourceDescriptionNode)) {
+                throw new ItarazzoIllegalStateException("Source description '%s' is not bundled".formatted(sourceDescription.getName()));
+            }
+            try {
+                if (sourceDescriptionNode.has("openapi")) {
+                    sourceDescription.setReferencedOpenAPI(
+                            Json.mapper().treeToValue(sourceDescriptionNode.get("openapi"), OpenAPI.class));
+                    Map<String, SourceDescription.OperationRoute> operationRoutes = new LinkedHashMap<>();
+                    sourceDescriptionNode.get("operationRoutes").fields().forEachRemaining(entry ->
+                            operationRoutes.put(entry.getKey(), new SourceDescription.OperationRoute(
+                                    entry.getValue().get("path").asText(),
+                                    entry.getValue().get("method").asText())));
+                    sourceDescription.setOperationRoutes(operationRoutes);
+                } else if (sourceDescriptionNode.has("arazzo")) {
+                    sourceDescription.setReferencedArazzo(unbundleArazzo(sourceDescriptionNode.get("arazzo"), options));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return arazzo;
+    }
+
+    private ArazzoBundle() {
+    }
+}
@@ -2,79 +2,143 @@ package de.leidenheit.infrastructure.io;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import de.leidenheit.core.exception.ItarazzoIllegalStateException;
 import de.leidenheit.core.model.ArazzoSpecification;
+import de.leidenheit.infrastructure.json.JsonRuntime;
 import de.leidenheit.infrastructure.parsing.ArazzoComponentsReferenceResolver;
-import io.swagger.util.ObjectMapperFactory;
 import org.apache.commons.io.FileUtils;
 import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
 import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONArray;
 import org.json.JSONObject;
-import org.json.JSONTokener;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ArazzoInputsReader {
 
-    private static final ObjectMapper JSON_MAPPER;
-    private static final ObjectMapper YAML_MAPPER;
-
-    static {
-        JSON_MAPPER = ObjectMapperFactory.createJson();
-        YAML_MAPPER = ObjectMapperFactory.createYaml();
-    }
+    // the inputs file is read once per run and shared by all workflows
+    private static final Map<Path, ParsedInputs> INPUTS_CACHE = new ConcurrentHashMap<>();
+    // compiled schemas keyed by the specification and the pointer to the schema within it
+    private static final Map<SchemaKey, Schema> SCHEMA_CACHE = new ConcurrentHashMap<>();
 
     public static Map<String, Object> parseAndValidateInputs(final ArazzoSpecification arazzo, final String inputsFilePath, final JsonNode schemaNode) {
-        try {
-            var inputs = readInputs(inputsFilePath);
-            var mapper = getMapper(inputs.toString());
-
-            JSONObject jsonObject = new JSONObject(mapper.writeValueAsString(inputs));
-
-            // validate against schema
-            Schema schema;
-            if (schemaNode.has("$ref")) {
-                var componentsNode = mapper.convertValue(arazzo.getComponents(), JsonNode.class);
-                var resolver = ArazzoComponentsReferenceResolver.getInstance(componentsNode);
-                schema = loadSchema(resolver.resolveComponent(schemaNode.get("$ref").asText()));
-            } else {
-                schema = loadSchema(schemaNode);
-            }
+        return parseAndValidateInputs(arazzo, inputsFilePath, schemaNode, null);
+    }
 
-            schema.validate(jsonObject);
+    /**
+     * @param schemaPointer pointer to the schema within the specification, e.g. '#/workflows/{workflowId}/inputs',
+     *                      which the compiled schema is cached by; a '$ref' schema is cached by its reference anyway
+     */
+    public static Map<String, Object> parseAndValidateInputs(final ArazzoSpecification arazzo,
+                                                             final String inputsFilePath,
+                                                             final JsonNode schemaNode,
+                                                             final String schemaPointer) {
+        var inputs = readCachedInputs(inputsFilePath);
 
-            return mapper.convertValue(inputs, new TypeReference<>() {
-            });
-        } catch (Exception e) {
-            // TODO replace with exception
-            throw new RuntimeException(e);
+        // validate against schema
+        var pointer = schemaNode.has("$ref") ? schemaNode.get("$ref").asText() : schemaPointer;
+        Schema schema = Objects.isNull(pointer)
+                ? compileSchema(arazzo, schemaNode)
+                : SCHEMA_CACHE.computeIfAbsent(new SchemaKey(arazzo, pointer), key -> compileSchema(arazzo, schemaNode));
+        try {
+            schema.validate(inputs.orgJson());
+        } catch (ValidationException e) {
+            throw new ItarazzoIllegalStateException("Inputs of '%s' are invalid: %s".formatted(inputsFilePath, e.getAllMessages()), e);
         }
+
+        return JsonRuntime.jsonMapper().convertValue(inputs.node(), new TypeReference<>() {
+        });
     }
 
     public static JsonNode readInputs(final String inputsSchemaFilePath) throws IOException {
         var file = new File(inputsSchemaFilePath);
         if (file.exists()) {
             var contentAsString = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
-            var mapper = getMapper(contentAsString);
-            return mapper.readTree(contentAsString);
+            return JsonRuntime.readTree(contentAsString);
         }
-        // TODO replace with exception
-        throw new RuntimeException("Unexpected");
+        throw new FileNotFoundException("Inputs file '%s' does not exist".formatted(inputsSchemaFilePath));
+    }
+
+    private static ParsedInputs readCachedInputs(final String inputsFilePath) {
+        return INPUTS_CACHE.computeIfAbsent(Path.of(inputsFilePath).toAbsolutePath().normalize(), path -> {
+            try {
+                var node = readInputs(inputsFilePath);
+                return new ParsedInputs(node, toOrgJson(node));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static Schema compileSchema(final ArazzoSpecification arazzo, final JsonNode schemaNode) {
+        if (schemaNode.has("$ref")) {
+            var componentsNode = JsonRuntime.jsonMapper().convertValue(arazzo.getComponents(), JsonNode.class);
+            var resolver = ArazzoComponentsReferenceResolver.getInstance(componentsNode);
+            return loadSchema(resolver.resolveComponent(schemaNode.get("$ref").asText()));
+        }
+        return loadSchema(schemaNode);
     }
 
     private static Schema loadSchema(final JsonNode schemaNode) {
-        JSONObject rawSchema = new JSONObject(new JSONTokener(schemaNode.toString()));
-        return SchemaLoader.load(rawSchema);
+        return SchemaLoader.load((JSONObject) toOrgJson(schemaNode));
+    }
+
+    /**
+     * Converts a tree directly into its org.json counterpart which is required by the schema validator.
+     */
+    private static Object toOrgJson(final JsonNode node) {
+        if (node.isObject()) {
+            var jsonObject = new JSONObject();
+            node.fields().forEachRemaining(entry -> jsonObject.put(entry.getKey(), toOrgJson(entry.getValue())));
+            return jsonObject;
+        } else if (node.isArray()) {
+            var jsonArray = new JSONArray();
+            node.forEach(element -> jsonArray.put(toOrgJson(element)));
+            return jsonArray;
+        } else if (node.isTextual()) {
+            return node.textValue();
+        } else if (node.isBoolean()) {
+            return node.booleanValue();
+        } else if (node.isIntegralNumber()) {
+            if (node.canConvertToInt()) return node.intValue();
+            if (node.canConvertToLong()) return node.longValue();
+            return node.bigIntegerValue();
+        } else if (node.isNumber()) {
+            // keeps the precision of the input, e.g. for 'multipleOf'
+            return node.decimalValue();
+        }
+        return JSONObject.NULL;
     }
 
-    private static ObjectMapper getMapper(final String data) {
-        if (data.trim().startsWith("{")) {
-            return JSON_MAPPER;
+    /**
+     * Inputs read from a file, along with their org.json counterpart which is required by the schema validator.
+     */
+    private record ParsedInputs(JsonNode node, Object orgJson) {
+    }
+
+    /**
+     * Key of a schema compared by the identity of the specification, which is not cheap to compare structurally.
+     */
+    private record SchemaKey(ArazzoSpecification arazzo, String pointer) {
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof SchemaKey other && arazzo == other.arazzo && pointer.equals(other.pointer);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(arazzo) + pointer.hashCode();
         }
-        return YAML_MAPPER;
     }
 
     private ArazzoInputsReader() {
@@ -0,0 +1,104 @@
+package de.leidenheit.infrastructure.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.ParseContext;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import io.swagger.util.ObjectMapperFactory;
+
+import java.util.Objects;
+
+/**
+ * Shared JSON infrastructure: configured mappers, cached readers/writers and a JsonPath configuration
+ * backed by Jackson, so that JsonPath operates on the same {@link JsonNode} model without reparsing.
+ * <p>
+ * All members are immutable or thread-safe once initialized.
+ */
+public final class JsonRuntime {
+
+    // configured as swagger does, e.g. ignoring unknown properties and omitting null values
+    private static final ObjectMapper JSON_MAPPER = ObjectMapperFactory.createJson();
+    private static final ObjectMapper YAML_MAPPER = ObjectMapperFactory.createYaml();
+    private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory());
+
+    private static final ObjectReader JSON_TREE_READER = JSON_MAPPER.readerFor(JsonNode.class);
+    private static final ObjectReader YAML_TREE_READER = YAML_MAPPER.readerFor(JsonNode.class);
+    private static final ObjectWriter JSON_WRITER = JSON_MAPPER.writer();
+
+    private static final Configuration JSON_PATH_CONFIGURATION = Configuration.builder()
+            .jsonProvider(new JacksonJsonNodeJsonProvider(JSON_MAPPER))
+            .mappingProvider(new JacksonMappingProvider(JSON_MAPPER))
+            .build();
+    private static final ParseContext JSON_PATH = JsonPath.using(JSON_PATH_CONFIGURATION);
+
+    public static ObjectMapper jsonMapper() {
+        return JSON_MAPPER;
+    }
+
+    public static ObjectMapper yamlMapper() {
+        return YAML_MAPPER;
+    }
+
+    public static ObjectMapper smileMapper() {
+        return SMILE_MAPPER;
+    }
+
+    public static ObjectWriter writer() {
+        return JSON_WRITER;
+    }
+
+    /**
+     * Reads JSON or YAML content into a tree; content starting with '{' is treated as JSON.
+     */
+    public static JsonNode readTree(final String content) throws JsonProcessingException {
+        return isJson(content) ? JSON_TREE_READER.readTree(content) : YAML_TREE_READER.readTree(content);
+    }
+
+    public static ObjectMapper mapperFor(final String content) {
+        return isJson(content) ? JSON_MAPPER : YAML_MAPPER;
+    }
+
+    public static Configuration jsonPathConfiguration() {
+        return JSON_PATH_CONFIGURATION;
+    }
+
+    /**
+     * JsonPath parse context working on {@link JsonNode}; use {@link #unwrap(Object)} on read results
+     * in order to get the plain java values JsonPath returns by default.
+     */
+    public static ParseContext jsonPath() {
+        return JSON_PATH;
+    }
+
+    /**
+     * Converts nodes into their java counterpart, e.g. a TextNode into a String, an object into a Map and an array
+     * into a List.
+     */
+    public static Object unwrap(final Object value) {
+        if (!(value instanceof JsonNode node)) return value;
+        if (node.isNull() || node.isMissingNode()) return null;
+        if (node.isTextual()) return node.textValue();
+        if (node.isNumber()) return node.numberValue();
+        if (node.isBoolean()) return node.booleanValue();
+        return JSON_MAPPER.convertValue(node, Object.class);
+    }
+
+    private static boolean isJson(final String content) {
+        if (Objects.isNull(content)) return false;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (!Character.isWhitespace(c)) return c == '{';
+        }
+        return false;
+    }
+
+    private JsonRuntime() {
+    }
+}
@@ -1,12 +1,12 @@
 package de.leidenheit.infrastructure.parsing;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeType;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Strings;
 import de.leidenheit.core.model.*;
+import de.leidenheit.infrastructure.json.JsonRuntime;
 import de.leidenheit.infrastructure.validation.ArazzoValidationResult;
 import lombok.Builder;
 import lombok.Data;
@@ -18,6 +18,7 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.*;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 // TODO finalize implementation:
 //  - validation
@@ -29,50 +30,56 @@ public class ArazzoDeserializer {
     protected static final Set<String> RESERVED_KEYWORDS = new LinkedHashSet<>(List.of(
             "x-oai-", "x-oas-", "arazzo"
     ));
-    protected static final Set<String> ROOT_KEYS = new LinkedHashSet<>(List.of(
+    protected static final Set<String> ROOT_KEYS = new PerfectHashKeySet(
             "arazzo", "info", "sourceDescriptions", "workflows", "components", "extensions"
-    ));
-    protected static final Set<String> INFO_KEYS = new LinkedHashSet<>(List.of(
+    );
+    protected static final Set<String> INFO_KEYS = new PerfectHashKeySet(
             "title", "summary", "description", "version", "extensions"
-    ));
-    protected static final Set<String> SOURCE_DESCRIPTION_KEYS = new LinkedHashSet<>(List.of(
+    );
+    protected static final Set<String> SOURCE_DESCRIPTION_KEYS = new PerfectHashKeySet(
             "name", "url", "type", "extensions"
-    ));
-    protected static final Set<String> WORKFLOW_KEYS = new LinkedHashSet<>(List.of(
+    );
+    protected static final Set<String> WORKFLOW_KEYS = new PerfectHashKeySet(
             "workflowId", "summary", "description", "inputs",
             "dependsOn", "steps", "successActions", "failureActions",
             "outputs", "parameters", "extensions"
-    ));
-    protected static final Set<String> STEP_KEYS = new LinkedHashSet<>(List.of(
+    );
+    protected static final Set<String> STEP_KEYS = new PerfectHashKeySet(
             "description", "stepId", "operationId", "operationPath",
             "workflowId", "parameters", "requestBody", "successCriteria",
             "onSuccess", "onFailure", "outputs", "extensions"
-    ));
-    protected static final Set<String> COMPONENTS_KEYS = new LinkedHashSet<>(List.of(
+    );
+    protected static final Set<String> COMPONENTS_KEYS = new PerfectHashKeySet(
             "inputs", "parameters", "successActions", "failureActions", "extensions"
-    ));
-    protected static final Set<String> PARAMETER_KEYS = new LinkedHashSet<>(List.of(
+    );
+    protected static final Set<String> PARAMETER_KEYS = new PerfectHashKeySet(
             "name", "in", "value", "extensions"
-    ));
-    protected static final Set<String> SUCCESS_ACTION_KEYS = new LinkedHashSet<>(List.of(
+    );
+    protected static final Set<String> SUCCESS_ACTION_KEYS = new PerfectHashKeySet(
             "name", "type", "workflowId", "stepId", "criteria", "extensions"
-    ));
-    protected static final Set<String> FAILURE_ACTION_KEYS = new LinkedHashSet<>(List.of(
+    );
+    protected static final Set<String> FAILURE_ACTION_KEYS = new PerfectHashKeySet(
             "name", "type", "workflowId", "stepId", "criteria", "retryAfter", "retryLimit", "extensions"
-    ));
-    protected static final Set<String> CRITERION_KEYS = new LinkedHashSet<>(List.of(
+    );
+    protected static final Set<String> CRITERION_KEYS = new PerfectHashKeySet(
             "context", "condition", "type", "version", "extensions"
-    ));
-    protected static final Set<String> REQUEST_BODY_KEYS = new LinkedHashSet<>(List.of(
+    );
+    protected static final Set<String> REQUEST_BODY_KEYS = new PerfectHashKeySet(
             "contentType", "payload", "replacements", "extensions"
-    ));
-    protected static final Set<String> PAYLOAD_REPLACEMENT_OBJECT_KEYS = new LinkedHashSet<>(List.of(
+    );
+    protected static final Set<String> PAYLOAD_REPLACEMENT_OBJECT_KEYS = new PerfectHashKeySet(
             "target", "value", "extensions"
-    ));
-    protected static final Set<String> REUSABLE_OBJECT_KEYS = new LinkedHashSet<>(List.of(
+    );
+    protected static final Set<String> REUSABLE_OBJECT_KEYS = new PerfectHashKeySet(
             "reference", "value"
-    ));
-    protected static Map<String, Map<String, Set<String>>> KEYS = new LinkedHashMap<>();
+    );
+    private static final String[] RESERVED_KEYWORD_PREFIXES = RESERVED_KEYWORDS.toArray(new String[0]);
+    // first characters of the reserved keywords; keys starting otherwise are skipped by a single lookup
+    private static final String RESERVED_KEYWORD_FIRST_CHARS = RESERVED_KEYWORDS.stream()
+            .map(reservedKeyword -> reservedKeyword.substring(0, 1))
+            .distinct()
+            .collect(Collectors.joining());
+    private static final Pattern COMPONENT_NAME_PATTERN = Pattern.compile("^[a-zA-Z0-9\\.\\-_]+$");
     protected static Set<JsonNodeType> validNodeTypes = new LinkedHashSet<>(List.of(
             JsonNodeType.OBJECT, JsonNodeType.STRING
     ));
@@ -83,27 +90,6 @@ public class ArazzoDeserializer {
             "xpath-30", "xpath-20", "xpath-10"
     ));
 
-    static {
-        Map<String, Set<String>> keys10 = new LinkedHashMap<>();
-
-        keys10.put("RESERVED_KEYWORDS", RESERVED_KEYWORDS);
-        keys10.put("ROOT_KEYS", ROOT_KEYS);
-        keys10.put("INFO_KEYS", INFO_KEYS);
-        keys10.put("SOURCE_DESCRIPTION_KEYS", SOURCE_DESCRIPTION_KEYS);
-        keys10.put("WORKFLOW_KEYS", WORKFLOW_KEYS);
-        keys10.put("STEP_KEYS", STEP_KEYS);
-        keys10.put("COMPONENTS_KEYS", COMPONENTS_KEYS);
-        keys10.put("PARAMETER_KEYS", PARAMETER_KEYS);
-        keys10.put("SUCCESS_ACTION_KEYS", SUCCESS_ACTION_KEYS);
-        keys10.put("FAILURE_ACTION_KEYS", FAILURE_ACTION_KEYS);
-        keys10.put("CRITERION_KEYS", CRITERION_KEYS);
-        keys10.put("REQUEST_BODY_KEYS", REQUEST_BODY_KEYS);
-        keys10.put("PAYLOAD_REPLACEMENT_OBJECT_KEYS", PAYLOAD_REPLACEMENT_OBJECT_KEYS);
-        keys10.put("REUSABLE_OBJECT_KEYS", REUSABLE_OBJECT_KEYS);
-
-        KEYS.put("arazzo10", keys10);
-    }
-
     private JsonNode rootNode;
     private final Set<String> workflowIds = new HashSet<>();
 
@@ -115,6 +101,7 @@ public class ArazzoDeserializer {
             rootParseResult.setOaiAuthor(options.isOaiAuthor());
             rootParseResult.setAllowEmptyStrings(options.isAllowEmptyStrings());
             rootParseResult.setMustValidate(options.isMustValidate());
+            rootParseResult.setLazyWorkflows(options.isLazyWorkflows());
 
             ArazzoSpecification arazzo = parseRoot(rootNode, rootParseResult, path);
             result.setArazzo(arazzo);
@@ -130,7 +117,7 @@ public class ArazzoDeserializer {
     }
 
     public ArazzoSpecification parseRoot(final JsonNode rootNode, final ParseResult parseResult, final String path) {
-        String location = "";
+        NodeLocation location = NodeLocation.ROOT;
         ArazzoSpecification arazzo = new ArazzoSpecification();
         if (JsonNodeType.OBJECT.equals(rootNode.getNodeType())) {
             ObjectNode node = (ObjectNode) rootNode;
@@ -145,26 +132,26 @@ public class ArazzoDeserializer {
             // info object (https://spec.openapis.org/arazzo/latest.html#info-object)
             ObjectNode infoObjNode = getObject("info", node, true, location, parseResult);
             if (Objects.nonNull(infoObjNode)) {
-                Info info = getInfo(infoObjNode, "info", parseResult);
+                Info info = getInfo(infoObjNode, NodeLocation.of("info"), parseResult);
                 arazzo.setInfo(info);
             }
 
             // list of source descriptions (https://spec.openapis.org/arazzo/latest.html#source-description-object)
             ArrayNode sourceDescriptionsArray = getArray("sourceDescriptions", node, true, location, parseResult);
             if (Objects.nonNull(sourceDescriptionsArray) && !sourceDescriptionsArray.isEmpty()) {
-                arazzo.setSourceDescriptions(getSourceDescriptionList(sourceDescriptionsArray, String.format("%s.%s", location, "sourceDescriptions"), parseResult, path));
+                arazzo.setSourceDescriptions(getSourceDescriptionList(sourceDescriptionsArray, location.child("sourceDescriptions"), parseResult, path));
             }
 
             // workflows (https://spec.openapis.org/arazzo/latest.html#workflow-object)
             ArrayNode workflowsArray = getArray("workflows", node, true, location, parseResult);
             if (Objects.nonNull(workflowsArray) && !workflowsArray.isEmpty()) {
-                arazzo.setWorkflows(getWorkflowList(workflowsArray, String.format("%s.%s", location, "workflows"), parseResult, path));
+                arazzo.setWorkflows(getWorkflowList(workflowsArray, location.child("workflows"), parseResult, path));
             }
 
             // components (https://spec.openapis.org/arazzo/latest.html#components-object)
             ObjectNode componentsObj = getObject("components", node, false, location, parseResult);
             if (Objects.nonNull(componentsObj)) {
-                Components components = getComponents(componentsObj, "components", parseResult);
+                Components components = getComponents(componentsObj, NodeLocation.of("components"), parseResult);
                 arazzo.setComponents(components);
             }
 
@@ -174,14 +161,7 @@ public class ArazzoDeserializer {
                 arazzo.setExtensions(extensions);
             }
 
-            Set<String> keys = getKeys(node);
-            Map<String, Set<String>> specKeys = KEYS.get("arazzo10");
-            for (String key : keys) {
-                if (!specKeys.get("ROOT_KEYS").contains(key) && !key.startsWith("x-")) {
-                    parseResult.extra(location, key, node.get(key));
-                }
-                validateReservedKeywords(specKeys, key, location, parseResult);
-            }
+            validateKeys(node, ROOT_KEYS, location, parseResult);
         } else {
             parseResult.invalidType(location, "arazzo", "object", rootNode);
             parseResult.invalid();
@@ -191,7 +171,7 @@ public class ArazzoDeserializer {
     }
 
     private Components getComponents(final ObjectNode rootNode,
-                                                         final String location,
+                                                         final NodeLocation location,
                                                          final ParseResult parseResult) {
         if (rootNode == null) {
             return null;
@@ -200,7 +180,7 @@ public class ArazzoDeserializer {
 
         ObjectNode inputsObj = getObject("inputs", rootNode, false, location, parseResult);
         if (inputsObj != null) {
-            components.setInputs(getSchemas(inputsObj, String.format("%s.%s", location, "inputs"), parseResult, true));
+            components.setInputs(getSchemas(inputsObj, location.child("inputs"), parseResult, true));
         }
 
         ObjectNode parametersObj = getObject("parameters", rootNode, false, location, parseResult);
@@ -223,21 +203,14 @@ public class ArazzoDeserializer {
             components.setExtensions(extensions);
         }
 
-        Set<String> keys = getKeys(rootNode);
-        Map<String, Set<String>> specKeys = KEYS.get("arazzo10");
-        for (String key : keys) {
-            if (!specKeys.get("COMPONENTS_KEYS").contains(key) && !key.startsWith("x-")) {
-                parseResult.extra(location, key, rootNode.get(key));
-            }
-            validateReservedKeywords(specKeys, key, location, parseResult);
-        }
+        validateKeys(rootNode, COMPONENTS_KEYS, location, parseResult);
 
         return components;
     }
 
     private Map<String, FailureAction> getFailureActions(
             final ObjectNode node,
-            final String location,
+            final NodeLocation location,
             final ParseResult parseResult,
             boolean underComponents) {
         if (Objects.isNull(node)) {
@@ -245,24 +218,24 @@ public class ArazzoDeserializer {
         }
 
         Map<String, FailureAction> failureActions = new LinkedHashMap<>();
-        Set<String> filter = new HashSet<>();
         FailureAction failureAction = null;
 
-        Set<String> failureActionKeys = getKeys(node);
-        for (String failureActionKey : failureActionKeys) {
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String failureActionKey = field.getKey();
             if (underComponents) {
-                if (!Pattern.matches("^[a-zA-Z0-9\\.\\-_]+$",
-                        failureActionKey)) {
+                if (!COMPONENT_NAME_PATTERN.matcher(failureActionKey).matches()) {
                     parseResult.warning(location, "FailureAction name " + failureActionKey + " doesn't adhere to regular " +
                             "expression ^[a-zA-Z0-9\\.\\-_]+$");
                 }
             }
 
-            JsonNode failureActionValue = node.get(failureActionKey);
+            JsonNode failureActionValue = field.getValue();
             if (JsonNodeType.OBJECT.equals(failureActionValue.getNodeType())) {
                 ObjectNode failureActionObj = (ObjectNode) failureActionValue;
                 if (Objects.nonNull(failureActionObj)) {
-                    failureAction = getFailureAction(failureActionObj, String.format("%s.%s", location, failureActionValue), parseResult);
+                    failureAction = getFailureAction(failureActionObj, location.child(failureActionKey), parseResult);
                     if (Objects.nonNull(failureAction)) {
                         failureActions.put(failureActionKey, failureAction);
                     }
@@ -272,7 +245,7 @@ public class ArazzoDeserializer {
         return failureActions;
     }
 
-    private FailureAction getFailureAction(final ObjectNode node, final String location, final ParseResult parseResult) {
+    private FailureAction getFailureAction(final ObjectNode node, final NodeLocation location, final ParseResult parseResult) {
         if (Objects.isNull(node)) {
             return null;
         }
@@ -325,21 +298,14 @@ public class ArazzoDeserializer {
             failureAction.setExtensions(extensions);
         }
 
-        Set<String> keys = getKeys(node);
-        Map<String, Set<String>> specKeys = KEYS.get("arazzo10");
-        for (String key : keys) {
-            if (!specKeys.get("FAILURE_ACTION_KEYS").contains(key) && !key.startsWith("x-")) {
-                parseResult.extra(location, key, node.get(key));
-            }
-            validateReservedKeywords(specKeys, key, location, parseResult);
-        }
+        validateKeys(node, FAILURE_ACTION_KEYS, location, parseResult);
 
         return failureAction;
     }
 
     private Map<String, SuccessAction> getSuccessActions(
             final ObjectNode node,
-            final String location,
+            final NodeLocation location,
             final ParseResult parseResult,
             boolean underComponents) {
         if (Objects.isNull(node)) {
@@ -347,24 +313,24 @@ public class ArazzoDeserializer {
         }
 
         Map<String, SuccessAction> successActions = new LinkedHashMap<>();
-        Set<String> filter = new HashSet<>();
         SuccessAction successAction = null;
 
-        Set<String> successActionKeys = getKeys(node);
-        for (String successActionKey : successActionKeys) {
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String successActionKey = field.getKey();
             if (underComponents) {
-                if (!Pattern.matches("^[a-zA-Z0-9\\.\\-_]+$",
-                        successActionKey)) {
+                if (!COMPONENT_NAME_PATTERN.matcher(successActionKey).matches()) {
                     parseResult.warning(location, "SuccessAction name " + successActionKey + " doesn't adhere to regular " +
                             "expression ^[a-zA-Z0-9\\.\\-_]+$");
                 }
             }
 
-            JsonNode successActionValue = node.get(successActionKey);
+            JsonNode successActionValue = field.getValue();
             if (JsonNodeType.OBJECT.equals(successActionValue.getNodeType())) {
                 ObjectNode successActionObj = (ObjectNode) successActionValue;
                 if (Objects.nonNull(successActionObj)) {
-                    successAction = getSuccessAction(successActionObj, String.format("%s.%s", location, successActionValue), parseResult);
+                    successAction = getSuccessAction(successActionObj, location.child(successActionKey), parseResult);
                     if (Objects.nonNull(successAction)) {
                         successActions.put(successActionKey, successAction);
                     }
@@ -375,7 +341,7 @@ public class ArazzoDeserializer {
     }
 
     private SuccessAction getSuccessAction(final ObjectNode node,
-                                           final String location,
+                                           final NodeLocation location,
                                            final ParseResult parseResult) {
         if (Objects.isNull(node)) {
             return null;
@@ -419,21 +385,14 @@ public class ArazzoDeserializer {
             successAction.setExtensions(extensions);
         }
 
-        Set<String> keys = getKeys(node);
-        Map<String, Set<String>> specKeys = KEYS.get("arazzo10");
-        for (String key : keys) {
-            if (!specKeys.get("SUCCESS_ACTION_KEYS").contains(key) && !key.startsWith("x-")) {
-                parseResult.extra(location, key, node.get(key));
-            }
-            validateReservedKeywords(specKeys, key, location, parseResult);
-        }
+        validateKeys(node, SUCCESS_ACTION_KEYS, location, parseResult);
 
         return successAction;
     }
 
     private List<Criterion> getCriteriaList(
             final ArrayNode node,
-            final String location,
+            final NodeLocation location,
             final ParseResult parseResult) {
         if (Objects.isNull(node)) {
             return null;
@@ -455,7 +414,7 @@ public class ArazzoDeserializer {
     }
 
     private Criterion getCriterion(final ObjectNode node,
-                                                                     final String location,
+                                                                     final NodeLocation location,
                                                                      final ParseResult parseResult) {
         if (Objects.isNull(node)) {
             return null;
@@ -505,42 +464,35 @@ public class ArazzoDeserializer {
             criterion.setExtensions(extensions);
         }
 
-        Set<String> keys = getKeys(node);
-        Map<String, Set<String>> specKeys = KEYS.get("arazzo10");
-        for (String key : keys) {
-            if (!specKeys.get("CRITERION_KEYS").contains(key) && !key.startsWith("x-")) {
-                parseResult.extra(location, key, node.get(key));
-            }
-            validateReservedKeywords(specKeys, key, location, parseResult);
-        }
+        validateKeys(node, CRITERION_KEYS, location, parseResult);
 
         return criterion;
     }
 
-    private Map<String, Parameter> getParameters(final ObjectNode obj, final String location, final ParseResult parseResult, final boolean underComponents) {
+    private Map<String, Parameter> getParameters(final ObjectNode obj, final NodeLocation location, final ParseResult parseResult, final boolean underComponents) {
         if (Objects.isNull(obj)) {
             return null;
         }
 
         Map<String, Parameter> parameters = new LinkedHashMap<>();
-        Set<String> filter = new HashSet<>();
         Parameter parameter = null;
 
-        Set<String> parameterKeys = getKeys(obj);
-        for (String parameterName : parameterKeys) {
+        Iterator<Map.Entry<String, JsonNode>> fields = obj.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String parameterName = field.getKey();
             if (underComponents) {
-                if (!Pattern.matches("^[a-zA-Z0-9\\.\\-_]+$",
-                        parameterName)) {
+                if (!COMPONENT_NAME_PATTERN.matcher(parameterName).matches()) {
                     parseResult.warning(location, "Parameter name " + parameterName + " doesn't adhere to regular " +
                             "expression ^[a-zA-Z0-9\\.\\-_]+$");
                 }
             }
 
-            JsonNode parameterValue = obj.get(parameterName);
+            JsonNode parameterValue = field.getValue();
             if (JsonNodeType.OBJECT.equals(parameterValue.getNodeType())) {
                 ObjectNode parameterObj = (ObjectNode) parameterValue;
                 if (Objects.nonNull(parameterObj)) {
-                    parameter = getParameter(parameterObj, String.format("%s.%s", location, parameterName), parseResult);
+                    parameter = getParameter(parameterObj, location.child(parameterName), parseResult);
                     if (Objects.nonNull(parameter)) {
                         parameters.put(parameterName, parameter);
                     }
@@ -550,7 +502,7 @@ public class ArazzoDeserializer {
         return parameters;
     }
 
-    private Parameter getParameter(final ObjectNode obj, final String location, final ParseResult parseResult) {
+    private Parameter getParameter(final ObjectNode obj, final NodeLocation location, final ParseResult parseResult) {
         if (Objects.isNull(obj)) {
             return null;
         }
@@ -581,30 +533,26 @@ public class ArazzoDeserializer {
             parameter.setExtensions(extensions);
         }
 
-        Set<String> keys = getKeys(obj);
-        Map<String, Set<String>> specKeys = KEYS.get("arazzo10");
-        for (String key : keys) {
-            if (!specKeys.get("PARAMETER_KEYS").contains(key) && !key.startsWith("x-")) {
-                parseResult.extra(location, key, obj.get(key));
-            }
-            validateReservedKeywords(specKeys, key, location, parseResult);
-        }
+        validateKeys(obj, PARAMETER_KEYS, location, parseResult);
 
         return parameter;
     }
 
     private List<Workflow> getWorkflowList(
             final ArrayNode node,
-            final String location,
+            final NodeLocation location,
             final ParseResult parseResult,
             final String path) {
         List<Workflow> workflows = new ArrayList<>();
         if (Objects.isNull(node)) {
             return Collections.emptyList();
         }
+        if (parseResult.isLazyWorkflows()) {
+            return getLazyWorkflowList(node, location, parseResult, path);
+        }
         for (JsonNode item : node) {
             if (JsonNodeType.OBJECT.equals(item.getNodeType())) {
-                Workflow workflow = getWorkflow((ObjectNode) item, location, parseResult, path);
+                Workflow workflow = getWorkflow((ObjectNode) item, location, parseResult, path, workflowIds);
                 if (Objects.nonNull(workflow)) {
                     workflows.add(workflow);
                 }
@@ -613,9 +561,49 @@ public class ArazzoDeserializer {
         return workflows;
     }
 
+    private List<Workflow> getLazyWorkflowList(
+            final ArrayNode node,
+            final NodeLocation location,
+            final ParseResult parseResult,
+            final String path) {
+        List<LazyWorkflowList.WorkflowStub> workflowStubs = new ArrayList<>();
+        for (JsonNode item : node) {
+            if (JsonNodeType.OBJECT.equals(item.getNodeType())) {
+                ObjectNode workflowNode = (ObjectNode) item;
+
+                // only identity and dependencies are read up front; uniqueness is ensured here
+                String workflowId = getString("workflowId", workflowNode, true, location, parseResult, workflowIds);
+                List<String> dependsOn = null;
+                ArrayNode dependsOnArray = getArray("dependsOn", workflowNode, false, location, parseResult);
+                if (Objects.nonNull(dependsOnArray) && !dependsOnArray.isEmpty()) {
+                    dependsOn = getDependsOnList(dependsOnArray, location.child("dependsOn"), parseResult, path);
+                }
+                workflowStubs.add(new LazyWorkflowList.WorkflowStub(workflowId, dependsOn, workflowNode));
+            }
+        }
+        return new LazyWorkflowList(workflowStubs,
+                workflowNode -> materializeWorkflow(workflowNode, location, parseResult, path));
+    }
+
+    private LazyWorkflowList.Materialization materializeWorkflow(
+            final ObjectNode node,
+            final NodeLocation location,
+            final ParseResult rootParseResult,
+            final String path) {
+        ParseResult parseResult = ParseResult.builder()
+                .oaiAuthor(rootParseResult.isOaiAuthor())
+                .allowEmptyStrings(rootParseResult.isAllowEmptyStrings())
+                .mustValidate(rootParseResult.isMustValidate())
+                .build();
+
+        // analog to eager parsing, messages do not fail the workflow; validation is applied on materialization
+        var workflow = getWorkflow(node, location, parseResult, path, null);
+        return new LazyWorkflowList.Materialization(workflow, parseResult.getMessages());
+    }
+
     private List<SourceDescription> getSourceDescriptionList(
             final ArrayNode node,
-            final String location,
+            final NodeLocation location,
             final ParseResult parseResult,
             final String path) {
         if (Objects.isNull(node)) {
@@ -635,16 +623,17 @@ public class ArazzoDeserializer {
 
     private Workflow getWorkflow(
             final ObjectNode node,
-            final String location,
+            final NodeLocation location,
             final ParseResult parseResult,
-            final String path) {
+            final String path,
+            final Set<String> uniqueWorkflowIds) {
         if (Objects.isNull(node)) {
             return null;
         }
 
         Workflow workflow = new Workflow();
 
-        String workflowId = getString("workflowId", node, true, location, parseResult, workflowIds);
+        String workflowId = getString("workflowId", node, true, location, parseResult, uniqueWorkflowIds);
         if (parseResult.isAllowEmptyStrings() && Objects.nonNull(workflowId)
                 || !parseResult.isAllowEmptyStrings() && StringUtils.isNotBlank(workflowId)) {
             workflow.setWorkflowId(workflowId);
@@ -669,32 +658,32 @@ public class ArazzoDeserializer {
 
         ArrayNode dependsOnArray = getArray("dependsOn", node, false, location, parseResult);
         if (Objects.nonNull(dependsOnArray) && !dependsOnArray.isEmpty()) {
-            workflow.setDependsOn(getDependsOnList(dependsOnArray, String.format("%s.%s", location, "dependsOn"), parseResult, path));
+            workflow.setDependsOn(getDependsOnList(dependsOnArray, location.child("dependsOn"), parseResult, path));
         }
 
         ArrayNode stepsArray = getArray("steps", node, true, location, parseResult);
         if (Objects.nonNull(stepsArray) && !stepsArray.isEmpty()) {
-            workflow.setSteps(getStepsList(stepsArray, String.format("%s.%s", location, "steps"), parseResult));
+            workflow.setSteps(getStepsList(stepsArray, location.child("steps"), parseResult));
         }
 
         ArrayNode successActionArray = getArray("successActions", node, false, location, parseResult);
         if (Objects.nonNull(successActionArray) && !successActionArray.isEmpty()) {
-            workflow.setSuccessActions(getSuccessActionList(successActionArray, String.format("%s.%s", location, "successActions"), parseResult));
+            workflow.setSuccessActions(getSuccessActionList(successActionArray, location.child("successActions"), parseResult));
         }
 
         ArrayNode failureActionArray = getArray("failureActions", node, false, location, parseResult);
         if (Objects.nonNull(failureActionArray) && !failureActionArray.isEmpty()) {
-            workflow.setFailureActions(getFailureActionList(failureActionArray, String.format("%s.%s", location, "failureActions"), parseResult));
+            workflow.setFailureActions(getFailureActionList(failureActionArray, location.child("failureActions"), parseResult));
         }
 
         ObjectNode outputsObj = getObject("outputs", node, false, location, parseResult);
         if (Objects.nonNull(outputsObj)) {
-            workflow.setOutputs(getOutputs(outputsObj, String.format("%s.%s", location, "outputs"), parseResult));
+            workflow.setOutputs(getOutputs(outputsObj, location.child("outputs"), parseResult));
         }
 
         ArrayNode parameterArray = getArray("parameters", node, false, location, parseResult);
         if (Objects.nonNull(parameterArray) && !parameterArray.isEmpty()) {
-            workflow.setParameters(getParameterList(parameterArray, String.format("%s.%s", location, "parameters"), parseResult));
+            workflow.setParameters(getParameterList(parameterArray, location.child("parameters"), parseResult));
         }
 
         Map<String, Object> extensions = getExtensions(node);
@@ -702,20 +691,13 @@ public class ArazzoDeserializer {
             workflow.setExtensions(extensions);
         }
 
-        Set<String> keys = getKeys(node);
-        Map<String, Set<String>> specKeys = KEYS.get("arazzo10");
-        for (String key : keys) {
-            if (!specKeys.get("WORKFLOW_KEYS").contains(key) && !key.startsWith("x-")) {
-                parseResult.extra(location, key, node.get(key));
-            }
-            validateReservedKeywords(specKeys, key, location, parseResult);
-        }
+        validateKeys(node, WORKFLOW_KEYS, location, parseResult);
 
         return workflow;
     }
 
     private List<Step> getStepsList(final ArrayNode node,
-                                                                 final String location,
+                                                                 final NodeLocation location,
                                                                  final ParseResult parseResult) {
         if (Objects.isNull(node)) {
             return Collections.emptyList();
@@ -735,7 +717,7 @@ public class ArazzoDeserializer {
     }
 
     private Step getStep(final ObjectNode node,
-                                                      final String location,
+                                                      final NodeLocation location,
                                                       final ParseResult parseResult) {
         if (Objects.isNull(node)) {
             return null;
@@ -774,12 +756,12 @@ public class ArazzoDeserializer {
 
         ArrayNode parameterArray = getArray("parameters", node, false, location, parseResult);
         if (Objects.nonNull(parameterArray) && !parameterArray.isEmpty()) {
-            step.setParameters(getParameterList(parameterArray, String.format("%s.%s", location, "parameters"), parseResult));
+            step.setParameters(getParameterList(parameterArray, location.child("parameters"), parseResult));
         }
 
         ObjectNode requestBodyObj = getObject("requestBody", node, false, location, parseResult);
         if (Objects.nonNull(requestBodyObj)) {
-            step.setRequestBody(getRequestBody(requestBodyObj, String.format("%s.%s", location, "requestBody"), parseResult));
+            step.setRequestBody(getRequestBody(requestBodyObj, location.child("requestBody"), parseResult));
         }
 
         ArrayNode successCriteriaArray = getArray("successCriteria", node, false, location, parseResult);
@@ -799,7 +781,7 @@ public class ArazzoDeserializer {
 
         ObjectNode outputsObj = getObject("outputs", node, false, location, parseResult);
         if (Objects.nonNull(outputsObj)) {
-            step.setOutputs(getOutputs(outputsObj, String.format("%s.%s", location, "outputs"), parseResult));
+            step.setOutputs(getOutputs(outputsObj, location.child("outputs"), parseResult));
         }
 
         Map<String, Object> extensions = getExtensions(node);
@@ -807,21 +789,14 @@ public class ArazzoDeserializer {
             step.setExtensions(extensions);
         }
 
-        Set<String> keys = getKeys(node);
-        Map<String, Set<String>> specKeys = KEYS.get("arazzo10");
-        for (String key : keys) {
-            if (!specKeys.get("STEP_KEYS").contains(key) && !key.startsWith("x-")) {
-                parseResult.extra(location, key, node.get(key));
-            }
-            validateReservedKeywords(specKeys, key, location, parseResult);
-        }
+        validateKeys(node, STEP_KEYS, location, parseResult);
 
         return step;
     }
 
     private Map<String, Object> getOutputs(
             final ObjectNode node,
-            final String location,
+            final NodeLocation location,
             final ParseResult parseResult) {
 
         if (Objects.isNull(node)) {
@@ -831,11 +806,11 @@ public class ArazzoDeserializer {
         Map<String, Object> outputs = new HashMap<>();
 
         if (JsonNodeType.OBJECT.equals(node.getNodeType())) {
-            Set<String> keys = getKeys(node);
-            for (String key : keys) {
-                var nodeValue = node.get(key);
-                if (!nodeValue.isTextual()) throw new RuntimeException("Unexpected");
-                outputs.put(key, nodeValue.asText());
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (!field.getValue().isTextual()) throw new RuntimeException("Unexpected");
+                outputs.put(field.getKey(), field.getValue().asText());
             }
         } else {
             parseResult.invalidType(location, "outputs", "object", node);
@@ -847,7 +822,7 @@ public class ArazzoDeserializer {
 
     private List<FailureAction> getFailureActionList(
             final ArrayNode node,
-            final String location,
+            final NodeLocation location,
             final ParseResult parseResult) {
         if (Objects.isNull(node)) {
             return Collections.emptyList();
@@ -859,7 +834,7 @@ public class ArazzoDeserializer {
             if (JsonNodeType.OBJECT.equals(item.getNodeType())) {
                 if (item.has("reference")) {
                     ReusableObject reusableObject = getReusableObject((ObjectNode) item, location, parseResult);
-                    parseResult.warning(String.format("%s.%s", location, "reusableObject"), "resolver not implemented");
+                    parseResult.warning(location.child("reusableObject"), "resolver not implemented");
 
                     var resolver = ArazzoComponentsReferenceResolver.getInstance(this.rootNode.get("components"));
                     var resolved = resolver.resolveComponent(Objects.requireNonNull(reusableObject).getReference().toString());
@@ -882,7 +857,7 @@ public class ArazzoDeserializer {
     }
 
     private List<SuccessAction> getSuccessActionList(
-            final ArrayNode node, final String location, final ParseResult parseResult) {
+            final ArrayNode node, final NodeLocation location, final ParseResult parseResult) {
         if (Objects.isNull(node)) {
             return Collections.emptyList();
         }
@@ -893,7 +868,7 @@ public class ArazzoDeserializer {
             if (JsonNodeType.OBJECT.equals(item.getNodeType())) {
                 if (item.has("reference")) {
                     ReusableObject reusableObject = getReusableObject((ObjectNode) item, location, parseResult);
-                    parseResult.warning(String.format("%s.%s", location, "reusableObject"), "resolver not implemented");
+                    parseResult.warning(location.child("reusableObject"), "resolver not implemented");
 
                     var resolver = ArazzoComponentsReferenceResolver.getInstance(this.rootNode.get("components"));
                     var resolved = resolver.resolveComponent(Objects.requireNonNull(reusableObject).getReference().toString());
@@ -917,7 +892,7 @@ public class ArazzoDeserializer {
 
     private ReusableObject getReusableObject(
             final ObjectNode node,
-            final String location,
+            final NodeLocation location,
             final ParseResult parseResult) {
         if (Objects.isNull(node)) {
             return null;
@@ -936,20 +911,13 @@ public class ArazzoDeserializer {
             reusableObject.setValue(value);
         }
 
-        Set<String> keys = getKeys(node);
-        Map<String, Set<String>> specKeys = KEYS.get("arazzo10");
-        for (String key : keys) {
-            if (!specKeys.get("REUSABLE_OBJECT_KEYS").contains(key) && !key.startsWith("x-")) {
-                parseResult.extra(location, key, node.get(key));
-            }
-            validateReservedKeywords(specKeys, key, location, parseResult);
-        }
+        validateKeys(node, REUSABLE_OBJECT_KEYS, location, parseResult);
         return reusableObject;
     }
 
     private RequestBody getRequestBody(
             final ObjectNode node,
-            final String location,
+            final NodeLocation location,
             final ParseResult parseResult) {
         if (Objects.isNull(node)) {
             return null;
@@ -969,7 +937,7 @@ public class ArazzoDeserializer {
 
         ArrayNode payloadReplacementObjectArray = getArray("replacements", node, false, location, parseResult);
         if (Objects.nonNull(payloadReplacementObjectArray)) {
-            requestBody.setReplacements(getPayloadReplacementObjectList(payloadReplacementObjectArray, String.format("%s.%s", location, "payloadReplacementObject"), parseResult));
+            requestBody.setReplacements(getPayloadReplacementObjectList(payloadReplacementObjectArray, location.child("payloadReplacementObject"), parseResult));
         }
 
         Map<String, Object> extensions = getExtensions(node);
@@ -977,21 +945,14 @@ public class ArazzoDeserializer {
             requestBody.setExtensions(extensions);
         }
 
-        Set<String> keys = getKeys(node);
-        Map<String, Set<String>> specKeys = KEYS.get("arazzo10");
-        for (String key : keys) {
-            if (!specKeys.get("REQUEST_BODY_KEYS").contains(key) && !key.startsWith("x-")) {
-                parseResult.extra(location, key, node.get(key));
-            }
-            validateReservedKeywords(specKeys, key, location, parseResult);
-        }
+        validateKeys(node, REQUEST_BODY_KEYS, location, parseResult);
 
         return requestBody;
     }
 
     private Object getPlayload(
             final JsonNode node,
-            final String location,
+            final NodeLocation location,
             final ParseResult parseResult) {
         if (Objects.isNull(node)) {
             return null;
@@ -1008,7 +969,7 @@ public class ArazzoDeserializer {
 
     private List<PayloadReplacementObject> getPayloadReplacementObjectList(
             final ArrayNode node,
-            final String location,
+            final NodeLocation location,
             final ParseResult parseResult) {
         if (Objects.isNull(node) || node.isEmpty()) {
             return Collections.emptyList();
@@ -1029,7 +990,7 @@ public class ArazzoDeserializer {
 
     private PayloadReplacementObject getPayloadReplacementObject(
             final ObjectNode node,
-            final String location,
+            final NodeLocation location,
             final ParseResult parseResult) {
 
         PayloadReplacementObject payloadReplacementObject = PayloadReplacementObject.builder().build();
@@ -1050,21 +1011,14 @@ public class ArazzoDeserializer {
             payloadReplacementObject.setExtensions(extensions);
         }
 
-        Set<String> keys = getKeys(node);
-        Map<String, Set<String>> specKeys = KEYS.get("arazzo10");
-        for (String key : keys) {
-            if (!specKeys.get("PAYLOAD_REPLACEMENT_OBJECT_KEYS").contains(key) && !key.startsWith("x-")) {
-                parseResult.extra(location, key, node.get(key));
-            }
-            validateReservedKeywords(specKeys, key, location, parseResult);
-        }
+        validateKeys(node, PAYLOAD_REPLACEMENT_OBJECT_KEYS, location, parseResult);
 
         return payloadReplacementObject;
     }
 
     private List<Parameter> getParameterList(
             final ArrayNode node,
-            final String location,
+            final NodeLocation location,
             final ParseResult parseResult) {
         if (Objects.isNull(node)) {
             return Collections.emptyList();
@@ -1074,7 +1028,7 @@ public class ArazzoDeserializer {
             if (JsonNodeType.OBJECT.equals(item.getNodeType())) {
                 if (item.has("reference")) {
                     ReusableObject reusableObject = getReusableObject((ObjectNode) item, location, parseResult);
-                    parseResult.warning(String.format("%s.%s", location, "reusableObject"), "resolver not implemented");
+                    parseResult.warning(location.child("reusableObject"), "resolver not implemented");
 
                     var resolver = ArazzoComponentsReferenceResolver.getInstance(this.rootNode.get("components"));
                     var resolved = resolver.resolveComponent(Objects.requireNonNull(reusableObject).getReference().toString());
@@ -1099,7 +1053,7 @@ public class ArazzoDeserializer {
         return parameters;
     }
 
-    private List<String> getDependsOnList(final ArrayNode node, final String location, final ParseResult parseResult, final String path) {
+    private List<String> getDependsOnList(final ArrayNode node, final NodeLocation location, final ParseResult parseResult, final String path) {
         if (Objects.isNull(node)) {
             return null;
         }
@@ -1116,7 +1070,7 @@ public class ArazzoDeserializer {
 
     private SourceDescription getSourceDescription(
             final ObjectNode node,
-            final String location,
+            final NodeLocation location,
             final ParseResult parseResult,
             final String path) {
         if (Objects.isNull(node)) {
@@ -1160,14 +1114,7 @@ public class ArazzoDeserializer {
             sourceDescription.setExtensions(extensions);
         }
 
-        Set<String> keys = getKeys(node);
-        Map<String, Set<String>> specKeys = KEYS.get("arazzo10");
-        for (String key : keys) {
-            if (!specKeys.get("SOURCE_DESCRIPTION_KEYS").contains(key) && !key.startsWith("x-")) {
-                parseResult.extra(location, key, node.get(key));
-            }
-            validateReservedKeywords(specKeys, key, location, parseResult);
-        }
+        validateKeys(node, SOURCE_DESCRIPTION_KEYS, location, parseResult);
 
         return sourceDescription;
     }
@@ -1184,24 +1131,25 @@ public class ArazzoDeserializer {
     }
 
     private Map<String, Object> tryUnwrapLookupExtensions(final ObjectNode node) {
-        Map<String, Object> extensions = new LinkedHashMap<>();
-
         JsonNode extensionsNode = node.get("extensions");
-        if (Objects.nonNull(extensionsNode) && JsonNodeType.OBJECT.equals(node.getNodeType())) {
-            ObjectNode extensionsObjectNode = (ObjectNode) extensionsNode;
-            extensions.putAll(tryDirectExtensions(extensionsObjectNode));
+        if (Objects.nonNull(extensionsNode) && JsonNodeType.OBJECT.equals(extensionsNode.getNodeType())) {
+            return tryDirectExtensions((ObjectNode) extensionsNode);
         }
-
-        return extensions;
+        return Collections.emptyMap();
     }
 
     private Map<String, Object> tryDirectExtensions(final ObjectNode node) {
-        Map<String, Object> extensions = new LinkedHashMap<>();
-
-        Set<String> keys = getKeys(node);
-        for (String key : keys) {
-            if (key.startsWith("x-")) {
-                extensions.put(key, new ObjectMapper().convertValue(node.get(key), Object.class));
+        // most nodes do not have extensions; the map is only allocated if one is found
+        Map<String, Object> extensions = Collections.emptyMap();
+
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getKey().startsWith("x-")) {
+                if (extensions.isEmpty()) {
+                    extensions = new LinkedHashMap<>();
+                }
+                extensions.put(field.getKey(), JsonRuntime.jsonMapper().convertValue(field.getValue(), Object.class));
             }
         }
 
@@ -1209,6 +1157,8 @@ public class ArazzoDeserializer {
     }
 
     private boolean isValidURL(final String urlAsString) {
+        // without a scheme it is relative anyway; spares the exception of parsing it
+        if (urlAsString.indexOf(':') < 0) return false;
         try {
             URL url = new URL(urlAsString);
             url.toURI();
@@ -1218,9 +1168,13 @@ public class ArazzoDeserializer {
         }
     }
 
+    public Info getInfo(final ObjectNode node, final String location, final ParseResult parseResult) {
+        return getInfo(node, NodeLocation.of(location), parseResult);
+    }
+
     public Info getInfo(
             final ObjectNode node,
-            final String location,
+            final NodeLocation location,
             final ParseResult parseResult) {
 
         if (Objects.isNull(node)) {
@@ -1254,14 +1208,7 @@ public class ArazzoDeserializer {
             info.setExtensions(extensions);
         }
 
-        Set<String> keys = getKeys(node);
-        Map<String, Set<String>> specKeys = KEYS.get("arazzo10");
-        for (String key : keys) {
-            if (!specKeys.get("INFO_KEYS").contains(key) && !key.startsWith("x-")) {
-                parseResult.extra(location, key, node.get(key));
-            }
-            validateReservedKeywords(specKeys, key, location, parseResult);
-        }
+        validateKeys(node, INFO_KEYS, location, parseResult);
 
         return info;
     }
@@ -1271,6 +1218,23 @@ public class ArazzoDeserializer {
                               final boolean required,
                               final String location,
                               final ParseResult result) {
+        return getArray(key, node, required, NodeLocation.of(location), result);
+    }
+
+    public ArrayNode getArray(final String key,
+                              final ObjectNode node,
+                              final boolean required,
+                              final String location,
+                              final ParseResult result,
+                              final boolean noInvalidError) {
+        return getArray(key, node, required, NodeLocation.of(location), result, noInvalidError);
+    }
+
+    public ArrayNode getArray(final String key,
+                              final ObjectNode node,
+                              final boolean required,
+                              final NodeLocation location,
+                              final ParseResult result) {
         return getArray(key, node, required, location, result, false);
     }
 
@@ -1278,7 +1242,7 @@ public class ArazzoDeserializer {
             final String key,
             final ObjectNode node,
             final boolean required,
-            final String location,
+            final NodeLocation location,
             final ParseResult result,
             final boolean noInvalidError) {
         JsonNode value = node.get(key);
@@ -1298,6 +1262,11 @@ public class ArazzoDeserializer {
         return arrayNode;
     }
 
+    /**
+     * @deprecated keys are no longer collected while deserializing, as unexpected keys are reported straight from
+     * the fields of a node; kept for existing callers
+     */
+    @Deprecated(since = "keys are validated without collecting them")
     public Set<String> getKeys(final ObjectNode node) {
         Set<String> keys = new LinkedHashSet<>();
         if (node == null) {
@@ -1312,12 +1281,30 @@ public class ArazzoDeserializer {
         return keys;
     }
 
-    private void validateReservedKeywords(Map<String, Set<String>> specKeys, String key, String location, ParseResult result) {
-        if (!result.isOaiAuthor() && specKeys.get("RESERVED_KEYWORDS").stream()
-                .filter(key::startsWith)
-                .findAny()
-                .orElse(null) != null) {
-            result.reserved(location, key);
+    private void validateKeys(final ObjectNode node,
+                              final Set<String> specKeys,
+                              final NodeLocation location,
+                              final ParseResult parseResult) {
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String key = field.getKey();
+            if (!specKeys.contains(key) && !key.startsWith("x-")) {
+                parseResult.extra(location, key, field.getValue());
+            }
+            validateReservedKeywords(key, location, parseResult);
+        }
+    }
+
+    private void validateReservedKeywords(final String key, final NodeLocation location, final ParseResult result) {
+        if (result.isOaiAuthor() || key.isEmpty()) return;
+
+        if (RESERVED_KEYWORD_FIRST_CHARS.indexOf(key.charAt(0)) < 0) return;
+        for (String reservedKeyword : RESERVED_KEYWORD_PREFIXES) {
+            if (key.startsWith(reservedKeyword)) {
+                result.reserved(location, key);
+                return;
+            }
         }
     }
 
@@ -1326,6 +1313,14 @@ public class ArazzoDeserializer {
                                 final boolean required,
                                 final String location,
                                 final ParseResult result) {
+        return getObject(key, node, required, NodeLocation.of(location), result);
+    }
+
+    public ObjectNode getObject(final String key,
+                                final ObjectNode node,
+                                final boolean required,
+                                final NodeLocation location,
+                                final ParseResult result) {
         JsonNode value = node.get(key);
         ObjectNode object = null;
         if (value == null) {
@@ -1344,10 +1339,18 @@ public class ArazzoDeserializer {
         return object;
     }
 
+    public String getString(final String key,
+                            final ObjectNode node,
+                            final boolean required,
+                            final String location,
+                            final ParseResult parseResult) {
+        return getString(key, node, required, NodeLocation.of(location), parseResult);
+    }
+
     private String getString(final String key,
                              final ObjectNode node,
                              final boolean required,
-                             final String location,
+                             final NodeLocation location,
                              final ParseResult parseResult) {
         return getString(key, node, required, location, parseResult, null);
     }
@@ -1355,7 +1358,7 @@ public class ArazzoDeserializer {
     private String getString(final String key,
                              final ObjectNode node,
                              final boolean required,
-                             final String location,
+                             final NodeLocation location,
                              final ParseResult parseResult,
                              final Set<String> uniqueValues) {
         return getString(key, node, required, location, parseResult, uniqueValues, false);
@@ -1364,7 +1367,7 @@ public class ArazzoDeserializer {
     private String getString(final String key,
                              final ObjectNode node,
                              final boolean required,
-                             final String location,
+                             final NodeLocation location,
                              final ParseResult parseResult,
                              final Set<String> uniqueValues,
                              final boolean noInvalidError) {
@@ -1390,6 +1393,10 @@ public class ArazzoDeserializer {
     }
 
     public Boolean getBoolean(String key, ObjectNode node, boolean required, String location, ParseResult result) {
+        return getBoolean(key, node, required, NodeLocation.of(location), result);
+    }
+
+    public Boolean getBoolean(String key, ObjectNode node, boolean required, NodeLocation location, ParseResult result) {
         Boolean value = null;
         JsonNode v = node.get(key);
         if (node == null || v == null) {
@@ -1410,6 +1417,11 @@ public class ArazzoDeserializer {
 
     public BigDecimal getBigDecimal(String key, ObjectNode node, boolean required, String location, ParseResult
             result) {
+        return getBigDecimal(key, node, required, NodeLocation.of(location), result);
+    }
+
+    public BigDecimal getBigDecimal(String key, ObjectNode node, boolean required, NodeLocation location, ParseResult
+            result) {
         BigDecimal value = null;
         JsonNode v = node.get(key);
         if (node == null || v == null) {
@@ -1426,6 +1438,10 @@ public class ArazzoDeserializer {
     }
 
     public Integer getInteger(String key, ObjectNode node, boolean required, String location, ParseResult result) {
+        return getInteger(key, node, required, NodeLocation.of(location), result);
+    }
+
+    public Integer getInteger(String key, ObjectNode node, boolean required, NodeLocation location, ParseResult result) {
         Integer value = null;
         JsonNode v = node.get(key);
         if (node == null || v == null) {
@@ -1444,6 +1460,10 @@ public class ArazzoDeserializer {
     }
 
     public Object getAnyType(String nodeKey, ObjectNode node, String location, ParseResult result) {
+        return getAnyType(nodeKey, node, NodeLocation.of(location), result);
+    }
+
+    public Object getAnyType(String nodeKey, ObjectNode node, NodeLocation location, ParseResult result) {
         JsonNode example = node.get(nodeKey);
         if (example != null) {
             if (example.getNodeType().equals(JsonNodeType.STRING)) {
@@ -1485,21 +1505,29 @@ public class ArazzoDeserializer {
                                             final String location,
                                             final ParseResult result,
                                             final boolean underComponents) {
+        return getSchemas(node, NodeLocation.of(location), result, underComponents);
+    }
+
+    public Map<String, JsonNode> getSchemas(final ObjectNode node,
+                                            final NodeLocation location,
+                                            final ParseResult result,
+                                            final boolean underComponents) {
         if (Objects.isNull(node)) {
             return null;
         }
         Map<String, JsonNode> schemas = new LinkedHashMap<>();
 
-        Set<String> schemaKeys = getKeys(node);
-        for (String schemaName : schemaKeys) {
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String schemaName = field.getKey();
             if (underComponents) {
-                if (!Pattern.matches("^[a-zA-Z0-9\\.\\-_]+$",
-                        schemaName)) {
+                if (!COMPONENT_NAME_PATTERN.matcher(schemaName).matches()) {
                     result.warning(location, "Schema name " + schemaName + " doesn't adhere to regular expression " +
                             "^[a-zA-Z0-9\\.\\-_]+$");
                 }
             }
-            JsonNode schemaValue = node.get(schemaName);
+            JsonNode schemaValue = field.getValue();
             if (!schemaValue.getNodeType().equals(JsonNodeType.OBJECT)) {
                 result.invalidType(location, schemaName, "object", schemaValue);
             } else {
@@ -1519,6 +1547,7 @@ public class ArazzoDeserializer {
         private boolean mustValidate;
         private boolean allowEmptyStrings;
         private boolean oaiAuthor;
+        private boolean lazyWorkflows;
         private final Map<Location, String> invalidType = new LinkedHashMap<>();
         private final List<Location> reserved = new ArrayList<>();
         private final Map<Location, JsonNode> extra = new LinkedHashMap<>();
@@ -1526,28 +1555,52 @@ public class ArazzoDeserializer {
         private final List<Location> warnings = new ArrayList<>();
         private final List<Location> unique = new ArrayList<>();
 
+        public void reserved(NodeLocation location, String key) {
+            reserved.add(new Location(location.toString(), key));
+        }
+
         public void reserved(String location, String key) {
-            reserved.add(new Location(location, key));
+            reserved(NodeLocation.of(location), key);
+        }
+
+        public void extra(NodeLocation location, String key, JsonNode value) {
+            extra.put(new Location(location.toString(), key), value);
         }
 
         public void extra(String location, String key, JsonNode value) {
-            extra.put(new Location(location, key), value);
+            extra(NodeLocation.of(location), key, value);
+        }
+
+        public void missing(NodeLocation location, String key) {
+            missing.add(new Location(location.toString(), key));
         }
 
         public void missing(String location, String key) {
-            missing.add(new Location(location, key));
+            missing(NodeLocation.of(location), key);
+        }
+
+        public void warning(NodeLocation location, String key) {
+            warnings.add(new Location(location.toString(), key));
         }
 
         public void warning(String location, String key) {
-            warnings.add(new Location(location, key));
+            warning(NodeLocation.of(location), key);
+        }
+
+        public void unique(NodeLocation location, String key) {
+            unique.add(new Location(location.toString(), key));
         }
 
         public void unique(String location, String key) {
-            unique.add(new Location(location, key));
+            unique(NodeLocation.of(location), key);
+        }
+
+        public void invalidType(NodeLocation location, String key, String expectedType, JsonNode value) {
+            invalidType.put(new Location(location.toString(), key), expectedType);
         }
 
         public void invalidType(String location, String key, String expectedType, JsonNode value) {
-            invalidType.put(new Location(location, key), expectedType);
+            invalidType(NodeLocation.of(location), key, expectedType, value);
         }
 
         public void invalid() {
@@ -1596,4 +1649,34 @@ public class ArazzoDeserializer {
             }
         }
     }
+
+    /**
+     * Location of a node within the document; its string representation is only built once a message is recorded.
+     */
+    public static final class NodeLocation {
+
+        public static final NodeLocation ROOT = new NodeLocation(null, "");
+
+        private final NodeLocation parent;
+        private final String segment;
+
+        private NodeLocation(final NodeLocation parent, final String segment) {
+            this.parent = parent;
+            this.segment = segment;
+        }
+
+        public static NodeLocation of(final String segment) {
+            return new NodeLocation(null, segment);
+        }
+
+        public NodeLocation child(final String segment) {
+            return new NodeLocation(this, segment);
+        }
+
+        @Override
+        public String toString() {
+            if (Objects.isNull(parent)) return segment;
+            return parent + "." + segment;
+        }
+    }
 }
@@ -11,6 +11,7 @@ public class ArazzoParseOptions {
     private final boolean allowEmptyStrings;
     private final boolean mustValidate; // TODO implementation
     private final boolean resolve; // TODO implementation
+    private final boolean lazyWorkflows;
 
     public static ArazzoParseOptions ofDefault() {
         return ArazzoParseOptions.builder()
@@ -18,6 +19,7 @@ public class ArazzoParseOptions {
                 .allowEmptyStrings(false)
                 .mustValidate(true)
                 .resolve(true)
+                .lazyWorkflows(false)
                 .build();
     }
 }
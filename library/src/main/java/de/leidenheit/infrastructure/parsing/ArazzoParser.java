@@ -1,8 +1,7 @@
 package de.leidenheit.infrastructure.parsing;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import io.swagger.util.ObjectMapperFactory;
+import de.leidenheit.infrastructure.json.JsonRuntime;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.io.FileUtils;
 
@@ -18,13 +17,6 @@ import java.util.Objects;
 public class ArazzoParser implements ArazzoParserExtension {
 
     private static final Charset ENCODING = StandardCharsets.UTF_8;
-    private static final ObjectMapper JSON_MAPPER;
-    private static final ObjectMapper YAML_MAPPER;
-
-    static {
-        JSON_MAPPER = ObjectMapperFactory.createJson();
-        YAML_MAPPER = ObjectMapperFactory.createYaml();
-    }
 
     @Override
     public ArazzoParseResult readLocation(final String arazzoUrl, final ArazzoParseOptions options) {
@@ -36,6 +28,16 @@ public class ArazzoParser implements ArazzoParserExtension {
         }
     }
 
+    public JsonNode readTreeFromLocation(final String arazzoUrl) {
+        var content = readContentFromLocation(arazzoUrl);
+        try {
+            return JsonRuntime.readTree(content);
+        } catch (Exception e) {
+            // TODO replace with exception
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
     private String readContentFromLocation(final String location) {
         final String adjustedLocation = location.replace("\\\\", "/");
         try {
@@ -70,8 +72,7 @@ public class ArazzoParser implements ArazzoParserExtension {
         try {
             ArazzoParseResult arazzoParseResult;
 
-            final var mapper = getMapper(arazzoAsString);
-            JsonNode rootNode = mapper.readTree(arazzoAsString);
+            JsonNode rootNode = JsonRuntime.readTree(arazzoAsString);
 
             if (Objects.nonNull(options)) {
                 arazzoParseResult = parseJsonNode(location, rootNode, options);
@@ -93,11 +94,4 @@ public class ArazzoParser implements ArazzoParserExtension {
         var options = ArazzoParseOptions.builder().build();
         return new ArazzoDeserializer().deserialize(node, path, options);
     }
-
-    private ObjectMapper getMapper(final String data) {
-        if (data.trim().startsWith("{")) {
-            return JSON_MAPPER;
-        }
-        return YAML_MAPPER;
-    }
 }
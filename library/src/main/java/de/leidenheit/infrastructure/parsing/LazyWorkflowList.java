@@ -0,0 +1,161 @@
+package de.leidenheit.infrastructure.parsing;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.leidenheit.core.model.Workflow;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * List of workflows that are deserialized on first access.
+ * <p>
+ * Only the workflowId and dependsOn of each workflow are read up front, the remaining
+ * workflow node is kept as is and turned into a {@link Workflow} once it is requested.
+ * Listeners get notified about every materialized workflow, e.g. in order to validate it. Messages of parsing
+ * a workflow are logged and kept, as they are no longer part of the parse result of the specification.
+ */
+@Slf4j
+public class LazyWorkflowList extends AbstractList<Workflow> implements RandomAccess {
+
+    private final List<WorkflowStub> stubs;
+    private final Function<ObjectNode, Materialization> materializer;
+    private final AtomicReferenceArray<Workflow> workflows;
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private final List<Consumer<Workflow>> materializationListeners = new CopyOnWriteArrayList<>();
+    // workflow handed to the listeners, which is part of the materialized ones while they validate it
+    private volatile Workflow materializing;
+
+    public LazyWorkflowList(final List<WorkflowStub> stubs, final Function<ObjectNode, Materialization> materializer) {
+        this.stubs = List.copyOf(stubs);
+        this.materializer = materializer;
+        this.workflows = new AtomicReferenceArray<>(stubs.size());
+    }
+
+    @Override
+    public Workflow get(final int index) {
+        var workflow = workflows.get(index);
+        if (Objects.isNull(workflow)) {
+            workflow = materialize(index);
+        }
+        return workflow;
+    }
+
+    @Override
+    public int size() {
+        return stubs.size();
+    }
+
+    public List<String> getWorkflowIds() {
+        return stubs.stream().map(WorkflowStub::workflowId).toList();
+    }
+
+    public List<String> getDependsOn(final int index) {
+        return stubs.get(index).dependsOn();
+    }
+
+    public boolean isMaterialized(final int index) {
+        return Objects.nonNull(workflows.get(index));
+    }
+
+    public List<Workflow> getMaterialized() {
+        List<Workflow> materialized = new ArrayList<>();
+        for (int i = 0; i < workflows.length(); i++) {
+            var workflow = workflows.get(i);
+            if (Objects.nonNull(workflow)) {
+                materialized.add(workflow);
+            }
+        }
+        var current = materializing;
+        if (Objects.nonNull(current)) {
+            materialized.add(current);
+        }
+        return materialized;
+    }
+
+    /**
+     * @return messages of parsing the workflows materialized so far
+     */
+    public List<String> getMessages() {
+        return List.copyOf(messages);
+    }
+
+    public void addMaterializationListener(final Consumer<Workflow> listener) {
+        materializationListeners.add(listener);
+        getMaterialized().forEach(listener);
+    }
+
+    private synchronized Workflow materialize(final int index) {
+        var workflow = workflows.get(index);
+        if (Objects.nonNull(workflow)) return workflow;
+
+        var materialization = materializer.apply(stubs.get(index).node());
+        workflow = materialization.workflow();
+        if (!materialization.messages().isEmpty()) {
+            log.warn("Parsing workflow '{}' yielded messages: {}", stubs.get(index).workflowId(), materialization.messages());
+            messages.addAll(materialization.messages());
+        }
+        materializing = workflow;
+        try {
+            for (Consumer<Workflow> listener : materializationListeners) {
+                listener.accept(workflow);
+            }
+        } finally {
+            materializing = null;
+        }
+        workflows.set(index, workflow);
+        return workflow;
+    }
+
+    @Override
+    public String toString() {
+        // must not materialize the workflows
+        return "LazyWorkflowList%s".formatted(getWorkflowIds());
+    }
+
+    /**
+     * Returns the ids of the given workflows without materializing lazy ones.
+     */
+    public static List<String> workflowIdsOf(final List<Workflow> workflows) {
+        if (Objects.isNull(workflows)) return Collections.emptyList();
+        if (workflows instanceof LazyWorkflowList lazyWorkflows) {
+            return lazyWorkflows.getWorkflowIds();
+        }
+        return workflows.stream().map(Workflow::getWorkflowId).toList();
+    }
+
+    /**
+     * Returns the dependsOn of the workflow at the given index without materializing lazy ones.
+     */
+    public static List<String> dependsOnOf(final List<Workflow> workflows, final int index) {
+        if (workflows instanceof LazyWorkflowList lazyWorkflows) {
+            return lazyWorkflows.getDependsOn(index);
+        }
+        return workflows.get(index).getDependsOn();
+    }
+
+    /**
+     * Returns the workflows that already have been materialized, that are all workflows of a regular list.
+     */
+    public static List<Workflow> materializedOf(final List<Workflow> workflows) {
+        if (Objects.isNull(workflows)) return Collections.emptyList();
+        if (workflows instanceof LazyWorkflowList lazyWorkflows) {
+            return lazyWorkflows.getMaterialized();
+        }
+        return workflows;
+    }
+
+    public record WorkflowStub(String workflowId, List<String> dependsOn, ObjectNode node) {
+    }
+
+    public record Materialization(Workflow workflow, List<String> messages) {
+    }
+}
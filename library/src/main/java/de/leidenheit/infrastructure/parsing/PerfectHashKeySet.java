@@ -0,0 +1,67 @@
+package de.leidenheit.infrastructure.parsing;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Immutable set of keys backed by a collision-free hash table that is computed once.
+ * <p>
+ * A lookup costs the cached {@link String#hashCode()}, a single slot access and at most one
+ * {@link String#equals(Object)}. Iteration follows the order the keys have been given in.
+ */
+final class PerfectHashKeySet extends AbstractSet<String> {
+
+    private static final int MAX_TABLE_SIZE = 1 << 16;
+
+    private final String[] keys;
+    private final String[] table;
+    private final int shift;
+    private final int mask;
+
+    PerfectHashKeySet(final String... keys) {
+        this.keys = keys.clone();
+        for (int size = Integer.highestOneBit(Math.max(1, keys.length * 2 - 1)) << 1; size <= MAX_TABLE_SIZE; size <<= 1) {
+            int tableMask = size - 1;
+            for (int tableShift = 0; tableShift <= Integer.numberOfLeadingZeros(tableMask); tableShift++) {
+                String[] candidate = tryBuildTable(keys, tableShift, tableMask);
+                if (candidate != null) {
+                    this.table = candidate;
+                    this.shift = tableShift;
+                    this.mask = tableMask;
+                    return;
+                }
+            }
+        }
+        throw new IllegalArgumentException("No collision-free table found for keys " + Arrays.toString(keys));
+    }
+
+    private static String[] tryBuildTable(final String[] keys, final int shift, final int mask) {
+        String[] candidate = new String[mask + 1];
+        for (String key : keys) {
+            int slot = (key.hashCode() >>> shift) & mask;
+            if (candidate[slot] != null) {
+                return null;
+            }
+            candidate[slot] = key;
+        }
+        return candidate;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        if (!(o instanceof String key)) return false;
+        String candidate = table[(key.hashCode() >>> shift) & mask];
+        return candidate != null && candidate.equals(key);
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return Arrays.asList(keys).iterator();
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+}
@@ -9,6 +9,9 @@ import io.swagger.v3.parser.OpenAPIV3Parser;
 import io.swagger.v3.parser.core.models.ParseOptions;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 
 public class SourceDescriptionInitializer {
 
@@ -35,6 +38,22 @@ public class SourceDescriptionInitializer {
         options.setOaiAuthor(false);
         OpenAPI openAPI = parser.read(sourceDescription.getUrl(), Collections.emptyList(), options);
         sourceDescription.setReferencedOpenAPI(openAPI);
+        sourceDescription.setOperationRoutes(routeOperations(openAPI));
+    }
+
+    public static Map<String, SourceDescription.OperationRoute> routeOperations(final OpenAPI openAPI) {
+        Map<String, SourceDescription.OperationRoute> operationRoutes = new LinkedHashMap<>();
+        if (Objects.isNull(openAPI) || Objects.isNull(openAPI.getPaths())) return operationRoutes;
+
+        openAPI.getPaths().forEach((path, pathItem) ->
+                pathItem.readOperationsMap().forEach((httpMethod, operation) -> {
+                    if (Objects.nonNull(operation.getOperationId())) {
+                        // first operation wins analog to the lookup during execution
+                        operationRoutes.putIfAbsent(operation.getOperationId(),
+                                new SourceDescription.OperationRoute(path, httpMethod.name().toUpperCase()));
+                    }
+                }));
+        return operationRoutes;
     }
 
     private static void initializeAsArazzo(final SourceDescription sourceDescription) {
@@ -0,0 +1,139 @@
+package de.leidenheit.infrastructure.reporting;
+
+import de.leidenheit.core.execution.context.StepTimings;
+import de.leidenheit.core.execution.listener.ExecutionListener;
+import de.leidenheit.core.model.Step;
+import de.leidenheit.core.model.Workflow;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Base of the report writers; turns listener callbacks into completed step, retry and workflow records which are
+ * handed to the writer right away, so only the workflows currently running are held in memory.
+ * <p>
+ * Writes are serialized, hence a single report may be shared by workflows executed in parallel.
+ */
+public abstract class ExecutionReportListener implements ExecutionListener, AutoCloseable {
+
+    // workflows nest (e.g. goto workflow), hence running workflows are tracked as a stack per thread
+    private final ThreadLocal<Deque<WorkflowRun>> runs = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public record StepRecord(String workflowId,
+                             String stepId,
+                             String operation,
+                             int attempt,
+                             boolean successful,
+                             int statusCode,
+                             long durationNanos,
+                             StepTimings timings) {
+    }
+
+    public record RetryRecord(String workflowId,
+                              String stepId,
+                              int attempt,
+                              int retryLimit,
+                              long delayNanos) {
+    }
+
+    public record WorkflowRecord(String workflowId,
+                                 boolean completed,
+                                 long durationNanos,
+                                 int steps,
+                                 int failedSteps,
+                                 int retries) {
+    }
+
+    protected abstract void writeStep(StepRecord record) throws IOException;
+
+    protected abstract void writeRetry(RetryRecord record) throws IOException;
+
+    protected abstract void writeWorkflow(WorkflowRecord record) throws IOException;
+
+    protected abstract void finish() throws IOException;
+
+    @Override
+    public void onWorkflowStart(final Workflow workflow, final long startNanos) {
+        runs.get().push(new WorkflowRun());
+    }
+
+    @Override
+    public void onResponseReceived(final Workflow workflow, final Step step, final int statusCode, final long sentNanos, final long latencyNanos) {
+        var run = runs.get().peek();
+        if (Objects.nonNull(run)) run.statusCode = statusCode;
+    }
+
+    @Override
+    public void onStepTimings(final Workflow workflow, final Step step, final StepTimings timings) {
+        var run = runs.get().peek();
+        if (Objects.nonNull(run)) run.timings = timings;
+    }
+
+    @Override
+    public void onStepEnd(final Workflow workflow, final Step step, final long startNanos, final long durationNanos, final boolean successful) {
+        var run = runs.get().peek();
+        if (Objects.isNull(run)) return;
+        int attempt = run.attempts.merge(step.getStepId(), 1, Integer::sum);
+        run.steps++;
+        if (!successful) run.failedSteps++;
+        var record = new StepRecord(workflow.getWorkflowId(), step.getStepId(), operationOf(step), attempt,
+                successful, run.statusCode, durationNanos, run.timings);
+        run.statusCode = 0;
+        run.timings = null;
+        write(() -> writeStep(record));
+    }
+
+    @Override
+    public void onRetryScheduled(final Workflow workflow, final Step step, final int attempt, final int retryLimit, final long scheduledNanos, final long delayNanos) {
+        var run = runs.get().peek();
+        if (Objects.nonNull(run)) run.retries++;
+        var record = new RetryRecord(workflow.getWorkflowId(), step.getStepId(), attempt, retryLimit, delayNanos);
+        write(() -> writeRetry(record));
+    }
+
+    @Override
+    public void onWorkflowEnd(final Workflow workflow, final long startNanos, final long durationNanos, final boolean completed) {
+        var run = runs.get().poll();
+        if (Objects.isNull(run)) return;
+        var record = new WorkflowRecord(workflow.getWorkflowId(), completed, durationNanos, run.steps, run.failedSteps, run.retries);
+        write(() -> writeWorkflow(record));
+    }
+
+    @Override
+    public void close() {
+        write(this::finish);
+    }
+
+    private synchronized void write(final ReportWrite reportWrite) {
+        try {
+            reportWrite.write();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String operationOf(final Step step) {
+        if (Objects.nonNull(step.getOperationId())) return step.getOperationId();
+        if (Objects.nonNull(step.getOperationPath())) return step.getOperationPath();
+        return step.getWorkflowId();
+    }
+
+    @FunctionalInterface
+    private interface ReportWrite {
+        void write() throws IOException;
+    }
+
+    private static final class WorkflowRun {
+        private final Map<String, Integer> attempts = new HashMap<>();
+        private int steps;
+        private int failedSteps;
+        private int retries;
+        private int statusCode;
+        private StepTimings timings;
+    }
+}
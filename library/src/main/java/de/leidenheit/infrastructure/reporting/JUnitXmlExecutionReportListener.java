@@ -0,0 +1,113 @@
+package de.leidenheit.infrastructure.reporting;
+
+import de.leidenheit.core.model.Workflow;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Streams a JUnit XML report of a run to disk: one {@code testsuite} per workflow run and one {@code testcase}
+ * per step attempt.
+ * <p>
+ * As a suite carries its totals as attributes, the steps of the workflows currently running are buffered until
+ * the workflow ends.
+ */
+public class JUnitXmlExecutionReportListener extends ExecutionReportListener {
+
+    private final ThreadLocal<Deque<List<StepRecord>>> bufferedSteps = ThreadLocal.withInitial(ArrayDeque::new);
+    private final OutputStream outputStream;
+    private final XMLStreamWriter writer;
+
+    public JUnitXmlExecutionReportListener(final Path reportPath) throws IOException {
+        if (Objects.nonNull(reportPath.getParent())) {
+            Files.createDirectories(reportPath.getParent());
+        }
+        outputStream = new BufferedOutputStream(Files.newOutputStream(reportPath));
+        try {
+            writer = XMLOutputFactory.newFactory().createXMLStreamWriter(outputStream, StandardCharsets.UTF_8.name());
+            writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            writer.writeStartElement("testsuites");
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public void onWorkflowStart(final Workflow workflow, final long startNanos) {
+        super.onWorkflowStart(workflow, startNanos);
+        bufferedSteps.get().push(new ArrayList<>());
+    }
+
+    @Override
+    protected void writeStep(final StepRecord record) {
+        var steps = bufferedSteps.get().peek();
+        if (Objects.nonNull(steps)) steps.add(record);
+    }
+
+    @Override
+    protected void writeRetry(final RetryRecord record) {
+        // retries show up as additional attempts of the step
+    }
+
+    @Override
+    protected void writeWorkflow(final WorkflowRecord record) throws IOException {
+        var steps = bufferedSteps.get().poll();
+        if (Objects.isNull(steps)) return;
+        try {
+            writer.writeStartElement("testsuite");
+            writer.writeAttribute("name", record.workflowId());
+            writer.writeAttribute("tests", String.valueOf(steps.size()));
+            writer.writeAttribute("failures", String.valueOf(record.failedSteps()));
+            writer.writeAttribute("errors", record.completed() ? "0" : "1");
+            writer.writeAttribute("time", toSeconds(record.durationNanos()));
+            for (StepRecord step : steps) {
+                writer.writeStartElement("testcase");
+                writer.writeAttribute("classname", step.workflowId());
+                writer.writeAttribute("name", "%s (attempt %d)".formatted(step.stepId(), step.attempt()));
+                writer.writeAttribute("time", toSeconds(step.durationNanos()));
+                if (!step.successful()) {
+                    writer.writeStartElement("failure");
+                    writer.writeAttribute("message", step.statusCode() > 0
+                            ? "Success criteria not satisfied for '%s' (status code %d)".formatted(step.operation(), step.statusCode())
+                            : "No response received for '%s'".formatted(step.operation()));
+                    writer.writeEndElement();
+                }
+                writer.writeEndElement();
+            }
+            writer.writeEndElement();
+            writer.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        try {
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    private static String toSeconds(final long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,172 @@
+package de.leidenheit.infrastructure.reporting;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import de.leidenheit.core.execution.listener.LatencyHistogram;
+import de.leidenheit.infrastructure.json.JsonRuntime;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Streams a JSON report of a run to disk.
+ * <p>
+ * Step, retry and workflow records are appended to {@code records} as they complete; the trailing {@code summary}
+ * holds per step and per workflow statistics (attempts, failures, retries, p50/p95/p99 latencies) aggregated in
+ * fixed-size histograms.
+ */
+public class JsonExecutionReportListener extends ExecutionReportListener {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final JsonGenerator generator;
+    private final Map<String, Statistics> stepStatistics = new LinkedHashMap<>();
+    private final Map<String, Statistics> workflowStatistics = new LinkedHashMap<>();
+    private long recordsSinceFlush;
+
+    public JsonExecutionReportListener(final Path reportPath) throws IOException {
+        if (Objects.nonNull(reportPath.getParent())) {
+            Files.createDirectories(reportPath.getParent());
+        }
+        generator = JsonRuntime.jsonMapper().getFactory()
+                .createGenerator(new BufferedOutputStream(Files.newOutputStream(reportPath)));
+        generator.writeStartObject();
+        generator.writeNumberField("formatVersion", FORMAT_VERSION);
+        generator.writeStringField("startedAt", Instant.now().toString());
+        generator.writeArrayFieldStart("records");
+    }
+
+    @Override
+    protected void writeStep(final StepRecord record) throws IOException {
+        var statistics = stepStatistics.computeIfAbsent("%s.%s".formatted(record.workflowId(), record.stepId()), k -> new Statistics());
+        statistics.count++;
+        if (!record.successful()) statistics.failures++;
+        statistics.duration.record(record.durationNanos());
+
+        generator.writeStartObject();
+        generator.writeStringField("type", "step");
+        generator.writeStringField("workflowId", record.workflowId());
+        generator.writeStringField("stepId", record.stepId());
+        generator.writeStringField("operation", record.operation());
+        generator.writeNumberField("attempt", record.attempt());
+        generator.writeBooleanField("successful", record.successful());
+        if (record.statusCode() > 0) {
+            generator.writeNumberField("statusCode", record.statusCode());
+        }
+        generator.writeNumberField("durationNanos", record.durationNanos());
+        var timings = record.timings();
+        if (Objects.nonNull(timings)) {
+            statistics.timeToFirstByte.record(timings.getTimeToFirstByteNanos());
+            generator.writeObjectFieldStart("phasesNanos");
+            generator.writeNumberField("requestBuild", timings.getRequestBuildNanos());
+            generator.writeNumberField("payloadReplacement", timings.getPayloadReplacementNanos());
+            generator.writeNumberField("connectionAcquisition", timings.getConnectionAcquisitionNanos());
+            generator.writeNumberField("timeToFirstByte", timings.getTimeToFirstByteNanos());
+            generator.writeNumberField("bodyDownload", timings.getBodyDownloadNanos());
+            generator.writeNumberField("criteriaEvaluation", timings.getCriteriaEvaluationNanos());
+            generator.writeNumberField("outputExtraction", timings.getOutputExtractionNanos());
+            generator.writeEndObject();
+            generator.writeNumberField("requestBytes", timings.getRequestBytes());
+            generator.writeNumberField("responseBytes", timings.getResponseBytes());
+        }
+        generator.writeEndObject();
+        flushPeriodically();
+    }
+
+    @Override
+    protected void writeRetry(final RetryRecord record) throws IOException {
+        stepStatistics.computeIfAbsent("%s.%s".formatted(record.workflowId(), record.stepId()), k -> new Statistics()).retries++;
+
+        generator.writeStartObject();
+        generator.writeStringField("type", "retry");
+        generator.writeStringField("workflowId", record.workflowId());
+        generator.writeStringField("stepId", record.stepId());
+        generator.writeNumberField("attempt", record.attempt());
+        generator.writeNumberField("retryLimit", record.retryLimit());
+        generator.writeNumberField("delayNanos", record.delayNanos());
+        generator.writeEndObject();
+        flushPeriodically();
+    }
+
+    @Override
+    protected void writeWorkflow(final WorkflowRecord record) throws IOException {
+        var statistics = workflowStatistics.computeIfAbsent(record.workflowId(), k -> new Statistics());
+        statistics.count++;
+        if (!record.completed()) statistics.failures++;
+        statistics.retries += record.retries();
+        statistics.duration.record(record.durationNanos());
+
+        generator.writeStartObject();
+        generator.writeStringField("type", "workflow");
+        generator.writeStringField("workflowId", record.workflowId());
+        generator.writeBooleanField("completed", record.completed());
+        generator.writeNumberField("durationNanos", record.durationNanos());
+        generator.writeNumberField("steps", record.steps());
+        generator.writeNumberField("failedSteps", record.failedSteps());
+        generator.writeNumberField("retries", record.retries());
+        generator.writeEndObject();
+        // a workflow is a natural checkpoint of the report
+        generator.flush();
+        recordsSinceFlush = 0;
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        generator.writeEndArray();
+        generator.writeObjectFieldStart("summary");
+        writeStatistics("workflows", workflowStatistics);
+        writeStatistics("steps", stepStatistics);
+        generator.writeEndObject();
+        generator.writeStringField("finishedAt", Instant.now().toString());
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    private void writeStatistics(final String fieldName, final Map<String, Statistics> statisticsByKey) throws IOException {
+        generator.writeObjectFieldStart(fieldName);
+        for (Map.Entry<String, Statistics> entry : statisticsByKey.entrySet()) {
+            var statistics = entry.getValue();
+            generator.writeObjectFieldStart(entry.getKey());
+            generator.writeNumberField("count", statistics.count);
+            generator.writeNumberField("failures", statistics.failures);
+            generator.writeNumberField("retries", statistics.retries);
+            writeHistogram("durationNanos", statistics.duration);
+            if (statistics.timeToFirstByte.getCount() > 0) {
+                writeHistogram("timeToFirstByteNanos", statistics.timeToFirstByte);
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeHistogram(final String fieldName, final LatencyHistogram histogram) throws IOException {
+        generator.writeObjectFieldStart(fieldName);
+        generator.writeNumberField("min", histogram.getMinNanos());
+        generator.writeNumberField("mean", Math.round(histogram.getMeanNanos()));
+        generator.writeNumberField("p50", histogram.getPercentileNanos(50));
+        generator.writeNumberField("p95", histogram.getPercentileNanos(95));
+        generator.writeNumberField("p99", histogram.getPercentileNanos(99));
+        generator.writeNumberField("max", histogram.getMaxNanos());
+        generator.writeEndObject();
+    }
+
+    private void flushPeriodically() throws IOException {
+        if (++recordsSinceFlush >= 1_000) {
+            generator.flush();
+            recordsSinceFlush = 0;
+        }
+    }
+
+    private static final class Statistics {
+        private final LatencyHistogram duration = new LatencyHistogram();
+        private final LatencyHistogram timeToFirstByte = new LatencyHistogram();
+        private long count;
+        private long failures;
+        private long retries;
+    }
+}
@@ -1,52 +1,68 @@
 package de.leidenheit.infrastructure.resolving;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
+import de.leidenheit.core.execution.context.WorkflowOutputStore;
 import de.leidenheit.core.model.ArazzoSpecification;
+import de.leidenheit.core.model.Step;
+import de.leidenheit.infrastructure.json.JsonRuntime;
+import de.leidenheit.infrastructure.parsing.LazyWorkflowList;
 import de.leidenheit.infrastructure.utils.ResolverUtils;
 
 import java.util.*;
 
 public class ArazzoExpressionResolver extends HttpContextExpressionResolver {
 
-    private static ArazzoExpressionResolver instance;
-
-    private final ObjectMapper mapper = new ObjectMapper();
+    private final ArazzoSpecification arazzo;
     private final Map<String, Object> inputs;
     private final Map<String, Object> outputs = new HashMap<>();
-    private final ArrayNode steps = mapper.createArrayNode();
-    private final ArrayNode workflows = mapper.createArrayNode();
-    private final ArrayNode sourceDescriptions = mapper.createArrayNode();
+    private final ArrayNode sourceDescriptions = JsonRuntime.jsonMapper().createArrayNode();
 
-    // hold resolved values to easily reference them later
-    private final Map<String, Object> resolvedMap = new LinkedHashMap<>();
+    private static final int EXPRESSION_CACHE_SIZE = Integer.getInteger("arazzo.expression-cache.size", 1024);
 
-    public static synchronized ArazzoExpressionResolver getInstance(final ArazzoSpecification arazzo,
-                                                                    final Map<String, Object> inputs) {
-        if (Objects.isNull(instance)) {
-            instance = new ArazzoExpressionResolver(arazzo, inputs);
-        }
-        return instance;
+    // hold values of step outputs to easily reference them later; entries are removed once released
+    private final Map<String, Object> stepOutputs = new HashMap<>();
+    // memoizes resolved arazzo expressions; dynamic entries are versioned by the state they depend on
+    private final ExpressionCache expressionCache = new ExpressionCache(EXPRESSION_CACHE_SIZE);
+    // json trees of the workflows and steps referenced so far, converted once per materialized instance
+    private final Map<Object, JsonNode> convertedNodes = new IdentityHashMap<>();
+    // outputs of the workflows completed in this run, if bound
+    private WorkflowOutputStore workflowOutputs;
+    private long outputsVersion = 1;
+
+    /**
+     * @deprecated the resolver holds the state of an execution and is no longer shared; create one per execution
+     */
+    @Deprecated(since = "one resolver per execution")
+    public static ArazzoExpressionResolver getInstance(final ArazzoSpecification arazzo,
+                                                       final Map<String, Object> inputs) {
+        return new ArazzoExpressionResolver(arazzo, inputs);
     }
 
-    private ArazzoExpressionResolver(final ArazzoSpecification arazzo, final Map<String, Object> inputs) {
+    /**
+     * Creates the resolver of a single execution; as it holds the state of that execution, it must not be shared by
+     * executions running at the same time.
+     */
+    public ArazzoExpressionResolver(final ArazzoSpecification arazzo, final Map<String, Object> inputs) {
+        this.arazzo = arazzo;
         this.inputs = inputs;
+        // workflows and steps are looked up on demand in order to keep lazy workflows unmaterialized
         this.sourceDescriptions.addAll(Objects.requireNonNull(
-                mapper.convertValue(arazzo.getSourceDescriptions(), ArrayNode.class)));
-        this.workflows.addAll(Objects.requireNonNull(
-                mapper.convertValue(arazzo.getWorkflows(), ArrayNode.class)));
-        arazzo.getWorkflows().forEach(workflow ->
-                this.steps.addAll(Objects.requireNonNull(
-                        mapper.convertValue(workflow.getSteps(), ArrayNode.class))));
+                JsonRuntime.jsonMapper().convertValue(arazzo.getSourceDescriptions(), ArrayNode.class)));
     }
 
     @Override
     public Object resolveExpression(final String expression, final ResolverContext context) {
-        // re-use already resolved expressions
-        Object resolved = resolvedMap.get(expression);
+        Object resolved = stepOutputs.get(expression);
+        if (Objects.nonNull(resolved)) return resolved;
+
+        // re-use already resolved expressions as long as the state they depend on is unchanged
+        long version = cacheVersionOf(expression);
+        if (version >= 0) {
+            resolved = expressionCache.get(expression, version);
+        }
 
         if (Objects.isNull(resolved)) {
             if (expression.startsWith("$inputs.")) {
@@ -65,12 +81,15 @@ public class ArazzoExpressionResolver extends HttpContextExpressionResolver {
                     resolved = resolvedAsTextNode.asText();
                 }
             } else if (expression.startsWith("$workflows.")) {
-                resolved = resolveWorkflows(workflows, expression.substring("$workflows.".length()));
+                // outputs of completed workflows are taken as stored, which reloads spilled ones from disk
+                var storedOutput = resolveStoredWorkflowOutput(expression.substring("$workflows.".length()));
+                if (Objects.nonNull(storedOutput)) return storedOutput;
+                resolved = resolveWorkflows(expression.substring("$workflows.".length()));
                 if (Objects.nonNull(resolved) && resolved instanceof TextNode resolvedAsTextNode) {
                     resolved = resolvedAsTextNode.asText();
                 }
             } else if (expression.startsWith("$steps.")) {
-                resolved = resolveSteps(steps, expression.substring("$steps.".length()));
+                resolved = resolveSteps(expression.substring("$steps.".length()));
                 if (Objects.nonNull(resolved) && resolved instanceof TextNode resolvedAsTextNode) {
                     resolved = resolvedAsTextNode.asText();
                 }
@@ -82,50 +101,70 @@ public class ArazzoExpressionResolver extends HttpContextExpressionResolver {
             }
 
             if (Objects.nonNull(resolved) && !expression.equalsIgnoreCase(resolved.toString())) {
-                // add resolved expression to reference map
-                resolvedMap.put(expression, resolved);
+                expressionCache.put(expression, resolved, version);
             }
         }
         return resolved;
     }
 
     public String resolveString(final String expression) {
+        var template = ExpressionTemplate.of(expression);
+        if (!template.isEmbedded()) {
+            return String.valueOf(resolveExpression(expression, null));
+        }
         StringBuilder result = new StringBuilder();
-        if (expression.contains("{$")) {
-            int start = 0;
-            while (start < expression.length()) {
-                int openIndex = expression.indexOf("{$", start);
-                if (openIndex == -1) {
-                    result.append(expression.substring(start));
-                    break;
-                }
-                result.append(expression, start, openIndex);
-                int closeIndex = expression.indexOf('}', openIndex);
-                if (closeIndex == -1) {
-                    throw new IllegalArgumentException("Unmatched '{$' in expression: " + expression);
-                }
-                String expr = expression.substring(openIndex + 1, closeIndex);
-                Object resolved = resolveExpression(expr, null);
-                if (Objects.nonNull(resolved)) {
-                    if (resolved instanceof TextNode textNode) {
-                        result.append(textNode.asText());
-                    } else {
-                        result.append(resolved);
-                    }
+        for (int i = 0; i < template.size(); i++) {
+            if (!template.isExpression(i)) {
+                result.append(template.segment(i));
+                continue;
+            }
+            Object resolved = resolveExpression(template.segment(i), null);
+            if (Objects.nonNull(resolved)) {
+                if (resolved instanceof TextNode textNode) {
+                    result.append(textNode.asText());
                 } else {
-                    // TODO replace with exception
-                    throw new RuntimeException("Unexpected");
+                    result.append(resolved);
                 }
-                start = closeIndex + 1;
+            } else {
+                // TODO replace with exception
+                throw new RuntimeException("Unexpected");
             }
-        } else {
-            result.append(resolveExpression(expression, null));
         }
         return result.toString();
     }
 
     public void addResolved(final String key, final Object resolved) {
-        this.resolvedMap.put(key, resolved);
+        this.stepOutputs.put(key, resolved);
+        this.outputsVersion++;
+    }
+
+    public void removeResolved(final String key) {
+        if (Objects.nonNull(this.stepOutputs.remove(key))) {
+            this.outputsVersion++;
+        }
+    }
+
+    public void setWorkflowOutputs(final WorkflowOutputStore workflowOutputs) {
+        this.workflowOutputs = workflowOutputs;
+    }
+
+    public ExpressionCache.Statistics getCacheStatistics() {
+        return expressionCache.getStatistics();
+    }
+
+    /**
+     * @return version the expression is cached for, or -1 for expressions that depend on the current http
+     * context and therefore are not cached
+     */
+    private long cacheVersionOf(final String expression) {
+        if (expression.startsWith("$inputs.") || expression.startsWith("$sourceDescriptions.")) {
+            return ExpressionCache.STATIC_VERSION;
+        }
+        if (expression.startsWith("$workflows.")) {
+            return expression.contains(".outputs.") ? outputsVersion : ExpressionCache.STATIC_VERSION;
+        }
+        if (expression.startsWith("$steps.") || expression.startsWith("$outputs.")) return outputsVersion;
+        return -1;
     }
 
     private JsonNode resolveSourceDescription(final ArrayNode sourceDescriptionsArray, final String keyPath) {
@@ -145,7 +184,7 @@ public class ArazzoExpressionResolver extends HttpContextExpressionResolver {
     }
 
 
-    private JsonNode resolveSteps(final ArrayNode stepsArray, final String keyPath) {
+    private JsonNode resolveSteps(final String keyPath) {
         String[] keys = keyPath.split("\\.");
 
         if (keys.length < 2) return null;
@@ -153,8 +192,13 @@ public class ArazzoExpressionResolver extends HttpContextExpressionResolver {
         String targetName = keys[0];
         String[] targetFields = Arrays.copyOfRange(keys, 1, keys.length);
 
-        for (JsonNode sourceNode : stepsArray) {
-            if (sourceNode.has("stepId") && sourceNode.get("stepId").asText().equals(targetName)) {
+        // steps are only reachable through workflows that are already in use
+        var steps = LazyWorkflowList.materializedOf(arazzo.getWorkflows()).stream()
+                .flatMap(workflow -> workflow.getSteps().stream())
+                .toList();
+        for (Step step : steps) {
+            if (targetName.equals(step.getStepId())) {
+                var sourceNode = convertedNodeOf(step);
                 var resolved = ResolverUtils.getNestedValue(sourceNode, String.join(".", targetFields));
                 if (Objects.nonNull(resolved) && resolved.isTextual()) {
                     resolved = new TextNode(resolveString(resolved.asText()));
@@ -167,7 +211,22 @@ public class ArazzoExpressionResolver extends HttpContextExpressionResolver {
         return null;
     }
 
-    private JsonNode resolveWorkflows(final ArrayNode stepsArray, final String keyPath) {
+    private Object resolveStoredWorkflowOutput(final String keyPath) {
+        if (Objects.isNull(workflowOutputs)) return null;
+        // names of outputs may contain dots
+        int outputsIndex = keyPath.indexOf(".outputs.");
+        if (outputsIndex < 0) return null;
+
+        var outputsOfWorkflow = workflowOutputs.get(keyPath.substring(0, outputsIndex));
+        if (Objects.isNull(outputsOfWorkflow)) return null;
+        var resolved = outputsOfWorkflow.get(keyPath.substring(outputsIndex + ".outputs.".length()));
+        if (resolved instanceof TextNode resolvedAsTextNode) {
+            return resolvedAsTextNode.asText();
+        }
+        return resolved;
+    }
+
+    private JsonNode resolveWorkflows(final String keyPath) {
         String[] keys = keyPath.split("\\.");
 
         if (keys.length < 2) return null;
@@ -175,20 +234,26 @@ public class ArazzoExpressionResolver extends HttpContextExpressionResolver {
         String targetName = keys[0];
         String[] targetFields = Arrays.copyOfRange(keys, 1, keys.length);
 
-        for (JsonNode sourceNode : stepsArray) {
-            if (sourceNode.has("workflowId") && sourceNode.get("workflowId").asText().equals(targetName)) {
-                var resolved = ResolverUtils.getNestedValue(sourceNode, String.join(".", targetFields));
-                if (Objects.nonNull(resolved) && resolved.isTextual()) {
-                    resolved = new TextNode(resolveString(resolved.asText()));
-                    return resolved;
-                }
-                // TODO replace with exception
-                throw new RuntimeException("Unexpected");
+        // only materialize the referenced workflow
+        var workflowIndex = LazyWorkflowList.workflowIdsOf(arazzo.getWorkflows()).indexOf(targetName);
+        if (workflowIndex >= 0) {
+            var sourceNode = convertedNodeOf(arazzo.getWorkflows().get(workflowIndex));
+            var resolved = ResolverUtils.getNestedValue(sourceNode, String.join(".", targetFields));
+            if (Objects.nonNull(resolved) && resolved.isTextual()) {
+                resolved = new TextNode(resolveString(resolved.asText()));
+                return resolved;
             }
+            // TODO replace with exception
+            throw new RuntimeException("Unexpected");
         }
         return null;
     }
 
+    private JsonNode convertedNodeOf(final Object workflowOrStep) {
+        return convertedNodes.computeIfAbsent(workflowOrStep,
+                value -> JsonRuntime.jsonMapper().convertValue(value, JsonNode.class));
+    }
+
     private void resolveJsonObject(final ObjectNode node) {
         node.fields().forEachRemaining(entry -> {
             JsonNode value = entry.getValue();
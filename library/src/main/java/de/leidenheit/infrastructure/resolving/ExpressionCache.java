@@ -0,0 +1,77 @@
+package de.leidenheit.infrastructure.resolving;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded least-recently-used cache of resolved expressions.
+ * <p>
+ * Every entry carries the version it has been resolved for; a lookup with a different version is a miss and
+ * drops the stale entry. Expressions that never change during a run use {@link #STATIC_VERSION}.
+ */
+public class ExpressionCache {
+
+    public static final long STATIC_VERSION = 0L;
+
+    private final int maximumSize;
+    private final Map<String, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExpressionCache(final int maximumSize) {
+        if (maximumSize < 1) throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        this.maximumSize = maximumSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                if (size() > ExpressionCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return the cached value if it has been resolved for the given version, otherwise null
+     */
+    public synchronized Object get(final String expression, final long version) {
+        var entry = entries.get(expression);
+        if (Objects.nonNull(entry) && entry.version() == version) {
+            hits.increment();
+            return entry.value();
+        }
+        if (Objects.nonNull(entry)) {
+            entries.remove(expression);
+        }
+        misses.increment();
+        return null;
+    }
+
+    public synchronized void put(final String expression, final Object value, final long version) {
+        entries.put(expression, new Entry(value, version));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized Statistics getStatistics() {
+        return new Statistics(entries.size(), maximumSize, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private record Entry(Object value, long version) {
+    }
+
+    public record Statistics(int size, int maximumSize, long hitCount, long missCount, long evictionCount) {
+
+        public double hitRate() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 0d : hitCount / (double) requests;
+        }
+    }
+}
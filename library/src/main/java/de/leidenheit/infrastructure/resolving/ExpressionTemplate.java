@@ -0,0 +1,90 @@
+package de.leidenheit.infrastructure.resolving;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * String with embedded '{$...}' expressions, split once into literal and expression segments.
+ * <p>
+ * A string without embedded expressions is a single expression as a whole. Templates are immutable and cached,
+ * as long as the cache has not reached its bound, since most templates stem from the specification.
+ */
+public final class ExpressionTemplate {
+
+    private static final int MAXIMUM_CACHE_SIZE = 4096;
+    private static final Map<String, ExpressionTemplate> CACHE = new ConcurrentHashMap<>();
+
+    private final String[] segments;
+    private final boolean[] expressions;
+    private final boolean embedded;
+
+    private ExpressionTemplate(final String[] segments, final boolean[] expressions, final boolean embedded) {
+        this.segments = segments;
+        this.expressions = expressions;
+        this.embedded = embedded;
+    }
+
+    public static ExpressionTemplate of(final String template) {
+        var cached = CACHE.get(template);
+        if (cached != null) return cached;
+        var compiled = compile(template);
+        if (CACHE.size() < MAXIMUM_CACHE_SIZE) {
+            CACHE.putIfAbsent(template, compiled);
+        }
+        return compiled;
+    }
+
+    private static ExpressionTemplate compile(final String template) {
+        if (!template.contains("{$")) {
+            return new ExpressionTemplate(new String[]{template}, new boolean[]{true}, false);
+        }
+        List<String> segments = new ArrayList<>();
+        List<Boolean> expressions = new ArrayList<>();
+        int start = 0;
+        while (start < template.length()) {
+            int openIndex = template.indexOf("{$", start);
+            if (openIndex == -1) {
+                segments.add(template.substring(start));
+                expressions.add(false);
+                break;
+            }
+            if (openIndex > start) {
+                segments.add(template.substring(start, openIndex));
+                expressions.add(false);
+            }
+            int closeIndex = template.indexOf('}', openIndex);
+            if (closeIndex == -1) {
+                throw new IllegalArgumentException("Unmatched '{$' in expression: " + template);
+            }
+            segments.add(template.substring(openIndex + 1, closeIndex));
+            expressions.add(true);
+            start = closeIndex + 1;
+        }
+        boolean[] expressionFlags = new boolean[expressions.size()];
+        for (int i = 0; i < expressionFlags.length; i++) {
+            expressionFlags[i] = expressions.get(i);
+        }
+        return new ExpressionTemplate(segments.toArray(new String[0]), expressionFlags, true);
+    }
+
+    /**
+     * @return false if the whole template is a single expression rather than expressions embedded into a string
+     */
+    public boolean isEmbedded() {
+        return embedded;
+    }
+
+    public int size() {
+        return segments.length;
+    }
+
+    public String segment(final int index) {
+        return segments[index];
+    }
+
+    public boolean isExpression(final int index) {
+        return expressions[index];
+    }
+}
@@ -1,6 +1,7 @@
 package de.leidenheit.infrastructure.resolving;
 
-import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.DocumentContext;
+import de.leidenheit.infrastructure.json.JsonRuntime;
 import io.restassured.http.Headers;
 import io.restassured.response.Response;
 import io.restassured.specification.FilterableRequestSpecification;
@@ -11,6 +12,10 @@ import java.util.Objects;
 
 public class HttpContextExpressionResolver implements HttpExpressionResolver {
 
+    // the body of the latest response is parsed once for all expressions referring to it
+    private Response parsedResponse;
+    private DocumentContext parsedResponseBody;
+
     @Override
     public Object resolveExpression(final String expression, final ResolverContext context) {
         if (Objects.isNull(context)) return expression;
@@ -32,8 +37,8 @@ public class HttpContextExpressionResolver implements HttpExpressionResolver {
                 if (expression.contains("$response.body.")) {
                     var subPath = expression.substring("$response.body.".length());
                     try {
-                        var r = JsonPath.read(responseBody, "$.%s".formatted(subPath));
-                        return r;
+                        return JsonRuntime.unwrap(parseResponseBody(httpContext.getLastestResponse(), responseBody)
+                                .read("$.%s".formatted(subPath)));
                     } catch (Exception e) {
                         // TODO replace with exception
                         throw new RuntimeException("Invalid JSON path: '%s'".formatted(expression));
@@ -70,6 +75,14 @@ public class HttpContextExpressionResolver implements HttpExpressionResolver {
         return expression; // Return unchanged if no resolution is found
     }
 
+    private DocumentContext parseResponseBody(final Response response, final String responseBody) {
+        if (response != parsedResponse) {
+            parsedResponseBody = JsonRuntime.jsonPath().parse(responseBody);
+            parsedResponse = response;
+        }
+        return parsedResponseBody;
+    }
+
     @Override
     public String resolveHeader(final String headerName, final Headers headers) {
         return headers.getValue(headerName);
@@ -0,0 +1,62 @@
+package de.leidenheit.infrastructure.stub;
+
+import de.leidenheit.core.exception.ItarazzoIllegalStateException;
+import de.leidenheit.core.exception.ItarazzoUnsupportedException;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distribution of the latencies {@link OpenApiStub} adds to its responses.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    LatencyDistribution NONE = random -> 0;
+
+    long nextNanos(Random random);
+
+    static LatencyDistribution fixed(final long millis) {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(millis);
+        return random -> nanos;
+    }
+
+    static LatencyDistribution uniform(final long minMillis, final long maxMillis) {
+        long minNanos = TimeUnit.MILLISECONDS.toNanos(minMillis);
+        long maxNanos = TimeUnit.MILLISECONDS.toNanos(maxMillis);
+        return random -> minNanos + (long) (random.nextDouble() * (maxNanos - minNanos));
+    }
+
+    /**
+     * Long-tailed latencies as observed of most services; e.g. a sigma of 0.5 yields a p99 about 3.2 times the median.
+     */
+    static LatencyDistribution logNormal(final long medianMillis, final double sigma) {
+        double mu = Math.log(TimeUnit.MILLISECONDS.toNanos(medianMillis));
+        return random -> (long) Math.exp(mu + sigma * random.nextGaussian());
+    }
+
+    /**
+     * @param specification 'fixed:&lt;ms&gt;', 'uniform:&lt;min ms&gt;-&lt;max ms&gt;' or
+     *                      'lognormal:&lt;median ms&gt;,&lt;sigma&gt;'; empty for none
+     */
+    static LatencyDistribution parse(final String specification) {
+        if (specification.isBlank()) return NONE;
+        var parts = specification.split(":", 2);
+        try {
+            return switch (parts[0].trim()) {
+                case "fixed" -> fixed(Long.parseLong(parts[1].trim()));
+                case "uniform" -> {
+                    var bounds = parts[1].split("-");
+                    yield uniform(Long.parseLong(bounds[0].trim()), Long.parseLong(bounds[1].trim()));
+                }
+                case "lognormal" -> {
+                    var parameters = parts[1].split(",");
+                    yield logNormal(Long.parseLong(parameters[0].trim()), Double.parseDouble(parameters[1].trim()));
+                }
+                default -> throw new ItarazzoUnsupportedException("Unsupported latency distribution '%s'".formatted(specification));
+            };
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new ItarazzoIllegalStateException("Invalid latency distribution '%s'".formatted(specification), e);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package de.leidenheit.infrastructure.stub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import de.leidenheit.infrastructure.json.JsonRuntime;
+import de.leidenheit.infrastructure.transport.InProcessTransport;
+import io.restassured.http.Header;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves every operation of an OpenAPI with the example of its successful response, or one generated from the
+ * response schema if there is none; latencies, errors and throttling are added as configured by
+ * {@link OpenApiStubOptions}.
+ * <p>
+ * Responses are generated once upfront, so the stub answers at a high rate. Requests are matched by method and path,
+ * ignoring the base path of the servers; unmatched requests are answered with 404.
+ */
+public class OpenApiStub implements InProcessTransport.Handler {
+
+    private static final int MAX_SCHEMA_DEPTH = 8;
+    private static final Pattern PATH_PARAMETER_PATTERN = Pattern.compile("\\{[^}/]+}");
+
+    private final OpenAPI openAPI;
+    private final OpenApiStubOptions options;
+    private final List<Route> routes = new ArrayList<>();
+
+    public OpenApiStub(final OpenAPI openAPI, final OpenApiStubOptions options) {
+        this.openAPI = openAPI;
+        this.options = options;
+
+        if (Objects.nonNull(openAPI.getPaths())) {
+            openAPI.getPaths().forEach((path, pathItem) ->
+                    pathItem.readOperationsMap().forEach((method, operation) ->
+                            routes.add(new Route(method, patternOf(path), parameterCountOf(path), path.length(),
+                                    responseOf(operation)))));
+        }
+        // literal paths take precedence over templated ones, e.g. '/pet/findByStatus' over '/pet/{petId}'
+        routes.sort(Comparator.comparingInt(Route::parameterCount).thenComparing(Route::pathLength, Comparator.reverseOrder()));
+    }
+
+    @Override
+    public InProcessTransport.InProcessResponse handle(final InProcessTransport.InProcessRequest request) {
+        var random = ThreadLocalRandom.current();
+        delay(options.getLatency().nextNanos(random));
+
+        double draw = random.nextDouble();
+        if (draw < options.getThrottleRate()) {
+            return new InProcessTransport.InProcessResponse(429,
+                    List.of(new Header("Retry-After", String.valueOf(options.getRetryAfterSeconds()))), new byte[0]);
+        }
+        if (draw < options.getThrottleRate() + options.getErrorRate()) {
+            return new InProcessTransport.InProcessResponse(500, List.of(), new byte[0]);
+        }
+
+        var method = request.method().toUpperCase(Locale.ROOT);
+        var path = Objects.requireNonNullElse(request.uri().getRawPath(), "/");
+        for (Route route : routes) {
+            if (route.method().name().equals(method) && route.pattern().matcher(path).matches()) {
+                return route.response();
+            }
+        }
+        return new InProcessTransport.InProcessResponse(404, List.of(), new byte[0]);
+    }
+
+    private static void delay(final long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        for (long remaining = nanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static Pattern patternOf(final String path) {
+        var pattern = new StringBuilder(".*");
+        Matcher matcher = PATH_PARAMETER_PATTERN.matcher(path);
+        int last = 0;
+        while (matcher.find()) {
+            pattern.append(Pattern.quote(path.substring(last, matcher.start()))).append("[^/]+");
+            last = matcher.end();
+        }
+        pattern.append(Pattern.quote(path.substring(last))).append("/?");
+        return Pattern.compile(pattern.toString());
+    }
+
+    private static int parameterCountOf(final String path) {
+        return (int) PATH_PARAMETER_PATTERN.matcher(path).results().count();
+    }
+
+    private InProcessTransport.InProcessResponse responseOf(final Operation operation) {
+        if (Objects.isNull(operation.getResponses()) || operation.getResponses().isEmpty()) {
+            return new InProcessTransport.InProcessResponse(200, List.of(), new byte[0]);
+        }
+
+        var statusCode = operation.getResponses().keySet().stream()
+                .filter(code -> code.startsWith("2"))
+                .findFirst()
+                .orElse(operation.getResponses().containsKey("default")
+                        ? "default" : operation.getResponses().keySet().iterator().next());
+        var apiResponse = resolve(operation.getResponses().get(statusCode));
+
+        List<Header> headers = new ArrayList<>();
+        if (Objects.nonNull(apiResponse.getHeaders())) {
+            apiResponse.getHeaders().forEach((name, header) -> {
+                var value = Objects.nonNull(header.getExample()) ? header.getExample() : exampleOf(header.getSchema(), 0);
+                if (Objects.nonNull(value)) headers.add(new Header(name, String.valueOf(value)));
+            });
+        }
+
+        byte[] body = new byte[0];
+        if (Objects.nonNull(apiResponse.getContent()) && !apiResponse.getContent().isEmpty()) {
+            var contentType = apiResponse.getContent().keySet().stream()
+                    .filter(type -> type.contains("json"))
+                    .findFirst()
+                    .orElse(apiResponse.getContent().keySet().iterator().next());
+            headers.add(new Header("Content-Type", contentType));
+            body = bodyOf(contentType, exampleOf(apiResponse.getContent().get(contentType)));
+        }
+
+        int status = "default".equals(statusCode) || !statusCode.matches("\\d{3}") ? 200 : Integer.parseInt(statusCode);
+        return new InProcessTransport.InProcessResponse(status, List.copyOf(headers), body);
+    }
+
+    private static byte[] bodyOf(final String contentType, final Object example) {
+        if (Objects.isNull(example)) return new byte[0];
+        if (!contentType.contains("json")) return String.valueOf(example).getBytes(StandardCharsets.UTF_8);
+        try {
+            return JsonRuntime.jsonMapper().writeValueAsBytes(example);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Object exampleOf(final MediaType mediaType) {
+        if (Objects.isNull(mediaType)) return null;
+        if (Objects.nonNull(mediaType.getExample())) return mediaType.getExample();
+        if (Objects.nonNull(mediaType.getExamples()) && !mediaType.getExamples().isEmpty()) {
+            var example = mediaType.getExamples().values().iterator().next();
+            if (Objects.nonNull(example.get$ref()) && Objects.nonNull(openAPI.getComponents())
+                    && Objects.nonNull(openAPI.getComponents().getExamples())) {
+                example = Objects.requireNonNullElse(
+                        openAPI.getComponents().getExamples().get(simpleNameOf(example.get$ref())), example);
+            }
+            if (Objects.nonNull(example.getValue())) return example.getValue();
+        }
+        return exampleOf(mediaType.getSchema(), 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object exampleOf(final Schema<?> schema, final int depth) {
+        if (Objects.isNull(schema) || depth > MAX_SCHEMA_DEPTH) return null;
+        if (Objects.nonNull(schema.get$ref())) {
+            return exampleOf(referencedSchemaOf(schema.get$ref()), depth + 1);
+        }
+        if (Objects.nonNull(schema.getExample())) return schema.getExample();
+        if (Objects.nonNull(schema.getDefault())) return schema.getDefault();
+        if (Objects.nonNull(schema.getEnum()) && !schema.getEnum().isEmpty()) return schema.getEnum().get(0);
+        if (Objects.nonNull(schema.getAllOf()) && !schema.getAllOf().isEmpty()) {
+            Map<String, Object> merged = new LinkedHashMap<>();
+            for (Schema<?> part : schema.getAllOf()) {
+                if (exampleOf(part, depth + 1) instanceof Map<?, ?> partExample) {
+                    merged.putAll((Map<String, Object>) partExample);
+                }
+            }
+            return merged;
+        }
+        if (Objects.nonNull(schema.getOneOf()) && !schema.getOneOf().isEmpty()) {
+            return exampleOf(schema.getOneOf().get(0), depth + 1);
+        }
+        if (Objects.nonNull(schema.getAnyOf()) && !schema.getAnyOf().isEmpty()) {
+            return exampleOf(schema.getAnyOf().get(0), depth + 1);
+        }
+
+        return switch (typeOf(schema)) {
+            case "object" -> {
+                Map<String, Object> object = new LinkedHashMap<>();
+                if (Objects.nonNull(schema.getProperties())) {
+                    schema.getProperties().forEach((name, property) -> object.put(name, exampleOf(property, depth + 1)));
+                }
+                if (schema.getAdditionalProperties() instanceof Schema<?> additionalProperties) {
+                    object.put("additionalProp1", exampleOf(additionalProperties, depth + 1));
+                }
+                yield object;
+            }
+            case "array" -> {
+                var item = exampleOf(schema.getItems(), depth + 1);
+                yield Objects.isNull(item) ? List.of() : List.of(item);
+            }
+            case "integer" -> Objects.nonNull(schema.getMinimum()) ? schema.getMinimum().longValue() : 0L;
+            case "number" -> Objects.nonNull(schema.getMinimum()) ? schema.getMinimum().doubleValue() : 0.0;
+            case "boolean" -> true;
+            case "string" -> switch (Objects.requireNonNullElse(schema.getFormat(), "")) {
+                case "date-time" -> "1970-01-01T00:00:00Z";
+                case "date" -> "1970-01-01";
+                case "uuid" -> "00000000-0000-0000-0000-000000000000";
+                case "uri" -> "https://example.com";
+                case "email" -> "user@example.com";
+                default -> "string";
+            };
+            default -> null;
+        };
+    }
+
+    private static String typeOf(final Schema<?> schema) {
+        if (Objects.nonNull(schema.getType())) return schema.getType();
+        if (Objects.nonNull(schema.getTypes()) && !schema.getTypes().isEmpty()) return schema.getTypes().iterator().next();
+        if (Objects.nonNull(schema.getProperties())) return "object";
+        if (Objects.nonNull(schema.getItems())) return "array";
+        return "";
+    }
+
+    private Schema<?> referencedSchemaOf(final String ref) {
+        if (Objects.isNull(openAPI.getComponents()) || Objects.isNull(openAPI.getComponents().getSchemas())) return null;
+        return openAPI.getComponents().getSchemas().get(simpleNameOf(ref));
+    }
+
+    private ApiResponse resolve(final ApiResponse apiResponse) {
+        if (Objects.isNull(apiResponse.get$ref()) || Objects.isNull(openAPI.getComponents())
+                || Objects.isNull(openAPI.getComponents().getResponses())) return apiResponse;
+        return Objects.requireNonNullElse(
+                openAPI.getComponents().getResponses().get(simpleNameOf(apiResponse.get$ref())), apiResponse);
+    }
+
+    private static String simpleNameOf(final String ref) {
+        return ref.substring(ref.lastIndexOf('/') + 1);
+    }
+
+    private record Route(PathItem.HttpMethod method, Pattern pattern, int parameterCount, int pathLength,
+                         InProcessTransport.InProcessResponse response) {
+    }
+}
@@ -0,0 +1,25 @@
+package de.leidenheit.infrastructure.stub;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class OpenApiStubOptions {
+
+    private final LatencyDistribution latency;
+    // share of requests answered with 500
+    private final double errorRate;
+    // share of requests answered with 429 and a 'Retry-After' header
+    private final double throttleRate;
+    private final long retryAfterSeconds;
+
+    public static OpenApiStubOptions ofDefault() {
+        return OpenApiStubOptions.builder()
+                .latency(LatencyDistribution.NONE)
+                .errorRate(0)
+                .throttleRate(0)
+                .retryAfterSeconds(1)
+                .build();
+    }
+}
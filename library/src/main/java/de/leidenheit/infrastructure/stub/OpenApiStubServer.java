@@ -0,0 +1,83 @@
+package de.leidenheit.infrastructure.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.leidenheit.infrastructure.transport.InProcessTransport;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves an {@link OpenApiStub} over http on localhost, for clients which cannot be run in-process.
+ */
+@Slf4j
+public class OpenApiStubServer implements AutoCloseable {
+
+    static {
+        // small responses would otherwise be held back by Nagle's algorithm for up to 40ms each;
+        // read once by the jdk http server, so it has to be set before the first server is created
+        if (Objects.isNull(System.getProperty("sun.net.httpserver.nodelay"))) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private OpenApiStubServer(final HttpServer server, final ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * @param port port to listen on; 0 picks a free one
+     */
+    public static OpenApiStubServer start(final OpenApiStub stub, final int port) {
+        try {
+            var server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+            var executor = Executors.newCachedThreadPool();
+            server.createContext("/", exchange -> handle(stub, exchange));
+            server.setExecutor(executor);
+            server.start();
+            log.info("Stub server listening on port {}", server.getAddress().getPort());
+            return new OpenApiStubServer(server, executor);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private static void handle(final OpenApiStub stub, final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            List<Header> requestHeaders = new ArrayList<>();
+            exchange.getRequestHeaders().forEach((name, values) ->
+                    values.forEach(value -> requestHeaders.add(new Header(name, value))));
+            var request = new InProcessTransport.InProcessRequest(exchange.getRequestMethod(), exchange.getRequestURI(),
+                    new Headers(requestHeaders), exchange.getRequestBody().readAllBytes());
+
+            var response = stub.handle(request);
+            response.headers().forEach(header -> exchange.getResponseHeaders().add(header.getName(), header.getValue()));
+            // a length of -1 announces an empty body
+            exchange.sendResponseHeaders(response.statusCode(), response.body().length == 0 ? -1 : response.body().length);
+            if (response.body().length > 0) exchange.getResponseBody().write(response.body());
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,226 @@
+package de.leidenheit.infrastructure.transport;
+
+import de.leidenheit.core.exception.ItarazzoInterruptException;
+import de.leidenheit.core.exception.ItarazzoUnsupportedException;
+import de.leidenheit.core.execution.TimingHttpClientFactory;
+import de.leidenheit.core.execution.transport.StepTransport;
+import de.leidenheit.core.model.SourceDescription;
+import de.leidenheit.core.model.Step;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Limits the requests of steps in flight per source description to a limit adapting to the service, additively
+ * increasing it while the limit is used and the latency is close to the one without load, and multiplicatively
+ * decreasing it on congestion.
+ * <p>
+ * Congestion is signaled by a 429 or 503 response, a failed request, or a latency exceeding the tolerance; the limit
+ * is decreased at most once per round trip, i.e. only by responses to requests sent after the last decrease. The
+ * limit is not increased before the time advised by a 'Retry-After' header has passed. Being the last stage of the
+ * transports, only the requests actually sent are limited and their latency excludes waiting for other limits.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter implements StepTransport {
+
+    private final AdaptiveConcurrencyOptions options;
+    private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> limitListeners = new CopyOnWriteArrayList<>();
+
+    public AdaptiveConcurrencyLimiter(final AdaptiveConcurrencyOptions options) {
+        if (options.getMinimumLimit() < 1 || options.getMaximumLimit() < options.getMinimumLimit()
+                || options.getInitialLimit() < options.getMinimumLimit() || options.getInitialLimit() > options.getMaximumLimit()
+                || options.getBackoffRatio() <= 0 || options.getBackoffRatio() >= 1
+                || options.getLatencyBackoffRatio() <= 0 || options.getLatencyBackoffRatio() >= 1
+                || options.getLatencyTolerance() <= 1) {
+            throw new IllegalArgumentException("Invalid adaptive concurrency: " + options);
+        }
+        this.options = options;
+    }
+
+    @Override
+    public Stage stage() {
+        return Stage.CONCURRENCY_LIMITING;
+    }
+
+    @Override
+    public Filter filterFor(final SourceDescription sourceDescription, final Step step) {
+        var limit = limitOf(sourceDescription.getName());
+        return (requestSpec, responseSpec, ctx) -> filter(limit, requestSpec, responseSpec, ctx);
+    }
+
+    @Override
+    public Response filter(final FilterableRequestSpecification requestSpec,
+                           final FilterableResponseSpecification responseSpec,
+                           final FilterContext ctx) {
+        throw new ItarazzoUnsupportedException("Concurrency limits apply to the requests of a step; use filterFor(...)");
+    }
+
+    /**
+     * @return current limit of the source description, or 0 if none has been limited by that name
+     */
+    public int getLimit(final String name) {
+        var limit = limits.get(name);
+        return Objects.isNull(limit) ? 0 : limit.current();
+    }
+
+    /**
+     * @return current limits by the name of the source description
+     */
+    public Map<String, Integer> getLimits() {
+        Map<String, Integer> currentLimits = new TreeMap<>();
+        limits.forEach((name, limit) -> currentLimits.put(name, limit.current()));
+        return currentLimits;
+    }
+
+    /**
+     * Calls the listener with the name of each source description limited, including the ones limited already.
+     */
+    public void whenLimited(final Consumer<String> listener) {
+        limitListeners.add(listener);
+        limits.keySet().forEach(listener);
+    }
+
+    private Limit limitOf(final String name) {
+        var limit = limits.get(name);
+        if (Objects.nonNull(limit)) return limit;
+
+        var created = new Limit(name);
+        limit = limits.putIfAbsent(name, created);
+        if (Objects.nonNull(limit)) return limit;
+        limitListeners.forEach(listener -> listener.accept(name));
+        return created;
+    }
+
+    private static Response filter(final Limit limit,
+                                   final FilterableRequestSpecification requestSpec,
+                                   final FilterableResponseSpecification responseSpec,
+                                   final FilterContext ctx) {
+        long sentNanos;
+        try {
+            sentNanos = limit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ItarazzoInterruptException("Interrupted while waiting for the concurrency limit of %s %s".formatted(
+                    requestSpec.getMethod(), requestSpec.getURI()), e);
+        }
+
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (RuntimeException | Error e) {
+            // the loser of a hedged request signals no congestion
+            if (TimingHttpClientFactory.isAborted()) limit.cancel();
+            else limit.release(sentNanos, true, 0);
+            throw e;
+        }
+        boolean congested = response.statusCode() == 429 || response.statusCode() == 503;
+        limit.release(sentNanos, congested, congested ? RateLimiter.retryAfterNanosOf(response.getHeader("Retry-After")) : 0);
+        return response;
+    }
+
+    private final class Limit {
+
+        private final String name;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition available = lock.newCondition();
+        private double limit = options.getInitialLimit();
+        private int inFlight;
+        private long noLoadLatencyNanos = Long.MAX_VALUE;
+        private long lastDecreaseNanos = System.nanoTime();
+        private long holdUntilNanos = lastDecreaseNanos;
+
+        Limit(final String name) {
+            this.name = name;
+        }
+
+        int current() {
+            lock.lock();
+            try {
+                return (int) limit;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return time the request is sent at
+         */
+        long acquire() throws InterruptedException {
+            lock.lockInterruptibly();
+            try {
+                while (inFlight >= (int) limit) available.await();
+                inFlight++;
+                return System.nanoTime();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void cancel() {
+            lock.lock();
+            try {
+                inFlight--;
+                available.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release(final long sentNanos, final boolean congested, final long retryAfterNanos) {
+            long now = System.nanoTime();
+            long latencyNanos = now - sentNanos;
+            lock.lock();
+            try {
+                // the limit is used if the request was sent with at least half of it in flight
+                boolean used = inFlight >= limit / 2;
+                inFlight--;
+
+                if (congested) {
+                    if (retryAfterNanos > 0 && now + retryAfterNanos - holdUntilNanos > 0) {
+                        holdUntilNanos = now + retryAfterNanos;
+                    }
+                    decrease(sentNanos, now, options.getBackoffRatio());
+                } else {
+                    // the latency without load drifts slowly upward so that it follows a slower environment
+                    noLoadLatencyNanos = latencyNanos < noLoadLatencyNanos
+                            ? latencyNanos
+                            : noLoadLatencyNanos + (latencyNanos - noLoadLatencyNanos) / 100;
+                    // the limit is left alone while unused; a slow response is then rather a costly operation
+                    if (used && latencyNanos > noLoadLatencyNanos * options.getLatencyTolerance()) {
+                        decrease(sentNanos, now, options.getLatencyBackoffRatio());
+                    } else if (used && now - holdUntilNanos >= 0) {
+                        // grows by about one per limit requests, i.e. one per round trip
+                        limit = Math.min(options.getMaximumLimit(), limit + 1 / limit);
+                    }
+                }
+                available.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void decrease(final long sentNanos, final long now, final double ratio) {
+            if (sentNanos - lastDecreaseNanos < 0) return;
+            var decreased = Math.max(options.getMinimumLimit(), limit * ratio);
+            if ((int) decreased < (int) limit) {
+                log.debug("Decreasing concurrency limit of '{}' from {} to {}", name, (int) limit, (int) decreased);
+            }
+            limit = decreased;
+            lastDecreaseNanos = now;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package de.leidenheit.infrastructure.transport;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class AdaptiveConcurrencyOptions {
+
+    private final int initialLimit;
+    private final int minimumLimit;
+    private final int maximumLimit;
+    // factor the limit is multiplied by on a 429 or 503 response or a failed request
+    private final double backoffRatio;
+    // factor the limit is multiplied by when the latency exceeds the tolerance
+    private final double latencyBackoffRatio;
+    // multiple of the latency without load above which the service is considered congested
+    private final double latencyTolerance;
+
+    public static AdaptiveConcurrencyOptions ofDefault() {
+        return AdaptiveConcurrencyOptions.builder()
+                .initialLimit(10)
+                .minimumLimit(1)
+                .maximumLimit(200)
+                .backoffRatio(0.5)
+                .latencyBackoffRatio(0.9)
+                .latencyTolerance(2.0)
+                .build();
+    }
+}
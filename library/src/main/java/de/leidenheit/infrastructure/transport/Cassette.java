@@ -0,0 +1,153 @@
+package de.leidenheit.infrastructure.transport;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import de.leidenheit.core.exception.ItarazzoIllegalStateException;
+import de.leidenheit.core.exception.ItarazzoUnsupportedException;
+import de.leidenheit.core.execution.transport.StepTransport;
+import de.leidenheit.infrastructure.json.JsonRuntime;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Recorded http exchanges stored as smile document, indexed by a normalized request key.
+ * <p>
+ * The key consists of the method, the path, the query parameters in sorted order and a digest of the request body
+ * (JSON bodies with their properties sorted); scheme, host and port are not part of it, so a cassette recorded
+ * against one server can be replayed for another.
+ */
+public final class Cassette {
+
+    static final int FORMAT_VERSION = 1;
+
+    public record Exchange(String key, int statusCode, List<Header> headers, byte[] body) {
+    }
+
+    public static String keyOf(final String method, final String uri, final Object body) {
+        var key = new StringBuilder(method.toUpperCase(Locale.ROOT)).append(' ');
+        try {
+            var parsedUri = URI.create(uri);
+            key.append(Objects.requireNonNullElse(parsedUri.getRawPath(), "/"));
+            if (Objects.nonNull(parsedUri.getRawQuery())) {
+                var queryParameters = parsedUri.getRawQuery().split("&");
+                Arrays.sort(queryParameters);
+                key.append('?').append(String.join("&", queryParameters));
+            }
+        } catch (IllegalArgumentException e) {
+            key.append(uri);
+        }
+        if (Objects.nonNull(body)) {
+            key.append(" #").append(digestOf(canonicalBodyOf(body)));
+        }
+        return key.toString();
+    }
+
+    static void writeHeader(final JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("formatVersion", FORMAT_VERSION);
+        generator.writeArrayFieldStart("exchanges");
+    }
+
+    static void writeExchange(final JsonGenerator generator, final Exchange exchange) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("key", exchange.key());
+        generator.writeNumberField("status", exchange.statusCode());
+        generator.writeArrayFieldStart("headers");
+        for (Header header : exchange.headers()) {
+            generator.writeString(header.getName());
+            generator.writeString(header.getValue());
+        }
+        generator.writeEndArray();
+        generator.writeBinaryField("body", exchange.body());
+        generator.writeEndObject();
+    }
+
+    static void writeFooter(final JsonGenerator generator) throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    /**
+     * @return recorded exchanges by their key, each in the order of recording
+     */
+    public static Map<String, List<Exchange>> read(final Path cassettePath) {
+        JsonNode cassetteNode;
+        try (FileChannel channel = FileChannel.open(cassettePath, StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            cassetteNode = JsonRuntime.smileMapper().readTree(new ByteBufferBackedInputStream(buffer));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (cassetteNode.path("formatVersion").asInt() != FORMAT_VERSION) {
+            throw new ItarazzoUnsupportedException("Unsupported cassette format version '%s' of '%s'; expected '%s'"
+                    .formatted(cassetteNode.path("formatVersion").asText(), cassettePath, FORMAT_VERSION));
+        }
+
+        Map<String, List<Exchange>> exchanges = new LinkedHashMap<>();
+        for (JsonNode exchangeNode : cassetteNode.path("exchanges")) {
+            List<Header> headers = new ArrayList<>();
+            var headersNode = exchangeNode.path("headers");
+            for (int i = 0; i + 1 < headersNode.size(); i += 2) {
+                headers.add(new Header(headersNode.get(i).asText(), headersNode.get(i + 1).asText()));
+            }
+            byte[] body;
+            try {
+                body = exchangeNode.path("body").binaryValue();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            var exchange = new Exchange(exchangeNode.path("key").asText(), exchangeNode.path("status").asInt(),
+                    List.copyOf(headers), Objects.requireNonNullElse(body, new byte[0]));
+            exchanges.computeIfAbsent(exchange.key(), k -> new ArrayList<>()).add(exchange);
+        }
+        return exchanges;
+    }
+
+    static Response toResponse(final Exchange exchange) {
+        return StepTransport.responseOf(exchange.statusCode(), exchange.headers(), exchange.body());
+    }
+
+    private static String canonicalBodyOf(final Object body) {
+        var bodyAsString = body instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : body.toString();
+        try {
+            var parsed = JsonRuntime.jsonMapper().readValue(bodyAsString, Object.class);
+            return JsonRuntime.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS).writeValueAsString(parsed);
+        } catch (JsonProcessingException e) {
+            return bodyAsString.trim();
+        }
+    }
+
+    static String digestOf(final String content) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new ItarazzoIllegalStateException("SHA-256 is required to digest request bodies", e);
+        }
+    }
+
+    private Cassette() {
+    }
+}
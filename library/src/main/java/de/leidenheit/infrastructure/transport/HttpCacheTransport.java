@@ -0,0 +1,320 @@
+package de.leidenheit.infrastructure.transport;
+
+import de.leidenheit.core.execution.transport.StepTransport;
+import de.leidenheit.core.model.SourceDescription;
+import de.leidenheit.core.model.Step;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Private http cache of the GET and HEAD requests of steps, bounded by the size of the cached responses and evicting
+ * the least recently used ones.
+ * <p>
+ * Freshness is determined by 'Cache-Control: max-age', 'Expires' or heuristically by 'Last-Modified'; stale
+ * responses with an 'ETag' or 'Last-Modified' are revalidated by a conditional request. 'no-store' in requests or
+ * responses bypasses the cache, 'no-cache' forces a revalidation. The cache applies to source descriptions and steps
+ * enabling it by the extension {@value #EXTENSION_HTTP_CACHE}, the one of the step taking precedence.
+ * <p>
+ * Responses are keyed by method, uri and the credentials of the request, i.e. its 'Authorization' and cookies, so
+ * that workflows running as different users never share them; variants of a response selected by 'Vary' are kept
+ * side by side.
+ */
+public class HttpCacheTransport implements StepTransport {
+
+    public static final String EXTENSION_HTTP_CACHE = "x-arazzo-http-cache";
+
+    private static final Set<Integer> CACHEABLE_STATUS_CODES = Set.of(200, 203, 204, 300, 301, 404, 410);
+    private static final Pattern MAX_AGE_PATTERN = Pattern.compile("(?:^|,)\\s*max-age\\s*=\\s*\"?(\\d+)\"?");
+    // overhead of an entry besides its body and headers
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final long maximumBytes;
+    // variants of the responses by their key, each varying by other values of the headers named by 'Vary'
+    private final Map<String, List<Entry>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public HttpCacheTransport(final long maximumBytes) {
+        if (maximumBytes < 1) throw new IllegalArgumentException("Maximum bytes must be positive: " + maximumBytes);
+        this.maximumBytes = maximumBytes;
+    }
+
+    @Override
+    public boolean appliesTo(final SourceDescription sourceDescription) {
+        return appliesTo(sourceDescription, null);
+    }
+
+    @Override
+    public boolean appliesTo(final SourceDescription sourceDescription, final Step step) {
+        if (Objects.nonNull(step) && Objects.nonNull(step.getExtensions())
+                && step.getExtensions().containsKey(EXTENSION_HTTP_CACHE)) {
+            return Boolean.parseBoolean(String.valueOf(step.getExtensions().get(EXTENSION_HTTP_CACHE)));
+        }
+        return Objects.nonNull(sourceDescription) && Objects.nonNull(sourceDescription.getExtensions())
+                && Boolean.parseBoolean(String.valueOf(sourceDescription.getExtensions().get(EXTENSION_HTTP_CACHE)));
+    }
+
+    @Override
+    public Response filter(final FilterableRequestSpecification requestSpec,
+                           final FilterableResponseSpecification responseSpec,
+                           final FilterContext ctx) {
+        var method = requestSpec.getMethod().toUpperCase(Locale.ROOT);
+        var requestCacheControl = cacheControlOf(requestSpec.getHeaders());
+        if ((!"GET".equals(method) && !"HEAD".equals(method)) || Objects.nonNull(requestSpec.getBody())
+                || requestCacheControl.contains("no-store")) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+
+        var key = keyOf(method, requestSpec);
+        var entry = lookup(key, requestSpec.getHeaders());
+        if (Objects.nonNull(entry)) {
+            if (!requestCacheControl.contains("no-cache") && !entry.noCache() && entry.isFresh(System.currentTimeMillis())) {
+                hits.increment();
+                return entry.toResponse();
+            }
+            if (Objects.nonNull(entry.etag())) requestSpec.header("If-None-Match", entry.etag());
+            if (Objects.nonNull(entry.lastModified())) requestSpec.header("If-Modified-Since", entry.lastModified());
+        }
+
+        var response = ctx.next(requestSpec, responseSpec);
+        long now = System.currentTimeMillis();
+        if (Objects.nonNull(entry) && response.statusCode() == 304) {
+            revalidations.increment();
+            var revalidated = entryOf(entry.statusCode(), merge(entry.headers(), response.getHeaders().asList()),
+                    entry.body(), entry.varyingHeaders(), now);
+            if (Objects.nonNull(revalidated)) {
+                store(key, revalidated);
+                return revalidated.toResponse();
+            }
+            remove(key, entry);
+            return entry.toResponse();
+        }
+
+        misses.increment();
+        var storable = entryOf(response.statusCode(), response.getHeaders().asList(), response.asByteArray(),
+                varyingHeadersOf(response.getHeaders(), requestSpec.getHeaders()), now);
+        if (Objects.nonNull(storable)) {
+            store(key, storable);
+        } else if (Objects.nonNull(entry)) {
+            remove(key, entry);
+        }
+        return response;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized Statistics getStatistics() {
+        int size = entries.values().stream().mapToInt(List::size).sum();
+        return new Statistics(size, bytes, maximumBytes,
+                hits.sum(), revalidations.sum(), misses.sum(), evictions.sum());
+    }
+
+    /**
+     * @return method and uri of the request, followed by a digest of its credentials if it has any
+     */
+    private static String keyOf(final String method, final FilterableRequestSpecification requestSpec) {
+        var key = method + " " + requestSpec.getURI();
+        var authorization = requestSpec.getHeaders().getValues("Authorization");
+        var cookies = requestSpec.getHeaders().getValues("Cookie");
+        if (authorization.isEmpty() && cookies.isEmpty() && !requestSpec.getCookies().exist()) return key;
+        // credentials are digested rather than kept as part of the key
+        return key + " #" + Cassette.digestOf("%s%n%s%n%s".formatted(authorization, cookies, requestSpec.getCookies()));
+    }
+
+    private synchronized Entry lookup(final String key, final Headers requestHeaders) {
+        var variants = entries.get(key);
+        if (Objects.isNull(variants)) return null;
+        for (Entry variant : variants) {
+            if (variant.matches(requestHeaders)) return variant;
+        }
+        return null;
+    }
+
+    private synchronized void store(final String key, final Entry entry) {
+        var variants = entries.computeIfAbsent(key, k -> new ArrayList<>(1));
+        var iterator = variants.iterator();
+        while (iterator.hasNext()) {
+            var variant = iterator.next();
+            if (variant.varyingHeaders().equals(entry.varyingHeaders())) {
+                bytes -= variant.size();
+                iterator.remove();
+            }
+        }
+        if (entry.size() > maximumBytes) {
+            if (variants.isEmpty()) entries.remove(key);
+            return;
+        }
+        variants.add(entry);
+        bytes += entry.size();
+
+        var eldest = entries.values().iterator();
+        while (bytes > maximumBytes && eldest.hasNext()) {
+            var evicted = eldest.next();
+            for (Entry variant : evicted) {
+                bytes -= variant.size();
+                evictions.increment();
+            }
+            eldest.remove();
+        }
+    }
+
+    private synchronized void remove(final String key, final Entry entry) {
+        var variants = entries.get(key);
+        if (Objects.nonNull(variants) && variants.remove(entry)) {
+            bytes -= entry.size();
+            if (variants.isEmpty()) entries.remove(key);
+        }
+    }
+
+    /**
+     * @return the entry of a storable response, otherwise null
+     */
+    private static Entry entryOf(final int statusCode, final List<Header> headerList, final byte[] body,
+                                 final Map<String, String> varyingHeaders, final long now) {
+        if (!CACHEABLE_STATUS_CODES.contains(statusCode) || Objects.isNull(varyingHeaders)) return null;
+        var headers = new Headers(headerList);
+        var cacheControl = cacheControlOf(headers);
+        if (cacheControl.contains("no-store")) return null;
+
+        var etag = headers.getValue("ETag");
+        var lastModified = headers.getValue("Last-Modified");
+        long freshnessMillis = freshnessOf(headers, cacheControl, now);
+        if (freshnessMillis <= 0 && Objects.isNull(etag) && Objects.isNull(lastModified)) return null;
+
+        long size = ENTRY_OVERHEAD_BYTES + body.length;
+        for (Header header : headerList) {
+            size += header.getName().length() + header.getValue().length();
+        }
+        return new Entry(statusCode, List.copyOf(headerList), body, varyingHeaders, now + freshnessMillis,
+                etag, lastModified, cacheControl.contains("no-cache"), size);
+    }
+
+    private static long freshnessOf(final Headers headers, final String cacheControl, final long now) {
+        long ageMillis = parseLong(headers.getValue("Age")) * 1000L;
+        var maxAge = MAX_AGE_PATTERN.matcher(cacheControl);
+        if (maxAge.find()) {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(maxAge.group(1))) - ageMillis;
+        }
+
+        var date = parseDate(headers.getValue("Date"));
+        var expires = parseDate(headers.getValue("Expires"));
+        if (Objects.nonNull(headers.getValue("Expires"))) {
+            // an invalid date, such as '0', means already expired
+            return Objects.isNull(expires) ? 0 : expires - Objects.requireNonNullElse(date, now) - ageMillis;
+        }
+
+        // heuristic freshness of a tenth of the time since the last modification
+        var lastModified = parseDate(headers.getValue("Last-Modified"));
+        if (Objects.nonNull(lastModified)) {
+            return (Objects.requireNonNullElse(date, now) - lastModified) / 10 - ageMillis;
+        }
+        return 0;
+    }
+
+    /**
+     * @return the values of the request headers the response varies by, or null if it varies by all of them
+     */
+    private static Map<String, String> varyingHeadersOf(final Headers responseHeaders, final Headers requestHeaders) {
+        Map<String, String> varyingHeaders = new HashMap<>();
+        for (Header vary : responseHeaders.getList("Vary")) {
+            for (String name : vary.getValue().split(",")) {
+                var headerName = name.trim();
+                if ("*".equals(headerName)) return null;
+                if (!headerName.isEmpty()) varyingHeaders.put(headerName, requestHeaders.getValue(headerName));
+            }
+        }
+        return varyingHeaders;
+    }
+
+    private static List<Header> merge(final List<Header> storedHeaders, final List<Header> updatedHeaders) {
+        var updatedNames = new Headers(updatedHeaders);
+        List<Header> merged = new ArrayList<>();
+        for (Header header : storedHeaders) {
+            if (!updatedNames.hasHeaderWithName(header.getName())) merged.add(header);
+        }
+        for (Header header : updatedHeaders) {
+            // the length of a 304 response does not describe the stored body
+            if (!"Content-Length".equalsIgnoreCase(header.getName())) merged.add(header);
+        }
+        return merged;
+    }
+
+    private static String cacheControlOf(final Headers headers) {
+        var values = headers.getValues("Cache-Control");
+        return values.isEmpty() ? "" : String.join(",", values).toLowerCase(Locale.ROOT);
+    }
+
+    private static Long parseDate(final String value) {
+        if (Objects.isNull(value)) return null;
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static long parseLong(final String value) {
+        if (Objects.isNull(value)) return 0;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private record Entry(int statusCode, List<Header> headers, byte[] body, Map<String, String> varyingHeaders,
+                         long expiresAtMillis, String etag, String lastModified, boolean noCache, long size) {
+
+        boolean isFresh(final long now) {
+            return now < expiresAtMillis;
+        }
+
+        boolean matches(final Headers requestHeaders) {
+            for (Map.Entry<String, String> varyingHeader : varyingHeaders.entrySet()) {
+                if (!Objects.equals(varyingHeader.getValue(), requestHeaders.getValue(varyingHeader.getKey()))) return false;
+            }
+            return true;
+        }
+
+        Response toResponse() {
+            return StepTransport.responseOf(statusCode, headers, body);
+        }
+    }
+
+    public record Statistics(int size, long bytes, long maximumBytes,
+                             long hitCount, long revalidationCount, long missCount, long evictionCount) {
+
+        /**
+         * @return share of requests answered from the cache, either fresh or revalidated
+         */
+        public double hitRate() {
+            long requests = hitCount + revalidationCount + missCount;
+            return requests == 0 ? 0d : (hitCount + revalidationCount) / (double) requests;
+        }
+    }
+}
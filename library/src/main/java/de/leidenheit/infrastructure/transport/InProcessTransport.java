@@ -0,0 +1,107 @@
+package de.leidenheit.infrastructure.transport;
+
+import de.leidenheit.core.execution.transport.StepTransport;
+import de.leidenheit.core.model.SourceDescription;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Dispatches requests straight into a handler running in the same JVM, e.g. a MockMvc of a Spring application,
+ * instead of sending them over the network.
+ * <p>
+ * Applies to the source descriptions whose extension {@value #EXTENSION_IN_PROCESS} names this transport:
+ * <pre>
+ * sourceDescriptions:
+ *   - name: cookieApi
+ *     url: http://localhost:8080/openapi.yaml
+ *     type: openapi
+ *     x-arazzo-in-process: cookieApi
+ * </pre>
+ * Without a registered transport of that name, requests are sent over the network as usual.
+ * {@link #forSourceDescription(String, Handler)} selects a source description by its name instead.
+ */
+public class InProcessTransport implements StepTransport {
+
+    public static final String EXTENSION_IN_PROCESS = "x-arazzo-in-process";
+
+    private final Predicate<SourceDescription> selector;
+    private final Handler handler;
+
+    /**
+     * @param name name of the transport as given by the extension {@value #EXTENSION_IN_PROCESS}
+     */
+    public InProcessTransport(final String name, final Handler handler) {
+        this(sourceDescription -> Objects.nonNull(sourceDescription.getExtensions())
+                && name.equals(sourceDescription.getExtensions().get(EXTENSION_IN_PROCESS)), handler);
+    }
+
+    private InProcessTransport(final Predicate<SourceDescription> selector, final Handler handler) {
+        this.selector = selector;
+        this.handler = handler;
+    }
+
+    /**
+     * @return transport applying to the source description of the given name regardless of its extensions
+     */
+    public static InProcessTransport forSourceDescription(final String sourceDescriptionName, final Handler handler) {
+        return new InProcessTransport(
+                sourceDescription -> sourceDescriptionName.equals(sourceDescription.getName()), handler);
+    }
+
+    @Override
+    public boolean appliesTo(final SourceDescription sourceDescription) {
+        return Objects.nonNull(sourceDescription) && selector.test(sourceDescription);
+    }
+
+    @Override
+    public Response filter(final FilterableRequestSpecification requestSpec,
+                           final FilterableResponseSpecification responseSpec,
+                           final FilterContext ctx) {
+        var headers = requestSpec.getHeaders();
+        if (!headers.hasHeaderWithName("Content-Type") && Objects.nonNull(requestSpec.getContentType())) {
+            // the content type is kept apart from the headers until the request is sent
+            List<Header> headerList = new ArrayList<>(headers.asList());
+            headerList.add(new Header("Content-Type", requestSpec.getContentType()));
+            headers = new Headers(headerList);
+        }
+        var request = new InProcessRequest(
+                requestSpec.getMethod(), URI.create(requestSpec.getURI()), headers, bytesOf(requestSpec.getBody()));
+
+        var response = handler.handle(request);
+        return StepTransport.responseOf(response.statusCode(), response.headers(), response.body());
+    }
+
+    private static byte[] bytesOf(final Object body) {
+        if (Objects.isNull(body)) return new byte[0];
+        return body instanceof byte[] bytes ? bytes : body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Handles the requests of an {@link InProcessTransport}; invoked concurrently when workflows run in parallel.
+     */
+    @FunctionalInterface
+    public interface Handler {
+
+        InProcessResponse handle(InProcessRequest request);
+    }
+
+    /**
+     * @param uri absolute uri including the query; only path and query are relevant in-process
+     */
+    public record InProcessRequest(String method, URI uri, Headers headers, byte[] body) {
+    }
+
+    public record InProcessResponse(int statusCode, List<Header> headers, byte[] body) {
+    }
+}
@@ -0,0 +1,60 @@
+package de.leidenheit.infrastructure.transport;
+
+import de.leidenheit.core.exception.ItarazzoIllegalStateException;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+import java.util.Objects;
+
+@Data
+@Builder
+public class RateLimitOptions {
+
+    // sustained rate of requests; 0 means unlimited
+    private final double requestsPerSecond;
+    // requests which may be sent at once after being idle
+    private final int burst;
+    // requests in flight at the same time; 0 means unlimited
+    private final int maxConcurrentRequests;
+
+    public static RateLimitOptions ofDefault() {
+        return RateLimitOptions.builder()
+                .requestsPerSecond(0)
+                .burst(1)
+                .maxConcurrentRequests(0)
+                .build();
+    }
+
+    /**
+     * @param extension value of the extension {@value RateLimiter#EXTENSION_RATE_LIMIT}, e.g.
+     *                  '{ requestsPerSecond: 20, burst: 5, maxConcurrentRequests: 4 }'
+     */
+    public static RateLimitOptions of(final Object extension) {
+        if (!(extension instanceof Map<?, ?> values)) {
+            throw new ItarazzoIllegalStateException("Unexpected value of '%s': %s".formatted(
+                    RateLimiter.EXTENSION_RATE_LIMIT, extension));
+        }
+        var defaults = ofDefault();
+        return RateLimitOptions.builder()
+                .requestsPerSecond(numberOf(values.get("requestsPerSecond"), defaults.getRequestsPerSecond()))
+                .burst((int) numberOf(values.get("burst"), defaults.getBurst()))
+                .maxConcurrentRequests((int) numberOf(values.get("maxConcurrentRequests"), defaults.getMaxConcurrentRequests()))
+                .build();
+    }
+
+    public boolean isLimited() {
+        return requestsPerSecond > 0 || maxConcurrentRequests > 0;
+    }
+
+    private static double numberOf(final Object value, final double defaultValue) {
+        if (Objects.isNull(value)) return defaultValue;
+        if (value instanceof Number number) return number.doubleValue();
+        try {
+            return Double.parseDouble(String.valueOf(value));
+        } catch (NumberFormatException e) {
+            throw new ItarazzoIllegalStateException("Unexpected value of '%s': %s".formatted(
+                    RateLimiter.EXTENSION_RATE_LIMIT, value), e);
+        }
+    }
+}
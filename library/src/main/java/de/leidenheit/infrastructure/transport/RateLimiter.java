@@ -0,0 +1,226 @@
+package de.leidenheit.infrastructure.transport;
+
+import de.leidenheit.core.exception.ItarazzoInterruptException;
+import de.leidenheit.core.exception.ItarazzoUnsupportedException;
+import de.leidenheit.core.execution.transport.StepTransport;
+import de.leidenheit.core.model.SourceDescription;
+import de.leidenheit.core.model.Step;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.swagger.v3.oas.models.servers.Server;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Limits the requests of steps per source description, and optionally per operation, by a token bucket of
+ * the sustained rate and a bulkhead of the requests in flight at the same time.
+ * <p>
+ * Source descriptions and steps configure their limits by the extension {@value #EXTENSION_RATE_LIMIT}; source
+ * descriptions without one are limited by the default options. The limit of a step applies to its operation across
+ * all workflows, in addition to the one of its source description. A 429 or 503 response with a 'Retry-After'
+ * header pauses the buckets of the step, so that concurrent workflows back off together instead of
+ * each running into the limit of the service.
+ * <p>
+ * Limits are kept per service, i.e. the servers of the source description or its url if it declares none, so that
+ * the source descriptions of all specifications referencing a service share its limit, while equally named ones of
+ * other services do not. Source descriptions limiting the same service differently are limited independently.
+ */
+@Slf4j
+public class RateLimiter implements StepTransport {
+
+    public static final String EXTENSION_RATE_LIMIT = "x-arazzo-rate-limit";
+
+    private final RateLimitOptions defaultOptions;
+    private final Map<LimiterKey, Limiter> limiters = new ConcurrentHashMap<>();
+
+    public RateLimiter(final RateLimitOptions defaultOptions) {
+        this.defaultOptions = defaultOptions;
+    }
+
+    @Override
+    public boolean appliesTo(final SourceDescription sourceDescription) {
+        return appliesTo(sourceDescription, null);
+    }
+
+    @Override
+    public boolean appliesTo(final SourceDescription sourceDescription, final Step step) {
+        return optionsOf(sourceDescription).isLimited()
+                || (hasStepExtension(step) && RateLimitOptions.of(step.getExtensions().get(EXTENSION_RATE_LIMIT)).isLimited());
+    }
+
+    @Override
+    public Stage stage() {
+        return Stage.RATE_LIMITING;
+    }
+
+    /**
+     * @return filter limiting the requests of the step, or null if no limit applies to it
+     */
+    @Override
+    public Filter filterFor(final SourceDescription sourceDescription, final Step step) {
+        List<Limiter> stepLimiters = new ArrayList<>(2);
+        var options = optionsOf(sourceDescription);
+        var service = serviceOf(sourceDescription);
+        if (options.isLimited()) {
+            stepLimiters.add(limiters.computeIfAbsent(
+                    new LimiterKey(service, null, options), key -> new Limiter(options)));
+        }
+        if (hasStepExtension(step)) {
+            var operation = Objects.requireNonNullElse(step.getOperationId(), step.getOperationPath());
+            var stepOptions = RateLimitOptions.of(step.getExtensions().get(EXTENSION_RATE_LIMIT));
+            if (stepOptions.isLimited()) {
+                stepLimiters.add(limiters.computeIfAbsent(
+                        new LimiterKey(service, operation, stepOptions), key -> new Limiter(stepOptions)));
+            }
+        }
+        if (stepLimiters.isEmpty()) return null;
+        return (requestSpec, responseSpec, ctx) -> filter(stepLimiters, requestSpec, responseSpec, ctx);
+    }
+
+    @Override
+    public Response filter(final FilterableRequestSpecification requestSpec,
+                           final FilterableResponseSpecification responseSpec,
+                           final FilterContext ctx) {
+        throw new ItarazzoUnsupportedException("Rate limits apply to the requests of a step; use filterFor(...)");
+    }
+
+    private static Response filter(final List<Limiter> stepLimiters,
+                                   final FilterableRequestSpecification requestSpec,
+                                   final FilterableResponseSpecification responseSpec,
+                                   final FilterContext ctx) {
+        long startNanos = System.nanoTime();
+        int acquired = 0;
+        try {
+            for (Limiter limiter : stepLimiters) {
+                limiter.acquire();
+                acquired++;
+            }
+            long waitedNanos = System.nanoTime() - startNanos;
+            // waits shorter than a millisecond are just the bookkeeping
+            if (waitedNanos >= TimeUnit.MILLISECONDS.toNanos(1)) {
+                log.debug("Request {} {} waited {}ms for its rate limit",
+                        requestSpec.getMethod(), requestSpec.getURI(), TimeUnit.NANOSECONDS.toMillis(waitedNanos));
+            }
+
+            var response = ctx.next(requestSpec, responseSpec);
+            if (response.statusCode() == 429 || response.statusCode() == 503) {
+                var retryAfterNanos = retryAfterNanosOf(response.getHeader("Retry-After"));
+                if (retryAfterNanos > 0) stepLimiters.forEach(limiter -> limiter.pause(retryAfterNanos));
+            }
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ItarazzoInterruptException("Interrupted while waiting for the rate limit of %s %s".formatted(
+                    requestSpec.getMethod(), requestSpec.getURI()), e);
+        } finally {
+            for (int i = 0; i < acquired; i++) stepLimiters.get(i).release();
+        }
+    }
+
+    private RateLimitOptions optionsOf(final SourceDescription sourceDescription) {
+        return hasExtension(sourceDescription.getExtensions())
+                ? RateLimitOptions.of(sourceDescription.getExtensions().get(EXTENSION_RATE_LIMIT))
+                : defaultOptions;
+    }
+
+    static String serviceOf(final SourceDescription sourceDescription) {
+        var openAPI = sourceDescription.getReferencedOpenAPI();
+        if (Objects.nonNull(openAPI) && Objects.nonNull(openAPI.getServers()) && !openAPI.getServers().isEmpty()) {
+            return openAPI.getServers().stream()
+                    .map(Server::getUrl)
+                    .sorted()
+                    .collect(Collectors.joining(" "));
+        }
+        return Objects.requireNonNullElse(sourceDescription.getUrl(), sourceDescription.getName());
+    }
+
+    private static boolean hasStepExtension(final Step step) {
+        return Objects.nonNull(step) && hasExtension(step.getExtensions());
+    }
+
+    private static boolean hasExtension(final Map<String, Object> extensions) {
+        return Objects.nonNull(extensions) && extensions.containsKey(EXTENSION_RATE_LIMIT);
+    }
+
+    static long retryAfterNanosOf(final String retryAfter) {
+        if (Objects.isNull(retryAfter)) return 0;
+        try {
+            return (long) (Double.parseDouble(retryAfter.trim()) * TimeUnit.SECONDS.toNanos(1));
+        } catch (NumberFormatException e) {
+            // dates are left to the retry of the step
+            return 0;
+        }
+    }
+
+    private record LimiterKey(String service, String operation, RateLimitOptions options) {
+    }
+
+    private static class Limiter {
+
+        private final Semaphore bulkhead;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        // theoretical arrival time of the next request if requests were evenly spaced
+        private long nextArrivalNanos = System.nanoTime();
+
+        Limiter(final RateLimitOptions options) {
+            if (options.getRequestsPerSecond() < 0 || options.getBurst() < 1 || options.getMaxConcurrentRequests() < 0) {
+                throw new IllegalArgumentException("Invalid rate limit: " + options);
+            }
+            this.bulkhead = options.getMaxConcurrentRequests() > 0
+                    ? new Semaphore(options.getMaxConcurrentRequests(), true)
+                    : null;
+            this.intervalNanos = options.getRequestsPerSecond() > 0
+                    ? (long) (TimeUnit.SECONDS.toNanos(1) / options.getRequestsPerSecond())
+                    : 0;
+            this.toleranceNanos = intervalNanos * (options.getBurst() - 1);
+        }
+
+        void acquire() throws InterruptedException {
+            if (Objects.nonNull(bulkhead)) bulkhead.acquire();
+            try {
+                long waitNanos = reserve();
+                if (waitNanos > 0) TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                release();
+                throw e;
+            }
+        }
+
+        void release() {
+            if (Objects.nonNull(bulkhead)) bulkhead.release();
+        }
+
+        /**
+         * @return time to wait until the reserved token is available
+         */
+        private synchronized long reserve() {
+            if (intervalNanos == 0) return 0;
+            long now = System.nanoTime();
+            if (nextArrivalNanos - now < 0) nextArrivalNanos = now;
+            long waitNanos = nextArrivalNanos - toleranceNanos - now;
+            nextArrivalNanos += intervalNanos;
+            return Math.max(0, waitNanos);
+        }
+
+        /**
+         * Defers the next token until the pause is over; the burst is refilled at the sustained rate afterward.
+         */
+        synchronized void pause(final long pauseNanos) {
+            if (intervalNanos == 0) return;
+            long resumeArrivalNanos = System.nanoTime() + pauseNanos + toleranceNanos;
+            if (resumeArrivalNanos - nextArrivalNanos > 0) nextArrivalNanos = resumeArrivalNanos;
+        }
+    }
+}
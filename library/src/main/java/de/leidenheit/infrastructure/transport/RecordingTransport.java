@@ -0,0 +1,69 @@
+package de.leidenheit.infrastructure.transport;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import de.leidenheit.core.execution.transport.StepTransport;
+import de.leidenheit.infrastructure.json.JsonRuntime;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Forwards requests and appends every exchange to a {@link Cassette} file right away; the file is complete once
+ * the transport has been closed. Writes are serialized, hence a single cassette may be shared by parallel runs.
+ */
+public class RecordingTransport implements StepTransport, AutoCloseable {
+
+    private final JsonGenerator generator;
+    private boolean closed;
+
+    public RecordingTransport(final Path cassettePath) throws IOException {
+        if (Objects.nonNull(cassettePath.getParent())) {
+            Files.createDirectories(cassettePath.getParent());
+        }
+        this.generator = JsonRuntime.smileMapper().getFactory().createGenerator(Files.newOutputStream(cassettePath));
+        Cassette.writeHeader(generator);
+    }
+
+    @Override
+    public Response filter(final FilterableRequestSpecification requestSpec,
+                           final FilterableResponseSpecification responseSpec,
+                           final FilterContext ctx) {
+        var response = ctx.next(requestSpec, responseSpec);
+        var exchange = new Cassette.Exchange(
+                Cassette.keyOf(requestSpec.getMethod(), requestSpec.getURI(), requestSpec.getBody()),
+                response.statusCode(),
+                List.copyOf(response.getHeaders().asList()),
+                response.asByteArray());
+        write(exchange);
+        return response;
+    }
+
+    private synchronized void write(final Cassette.Exchange exchange) {
+        if (closed) return;
+        try {
+            Cassette.writeExchange(generator, exchange);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        try {
+            Cassette.writeFooter(generator);
+            generator.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
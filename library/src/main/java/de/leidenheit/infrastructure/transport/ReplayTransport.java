@@ -0,0 +1,45 @@
+package de.leidenheit.infrastructure.transport;
+
+import de.leidenheit.core.exception.ItarazzoIllegalStateException;
+import de.leidenheit.core.execution.transport.StepTransport;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Answers requests from a {@link Cassette} without touching the network.
+ * <p>
+ * Exchanges recorded for the same request key are served in the order of recording, e.g. the attempts of a retried
+ * step; once exhausted, the last one is repeated. Requests that have not been recorded fail.
+ */
+public class ReplayTransport implements StepTransport {
+
+    private final Map<String, List<Cassette.Exchange>> exchanges;
+    private final Map<String, AtomicInteger> cursors = new ConcurrentHashMap<>();
+
+    public ReplayTransport(final Path cassettePath) {
+        this.exchanges = Cassette.read(cassettePath);
+    }
+
+    @Override
+    public Response filter(final FilterableRequestSpecification requestSpec,
+                           final FilterableResponseSpecification responseSpec,
+                           final FilterContext ctx) {
+        var key = Cassette.keyOf(requestSpec.getMethod(), requestSpec.getURI(), requestSpec.getBody());
+        var recorded = exchanges.get(key);
+        if (Objects.isNull(recorded)) {
+            throw new ItarazzoIllegalStateException("No recorded exchange for request '%s'".formatted(key));
+        }
+
+        int index = cursors.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+        return Cassette.toResponse(recorded.get(Math.min(index, recorded.size() - 1)));
+    }
+}
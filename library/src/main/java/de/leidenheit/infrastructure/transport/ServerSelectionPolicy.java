@@ -0,0 +1,33 @@
+package de.leidenheit.infrastructure.transport;
+
+import de.leidenheit.core.exception.ItarazzoUnsupportedException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Policy selecting one of the healthy servers of a source description for a request.
+ */
+@Getter
+@AllArgsConstructor
+public enum ServerSelectionPolicy {
+    // the first server, as declared
+    FIRST("first"),
+    ROUND_ROBIN("round-robin"),
+    // the server with the fewest requests in flight
+    LEAST_OUTSTANDING_REQUESTS("least-outstanding-requests"),
+    // the server with the lowest moving average of its latency, weighted by its requests in flight
+    LATENCY_WEIGHTED("latency-weighted"),
+    // the first healthy server, as declared; the others are standbys
+    FAILOVER("failover");
+
+    private final String value;
+
+    public static ServerSelectionPolicy of(final String value) {
+        return Arrays.stream(values())
+                .filter(policy -> policy.getValue().equalsIgnoreCase(value.trim()))
+                .findFirst()
+                .orElseThrow(() -> new ItarazzoUnsupportedException("Unknown server selection policy '%s'".formatted(value)));
+    }
+}
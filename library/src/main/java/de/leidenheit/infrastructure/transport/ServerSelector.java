@@ -0,0 +1,245 @@
+package de.leidenheit.infrastructure.transport;
+
+import de.leidenheit.core.exception.ItarazzoIllegalStateException;
+import de.leidenheit.core.execution.TimingHttpClientFactory;
+import de.leidenheit.core.model.SourceDescription;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.swagger.v3.oas.models.servers.Server;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Selects the server of the OpenAPI of a source description a request is sent to, by the policy of the extension
+ * {@value #EXTENSION_SERVER_SELECTION} of the source description or the default one.
+ * <p>
+ * If any server of the OpenAPI is marked by the extension {@value #EXTENSION_DESIGNATED_SERVER}, only the marked ones
+ * are selected. Except for {@link ServerSelectionPolicy#FIRST}, a server failing consecutively, i.e. by an exception
+ * or a 502, 503 or 504 response, is ejected for a while; if all servers are ejected, they are selected nonetheless.
+ * <p>
+ * Variables of server urls are substituted by their default; servers with a variable without one are left out.
+ * Source descriptions of the same servers and policy, e.g. of several specifications, share their health and load.
+ */
+@Slf4j
+public class ServerSelector {
+
+    public static final String EXTENSION_SERVER_SELECTION = "x-arazzo-server-selection";
+    public static final String EXTENSION_DESIGNATED_SERVER = "x-arazzo-designated-server";
+
+    private static final Set<Integer> FAILURE_STATUS_CODES = Set.of(502, 503, 504);
+    private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{([^}]+)}");
+    // weight of the latest latency in the moving average
+    private static final double LATENCY_SMOOTHING = 0.3;
+
+    private final ServerSelectionPolicy defaultPolicy;
+    private final int localhostFallbackPort;
+    private final int failuresToEject;
+    private final long ejectionNanos;
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+    private final Map<SourceDescription, Pool> poolsBySourceDescription = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * @param localhostFallbackPort port of servers declared as 'localhost' without one
+     * @param failuresToEject       consecutive failures after which a server is ejected
+     * @param ejectionMillis        duration of an ejection
+     */
+    public ServerSelector(final ServerSelectionPolicy defaultPolicy, final int localhostFallbackPort,
+                          final int failuresToEject, final long ejectionMillis) {
+        if (failuresToEject < 1) throw new IllegalArgumentException("Failures to eject must be positive: " + failuresToEject);
+        this.defaultPolicy = defaultPolicy;
+        this.localhostFallbackPort = localhostFallbackPort;
+        this.failuresToEject = failuresToEject;
+        this.ejectionNanos = TimeUnit.MILLISECONDS.toNanos(ejectionMillis);
+    }
+
+    /**
+     * @return the server to send the next request to the source description to; it has to be applied as filter
+     * of the request to keep track of the health and load of the server
+     */
+    public SelectedServer select(final SourceDescription sourceDescription) {
+        return poolsBySourceDescription.computeIfAbsent(sourceDescription, this::poolOf).select();
+    }
+
+    private Pool poolOf(final SourceDescription sourceDescription) {
+        var servers = sourceDescription.getReferencedOpenAPI().getServers();
+        if (Objects.isNull(servers) || servers.isEmpty()) {
+            throw new ItarazzoIllegalStateException("No servers declared by source description '%s'".formatted(
+                    sourceDescription.getName()));
+        }
+        var designated = servers.stream()
+                .filter(server -> Objects.nonNull(server.getExtensions())
+                        && Boolean.parseBoolean(String.valueOf(server.getExtensions().get(EXTENSION_DESIGNATED_SERVER))))
+                .toList();
+
+        // servers declared repeatedly, e.g. for several environments, share their health and load
+        Set<String> urls = new LinkedHashSet<>();
+        for (Server server : designated.isEmpty() ? servers : designated) {
+            var url = urlOf(server);
+            if (Objects.nonNull(url)) urls.add(url);
+        }
+        if (urls.isEmpty()) {
+            throw new ItarazzoIllegalStateException("No server of source description '%s' has defaults for its variables"
+                    .formatted(sourceDescription.getName()));
+        }
+
+        var policy = Objects.nonNull(sourceDescription.getExtensions())
+                && sourceDescription.getExtensions().containsKey(EXTENSION_SERVER_SELECTION)
+                ? ServerSelectionPolicy.of(String.valueOf(sourceDescription.getExtensions().get(EXTENSION_SERVER_SELECTION)))
+                : defaultPolicy;
+        return pools.computeIfAbsent(policy.getValue() + " " + String.join(" ", urls),
+                key -> new Pool(policy, urls.stream().map(SelectedServer::new).toList()));
+    }
+
+    /**
+     * @return url of the server with its variables substituted by their default, or null if one has none
+     */
+    private String urlOf(final Server server) {
+        var matcher = VARIABLE_PATTERN.matcher(server.getUrl());
+        var substituted = new StringBuilder();
+        while (matcher.find()) {
+            var variable = Objects.isNull(server.getVariables()) ? null : server.getVariables().get(matcher.group(1));
+            var defaultValue = Objects.isNull(variable) ? null : variable.getDefault();
+            if (Objects.isNull(defaultValue)) {
+                log.warn("Leaving out server '{}' whose variable '{}' has no default", server.getUrl(), matcher.group(1));
+                return null;
+            }
+            matcher.appendReplacement(substituted, Matcher.quoteReplacement(defaultValue));
+        }
+        matcher.appendTail(substituted);
+
+        var serverUrl = substituted.toString();
+        if (serverUrl.contains("localhost") && !serverUrl.matches(".*:\\d{1,5}")) {
+            serverUrl = "%s:%d".formatted(serverUrl, localhostFallbackPort);
+        }
+        return serverUrl;
+    }
+
+    private record Pool(ServerSelectionPolicy policy, List<SelectedServer> servers, AtomicInteger cursor) {
+
+        Pool(final ServerSelectionPolicy policy, final List<SelectedServer> servers) {
+            this(policy, servers, new AtomicInteger());
+        }
+
+        SelectedServer select() {
+            if (servers.size() == 1 || ServerSelectionPolicy.FIRST.equals(policy)) return servers.get(0);
+
+            long now = System.nanoTime();
+            List<SelectedServer> healthy = new ArrayList<>(servers.size());
+            for (SelectedServer server : servers) {
+                if (server.isHealthy(now)) healthy.add(server);
+            }
+            if (healthy.isEmpty()) healthy = servers;
+
+            // ties are broken in turns, so that concurrent selections are spread before their requests are sent
+            int offset = Math.floorMod(cursor.getAndIncrement(), healthy.size());
+            return switch (policy) {
+                case FAILOVER -> healthy.get(0);
+                case ROUND_ROBIN -> healthy.get(offset);
+                case LEAST_OUTSTANDING_REQUESTS -> minimumOf(healthy, offset, server -> server.outstanding.get());
+                case LATENCY_WEIGHTED -> minimumOf(healthy, offset,
+                        server -> server.latencyNanos() * (server.outstanding.get() + 1));
+                case FIRST -> servers.get(0);
+            };
+        }
+
+        private static SelectedServer minimumOf(final List<SelectedServer> servers, final int offset,
+                                                final ToDoubleFunction<SelectedServer> score) {
+            SelectedServer minimum = null;
+            double minimumScore = Double.MAX_VALUE;
+            for (int i = 0; i < servers.size(); i++) {
+                var server = servers.get((offset + i) % servers.size());
+                var serverScore = score.applyAsDouble(server);
+                if (serverScore < minimumScore) {
+                    minimum = server;
+                    minimumScore = serverScore;
+                }
+            }
+            return minimum;
+        }
+    }
+
+    /**
+     * Server selected for a request, keeping track of its health and load as filter of the request.
+     */
+    public final class SelectedServer implements Filter {
+
+        private final String url;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        // moving average of the latency; 0 until the first response
+        private double latencyNanos;
+        private volatile long ejectedUntilNanos;
+
+        private SelectedServer(final String url) {
+            this.url = url;
+            this.ejectedUntilNanos = System.nanoTime();
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        @Override
+        public Response filter(final FilterableRequestSpecification requestSpec,
+                               final FilterableResponseSpecification responseSpec,
+                               final FilterContext ctx) {
+            outstanding.incrementAndGet();
+            long sentNanos = System.nanoTime();
+            try {
+                var response = ctx.next(requestSpec, responseSpec);
+                record(FAILURE_STATUS_CODES.contains(response.statusCode()), System.nanoTime() - sentNanos);
+                return response;
+            } catch (RuntimeException | Error e) {
+                // the loser of a hedged request tells nothing about the server
+                if (!TimingHttpClientFactory.isAborted()) record(true, System.nanoTime() - sentNanos);
+                throw e;
+            } finally {
+                outstanding.decrementAndGet();
+            }
+        }
+
+        boolean isHealthy(final long now) {
+            return now - ejectedUntilNanos >= 0;
+        }
+
+        synchronized double latencyNanos() {
+            return latencyNanos;
+        }
+
+        private void record(final boolean failed, final long latencyNanos) {
+            synchronized (this) {
+                this.latencyNanos = this.latencyNanos == 0
+                        ? latencyNanos
+                        : this.latencyNanos + LATENCY_SMOOTHING * (latencyNanos - this.latencyNanos);
+            }
+            if (!failed) {
+                consecutiveFailures.set(0);
+                return;
+            }
+            // once ejected, a single failure after the ejection ejects it again
+            int failures = consecutiveFailures.incrementAndGet();
+            if (failures >= failuresToEject && isHealthy(System.nanoTime())) {
+                ejectedUntilNanos = System.nanoTime() + ejectionNanos;
+                log.warn("Ejecting server '{}' for {}ms after {} consecutive failures",
+                        url, TimeUnit.NANOSECONDS.toMillis(ejectionNanos), failures);
+            }
+        }
+    }
+}
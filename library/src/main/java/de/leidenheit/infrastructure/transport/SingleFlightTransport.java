@@ -0,0 +1,125 @@
+package de.leidenheit.infrastructure.transport;
+
+import de.leidenheit.core.exception.ItarazzoIllegalStateException;
+import de.leidenheit.core.execution.transport.StepTransport;
+import de.leidenheit.core.model.SourceDescription;
+import de.leidenheit.core.model.Step;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces identical GET and HEAD requests in flight at the same time, e.g. of workflows running in parallel, into
+ * a single exchange: the first request is sent, the others wait for and share its response.
+ * <p>
+ * Requests are identical if their method, uri and headers are. Only requests in flight are shared; a request sent
+ * after the response has been received is sent again. Coalescing applies to source descriptions and steps enabling
+ * it by the extension {@value #EXTENSION_SINGLE_FLIGHT}, the one of the step taking precedence, or to all of them if
+ * enabled by default.
+ */
+public class SingleFlightTransport implements StepTransport {
+
+    public static final String EXTENSION_SINGLE_FLIGHT = "x-arazzo-single-flight";
+
+    private final boolean enabledByDefault;
+    private final Map<String, CompletableFuture<Cassette.Exchange>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlightTransport(final boolean enabledByDefault) {
+        this.enabledByDefault = enabledByDefault;
+    }
+
+    @Override
+    public boolean appliesTo(final SourceDescription sourceDescription) {
+        return appliesTo(sourceDescription, null);
+    }
+
+    @Override
+    public boolean appliesTo(final SourceDescription sourceDescription, final Step step) {
+        if (Objects.nonNull(step) && Objects.nonNull(step.getExtensions())
+                && step.getExtensions().containsKey(EXTENSION_SINGLE_FLIGHT)) {
+            return Boolean.parseBoolean(String.valueOf(step.getExtensions().get(EXTENSION_SINGLE_FLIGHT)));
+        }
+        if (Objects.nonNull(sourceDescription) && Objects.nonNull(sourceDescription.getExtensions())
+                && sourceDescription.getExtensions().containsKey(EXTENSION_SINGLE_FLIGHT)) {
+            return Boolean.parseBoolean(String.valueOf(sourceDescription.getExtensions().get(EXTENSION_SINGLE_FLIGHT)));
+        }
+        return enabledByDefault;
+    }
+
+    @Override
+    public Stage stage() {
+        return Stage.COALESCING;
+    }
+
+    @Override
+    public Response filter(final FilterableRequestSpecification requestSpec,
+                           final FilterableResponseSpecification responseSpec,
+                           final FilterContext ctx) {
+        var method = requestSpec.getMethod().toUpperCase(Locale.ROOT);
+        if ((!"GET".equals(method) && !"HEAD".equals(method)) || Objects.nonNull(requestSpec.getBody())) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+
+        var key = keyOf(method, requestSpec);
+        var flight = new CompletableFuture<Cassette.Exchange>();
+        var sharedFlight = inFlight.putIfAbsent(key, flight);
+        if (Objects.nonNull(sharedFlight)) {
+            coalesced.increment();
+            return Cassette.toResponse(await(sharedFlight));
+        }
+
+        try {
+            var response = ctx.next(requestSpec, responseSpec);
+            inFlight.remove(key);
+            flight.complete(new Cassette.Exchange(
+                    key, response.statusCode(), List.copyOf(response.getHeaders().asList()), response.asByteArray()));
+            return response;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * @return number of requests which shared the response of another one
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    private static String keyOf(final String method, final FilterableRequestSpecification requestSpec) {
+        var key = new StringBuilder(method).append(' ').append(requestSpec.getURI());
+        requestSpec.getHeaders().asList().stream()
+                .sorted(Comparator.comparing(Header::getName, String.CASE_INSENSITIVE_ORDER).thenComparing(Header::getValue))
+                .forEach(header -> key.append('\n').append(header.getName().toLowerCase(Locale.ROOT))
+                        .append(':').append(header.getValue()));
+        if (Objects.nonNull(requestSpec.getContentType())) {
+            key.append("\ncontent-type:").append(requestSpec.getContentType());
+        }
+        return key.toString();
+    }
+
+    private static Cassette.Exchange await(final CompletableFuture<Cassette.Exchange> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            if (e.getCause() instanceof Error error) throw error;
+            throw new ItarazzoIllegalStateException("Shared request failed: %s".formatted(e.getCause()), e.getCause());
+        }
+    }
+}
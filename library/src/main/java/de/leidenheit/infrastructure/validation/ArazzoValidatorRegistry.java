@@ -2,7 +2,9 @@ package de.leidenheit.infrastructure.validation;
 
 
 import com.google.common.base.Strings;
+import de.leidenheit.core.exception.ItarazzoIllegalStateException;
 import de.leidenheit.core.model.ArazzoSpecification;
+import de.leidenheit.infrastructure.parsing.LazyWorkflowList;
 import de.leidenheit.infrastructure.validation.validators.*;
 import io.swagger.v3.oas.models.OpenAPI;
 
@@ -53,9 +55,19 @@ public class ArazzoValidatorRegistry {
         );
 
         // workflows
-        arazzo.getWorkflows().forEach(workflow ->
-                result.merge(validateObject(workflow, null, arazzo, options))
-        );
+        if (arazzo.getWorkflows() instanceof LazyWorkflowList lazyWorkflows) {
+            // lazy workflows are validated as soon as they get materialized
+            lazyWorkflows.addMaterializationListener(workflow -> {
+                var workflowResult = validateObject(workflow, null, arazzo, options);
+                if (workflowResult.isInvalid()) throw new ItarazzoIllegalStateException(
+                        "Validation result of workflow '%s' is invalid: %s".formatted(
+                                workflow.getWorkflowId(), workflowResult.getMessages()));
+            });
+        } else {
+            arazzo.getWorkflows().forEach(workflow ->
+                    result.merge(validateObject(workflow, null, arazzo, options))
+            );
+        }
 
         // components
         if (Objects.nonNull(arazzo.getComponents())) {
@@ -2,6 +2,7 @@ package de.leidenheit.infrastructure.validation.validators;
 
 import com.google.common.base.Strings;
 import de.leidenheit.core.model.*;
+import de.leidenheit.infrastructure.parsing.LazyWorkflowList;
 import de.leidenheit.infrastructure.validation.ArazzoValidationOptions;
 import de.leidenheit.infrastructure.validation.ArazzoValidationResult;
 import de.leidenheit.infrastructure.validation.Validator;
@@ -36,8 +37,8 @@ public class FailureActionValidator implements Validator<FailureAction> {
             }
 
             if (Objects.nonNull(failureAction.getWorkflowId())) {
-                var workflowExists = arazzo.getWorkflows().stream()
-                        .anyMatch(wf -> wf.getWorkflowId().equals(failureAction.getWorkflowId()));
+                var workflowExists = LazyWorkflowList.workflowIdsOf(arazzo.getWorkflows())
+                        .contains(failureAction.getWorkflowId());
                 if (!workflowExists) {
                     result.addError(LOCATION, "workflow '%s' not found".formatted(failureAction.getWorkflowId()));
                 }
@@ -104,7 +105,7 @@ public class FailureActionValidator implements Validator<FailureAction> {
 
     private Workflow findParentWorkflow(final Step step,
                                         final ArazzoSpecification arazzo) {
-        for (Workflow workflow : arazzo.getWorkflows()) {
+        for (Workflow workflow : LazyWorkflowList.materializedOf(arazzo.getWorkflows())) {
             if (workflow.getSteps().contains(step)) {
                 return workflow;
             }
@@ -6,6 +6,7 @@ import de.leidenheit.core.model.SourceDescription;
 import de.leidenheit.core.model.Step;
 import de.leidenheit.core.model.Workflow;
 import de.leidenheit.infrastructure.utils.JsonPointerOperationComparator;
+import de.leidenheit.infrastructure.parsing.LazyWorkflowList;
 import de.leidenheit.infrastructure.validation.ArazzoValidationOptions;
 import de.leidenheit.infrastructure.validation.ArazzoValidationResult;
 import de.leidenheit.infrastructure.validation.Validator;
@@ -137,7 +138,7 @@ public class StepValidator implements Validator<Step> {
 
     private Workflow findParentWorkflow(final Step step,
                                         final ArazzoSpecification arazzo) {
-        for (Workflow workflow : arazzo.getWorkflows()) {
+        for (Workflow workflow : LazyWorkflowList.materializedOf(arazzo.getWorkflows())) {
             if (workflow.getSteps().contains(step)) {
                 return workflow;
             }
@@ -186,10 +187,9 @@ public class StepValidator implements Validator<Step> {
         if (workflowId.startsWith("$sourceDescriptions.")) {
             return arazzo.getSourceDescriptions().stream()
                     .filter(s -> SourceDescription.SourceDescriptionType.ARAZZO.equals(s.getType()))
-                    .anyMatch(s -> s.getReferencedArazzo().getWorkflows().stream().anyMatch(wf -> workflowId.contains(wf.getWorkflowId())));
+                    .anyMatch(s -> LazyWorkflowList.workflowIdsOf(s.getReferencedArazzo().getWorkflows()).stream().anyMatch(workflowId::contains));
         }
 
-        return arazzo.getWorkflows().stream()
-                .anyMatch(wf -> wf.getWorkflowId().equals(workflowId));
+        return LazyWorkflowList.workflowIdsOf(arazzo.getWorkflows()).contains(workflowId);
     }
 }
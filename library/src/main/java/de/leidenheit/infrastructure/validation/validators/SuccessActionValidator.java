@@ -5,6 +5,7 @@ import de.leidenheit.core.model.ArazzoSpecification;
 import de.leidenheit.core.model.Step;
 import de.leidenheit.core.model.SuccessAction;
 import de.leidenheit.core.model.Workflow;
+import de.leidenheit.infrastructure.parsing.LazyWorkflowList;
 import de.leidenheit.infrastructure.validation.ArazzoValidationOptions;
 import de.leidenheit.infrastructure.validation.ArazzoValidationResult;
 import de.leidenheit.infrastructure.validation.Validator;
@@ -37,8 +38,8 @@ public class SuccessActionValidator implements Validator<SuccessAction> {
             }
 
             if (Objects.nonNull(successAction.getWorkflowId())) {
-                var workflowExists = arazzo.getWorkflows().stream()
-                        .anyMatch(wf -> wf.getWorkflowId().equals(successAction.getWorkflowId()));
+                var workflowExists = LazyWorkflowList.workflowIdsOf(arazzo.getWorkflows())
+                        .contains(successAction.getWorkflowId());
                 if (!workflowExists) {
                     result.addError(LOCATION, "workflow '%s' not found".formatted(successAction.getWorkflowId()));
                 }
@@ -84,7 +85,7 @@ public class SuccessActionValidator implements Validator<SuccessAction> {
 
     private Workflow findParentWorkflow(final Step step,
                                         final ArazzoSpecification arazzo) {
-        for (Workflow workflow : arazzo.getWorkflows()) {
+        for (Workflow workflow : LazyWorkflowList.materializedOf(arazzo.getWorkflows())) {
             if (workflow.getSteps().contains(step)) {
                 return workflow;
             }
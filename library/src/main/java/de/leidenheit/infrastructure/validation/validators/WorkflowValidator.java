@@ -3,6 +3,7 @@ package de.leidenheit.infrastructure.validation.validators;
 import com.google.common.base.Strings;
 import de.leidenheit.core.model.ArazzoSpecification;
 import de.leidenheit.core.model.Workflow;
+import de.leidenheit.infrastructure.parsing.LazyWorkflowList;
 import de.leidenheit.infrastructure.validation.ArazzoValidationOptions;
 import de.leidenheit.infrastructure.validation.ArazzoValidationResult;
 import de.leidenheit.infrastructure.validation.Validator;
@@ -25,8 +26,9 @@ public class WorkflowValidator implements Validator<Workflow> {
         } else if (!isRecommendedWorkflowIdFormat(workflow.getWorkflowId())) {
             result.addWarning(LOCATION, "workflowId '%s' does not comply to [A-Za-z0-9_\\-]+.".formatted(workflow.getWorkflowId()));
         }
-        boolean uniqueWorkflowId = arazzo.getWorkflows().stream()
-                .filter(wf -> wf.getWorkflowId().equals(workflow.getWorkflowId()))
+        var workflowIds = LazyWorkflowList.workflowIdsOf(arazzo.getWorkflows());
+        boolean uniqueWorkflowId = workflowIds.stream()
+                .filter(workflowId -> workflowId.equals(workflow.getWorkflowId()))
                 .count() == 1;
         if (!uniqueWorkflowId) result.addError(LOCATION, "'workflowId' must be unique");
 
@@ -34,7 +36,7 @@ public class WorkflowValidator implements Validator<Workflow> {
             workflow.getDependsOn().forEach(workflowIdThatMustBeCompletedFirst -> {
                 var isRuntimeExpression = workflowIdThatMustBeCompletedFirst.startsWith("$sourceDescriptions.");
                 if (!isRuntimeExpression) {
-                    var exists = arazzo.getWorkflows().stream().anyMatch(wf -> wf.getWorkflowId().equals(workflowIdThatMustBeCompletedFirst));
+                    var exists = workflowIds.contains(workflowIdThatMustBeCompletedFirst);
                     if (!exists)
                         result.addError(LOCATION, "'dependsOn' referenced workflow not found: '%s'".formatted(workflowIdThatMustBeCompletedFirst));
                 }
@@ -1,49 +1,119 @@
 package de.leidenheit.integration;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import de.leidenheit.core.execution.ArazzoWorkflowExecutor;
+import de.leidenheit.core.execution.ExecutionPlan;
+import de.leidenheit.core.execution.context.WorkflowOutputStore;
+import de.leidenheit.core.execution.listener.ExecutionListeners;
 import de.leidenheit.core.model.ArazzoSpecification;
 import de.leidenheit.core.model.Workflow;
 import de.leidenheit.infrastructure.io.ArazzoInputsReader;
+import de.leidenheit.infrastructure.parsing.LazyWorkflowList;
+import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.DynamicTest;
 
 import java.util.*;
 import java.util.stream.Stream;
 
+@Slf4j
 public class ArazzoDynamicTest {
 
-    private Map<String, Map<String, Object>> outputsOfWorkflows = new LinkedHashMap<>();
+    private final WorkflowOutputStore.ReleasePolicy outputReleasePolicy;
+
+    public ArazzoDynamicTest() {
+        this(WorkflowOutputStore.ReleasePolicy.RETAIN);
+    }
+
+    /**
+     * @param outputReleasePolicy how outputs of workflows no pending workflow depends on are released
+     */
+    public ArazzoDynamicTest(final WorkflowOutputStore.ReleasePolicy outputReleasePolicy) {
+        this.outputReleasePolicy = outputReleasePolicy;
+    }
 
     public Stream<DynamicTest> generateWorkflowTests(final ArazzoSpecification arazzo, final String inputsPath) {
-        // sort workflows
-        var sortedWorkflows = sortWorkflowsByDependencies(arazzo);
+        var allWorkflowIds = LazyWorkflowList.workflowIdsOf(arazzo.getWorkflows());
+        return generateWorkflowTests(arazzo, inputsPath, allWorkflowIds);
+    }
+
+    /**
+     * @param selection workflows to run, e.g. as resolved by the arazzo extension from 'arazzo.workflows'; only these
+     *                  and the workflows they depend on are materialized
+     */
+    public Stream<DynamicTest> generateWorkflowTests(final ArazzoSpecification arazzo,
+                                                     final String inputsPath,
+                                                     final WorkflowSelection selection) {
+        if (selection.isAll()) return generateWorkflowTests(arazzo, inputsPath);
 
-        // build and execute
-        return sortedWorkflows.stream()
-                .map(workflow -> createDynamicTestForWorkflow(arazzo, workflow, inputsPath));
+        var allWorkflowIds = LazyWorkflowList.workflowIdsOf(arazzo.getWorkflows());
+        var unknownWorkflowIds = selection.workflowIds().stream().filter(id -> !allWorkflowIds.contains(id)).toList();
+        if (!unknownWorkflowIds.isEmpty()) {
+            log.warn("Selected workflows are not declared by the arazzo specification: {}", unknownWorkflowIds);
+        }
+        return generateWorkflowTests(arazzo, inputsPath, selection.workflowIds());
     }
 
-    private DynamicTest createDynamicTestForWorkflow(final ArazzoSpecification arazzo, final Workflow workflow, final String inputsPath) {
-        var inputs = readInputs(arazzo, workflow.getInputs(), inputsPath);
+    public Stream<DynamicTest> generateWorkflowTests(final ArazzoSpecification arazzo,
+                                                     final String inputsPath,
+                                                     final Collection<String> workflowIds) {
+        // only the selected workflows and the ones they depend on are sorted by their dependencies and materialized
+        var sortedWorkflowIndices = sortWorkflowsByDependencies(arazzo, selectWorkflowsWithDependencies(arazzo, workflowIds));
+
+        // outputs are shared by all workflows of this run and released along the dependsOn graph
+        var allWorkflowIds = LazyWorkflowList.workflowIdsOf(arazzo.getWorkflows());
+        var outputStore = WorkflowOutputStore.forWorkflows(arazzo,
+                sortedWorkflowIndices.stream().map(allWorkflowIds::get).toList(),
+                outputReleasePolicy);
+
+        // build and execute; the plan is compiled once and shared by all workflows of this run
+        var plan = ExecutionPlan.of(arazzo);
+        return sortedWorkflowIndices.stream()
+                .map(index -> createDynamicTestForWorkflow(plan, arazzo.getWorkflows().get(index), inputsPath, outputStore));
+    }
+
+    private DynamicTest createDynamicTestForWorkflow(final ExecutionPlan plan,
+                                                     final Workflow workflow,
+                                                     final String inputsPath,
+                                                     final WorkflowOutputStore outputStore) {
+        var inputs = readInputs(plan.getArazzo(), workflow, inputsPath);
         return DynamicTest.dynamicTest("Workflow '%s'".formatted(workflow.getWorkflowId()), () ->
-                executeWorkflow(arazzo, workflow, inputs, outputsOfWorkflows));
+                executeWorkflow(plan, workflow, inputs, outputStore));
+    }
+
+    private void executeWorkflow(final ExecutionPlan plan,
+                                 final Workflow workflow,
+                                 final Map<String, Object> inputs,
+                                 final WorkflowOutputStore outputStore) {
+        var executor = new ArazzoWorkflowExecutor(plan, inputs, outputStore, ExecutionListeners.current());
+
+        log.info("Executing workflow '{}'", workflow.getWorkflowId());
+        var outputsOfWorkflows = executor.executeWorkflow(workflow);
+        // the map is only rendered if debug is enabled
+        log.debug("Outputs of all workflows: {}", outputsOfWorkflows);
+        log.debug("Step timings of workflow '{}': {}", workflow.getWorkflowId(), executor.getStepTimings());
     }
 
-    private void executeWorkflow(final ArazzoSpecification arazzo, final Workflow workflow, final Map<String, Object> inputs, final Map<String, Map<String, Object>> outputs) {
-        var executor = new ArazzoWorkflowExecutor(arazzo, inputs, outputsOfWorkflows);
+    private List<Integer> selectWorkflowsWithDependencies(final ArazzoSpecification arazzo,
+                                                         final Collection<String> workflowIds) {
+        var allWorkflowIds = LazyWorkflowList.workflowIdsOf(arazzo.getWorkflows());
+        Set<Integer> selectedIndices = new LinkedHashSet<>();
+        Deque<String> pending = new ArrayDeque<>(workflowIds);
+        while (!pending.isEmpty()) {
+            var index = allWorkflowIds.indexOf(pending.pop());
+            // dependencies to other arazzo specifications are not part of the selection
+            if (index < 0 || !selectedIndices.add(index)) continue;
 
-        System.out.printf("%n=============%nExecuting Workflow '%s'%n", workflow.getWorkflowId());
-        outputsOfWorkflows  = executor.executeWorkflow(workflow);
-        System.out.printf("%nOutputs of all workflows: %s%n", outputsOfWorkflows);
-        System.out.printf("=============%n%n");
+            var dependsOn = LazyWorkflowList.dependsOnOf(arazzo.getWorkflows(), index);
+            if (Objects.nonNull(dependsOn)) pending.addAll(dependsOn);
+        }
+        return new ArrayList<>(selectedIndices);
     }
 
-    private List<Workflow> sortWorkflowsByDependencies(final ArazzoSpecification arazzo) {
-        List<Workflow> sortedWorkflowList = new ArrayList<>(arazzo.getWorkflows());
+    private List<Integer> sortWorkflowsByDependencies(final ArazzoSpecification arazzo, final List<Integer> workflowIndices) {
+        List<Integer> sortedWorkflowIndices = new ArrayList<>(workflowIndices);
 
-        sortedWorkflowList.sort(
-                Comparator.comparing(workflow -> Optional
-                                .ofNullable(workflow.getDependsOn())
+        sortedWorkflowIndices.sort(
+                Comparator.comparing(index -> Optional
+                                .ofNullable(LazyWorkflowList.dependsOnOf(arazzo.getWorkflows(), index))
                                 .orElse(Collections.emptyList()),
                         Comparator.nullsFirst(
                                 Comparator.comparing((List<String> dependsOnList) -> dependsOnList,
@@ -63,18 +133,22 @@ public class ArazzoDynamicTest {
                 )
         );
 
-        System.out.println("Workflows has been sorted to execution order:");
-        sortedWorkflowList.forEach(workflow -> System.out.printf(">> '%s' depends on: '%s'%n",
-                workflow.getWorkflowId(), workflow.getDependsOn()));
-        return sortedWorkflowList;
+        var workflowIds = LazyWorkflowList.workflowIdsOf(arazzo.getWorkflows());
+        if (log.isDebugEnabled()) {
+            log.debug("Workflows has been sorted to execution order:");
+            sortedWorkflowIndices.forEach(index -> log.debug(">> '{}' depends on: '{}'",
+                    workflowIds.get(index), LazyWorkflowList.dependsOnOf(arazzo.getWorkflows(), index)));
+        }
+        return sortedWorkflowIndices;
     }
 
     private Map<String, Object> readInputs(final ArazzoSpecification arazzo,
-                                           final JsonNode inputsSchemaNode,
+                                           final Workflow workflow,
                                            final String inputsFilePath) {
-        if (Objects.isNull(inputsSchemaNode)) return Collections.emptyMap();
-        var inputs = ArazzoInputsReader.parseAndValidateInputs(arazzo, inputsFilePath, inputsSchemaNode);
-        System.out.printf("Provided inputs for arazzo: %s%n", inputs.toString());
+        if (Objects.isNull(workflow.getInputs())) return Collections.emptyMap();
+        var inputs = ArazzoInputsReader.parseAndValidateInputs(arazzo, inputsFilePath, workflow.getInputs(),
+                "#/workflows/%s/inputs".formatted(workflow.getWorkflowId()));
+        log.debug("Provided inputs for arazzo: {}", inputs);
         return inputs;
     }
 }
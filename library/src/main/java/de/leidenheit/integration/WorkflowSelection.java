@@ -0,0 +1,36 @@
+package de.leidenheit.integration;
+
+import com.google.common.base.Strings;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Workflows of an arazzo specification to run, including the workflows they depend on; all workflows if none are
+ * selected.
+ */
+public record WorkflowSelection(List<String> workflowIds) {
+
+    public WorkflowSelection {
+        workflowIds = List.copyOf(workflowIds);
+    }
+
+    public static WorkflowSelection all() {
+        return new WorkflowSelection(List.of());
+    }
+
+    /**
+     * @param workflowIds comma separated ids of the workflows
+     */
+    public static WorkflowSelection of(final String workflowIds) {
+        if (Strings.isNullOrEmpty(workflowIds)) return all();
+        return new WorkflowSelection(Arrays.stream(workflowIds.split(","))
+                .map(String::trim)
+                .filter(workflowId -> !workflowId.isEmpty())
+                .toList());
+    }
+
+    public boolean isAll() {
+        return workflowIds.isEmpty();
+    }
+}
@@ -1,31 +1,197 @@
 package de.leidenheit.integration.extension;
 
 import com.google.common.base.Strings;
+import de.leidenheit.core.exception.ItarazzoIllegalStateException;
+import de.leidenheit.core.execution.listener.ExecutionListeners;
+import de.leidenheit.core.execution.listener.StepLatencyHistogramListener;
+import de.leidenheit.core.execution.transport.StepTransport;
+import de.leidenheit.core.execution.transport.StepTransports;
+import de.leidenheit.infrastructure.io.ArazzoBundle;
 import de.leidenheit.infrastructure.parsing.SourceDescriptionInitializer;
+import de.leidenheit.infrastructure.reporting.ExecutionReportListener;
+import de.leidenheit.infrastructure.reporting.JUnitXmlExecutionReportListener;
+import de.leidenheit.infrastructure.reporting.JsonExecutionReportListener;
+import de.leidenheit.infrastructure.stub.LatencyDistribution;
+import de.leidenheit.infrastructure.stub.OpenApiStub;
+import de.leidenheit.infrastructure.stub.OpenApiStubOptions;
+import de.leidenheit.infrastructure.transport.AdaptiveConcurrencyLimiter;
+import de.leidenheit.infrastructure.transport.AdaptiveConcurrencyOptions;
+import de.leidenheit.infrastructure.transport.HttpCacheTransport;
+import de.leidenheit.infrastructure.transport.InProcessTransport;
+import de.leidenheit.infrastructure.transport.RateLimitOptions;
+import de.leidenheit.infrastructure.transport.RateLimiter;
+import de.leidenheit.infrastructure.transport.RecordingTransport;
+import de.leidenheit.infrastructure.transport.ReplayTransport;
+import de.leidenheit.infrastructure.transport.SingleFlightTransport;
 import de.leidenheit.core.model.ArazzoSpecification;
 import de.leidenheit.infrastructure.parsing.ArazzoParseOptions;
 import de.leidenheit.infrastructure.parsing.ArazzoParser;
 import de.leidenheit.infrastructure.validation.ArazzoValidationOptions;
 import de.leidenheit.infrastructure.validation.ArazzoValidatorRegistry;
+import de.leidenheit.integration.WorkflowSelection;
+import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.extension.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
-public class ArazzoExtension implements BeforeAllCallback, BeforeEachCallback, ParameterResolver {
+@Slf4j
+public class ArazzoExtension implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback, ParameterResolver {
 
     private final String PROPERTY_ARAZZO_FILE = "arazzo.file";
     private final String PROPERTY_ARAZZO_INPUTS_FILE = "arazzo-inputs.file";
+    private final String PROPERTY_ARAZZO_LAZY_WORKFLOWS = "arazzo.lazy-workflows";
+    private final String PROPERTY_ARAZZO_WORKFLOWS = "arazzo.workflows";
+    private final String PROPERTY_ARAZZO_BUNDLE_FILE = "arazzo-bundle.file";
+    private final String PROPERTY_ARAZZO_METRICS = "arazzo.metrics";
+    private final String PROPERTY_ARAZZO_REPORT_FILE = "arazzo-report.file";
+    private final String PROPERTY_ARAZZO_REPORT_JUNIT_FILE = "arazzo-report-junit.file";
+    private final String PROPERTY_ARAZZO_CASSETTE_RECORD_FILE = "arazzo-cassette-record.file";
+    private final String PROPERTY_ARAZZO_CASSETTE_REPLAY_FILE = "arazzo-cassette-replay.file";
+    private final String PROPERTY_ARAZZO_HTTP_CACHE = "arazzo.http-cache";
+    private final String PROPERTY_ARAZZO_HTTP_CACHE_MAX_BYTES = "arazzo.http-cache.max-bytes";
+    private final String PROPERTY_ARAZZO_SINGLE_FLIGHT = "arazzo.single-flight";
+    private final String PROPERTY_ARAZZO_RATE_LIMIT_REQUESTS_PER_SECOND = "arazzo.rate-limit.requests-per-second";
+    private final String PROPERTY_ARAZZO_RATE_LIMIT_BURST = "arazzo.rate-limit.burst";
+    private final String PROPERTY_ARAZZO_RATE_LIMIT_MAX_CONCURRENT_REQUESTS = "arazzo.rate-limit.max-concurrent-requests";
+    private final String PROPERTY_ARAZZO_ADAPTIVE_CONCURRENCY = "arazzo.adaptive-concurrency";
+    private final String PROPERTY_ARAZZO_ADAPTIVE_CONCURRENCY_MAX_LIMIT = "arazzo.adaptive-concurrency.max-limit";
+    private final String PROPERTY_ARAZZO_STUB = "arazzo.stub";
+    private final String PROPERTY_ARAZZO_STUB_LATENCY = "arazzo.stub.latency";
+    private final String PROPERTY_ARAZZO_STUB_ERROR_RATE = "arazzo.stub.error-rate";
+    private final String PROPERTY_ARAZZO_STUB_THROTTLE_RATE = "arazzo.stub.throttle-rate";
+    private final String PROPERTY_ARAZZO_STUB_RETRY_AFTER = "arazzo.stub.retry-after";
     private final Map<Class<?>, Object> supportedParameterTypes = new HashMap<>();
+    private final List<ExecutionReportListener> reportListeners = new ArrayList<>();
+    private StepLatencyHistogramListener latencyListener;
+    private final List<StepTransport> transports = new ArrayList<>();
+    private HttpCacheTransport httpCache;
+    private SingleFlightTransport singleFlight;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
 
     @Override
     public void beforeAll(final ExtensionContext context) {
-        var arazzoPath = readFromSystemProperties(PROPERTY_ARAZZO_FILE)
-                // TODO replace with exception
-                .orElseThrow(() -> new RuntimeException("Unexpected"));
-        var arazzo = loadArazzoFromPath(arazzoPath);
+        // a precompiled bundle takes precedence over parsing, resolving and validating the arazzo file
+        var arazzo = readFromSystemProperties(PROPERTY_ARAZZO_BUNDLE_FILE)
+                .map(this::loadArazzoFromBundle)
+                .orElseGet(() -> loadArazzoFromPath(readFromSystemProperties(PROPERTY_ARAZZO_FILE)
+                        .orElseThrow(() -> new ItarazzoIllegalStateException("Neither '%s' nor '%s' is set".formatted(
+                                PROPERTY_ARAZZO_BUNDLE_FILE, PROPERTY_ARAZZO_FILE)))));
         supportedParameterTypes.put(ArazzoSpecification.class, arazzo);
+        supportedParameterTypes.put(WorkflowSelection.class,
+                WorkflowSelection.of(readFromSystemProperties(PROPERTY_ARAZZO_WORKFLOWS).orElse(null)));
+
+        if (readFromSystemProperties(PROPERTY_ARAZZO_METRICS).map(Boolean::parseBoolean).orElse(false)) {
+            latencyListener = new StepLatencyHistogramListener();
+            ExecutionListeners.register(latencyListener);
+        }
+
+        try {
+            var reportFile = readFromSystemProperties(PROPERTY_ARAZZO_REPORT_FILE);
+            if (reportFile.isPresent()) reportListeners.add(new JsonExecutionReportListener(Path.of(reportFile.get())));
+            var junitReportFile = readFromSystemProperties(PROPERTY_ARAZZO_REPORT_JUNIT_FILE);
+            if (junitReportFile.isPresent()) reportListeners.add(new JUnitXmlExecutionReportListener(Path.of(junitReportFile.get())));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        reportListeners.forEach(ExecutionListeners::register);
+
+        // transports pass requests on by their stage, see StepTransport.Stage; within a stage by the order below
+        // the http cache comes first so that cached responses skip the transports below
+        if (readFromSystemProperties(PROPERTY_ARAZZO_HTTP_CACHE).map(Boolean::parseBoolean).orElse(false)) {
+            httpCache = new HttpCacheTransport(readFromSystemProperties(PROPERTY_ARAZZO_HTTP_CACHE_MAX_BYTES)
+                    .map(Long::parseLong)
+                    .orElse(64L * 1024 * 1024));
+            transports.add(httpCache);
+        }
+        // replaying a cassette takes precedence over recording one
+        try {
+            var replayFile = readFromSystemProperties(PROPERTY_ARAZZO_CASSETTE_REPLAY_FILE);
+            var recordFile = readFromSystemProperties(PROPERTY_ARAZZO_CASSETTE_RECORD_FILE);
+            if (replayFile.isPresent()) transports.add(new ReplayTransport(Path.of(replayFile.get())));
+            else if (recordFile.isPresent()) transports.add(new RecordingTransport(Path.of(recordFile.get())));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // stubs answer the requests to the named source descriptions; registered last to be recorded as well
+        readFromSystemProperties(PROPERTY_ARAZZO_STUB).ifPresent(names -> transports.addAll(buildStubs(arazzo, names)));
+        // shares the responses of identical requests in flight; by 'x-arazzo-single-flight' or for all requests
+        singleFlight = new SingleFlightTransport(readFromSystemProperties(PROPERTY_ARAZZO_SINGLE_FLIGHT)
+                .map(Boolean::parseBoolean)
+                .orElse(false));
+        transports.add(singleFlight);
+        // limits of source descriptions without 'x-arazzo-rate-limit'; unlimited by default
+        var defaultRateLimit = RateLimitOptions.ofDefault();
+        transports.add(new RateLimiter(RateLimitOptions.builder()
+                .requestsPerSecond(readFromSystemProperties(PROPERTY_ARAZZO_RATE_LIMIT_REQUESTS_PER_SECOND)
+                        .map(Double::parseDouble)
+                        .orElse(defaultRateLimit.getRequestsPerSecond()))
+                .burst(readFromSystemProperties(PROPERTY_ARAZZO_RATE_LIMIT_BURST)
+                        .map(Integer::parseInt)
+                        .orElse(defaultRateLimit.getBurst()))
+                .maxConcurrentRequests(readFromSystemProperties(PROPERTY_ARAZZO_RATE_LIMIT_MAX_CONCURRENT_REQUESTS)
+                        .map(Integer::parseInt)
+                        .orElse(defaultRateLimit.getMaxConcurrentRequests()))
+                .build()));
+        // limits only requests actually sent, i.e. neither answered by the transports above nor waiting for them
+        if (readFromSystemProperties(PROPERTY_ARAZZO_ADAPTIVE_CONCURRENCY).map(Boolean::parseBoolean).orElse(false)) {
+            var defaults = AdaptiveConcurrencyOptions.ofDefault();
+            int maximumLimit = readFromSystemProperties(PROPERTY_ARAZZO_ADAPTIVE_CONCURRENCY_MAX_LIMIT)
+                    .map(Integer::parseInt)
+                    .orElse(defaults.getMaximumLimit());
+            concurrencyLimiter = new AdaptiveConcurrencyLimiter(AdaptiveConcurrencyOptions.builder()
+                    .initialLimit(Math.min(defaults.getInitialLimit(), maximumLimit))
+                    .minimumLimit(defaults.getMinimumLimit())
+                    .maximumLimit(maximumLimit)
+                    .backoffRatio(defaults.getBackoffRatio())
+                    .latencyBackoffRatio(defaults.getLatencyBackoffRatio())
+                    .latencyTolerance(defaults.getLatencyTolerance())
+                    .build());
+            transports.add(concurrencyLimiter);
+        }
+        transports.forEach(StepTransports::register);
+    }
+
+    @Override
+    public void afterAll(final ExtensionContext context) {
+        reportListeners.forEach(reportListener -> {
+            ExecutionListeners.unregister(reportListener);
+            reportListener.close();
+        });
+        reportListeners.clear();
+
+        transports.forEach(transport -> {
+            StepTransports.unregister(transport);
+            if (transport instanceof RecordingTransport recordingTransport) recordingTransport.close();
+        });
+        transports.clear();
+
+        if (Objects.nonNull(httpCache)) {
+            log.info("Http cache of the arazzo run: {}", httpCache.getStatistics());
+            httpCache = null;
+        }
+        if (Objects.nonNull(singleFlight)) {
+            if (singleFlight.getCoalescedCount() > 0) {
+                log.info("Requests of the arazzo run sharing the response of another one: {}", singleFlight.getCoalescedCount());
+            }
+            singleFlight = null;
+        }
+        if (Objects.nonNull(concurrencyLimiter)) {
+            log.info("Concurrency limits of the arazzo run: {}", concurrencyLimiter.getLimits());
+            concurrencyLimiter = null;
+        }
+
+        if (Objects.isNull(latencyListener)) return;
+        ExecutionListeners.unregister(latencyListener);
+        log.info("Latencies of the arazzo run:{}{}", System.lineSeparator(), latencyListener.summary());
+        latencyListener = null;
     }
 
     @Override
@@ -50,14 +216,37 @@ public class ArazzoExtension implements BeforeAllCallback, BeforeEachCallback, P
         var propertyValue = System.getProperty(property);
         if (Strings.isNullOrEmpty(propertyValue)) return Optional.empty();
 
-        System.out.printf("Reading system property '%s': %s%n", property, propertyValue);
+        log.debug("Reading system property '{}': {}", property, propertyValue);
         return Optional.of(propertyValue);
     }
 
+    private List<StepTransport> buildStubs(final ArazzoSpecification arazzo, final String sourceDescriptionNames) {
+        var options = OpenApiStubOptions.builder()
+                .latency(LatencyDistribution.parse(readFromSystemProperties(PROPERTY_ARAZZO_STUB_LATENCY).orElse("")))
+                .errorRate(readFromSystemProperties(PROPERTY_ARAZZO_STUB_ERROR_RATE).map(Double::parseDouble).orElse(0.0))
+                .throttleRate(readFromSystemProperties(PROPERTY_ARAZZO_STUB_THROTTLE_RATE).map(Double::parseDouble).orElse(0.0))
+                .retryAfterSeconds(readFromSystemProperties(PROPERTY_ARAZZO_STUB_RETRY_AFTER).map(Long::parseLong).orElse(1L))
+                .build();
+
+        List<StepTransport> stubs = new ArrayList<>();
+        for (String name : sourceDescriptionNames.split(",")) {
+            var sourceDescription = arazzo.getSourceDescriptions().stream()
+                    .filter(s -> s.getName().equals(name.trim()) && Objects.nonNull(s.getReferencedOpenAPI()))
+                    .findFirst()
+                    .orElseThrow(() -> new ItarazzoIllegalStateException("No OpenAPI source description '%s' to stub".formatted(name)));
+            var stub = new OpenApiStub(sourceDescription.getReferencedOpenAPI(), options);
+            stubs.add(InProcessTransport.forSourceDescription(sourceDescription.getName(), stub));
+        }
+        return stubs;
+    }
+
+    private ArazzoSpecification loadArazzoFromBundle(final String pathOfBundle) {
+        return ArazzoBundle.read(Path.of(pathOfBundle), buildParseOptions());
+    }
+
     private ArazzoSpecification loadArazzoFromPath(final String pathOfArazzo) {
         ArazzoParser parser = new ArazzoParser();
-        ArazzoParseOptions parseOptions = ArazzoParseOptions.ofDefault();
-        var parseResult = parser.readLocation(pathOfArazzo, parseOptions);
+        var parseResult = parser.readLocation(pathOfArazzo, buildParseOptions());
         if (parseResult.isInvalid()) {
             // TODO replace with exception
             throw new RuntimeException("Parsing result is invalid: %s".formatted(parseResult.getMessages()));
@@ -76,4 +265,16 @@ public class ArazzoExtension implements BeforeAllCallback, BeforeEachCallback, P
 
         return validationResult.getArazzo();
     }
+
+    private ArazzoParseOptions buildParseOptions() {
+        return ArazzoParseOptions.builder()
+                .oaiAuthor(false)
+                .allowEmptyStrings(false)
+                .mustValidate(true)
+                .resolve(true)
+                .lazyWorkflows(readFromSystemProperties(PROPERTY_ARAZZO_LAZY_WORKFLOWS)
+                        .map(Boolean::parseBoolean)
+                        .orElse(false))
+                .build();
+    }
 }
@@ -0,0 +1,121 @@
+package de.leidenheit.core.execution;
+
+import de.leidenheit.core.exception.ItarazzoIllegalStateException;
+import de.leidenheit.core.model.ArazzoSpecification;
+import de.leidenheit.core.model.SourceDescription;
+import de.leidenheit.core.model.Step;
+import de.leidenheit.core.model.Workflow;
+import de.leidenheit.infrastructure.json.JsonRuntime;
+import de.leidenheit.infrastructure.parsing.LazyWorkflowList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExecutionPlanTest {
+
+    @Test
+    void testWorkflowsAreCompiledOnFirstUse() {
+        // given
+        var workflows = lazyWorkflowsOf("bakeCookies", "shipCookies");
+        var arazzo = specificationOf(workflows);
+
+        // when
+        var plan = ExecutionPlan.of(arazzo);
+        var workflowPlan = plan.workflow("$sourceDescriptions.bakery.shipCookies");
+
+        // then
+        assertThat(ExecutionPlan.of(arazzo)).isSameAs(plan);
+        assertThat(workflowPlan.getWorkflow().getWorkflowId()).isEqualTo("shipCookies");
+        assertThat(plan.workflow("shipCookies")).isSameAs(workflowPlan);
+        assertThat(workflows.isMaterialized(0)).isFalse();
+        assertThat(workflows.isMaterialized(1)).isTrue();
+    }
+
+    @Test
+    void testCompileCompilesAllWorkflows() {
+        // given
+        var workflows = lazyWorkflowsOf("bakeCookies", "shipCookies");
+
+        // when
+        ExecutionPlan.compile(specificationOf(workflows));
+
+        // then
+        assertThat(workflows.isMaterialized(0)).isTrue();
+        assertThat(workflows.isMaterialized(1)).isTrue();
+    }
+
+    @Test
+    void testWorkflowsOutsideOfTheSpecificationAreCompiledSeparately() {
+        // given
+        var plan = ExecutionPlan.of(specificationOf(lazyWorkflowsOf("bakeCookies")));
+        var declared = plan.workflow("bakeCookies").getWorkflow();
+        var foreign = workflowOf("bakeCookies");
+
+        // when
+        var foreignPlan = plan.workflow(foreign);
+
+        // then
+        assertThat(plan.workflow(declared)).isSameAs(plan.workflow("bakeCookies"));
+        assertThat(foreignPlan.getWorkflow()).isSameAs(foreign);
+        assertThat(foreignPlan).isNotSameAs(plan.workflow(foreign));
+    }
+
+    @Test
+    void testReferencedWorkflowsAreLocatedThroughSourceDescriptions() {
+        // given
+        var referenced = specificationOf(List.of(workflowOf("bakeCookies")));
+        var arazzo = ArazzoSpecification.builder()
+                .sourceDescriptions(List.of(SourceDescription.builder()
+                        .name("bakery").type(SourceDescription.SourceDescriptionType.ARAZZO).referencedArazzo(referenced).build()))
+                .workflows(List.of(Workflow.builder()
+                        .workflowId("orderCookies")
+                        .steps(List.of(Step.builder().stepId("bake").workflowId("$sourceDescriptions.bakery.bakeCookies").build()))
+                        .build()))
+                .build();
+
+        // when
+        var handle = ExecutionPlan.of(arazzo).workflow("orderCookies").referencedWorkflow(0);
+
+        // then
+        assertThat(handle.plan()).isSameAs(ExecutionPlan.of(referenced));
+        assertThat(handle.resolve().getWorkflow().getWorkflowId()).isEqualTo("bakeCookies");
+    }
+
+    @Test
+    void testUndeclaredWorkflow() {
+        // given
+        var plan = ExecutionPlan.of(specificationOf(lazyWorkflowsOf("bakeCookies")));
+
+        // when / then
+        assertThatThrownBy(() -> plan.workflow("shipCookies"))
+                .isInstanceOf(ItarazzoIllegalStateException.class)
+                .hasMessageContaining("shipCookies");
+    }
+
+    private static LazyWorkflowList lazyWorkflowsOf(final String... workflowIds) {
+        var stubs = Arrays.stream(workflowIds)
+                .map(workflowId -> new LazyWorkflowList.WorkflowStub(workflowId, null,
+                        JsonRuntime.jsonMapper().createObjectNode().put("workflowId", workflowId)))
+                .toList();
+        return new LazyWorkflowList(stubs, node ->
+                new LazyWorkflowList.Materialization(workflowOf(node.get("workflowId").asText()), List.of()));
+    }
+
+    private static Workflow workflowOf(final String workflowId) {
+        return Workflow.builder()
+                .workflowId(workflowId)
+                .steps(List.of(Step.builder().stepId("step").operationId("operation").build()))
+                .build();
+    }
+
+    private static ArazzoSpecification specificationOf(final List<Workflow> workflows) {
+        return ArazzoSpecification.builder()
+                .sourceDescriptions(List.of(SourceDescription.builder().name("bakery").url("https://example.com").build()))
+                .workflows(workflows)
+                .build();
+    }
+}
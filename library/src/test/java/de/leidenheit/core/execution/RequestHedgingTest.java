@@ -0,0 +1,216 @@
+package de.leidenheit.core.execution;
+
+import com.sun.net.httpserver.HttpServer;
+import de.leidenheit.core.execution.context.StepTimings;
+import de.leidenheit.core.execution.listener.ExecutionListener;
+import de.leidenheit.core.model.SourceDescription;
+import de.leidenheit.core.model.Step;
+import de.leidenheit.core.model.Workflow;
+import de.leidenheit.infrastructure.transport.AdaptiveConcurrencyLimiter;
+import de.leidenheit.infrastructure.transport.AdaptiveConcurrencyOptions;
+import io.restassured.RestAssured;
+import io.restassured.filter.Filter;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestHedgingTest {
+
+    private static final int SAMPLES = 20;
+
+    private final Workflow workflow = Workflow.builder().workflowId("bakeCookies").build();
+    private final Step step = Step.builder().stepId("bake").operationId("bakeCookies").build();
+    private final AtomicInteger arrivals = new AtomicInteger();
+    private final AtomicInteger completions = new AtomicInteger();
+    // delay of the response to the request arriving as n-th
+    private final Map<Integer, Long> delaysMillis = new ConcurrentHashMap<>();
+    private final List<Boolean> hedges = new CopyOnWriteArrayList<>();
+    private final ExecutionListener listener = new ExecutionListener() {
+        @Override
+        public void onRequestHedged(final Workflow workflow, final Step step, final long sentNanos,
+                                    final long delayNanos, final boolean hedgeWon) {
+            hedges.add(hedgeWon);
+        }
+    };
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(
+            AdaptiveConcurrencyOptions.builder()
+                    .initialLimit(4)
+                    .minimumLimit(1)
+                    .maximumLimit(4)
+                    .backoffRatio(0.5)
+                    .latencyBackoffRatio(0.9)
+                    .latencyTolerance(1_000)
+                    .build());
+    private final RequestHedging requestHedging = new RequestHedging(true, 95, 0.05);
+    private ExecutorService serverExecutor;
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/cookies", exchange -> {
+            int arrival = arrivals.incrementAndGet();
+            try {
+                Thread.sleep(delaysMillis.getOrDefault(arrival, 0L));
+                var body = "response %d".formatted(arrival).getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void testRequestsAreNotHedgedBeforeEnoughSamples() {
+        // given
+        var hedging = requestHedging.filterFor(workflow, step, listener);
+        delaysMillis.put(SAMPLES - 1, 300L);
+
+        // when
+        for (int i = 0; i < SAMPLES - 1; i++) send(hedging);
+
+        // then
+        assertThat(hedges).isEmpty();
+        assertThat(arrivals).hasValue(SAMPLES - 1);
+    }
+
+    @Test
+    void testSlowRequestIsHedgedAndTheHedgeWins() {
+        // given
+        var hedging = requestHedging.filterFor(workflow, step, listener);
+        for (int i = 0; i < SAMPLES; i++) send(hedging);
+        delaysMillis.put(SAMPLES + 1, 3_000L);
+        long startNanos = System.nanoTime();
+
+        // when
+        var response = send(hedging);
+
+        // then
+        assertThat(response).isEqualTo("response %d".formatted(SAMPLES + 2));
+        assertThat(System.nanoTime() - startNanos).isLessThan(TimeUnit.SECONDS.toNanos(2));
+        assertThat(hedges).containsExactly(true);
+        // the aborted request is no congestion
+        assertThat(concurrencyLimiter.getLimit("bakery")).isEqualTo(4);
+    }
+
+    @Test
+    void testPrimaryWinningAbortsTheHedge() throws InterruptedException {
+        // given
+        var hedging = requestHedging.filterFor(workflow, step, listener);
+        for (int i = 0; i < SAMPLES; i++) send(hedging);
+        delaysMillis.put(SAMPLES + 1, 500L);
+        delaysMillis.put(SAMPLES + 2, 5_000L);
+        long startNanos = System.nanoTime();
+
+        // when
+        var response = send(hedging);
+
+        // then
+        assertThat(response).isEqualTo("response %d".formatted(SAMPLES + 1));
+        assertThat(hedges).containsExactly(false);
+        awaitCompletions(SAMPLES + 2);
+        assertThat(System.nanoTime() - startNanos).isLessThan(TimeUnit.SECONDS.toNanos(4));
+        assertThat(concurrencyLimiter.getLimit("bakery")).isEqualTo(4);
+    }
+
+    @Test
+    void testBudgetLimitsHedges() {
+        // given
+        var hedging = requestHedging.filterFor(workflow, step, listener);
+        for (int i = 0; i < SAMPLES; i++) send(hedging);
+        delaysMillis.put(SAMPLES + 1, 1_000L);
+        delaysMillis.put(SAMPLES + 3, 1_000L);
+
+        // when
+        var hedged = send(hedging);
+        var notHedged = send(hedging);
+
+        // then
+        assertThat(hedged).isEqualTo("response %d".formatted(SAMPLES + 2));
+        assertThat(notHedged).isEqualTo("response %d".formatted(SAMPLES + 3));
+        assertThat(hedges).containsExactly(true);
+        assertThat(arrivals).hasValue(SAMPLES + 3);
+    }
+
+    @Test
+    void testUnsafeStepsAreNotHedged() {
+        // given
+        var hedging = requestHedging.filterFor(workflow, step, listener);
+        for (int i = 0; i < SAMPLES; i++) send(hedging);
+        delaysMillis.put(SAMPLES + 1, 300L);
+
+        // when
+        var response = request(hedging).body("chocolate").post("/cookies").asString();
+
+        // then
+        assertThat(response).isEqualTo("response %d".formatted(SAMPLES + 1));
+        assertThat(hedges).isEmpty();
+    }
+
+    private String send(final Filter hedging) {
+        return request(hedging).get("/cookies").asString();
+    }
+
+    private RequestSpecification request(final Filter hedging) {
+        Filter completion = (requestSpec, responseSpec, ctx) -> {
+            try {
+                return ctx.next(requestSpec, responseSpec);
+            } finally {
+                completions.incrementAndGet();
+            }
+        };
+        Filter binding = (requestSpec, responseSpec, ctx) -> {
+            TimingHttpClientFactory.bind(new StepTimings());
+            try {
+                return ctx.next(requestSpec, responseSpec);
+            } finally {
+                TimingHttpClientFactory.unbind();
+            }
+        };
+        return RestAssured.given()
+                .config(RestAssured.config().httpClient(
+                        TimingHttpClientFactory.instrument(RestAssured.config().getHttpClientConfig())))
+                .baseUri("http://localhost:" + server.getAddress().getPort())
+                .filter(binding)
+                .filter(hedging)
+                .filter(concurrencyLimiter.filterFor(SourceDescription.builder().name("bakery").build(), step))
+                .filter(completion)
+                .filter(TimingHttpClientFactory.DISPATCH_FILTER);
+    }
+
+    // the aborted hedge completes in the background
+    private void awaitCompletions(final int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (completions.get() < count && System.nanoTime() < deadline) Thread.sleep(5);
+        assertThat(completions).hasValue(count);
+        // the limiter releases the hedge right after
+        Thread.sleep(50);
+    }
+}
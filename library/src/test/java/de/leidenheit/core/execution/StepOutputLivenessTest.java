@@ -0,0 +1,142 @@
+package de.leidenheit.core.execution;
+
+import de.leidenheit.core.model.Criterion;
+import de.leidenheit.core.model.FailureAction;
+import de.leidenheit.core.model.Step;
+import de.leidenheit.core.model.SuccessAction;
+import de.leidenheit.core.model.Workflow;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StepOutputLivenessTest {
+
+    private static final String COOKIE_ID = "$steps.bake.outputs.id";
+    private static final String COOKIE_IDENTITY = "$steps.bake.outputs.identity";
+
+    @Test
+    void testReleasesOutputsAfterTheirLastUse() {
+        // given
+        var workflow = workflowOf(
+                bake(),
+                step("pack", Map.of("label", "{$steps.bake.outputs.id}")),
+                step("ship", Map.of()));
+
+        // when
+        var liveness = StepOutputLiveness.of(workflow);
+
+        // then
+        assertThat(liveness.releasableAfter(0)).containsExactly(COOKIE_IDENTITY);
+        assertThat(liveness.releasableAfter(1)).containsExactly(COOKIE_ID, "$steps.pack.outputs.label");
+        assertThat(liveness.releasableAfter(2)).isEmpty();
+        assertThat(liveness.releasableAtEnd()).contains(COOKIE_ID, COOKIE_IDENTITY);
+    }
+
+    @Test
+    void testReferencesToAllOutputsOfAStep() {
+        // given
+        var workflow = workflowOf(
+                bake(),
+                step("pack", Map.of()),
+                step("ship", Map.of("cookie", "$steps.bake.outputs")));
+
+        // when
+        var liveness = StepOutputLiveness.of(workflow);
+
+        // then
+        assertThat(liveness.releasableAfter(0)).isEmpty();
+        assertThat(liveness.releasableAfter(2)).contains(COOKIE_ID, COOKIE_IDENTITY);
+    }
+
+    @Test
+    void testBackwardGotoKeepsOutputsAliveAcrossTheLoop() {
+        // given
+        var inspect = step("inspect", Map.of());
+        inspect.setOnSuccess(List.of(SuccessAction.builder()
+                .name("rebake").type(SuccessAction.SuccessActionType.GOTO).stepId("pack").build()));
+        var workflow = workflowOf(
+                bake(),
+                step("pack", Map.of("label", "$steps.bake.outputs.id")),
+                inspect,
+                step("ship", Map.of()));
+
+        // when
+        var liveness = StepOutputLiveness.of(workflow);
+
+        // then
+        assertThat(liveness.releasableAfter(1)).doesNotContain(COOKIE_ID);
+        assertThat(liveness.releasableAfter(2)).doesNotContain(COOKIE_ID);
+        assertThat(liveness.releasableAfter(3)).contains(COOKIE_ID);
+    }
+
+    @Test
+    void testRetryWithStepIdKeepsOutputsAliveAcrossTheLoop() {
+        // given
+        var inspect = step("inspect", Map.of());
+        inspect.setOnFailure(List.of(FailureAction.builder()
+                .name("rebake").type(FailureAction.FailureActionType.RETRY).stepId("bake").retryLimit(3).build()));
+        var workflow = workflowOf(
+                bake(),
+                step("pack", Map.of("label", "$steps.bake.outputs.id")),
+                inspect,
+                step("ship", Map.of()));
+
+        // when
+        var liveness = StepOutputLiveness.of(workflow);
+
+        // then
+        assertThat(liveness.releasableAfter(0)).isEmpty();
+        assertThat(liveness.releasableAfter(1)).doesNotContain(COOKIE_ID);
+        assertThat(liveness.releasableAfter(3)).contains(COOKIE_ID, COOKIE_IDENTITY);
+    }
+
+    @Test
+    void testWorkflowActionsKeepOutputsAliveUntilTheEnd() {
+        // given
+        var workflow = workflowOf(
+                bake(),
+                step("pack", Map.of()),
+                step("ship", Map.of()));
+        workflow.setFailureActions(List.of(FailureAction.builder()
+                .name("giveUp").type(FailureAction.FailureActionType.END)
+                .criteria(List.of(Criterion.builder().condition("$steps.bake.outputs.id == 0").build()))
+                .build()));
+
+        // when
+        var liveness = StepOutputLiveness.of(workflow);
+
+        // then
+        assertThat(liveness.releasableAfter(0)).containsExactly(COOKIE_IDENTITY);
+        assertThat(liveness.releasableAfter(2)).doesNotContain(COOKIE_ID);
+        assertThat(liveness.releasableAtEnd()).contains(COOKIE_ID);
+    }
+
+    @Test
+    void testOutputsOfTheWorkflowAreNeverReleased() {
+        // given
+        var workflow = workflowOf(bake());
+        workflow.setOutputs(Map.of("cookieId", "$steps.bake.outputs.id"));
+
+        // when
+        var liveness = StepOutputLiveness.of(workflow);
+
+        // then
+        assertThat(liveness.releasableAfter(0)).containsExactly(COOKIE_IDENTITY);
+        assertThat(liveness.releasableAtEnd()).containsExactly(COOKIE_IDENTITY);
+    }
+
+    private static Step bake() {
+        return step("bake", Map.of("id", "$response.body#/id", "identity", "$response.body#/identity"));
+    }
+
+    private static Step step(final String stepId, final Map<String, Object> outputs) {
+        return Step.builder().stepId(stepId).operationId(stepId).outputs(outputs).build();
+    }
+
+    private static Workflow workflowOf(final Step... steps) {
+        return Workflow.builder().workflowId("bakeCookies").steps(List.of(steps)).build();
+    }
+}
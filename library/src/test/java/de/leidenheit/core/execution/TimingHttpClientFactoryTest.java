@@ -0,0 +1,87 @@
+package de.leidenheit.core.execution;
+
+import com.sun.net.httpserver.HttpServer;
+import de.leidenheit.core.execution.context.StepTimings;
+import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import org.apache.http.impl.client.AbstractHttpClient;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SuppressWarnings("deprecation")
+class TimingHttpClientFactoryTest {
+
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/cookies", exchange -> {
+            var body = "[\"Chocolate Chip\"]".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void testInstrumentsClientsOfTheConfiguredFactory() {
+        // given
+        var configuredClient = new DefaultHttpClient();
+        int requestInterceptorCount = configuredClient.getRequestInterceptorCount();
+        int responseInterceptorCount = configuredClient.getResponseInterceptorCount();
+        var httpClientConfig = HttpClientConfig.httpClientConfig()
+                .httpClientFactory(() -> configuredClient)
+                .reuseHttpClientInstance();
+
+        // when
+        var instrumented = TimingHttpClientFactory.instrument(httpClientConfig);
+        var httpClient = (AbstractHttpClient) instrumented.httpClientInstance();
+        TimingHttpClientFactory.instrument(httpClientConfig).httpClientInstance();
+
+        // then
+        assertThat(httpClient).isSameAs(configuredClient);
+        assertThat(TimingHttpClientFactory.instrument(httpClientConfig)).isSameAs(instrumented);
+        // interceptors are added once although the instance is reused
+        assertThat(httpClient.getRequestInterceptorCount()).isEqualTo(requestInterceptorCount + 1);
+        assertThat(httpClient.getResponseInterceptorCount()).isEqualTo(responseInterceptorCount + 1);
+    }
+
+    @Test
+    void testRecordsTimingsOfTheBoundThread() {
+        // given
+        var timings = new StepTimings();
+        var request = RestAssured.given()
+                .config(RestAssured.config().httpClient(
+                        TimingHttpClientFactory.instrument(RestAssured.config().getHttpClientConfig())))
+                .baseUri("http://localhost:" + server.getAddress().getPort())
+                .filter(TimingHttpClientFactory.DISPATCH_FILTER);
+
+        // when
+        TimingHttpClientFactory.bind(timings);
+        try {
+            request.get("/cookies").then().statusCode(200);
+        } finally {
+            TimingHttpClientFactory.unbind();
+        }
+
+        // then
+        assertThat(timings.getConnectionAcquisitionNanos()).isPositive();
+        assertThat(timings.getTimeToFirstByteNanos()).isPositive();
+        assertThat(TimingHttpClientFactory.responseHeadersReceivedNanos()).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,105 @@
+package de.leidenheit.core.execution;
+
+import de.leidenheit.core.model.FailureAction;
+import de.leidenheit.core.model.Step;
+import de.leidenheit.core.model.SuccessAction;
+import de.leidenheit.core.model.Workflow;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkflowStateMachineTest {
+
+    private final SuccessAction gotoShip = SuccessAction.builder()
+            .name("ship").type(SuccessAction.SuccessActionType.GOTO).stepId("ship").build();
+    private final FailureAction retryWithBake = FailureAction.builder()
+            .name("rebake").type(FailureAction.FailureActionType.RETRY).stepId("$steps.bake").retryLimit(2).build();
+    private final FailureAction gotoUnknown = FailureAction.builder()
+            .name("unknown").type(FailureAction.FailureActionType.GOTO).stepId("discard").build();
+    private final SuccessAction gotoBake = SuccessAction.builder()
+            .name("bakeAgain").type(SuccessAction.SuccessActionType.GOTO).stepId("bake").build();
+
+    @Test
+    void testStepsAreAddressedByIndex() {
+        // given
+        var workflow = workflow();
+
+        // when
+        var stateMachine = WorkflowStateMachine.of(workflow);
+
+        // then
+        assertThat(stateMachine.stepCount()).isEqualTo(3);
+        assertThat(stateMachine.step(1).getStepId()).isEqualTo("pack");
+        assertThat(stateMachine.stepKey(2)).isEqualTo("bakeCookies.ship");
+        assertThat(stateMachine.newRetryCounters()).containsExactly(0, 0, 0);
+        assertThat(stateMachine.newRetryCounters()).isNotSameAs(stateMachine.newRetryCounters());
+    }
+
+    @Test
+    void testTargetsOfStepActions() {
+        // given
+        var stateMachine = WorkflowStateMachine.of(workflow());
+
+        // when / then
+        assertThat(stateMachine.targetOf(0, gotoShip)).isEqualTo(2);
+        // retries reference the step to run first like the executor looks it up
+        assertThat(stateMachine.targetOf(1, retryWithBake)).isZero();
+        assertThat(stateMachine.targetOf(1, gotoUnknown)).isEqualTo(-1);
+    }
+
+    @Test
+    void testTargetsOfWorkflowActions() {
+        // given
+        var stateMachine = WorkflowStateMachine.of(workflow());
+
+        // when / then
+        assertThat(stateMachine.workflowSuccessActions()).containsExactly(gotoBake);
+        assertThat(stateMachine.workflowFailureActions()).isEmpty();
+        assertThat(stateMachine.targetOf(2, gotoBake)).isZero();
+    }
+
+    @Test
+    void testActionsAreMatchedByIdentity() {
+        // given
+        var stateMachine = WorkflowStateMachine.of(workflow());
+        var equalAction = SuccessAction.builder()
+                .name("ship").type(SuccessAction.SuccessActionType.GOTO).stepId("ship").build();
+
+        // when / then
+        assertThat(equalAction).isEqualTo(gotoShip);
+        assertThat(stateMachine.targetOf(0, equalAction)).isEqualTo(-1);
+    }
+
+    @Test
+    void testIsCachedPerWorkflowInstance() {
+        // given
+        var workflow = workflow();
+
+        // when / then
+        assertThat(WorkflowStateMachine.of(workflow)).isSameAs(WorkflowStateMachine.of(workflow));
+        assertThat(WorkflowStateMachine.of(workflow)).isNotSameAs(WorkflowStateMachine.of(workflow()));
+    }
+
+    @Test
+    void testWorkflowWithoutSteps() {
+        // when
+        var stateMachine = WorkflowStateMachine.of(Workflow.builder().workflowId("empty").build());
+
+        // then
+        assertThat(stateMachine.stepCount()).isZero();
+        assertThat(stateMachine.workflowSuccessActions()).isEmpty();
+    }
+
+    private Workflow workflow() {
+        return Workflow.builder()
+                .workflowId("bakeCookies")
+                .steps(List.of(
+                        Step.builder().stepId("bake").onSuccess(List.of(gotoShip)).build(),
+                        Step.builder().stepId("pack").onFailure(List.of(retryWithBake, gotoUnknown)).build(),
+                        Step.builder().stepId("ship").build()))
+                .successActions(List.of(gotoBake))
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package de.leidenheit.core.execution.context;
+
+import de.leidenheit.core.model.ArazzoSpecification;
+import de.leidenheit.core.model.Workflow;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkflowOutputStoreTest {
+
+    // pack depends on bake and ship on pack, whereas nothing depends on taste
+    private final ArazzoSpecification arazzo = ArazzoSpecification.builder()
+            .workflows(List.of(
+                    Workflow.builder().workflowId("bake").build(),
+                    Workflow.builder().workflowId("pack").dependsOn(List.of("bake")).build(),
+                    Workflow.builder().workflowId("ship").dependsOn(List.of("pack")).build(),
+                    Workflow.builder().workflowId("taste").build()))
+            .build();
+    private final List<String> workflowIds = List.of("bake", "pack", "ship", "taste");
+
+    @Test
+    void testRetainKeepsAllOutputs() {
+        // given
+        var store = WorkflowOutputStore.forWorkflows(arazzo, workflowIds, WorkflowOutputStore.ReleasePolicy.RETAIN);
+
+        // when
+        workflowIds.forEach(workflowId -> store.put(workflowId, outputsOf(workflowId)));
+
+        // then
+        assertThat(store.snapshot()).containsOnlyKeys(workflowIds);
+        assertThat(store.get("bake", "name")).isEqualTo("bake cookies");
+    }
+
+    @Test
+    void testEvictDropsOutputsOnceTheirDependentsCompleted() {
+        // given
+        var store = WorkflowOutputStore.forWorkflows(arazzo, workflowIds, WorkflowOutputStore.ReleasePolicy.EVICT);
+
+        // when
+        store.put("bake", outputsOf("bake"));
+        var outputsOfBakeBeforePacking = store.get("bake");
+        store.put("pack", outputsOf("pack"));
+        store.put("taste", outputsOf("taste"));
+
+        // then
+        assertThat(outputsOfBakeBeforePacking).containsEntry("name", "bake cookies");
+        assertThat(store.get("bake")).isNull();
+        assertThat(store.isSpilled("bake")).isFalse();
+        // outputs are kept while a dependent is pending or when there is none
+        assertThat(store.snapshot()).containsOnlyKeys("pack", "taste");
+    }
+
+    @Test
+    void testSpillMovesOutputsToDiskOnceTheirDependentsCompleted() {
+        // given
+        var store = WorkflowOutputStore.forWorkflows(arazzo, workflowIds, WorkflowOutputStore.ReleasePolicy.SPILL);
+
+        // when
+        workflowIds.forEach(workflowId -> store.put(workflowId, outputsOf(workflowId)));
+
+        // then
+        assertThat(store.snapshot()).containsOnlyKeys("ship", "taste");
+        assertThat(store.isSpilled("bake")).isTrue();
+        assertThat(store.isSpilled("pack")).isTrue();
+        assertThat(store.get("bake")).containsExactlyEntriesOf(outputsOf("bake"));
+        assertThat(store.get("pack", "count")).isEqualTo(4);
+    }
+
+    @Test
+    void testOutputsOfWorkflowsOutsideTheRunAreRetained() {
+        // given
+        var store = WorkflowOutputStore.forWorkflows(arazzo, List.of("bake"), WorkflowOutputStore.ReleasePolicy.EVICT);
+
+        // when
+        store.put("bake", outputsOf("bake"));
+        store.put("pack", outputsOf("pack"));
+
+        // then
+        assertThat(store.snapshot()).containsOnlyKeys("bake", "pack");
+    }
+
+    private static Map<String, Object> outputsOf(final String workflowId) {
+        return Map.of("name", "%s cookies".formatted(workflowId), "count", workflowId.length());
+    }
+}
@@ -0,0 +1,77 @@
+package de.leidenheit.core.execution.jfr;
+
+import de.leidenheit.core.model.Step;
+import de.leidenheit.core.model.Workflow;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JfrExecutionListenerTest {
+
+    private static final String STEP_EVENT = "de.leidenheit.arazzo.Step";
+
+    private final JfrExecutionListener listener = new JfrExecutionListener();
+    private final Workflow workflow = Workflow.builder().workflowId("bakeCookies").build();
+    private final Step outerStep = Step.builder().stepId("bake").workflowId("prepareDough").build();
+    private final Step innerStep = Step.builder().stepId("knead").operationId("kneadDough").build();
+
+    @Test
+    void testEmitsStepEventsWhileRecording(@TempDir final Path directory) throws IOException {
+        // given
+        var recordingPath = directory.resolve("enabled.jfr");
+
+        // when
+        try (var recording = new Recording()) {
+            recording.enable(STEP_EVENT);
+            recording.start();
+            listener.onStepStart(workflow, innerStep, System.nanoTime());
+            listener.onResponseReceived(workflow, innerStep, 200, System.nanoTime(), 0);
+            listener.onStepEnd(workflow, innerStep, System.nanoTime(), 0, true);
+            recording.stop();
+            recording.dump(recordingPath);
+        }
+
+        // then
+        var events = stepEventsOf(recordingPath);
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getString("stepId")).isEqualTo("knead");
+        assertThat(events.get(0).getString("operation")).isEqualTo("kneadDough");
+        assertThat(events.get(0).getInt("statusCode")).isEqualTo(200);
+    }
+
+    @Test
+    void testStepsStartedWhileDisabledAreNotEmitted(@TempDir final Path directory) throws IOException {
+        // given
+        var recordingPath = directory.resolve("started.jfr");
+        listener.onStepStart(workflow, outerStep, System.nanoTime());
+
+        // when
+        try (var recording = new Recording()) {
+            recording.enable(STEP_EVENT);
+            recording.start();
+            listener.onStepStart(workflow, innerStep, System.nanoTime());
+            listener.onStepEnd(workflow, innerStep, System.nanoTime(), 0, true);
+            listener.onStepEnd(workflow, outerStep, System.nanoTime(), 0, true);
+            recording.stop();
+            recording.dump(recordingPath);
+        }
+
+        // then
+        var events = stepEventsOf(recordingPath);
+        assertThat(events).extracting(event -> event.getString("stepId")).containsExactly("knead");
+    }
+
+    private static List<RecordedEvent> stepEventsOf(final Path recordingPath) throws IOException {
+        return RecordingFile.readAllEvents(recordingPath).stream()
+                .filter(event -> STEP_EVENT.equals(event.getEventType().getName()))
+                .toList();
+    }
+}
@@ -0,0 +1,19 @@
+package de.leidenheit.core.execution.listener;
+
+import de.leidenheit.core.model.Workflow;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Listener provided through the service file of the test resources.
+ */
+public class DiscoveredExecutionListener implements ExecutionListener {
+
+    static final List<Workflow> STARTED_WORKFLOWS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void onWorkflowStart(final Workflow workflow, final long startNanos) {
+        STARTED_WORKFLOWS.add(workflow);
+    }
+}
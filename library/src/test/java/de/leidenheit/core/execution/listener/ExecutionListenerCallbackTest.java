@@ -0,0 +1,192 @@
+package de.leidenheit.core.execution.listener;
+
+import com.sun.net.httpserver.HttpServer;
+import de.leidenheit.core.execution.ArazzoWorkflowExecutor;
+import de.leidenheit.core.execution.context.StepTimings;
+import de.leidenheit.core.execution.context.WorkflowOutputStore;
+import de.leidenheit.core.model.ArazzoSpecification;
+import de.leidenheit.core.model.Criterion;
+import de.leidenheit.core.model.Step;
+import de.leidenheit.core.model.Workflow;
+import de.leidenheit.infrastructure.parsing.ArazzoParseOptions;
+import de.leidenheit.infrastructure.parsing.ArazzoParser;
+import de.leidenheit.infrastructure.parsing.SourceDescriptionInitializer;
+import de.leidenheit.infrastructure.resolving.ExpressionCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExecutionListenerCallbackTest {
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<String> callbacks = new CopyOnWriteArrayList<>();
+    private final ExecutionListener listener = new ExecutionListener() {
+        @Override
+        public void onWorkflowStart(final Workflow workflow, final long startNanos) {
+            callbacks.add("workflowStart");
+        }
+
+        @Override
+        public void onWorkflowEnd(final Workflow workflow, final long startNanos, final long durationNanos, final boolean completed) {
+            callbacks.add("workflowEnd completed=" + completed);
+        }
+
+        @Override
+        public void onStepStart(final Workflow workflow, final Step step, final long startNanos) {
+            callbacks.add("stepStart " + step.getStepId());
+        }
+
+        @Override
+        public void onStepEnd(final Workflow workflow, final Step step, final long startNanos, final long durationNanos, final boolean successful) {
+            callbacks.add("stepEnd " + step.getStepId() + " successful=" + successful);
+        }
+
+        @Override
+        public void onStepTimings(final Workflow workflow, final Step step, final StepTimings timings) {
+            callbacks.add("stepTimings " + step.getStepId());
+        }
+
+        @Override
+        public void onRequestSent(final Workflow workflow, final Step step, final String method, final String url, final long sentNanos) {
+            callbacks.add("requestSent " + method);
+        }
+
+        @Override
+        public void onResponseReceived(final Workflow workflow, final Step step, final int statusCode, final long sentNanos, final long latencyNanos) {
+            callbacks.add("responseReceived " + statusCode);
+        }
+
+        @Override
+        public void onCriterionEvaluated(final Workflow workflow, final Step step, final Criterion criterion, final boolean satisfied, final long startNanos, final long durationNanos) {
+            callbacks.add("criterionEvaluated " + satisfied);
+        }
+
+        @Override
+        public void onActionChosen(final Workflow workflow, final Step step, final String actionName, final String actionType, final long chosenNanos) {
+            callbacks.add("actionChosen " + actionType);
+        }
+
+        @Override
+        public void onRetryScheduled(final Workflow workflow, final Step step, final int attempt, final int retryLimit, final long scheduledNanos, final long delayNanos) {
+            callbacks.add("retryScheduled %d/%d".formatted(attempt, retryLimit));
+        }
+
+        @Override
+        public void onExpressionCacheStatistics(final Workflow workflow, final ExpressionCache.Statistics statistics) {
+            callbacks.add("expressionCacheStatistics");
+        }
+    };
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        // the oven is not ready for the first request
+        server.createContext("/cookies", exchange -> {
+            var body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(requests.incrementAndGet() == 1 ? 503 : 200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void testCallbacksAroundARetriedStep(@TempDir final Path directory) throws IOException {
+        // given
+        var arazzo = readArazzo(directory);
+        var executor = new ArazzoWorkflowExecutor(arazzo, Map.of(), WorkflowOutputStore.of(Map.of()), listener);
+
+        // when
+        executor.executeWorkflow(arazzo.getWorkflows().get(0));
+
+        // then
+        assertThat(callbacks).containsExactly(
+                "workflowStart",
+                "stepStart bake",
+                "requestSent GET",
+                "responseReceived 503",
+                "criterionEvaluated false",
+                // criterion of the retry action
+                "criterionEvaluated true",
+                "stepTimings bake",
+                "stepEnd bake successful=false",
+                "actionChosen RETRY",
+                "retryScheduled 2/3",
+                "stepStart bake",
+                "requestSent GET",
+                "responseReceived 200",
+                "criterionEvaluated true",
+                "stepTimings bake",
+                "stepEnd bake successful=true",
+                "expressionCacheStatistics",
+                "workflowEnd completed=true");
+    }
+
+    private ArazzoSpecification readArazzo(final Path directory) throws IOException {
+        var openApiPath = directory.resolve("bakery.openapi.yaml");
+        Files.writeString(openApiPath, """
+                openapi: 3.0.3
+                info:
+                  title: Bakery
+                  version: 1.0.0
+                servers:
+                  - url: http://localhost:%d
+                paths:
+                  /cookies:
+                    get:
+                      operationId: findCookies
+                      responses:
+                        '200':
+                          description: The cookies
+                """.formatted(server.getAddress().getPort()));
+        var arazzoPath = directory.resolve("bakery.arazzo.yaml");
+        Files.writeString(arazzoPath, """
+                arazzo: 1.0.0
+                info:
+                  title: Bakery
+                  version: 1.0.0
+                sourceDescriptions:
+                  - name: bakery
+                    url: %s
+                    type: openapi
+                workflows:
+                  - workflowId: bakeCookies
+                    steps:
+                      - stepId: bake
+                        operationId: $sourceDescriptions.bakery.findCookies
+                        successCriteria:
+                          - condition: $statusCode == 200
+                        onFailure:
+                          - name: waitForTheOven
+                            type: retry
+                            retryAfter: 0
+                            retryLimit: 3
+                            criteria:
+                              - condition: $statusCode == 503
+                """.formatted(openApiPath));
+        var parseResult = new ArazzoParser().readLocation(arazzoPath.toString(), ArazzoParseOptions.ofDefault());
+        assertThat(parseResult.isInvalid()).isFalse();
+        SourceDescriptionInitializer.initialize(parseResult.getArazzo());
+        return parseResult.getArazzo();
+    }
+}
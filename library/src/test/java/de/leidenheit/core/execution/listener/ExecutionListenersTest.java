@@ -0,0 +1,70 @@
+package de.leidenheit.core.execution.listener;
+
+import de.leidenheit.core.model.Workflow;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExecutionListenersTest {
+
+    private final Workflow workflow = Workflow.builder().workflowId("bakeCookies").build();
+
+    @Test
+    void testDiscoveredListenersAreNotified() {
+        // when
+        ExecutionListeners.current().onWorkflowStart(workflow, System.nanoTime());
+
+        // then
+        assertThat(DiscoveredExecutionListener.STARTED_WORKFLOWS).anyMatch(started -> started == workflow);
+    }
+
+    @Test
+    void testRegisteredListenersAreNotifiedUntilUnregistered() {
+        // given
+        List<String> notified = new ArrayList<>();
+        ExecutionListener listener = new ExecutionListener() {
+            @Override
+            public void onWorkflowStart(final Workflow workflow, final long startNanos) {
+                notified.add(workflow.getWorkflowId());
+            }
+        };
+
+        // when
+        ExecutionListeners.register(listener);
+        try {
+            ExecutionListeners.current().onWorkflowStart(workflow, System.nanoTime());
+        } finally {
+            ExecutionListeners.unregister(listener);
+        }
+        ExecutionListeners.current().onWorkflowStart(workflow, System.nanoTime());
+
+        // then
+        assertThat(notified).containsExactly("bakeCookies");
+    }
+
+    @Test
+    void testDiscoveredListenersAreNotifiedBeforeRegisteredOnes() {
+        // given
+        List<Boolean> discoveredFirst = new ArrayList<>();
+        ExecutionListener listener = new ExecutionListener() {
+            @Override
+            public void onWorkflowStart(final Workflow started, final long startNanos) {
+                discoveredFirst.add(DiscoveredExecutionListener.STARTED_WORKFLOWS.stream().anyMatch(w -> w == started));
+            }
+        };
+
+        // when
+        ExecutionListeners.register(listener);
+        try {
+            ExecutionListeners.current().onWorkflowStart(Workflow.builder().workflowId("packCookies").build(), System.nanoTime());
+        } finally {
+            ExecutionListeners.unregister(listener);
+        }
+
+        // then
+        assertThat(discoveredFirst).containsExactly(true);
+    }
+}
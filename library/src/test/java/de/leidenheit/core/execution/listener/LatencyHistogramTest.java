@@ -0,0 +1,91 @@
+package de.leidenheit.core.execution.listener;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testStatisticsOfRecordedValues() {
+        // given
+        var histogram = new LatencyHistogram();
+
+        // when
+        LongStream.rangeClosed(1, 100).forEach(histogram::record);
+
+        // then
+        assertThat(histogram.getCount()).isEqualTo(100);
+        assertThat(histogram.getTotalNanos()).isEqualTo(5050);
+        assertThat(histogram.getMinNanos()).isEqualTo(1);
+        assertThat(histogram.getMaxNanos()).isEqualTo(100);
+        assertThat(histogram.getMeanNanos()).isEqualTo(50.5);
+    }
+
+    @Test
+    void testPercentilesAreUpperBoundsOfTheirBucket() {
+        // given
+        var histogram = new LatencyHistogram();
+
+        // when
+        LongStream.rangeClosed(1, 100).forEach(histogram::record);
+
+        // then
+        // 50 falls into the bucket [48, 51] of the magnitude [32, 63] split into eight buckets of four
+        assertThat(histogram.getPercentileNanos(50)).isEqualTo(51);
+        // 99 falls into the bucket [96, 103], which is capped at the maximum recorded value
+        assertThat(histogram.getPercentileNanos(99)).isEqualTo(100);
+        assertThat(histogram.getPercentileNanos(100)).isEqualTo(100);
+        assertThat(histogram.getPercentileNanos(0)).isEqualTo(1);
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        // given
+        var histogram = new LatencyHistogram();
+
+        // when
+        LongStream.range(0, 8).forEach(histogram::record);
+
+        // then
+        assertThat(histogram.getPercentileNanos(25)).isEqualTo(1);
+        assertThat(histogram.getPercentileNanos(50)).isEqualTo(3);
+        assertThat(histogram.getPercentileNanos(75)).isEqualTo(5);
+    }
+
+    @Test
+    void testRelativeErrorIsBelowAnEighth() {
+        for (long value = 8; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+            // given
+            var histogram = new LatencyHistogram();
+            histogram.record(value);
+            // a larger value keeps the percentile from being capped at the maximum
+            histogram.record(Long.MAX_VALUE / 2);
+
+            // when
+            long percentile = histogram.getPercentileNanos(50);
+
+            // then
+            assertThat(percentile).isBetween(value, value + value / 8);
+        }
+    }
+
+    @Test
+    void testEmptyAndNegativeValues() {
+        // given
+        var empty = new LatencyHistogram();
+        var negative = new LatencyHistogram();
+
+        // when
+        negative.record(-5);
+
+        // then
+        assertThat(empty.getPercentileNanos(99)).isZero();
+        assertThat(empty.getMinNanos()).isZero();
+        assertThat(empty.getMeanNanos()).isZero();
+        assertThat(negative.getMinNanos()).isZero();
+        assertThat(negative.getPercentileNanos(50)).isZero();
+    }
+}
@@ -0,0 +1,122 @@
+package de.leidenheit.core.execution.transport;
+
+import de.leidenheit.core.model.SourceDescription;
+import de.leidenheit.core.model.Step;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StepTransportsTest {
+
+    private final List<StepTransport> registered = new ArrayList<>();
+
+    @AfterEach
+    void unregister() {
+        registered.forEach(StepTransports::unregister);
+    }
+
+    @Test
+    void testTransportsAreSelectedByStageInTheOrderOfTheirRegistration() {
+        // given
+        var concurrencyLimiter = transport(StepTransport.Stage.CONCURRENCY_LIMITING, true);
+        var rateLimiter = transport(StepTransport.Stage.RATE_LIMITING, true);
+        var cache = transport(StepTransport.Stage.RESPONDING, true);
+        var singleFlight = transport(StepTransport.Stage.COALESCING, true);
+        var stub = transport(StepTransport.Stage.RESPONDING, true);
+
+        // when
+        List.of(concurrencyLimiter, rateLimiter, cache, singleFlight, stub).forEach(this::register);
+
+        // then
+        assertThat(applicableTo(StepTransport.Stage.RESPONDING)).containsExactly(cache, stub);
+        assertThat(applicableTo(StepTransport.Stage.COALESCING)).containsExactly(singleFlight);
+        assertThat(applicableTo(StepTransport.Stage.RATE_LIMITING)).containsExactly(rateLimiter);
+        assertThat(applicableTo(StepTransport.Stage.CONCURRENCY_LIMITING)).containsExactly(concurrencyLimiter);
+    }
+
+    @Test
+    void testTransportsNotApplyingAreLeftOut() {
+        // given
+        var applying = transport(StepTransport.Stage.RESPONDING, true);
+        register(transport(StepTransport.Stage.RESPONDING, false));
+        register(applying);
+
+        // when
+        var transports = applicableTo(StepTransport.Stage.RESPONDING);
+
+        // then
+        assertThat(transports).containsExactly(applying);
+    }
+
+    @Test
+    void testTransportsAreBoundToTheSourceDescription() {
+        // given
+        var bakery = SourceDescription.builder().name("bakery").build();
+        var step = Step.builder().stepId("bake").build();
+        var bound = transport(StepTransport.Stage.RATE_LIMITING, true);
+        register(new StepTransport() {
+            @Override
+            public Stage stage() {
+                return Stage.RATE_LIMITING;
+            }
+
+            @Override
+            public Filter filterFor(final SourceDescription sourceDescription, final Step filteredStep) {
+                return sourceDescription == bakery && filteredStep == step ? bound : this;
+            }
+
+            @Override
+            public Response filter(final FilterableRequestSpecification requestSpec,
+                                   final FilterableResponseSpecification responseSpec,
+                                   final FilterContext ctx) {
+                return ctx.next(requestSpec, responseSpec);
+            }
+        });
+
+        // when
+        var transports = StepTransports.applicableTo(bakery, step, StepTransport.Stage.RATE_LIMITING);
+
+        // then
+        assertThat(transports).containsExactly(bound);
+        assertThat(StepTransports.applicableTo(bakery, step, StepTransport.Stage.RESPONDING)).isEmpty();
+    }
+
+    private static List<Filter> applicableTo(final StepTransport.Stage stage) {
+        return StepTransports.applicableTo(SourceDescription.builder().build(), Step.builder().build(), stage);
+    }
+
+    private void register(final StepTransport transport) {
+        registered.add(transport);
+        StepTransports.register(transport);
+    }
+
+    private static StepTransport transport(final StepTransport.Stage stage, final boolean applies) {
+        return new StepTransport() {
+            @Override
+            public Stage stage() {
+                return stage;
+            }
+
+            @Override
+            public boolean appliesTo(final SourceDescription sourceDescription) {
+                return applies;
+            }
+
+            @Override
+            public Response filter(final FilterableRequestSpecification requestSpec,
+                                   final FilterableResponseSpecification responseSpec,
+                                   final FilterContext ctx) {
+                return ctx.next(requestSpec, responseSpec);
+            }
+        };
+    }
+}
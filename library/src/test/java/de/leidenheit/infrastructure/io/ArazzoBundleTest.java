@@ -0,0 +1,50 @@
+package de.leidenheit.infrastructure.io;
+
+import de.leidenheit.core.exception.ItarazzoUnsupportedException;
+import de.leidenheit.core.model.SourceDescription;
+import de.leidenheit.infrastructure.json.JsonRuntime;
+import de.leidenheit.infrastructure.parsing.ArazzoParseOptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArazzoBundleTest {
+
+    private static final String ARAZZO_FILE = "./src/test/resources/bundle/minimal.arazzo.yaml";
+
+    @Test
+    void testReadBundleWritten(@TempDir final Path directory) {
+        // given
+        var bundlePath = directory.resolve("minimal.arazzo.bundle");
+        ArazzoBundle.write(ARAZZO_FILE, bundlePath);
+
+        // when
+        var arazzo = ArazzoBundle.read(bundlePath, ArazzoParseOptions.ofDefault());
+
+        // then
+        assertThat(arazzo.getWorkflows()).hasSize(1);
+        assertThat(arazzo.getWorkflows().get(0).getWorkflowId()).isEqualTo("findPet");
+        var sourceDescription = arazzo.getSourceDescriptions().get(0);
+        assertThat(sourceDescription.getReferencedOpenAPI().getPaths()).containsKey("/pets/{id}");
+        assertThat(sourceDescription.getOperationRoutes())
+                .containsEntry("findPetById", new SourceDescription.OperationRoute("/pets/{id}", "GET"));
+    }
+
+    @Test
+    void testReadBundleOfOtherFormatVersion(@TempDir final Path directory) throws IOException {
+        // given
+        var bundlePath = directory.resolve("other.arazzo.bundle");
+        var bundleNode = JsonRuntime.smileMapper().createObjectNode().put("formatVersion", 0);
+        JsonRuntime.smileMapper().writeValue(bundlePath.toFile(), bundleNode);
+
+        // when / then
+        assertThatThrownBy(() -> ArazzoBundle.read(bundlePath, ArazzoParseOptions.ofDefault()))
+                .isInstanceOf(ItarazzoUnsupportedException.class)
+                .hasMessageContaining("format version '0'");
+    }
+}
@@ -0,0 +1,95 @@
+package de.leidenheit.infrastructure.io;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import de.leidenheit.core.exception.ItarazzoIllegalStateException;
+import de.leidenheit.core.model.ArazzoSpecification;
+import de.leidenheit.core.model.Components;
+import de.leidenheit.infrastructure.json.JsonRuntime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArazzoInputsReaderTest {
+
+    private static final String POINTER = "#/workflows/findPet/inputs";
+
+    @Test
+    void testSchemasAreCachedPerSpecification(@TempDir final Path directory) throws IOException {
+        // given
+        var inputsPath = writeInputs(directory, "{\"id\": 4}");
+        var integerSchema = schema("{\"type\": \"object\", \"properties\": {\"id\": {\"type\": \"integer\"}}}");
+        var stringSchema = schema("{\"type\": \"object\", \"properties\": {\"id\": {\"type\": \"string\"}}}");
+
+        // when
+        var inputs = ArazzoInputsReader.parseAndValidateInputs(new ArazzoSpecification(), inputsPath, integerSchema, POINTER);
+
+        // then
+        assertThat(inputs).isEqualTo(Map.of("id", 4));
+        // an equal specification at the same pointer is not served the schema compiled for the other one
+        assertThatThrownBy(() -> ArazzoInputsReader.parseAndValidateInputs(new ArazzoSpecification(), inputsPath, stringSchema, POINTER))
+                .isInstanceOf(ItarazzoIllegalStateException.class)
+                .hasMessageContaining("#/id");
+    }
+
+    @Test
+    void testSchemasReferencedByComponents(@TempDir final Path directory) throws IOException {
+        // given
+        var inputsPath = writeInputs(directory, "{\"id\": \"four\"}");
+        var arazzo = ArazzoSpecification.builder()
+                .components(Components.builder()
+                        .inputs(Map.of("pet", schema("{\"type\": \"object\", \"required\": [\"id\"]}")))
+                        .build())
+                .build();
+
+        // when
+        var inputs = ArazzoInputsReader.parseAndValidateInputs(arazzo, inputsPath,
+                schema("{\"$ref\": \"#/components/inputs/pet\"}"));
+
+        // then
+        assertThat(inputs).isEqualTo(Map.of("id", "four"));
+    }
+
+    @Test
+    void testDecimalsKeepTheirPrecision(@TempDir final Path directory) throws IOException {
+        // given
+        var inputsPath = writeInputs(directory, "{\"price\": 0.3}");
+        var priceSchema = schema("""
+                {"type": "object", "properties": {"price": {"type": "number", "multipleOf": 0.1, "maximum": 0.3}}}
+                """);
+
+        // when
+        var inputs = ArazzoInputsReader.parseAndValidateInputs(new ArazzoSpecification(), inputsPath, priceSchema);
+
+        // then
+        assertThat(inputs.get("price")).isEqualTo(0.3);
+    }
+
+    @Test
+    void testMissingInputsFile(@TempDir final Path directory) throws JsonProcessingException {
+        // given
+        var inputsPath = directory.resolve("missing.json").toString();
+
+        // when / then
+        assertThatThrownBy(() -> ArazzoInputsReader.parseAndValidateInputs(new ArazzoSpecification(), inputsPath,
+                schema("{\"type\": \"object\"}")))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasMessageContaining("missing.json");
+    }
+
+    private static JsonNode schema(final String schema) throws JsonProcessingException {
+        return JsonRuntime.readTree(schema);
+    }
+
+    private static String writeInputs(final Path directory, final String inputs) throws IOException {
+        return Files.writeString(directory.resolve("inputs.json"), inputs).toString();
+    }
+}
@@ -0,0 +1,73 @@
+package de.leidenheit.infrastructure.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonRuntimeTest {
+
+    private static final String BODY = """
+            {"id": 4, "name": "Chocolate Chip", "price": 1.5, "vegan": false, "tags": ["sweet", "crispy"],
+             "baker": {"name": "Hugo"}, "recipe": null}
+            """;
+
+    @Test
+    void testReadTreeOfJsonAndYaml() throws JsonProcessingException {
+        // when
+        var json = JsonRuntime.readTree("  {\"name\": \"Hugo\"}");
+        var yaml = JsonRuntime.readTree("name: Hugo\n");
+
+        // then
+        assertThat(json).isEqualTo(yaml);
+        assertThat(JsonRuntime.mapperFor("{}")).isSameAs(JsonRuntime.jsonMapper());
+        assertThat(JsonRuntime.mapperFor("name: Hugo")).isSameAs(JsonRuntime.yamlMapper());
+    }
+
+    @Test
+    void testJsonPathReadsLeavesAsJavaValues() {
+        // given
+        var context = JsonRuntime.jsonPath().parse(BODY);
+
+        // when / then
+        assertThat(JsonRuntime.unwrap(context.read("$.id"))).isEqualTo(4);
+        assertThat(JsonRuntime.unwrap(context.read("$.name"))).isEqualTo("Chocolate Chip");
+        assertThat(JsonRuntime.unwrap(context.read("$.price"))).isEqualTo(1.5);
+        assertThat(JsonRuntime.unwrap(context.read("$.vegan"))).isEqualTo(false);
+        assertThat(JsonRuntime.unwrap(context.read("$.recipe"))).isNull();
+    }
+
+    @Test
+    void testJsonPathReadsContainersAsMapsAndLists() {
+        // given
+        var context = JsonRuntime.jsonPath().parse(BODY);
+
+        // when
+        var tags = JsonRuntime.unwrap(context.read("$.tags"));
+        var baker = JsonRuntime.unwrap(context.read("$.baker"));
+
+        // then
+        assertThat(tags).isInstanceOf(List.class).isEqualTo(List.of("sweet", "crispy"));
+        assertThat(baker).isInstanceOf(Map.class).isEqualTo(Map.of("name", "Hugo"));
+        // rendered as the default JsonPath provider does, e.g. within criteria
+        assertThat(String.valueOf(baker)).isEqualTo("{name=Hugo}");
+    }
+
+    @Test
+    void testJsonMapperIsConfiguredAsSwagger() throws JsonProcessingException {
+        // when
+        var cookie = JsonRuntime.jsonMapper().readValue("{\"name\": \"Hugo\", \"unknown\": true}", Cookie.class);
+        var written = JsonRuntime.writer().writeValueAsString(new Cookie());
+
+        // then
+        assertThat(cookie.name).isEqualTo("Hugo");
+        assertThat(written).isEqualTo("{}");
+    }
+
+    static class Cookie {
+        public String name;
+    }
+}
@@ -0,0 +1,197 @@
+package de.leidenheit.infrastructure.parsing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ArazzoDeserializerTest {
+
+    // deserializing allocates about two thirds of copying the json tree; formatting locations eagerly more than five times
+    private static final double MAXIMUM_ALLOCATION_RATIO_TO_COPYING = 2;
+
+    @Test
+    void testDeserializeLargeSpecification() {
+        // given
+        var spec = createSyntheticSpec(100, 20);
+
+        // when
+        var result = new ArazzoDeserializer().deserialize(spec, null, ArazzoParseOptions.ofDefault());
+
+        // then
+        assertThat(result.getArazzo().getWorkflows()).hasSize(100);
+        assertThat(result.getArazzo().getWorkflows().get(99).getSteps()).hasSize(20);
+        assertThat(result.getArazzo().getWorkflows().get(99).getDependsOn()).containsExactly("workflow98");
+    }
+
+    @Test
+    void testAllocationsOfDeserializing() {
+        // given
+        // allocations are compared to the ones of copying the json tree as both depend on the same jvm
+        var threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled());
+        var spec = createSyntheticSpec(100, 20);
+        for (int i = 0; i < 10; i++) {
+            new ArazzoDeserializer().deserialize(spec, null, ArazzoParseOptions.ofDefault());
+            spec.deepCopy();
+        }
+        long threadId = Thread.currentThread().getId();
+        long copyingBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        spec.deepCopy();
+        long copying = threadMXBean.getThreadAllocatedBytes(threadId) - copyingBefore;
+
+        // when
+        long deserializingBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        new ArazzoDeserializer().deserialize(spec, null, ArazzoParseOptions.ofDefault());
+        long deserializing = threadMXBean.getThreadAllocatedBytes(threadId) - deserializingBefore;
+
+        // then
+        assertThat((double) deserializing / copying).isLessThan(MAXIMUM_ALLOCATION_RATIO_TO_COPYING);
+    }
+
+    @Test
+    void testReservedKeywords() {
+        // given
+        var spec = createSyntheticSpec(1, 1);
+        ((ObjectNode) spec.get("workflows").get(0))
+                .put("x-oai-reserved", "value")
+                .put("x-custom", "value");
+
+        // when
+        var result = new ArazzoDeserializer().deserialize(spec, null, ArazzoParseOptions.ofDefault());
+
+        // then
+        assertThat(result.getMessages())
+                .anyMatch(message -> message.contains("x-oai-reserved is reserved"))
+                .noneMatch(message -> message.contains("x-custom"));
+    }
+
+    @Test
+    void testReservedKeywordsOfOaiAuthor() {
+        // given
+        var spec = createSyntheticSpec(1, 1);
+        ((ObjectNode) spec.get("workflows").get(0)).put("x-oai-reserved", "value");
+        var options = ArazzoParseOptions.builder().oaiAuthor(true).build();
+
+        // when
+        var result = new ArazzoDeserializer().deserialize(spec, null, options);
+
+        // then
+        assertThat(result.getMessages()).noneMatch(message -> message.contains("reserved"));
+    }
+
+    @Test
+    void testSourceDescriptionUrls() {
+        // given
+        var spec = createSyntheticSpec(1, 1);
+        ((ArrayNode) spec.get("sourceDescriptions")).addObject()
+                .put("name", "jarApi")
+                .put("url", "jar:file:/apis.jar!/openapi.yaml")
+                .put("type", "openapi");
+
+        // when
+        var result = new ArazzoDeserializer().deserialize(spec, "https://example.com/specs/arazzo.yaml",
+                ArazzoParseOptions.ofDefault());
+
+        // then
+        assertThat(result.getArazzo().getSourceDescriptions())
+                .extracting(sourceDescription -> sourceDescription.getUrl())
+                .containsExactly(
+                        "https://example.com/openapi.yaml",
+                        "https://example.com/specs/openapi.yaml",
+                        "jar:file:/apis.jar!/openapi.yaml");
+    }
+
+    @Test
+    void testHelpersByLocationAsString() {
+        // given
+        var node = new ObjectMapper().createObjectNode().put("info", "not an object");
+        var parseResult = ArazzoDeserializer.ParseResult.builder().build();
+        var deserializer = new ArazzoDeserializer();
+
+        // when
+        var info = deserializer.getObject("info", node, true, "root", parseResult);
+        var title = deserializer.getString("title", node, true, "root.info", parseResult);
+
+        // then
+        assertThat(info).isNull();
+        assertThat(title).isNull();
+        assertThat(parseResult.getMessages()).containsExactly(
+                "attribute root.info is not of type `object`",
+                "attribute root.info.title is missing");
+    }
+
+    private static ObjectNode createSyntheticSpec(final int workflowCount, final int stepCount) {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode root = mapper.createObjectNode();
+        root.put("arazzo", "1.0.0");
+        root.putObject("info")
+                .put("title", "Synthetic")
+                .put("version", "1.0.0");
+        ArrayNode sourceDescriptions = root.putArray("sourceDescriptions");
+        sourceDescriptions.addObject()
+                .put("name", "syntheticApi")
+                .put("url", "https://example.com/openapi.yaml")
+                .put("type", "openapi");
+        sourceDescriptions.addObject()
+                .put("name", "relativeApi")
+                .put("url", "./openapi.yaml")
+                .put("type", "openapi");
+
+        ArrayNode workflows = root.putArray("workflows");
+        for (int w = 0; w < workflowCount; w++) {
+            ObjectNode workflow = workflows.addObject();
+            workflow.put("workflowId", "workflow" + w);
+            workflow.put("summary", "Summary of workflow " + w);
+            workflow.put("description", "Description of workflow " + w);
+            workflow.put("x-owner", "team" + (w % 7));
+            if (w > 0) {
+                workflow.putArray("dependsOn").add("workflow" + (w - 1));
+            }
+            workflow.putObject("inputs")
+                    .put("type", "object")
+                    .putObject("properties")
+                    .putObject("id")
+                    .put("type", "number");
+
+            ArrayNode steps = workflow.putArray("steps");
+            for (int s = 0; s < stepCount; s++) {
+                ObjectNode step = steps.addObject();
+                step.put("stepId", "step" + s);
+                step.put("description", "Step %d of workflow %d".formatted(s, w));
+                step.put("operationId", "$sourceDescriptions.syntheticApi.operation" + s);
+                step.putArray("parameters").addObject()
+                        .put("name", "id")
+                        .put("in", "path")
+                        .put("value", "$inputs.id");
+                ArrayNode successCriteria = step.putArray("successCriteria");
+                successCriteria.addObject().put("condition", "$statusCode == 200");
+                successCriteria.addObject()
+                        .put("context", "$response.body")
+                        .put("condition", "$.id == $inputs.id")
+                        .put("type", "jsonpath");
+                step.putArray("onSuccess").addObject()
+                        .put("name", "next" + s)
+                        .put("type", "goto")
+                        .put("stepId", "step" + (s + 1))
+                        .putArray("criteria").addObject().put("condition", "$statusCode == 200");
+                step.putArray("onFailure").addObject()
+                        .put("name", "retry" + s)
+                        .put("type", "retry")
+                        .put("retryAfter", 1)
+                        .put("retryLimit", 3)
+                        .putArray("criteria").addObject().put("condition", "$statusCode == 503");
+                step.putObject("outputs")
+                        .put("body", "$response.body")
+                        .put("id", "$response.body#/id");
+            }
+            workflow.putObject("outputs").put("id", "$steps.step0.outputs.id");
+        }
+        return root;
+    }
+}
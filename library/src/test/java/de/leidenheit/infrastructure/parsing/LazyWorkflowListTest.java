@@ -0,0 +1,173 @@
+package de.leidenheit.infrastructure.parsing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.leidenheit.core.exception.ItarazzoIllegalStateException;
+import de.leidenheit.core.model.Workflow;
+import de.leidenheit.infrastructure.validation.ArazzoValidationOptions;
+import de.leidenheit.infrastructure.validation.ArazzoValidatorRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LazyWorkflowListTest {
+
+    private static final ArazzoParseOptions LAZY_OPTIONS = ArazzoParseOptions.builder()
+            .mustValidate(true)
+            .resolve(true)
+            .lazyWorkflows(true)
+            .build();
+
+    @Test
+    void testIdsAndDependenciesAreReadWithoutMaterializing() {
+        // given
+        var spec = createSpec();
+
+        // when
+        var result = new ArazzoDeserializer().deserialize(spec, null, LAZY_OPTIONS);
+        var workflows = result.getArazzo().getWorkflows();
+
+        // then
+        assertThat(workflows).isInstanceOf(LazyWorkflowList.class);
+        assertThat(LazyWorkflowList.workflowIdsOf(workflows)).containsExactly("first", "second");
+        assertThat(LazyWorkflowList.dependsOnOf(workflows, 1)).containsExactly("first");
+        assertThat(LazyWorkflowList.materializedOf(workflows)).isEmpty();
+        assertThat(workflows.toString()).isEqualTo("LazyWorkflowList[first, second]");
+    }
+
+    @Test
+    void testWorkflowIsMaterializedOnceOnAccess() {
+        // given
+        var lazyWorkflows = (LazyWorkflowList) new ArazzoDeserializer()
+                .deserialize(createSpec(), null, LAZY_OPTIONS).getArazzo().getWorkflows();
+        List<Workflow> notified = new ArrayList<>();
+        lazyWorkflows.addMaterializationListener(notified::add);
+
+        // when
+        var second = lazyWorkflows.get(1);
+        var secondAgain = lazyWorkflows.get(1);
+
+        // then
+        assertThat(second.getWorkflowId()).isEqualTo("second");
+        assertThat(second.getSteps()).hasSize(1);
+        assertThat(secondAgain).isSameAs(second);
+        assertThat(lazyWorkflows.isMaterialized(0)).isFalse();
+        assertThat(lazyWorkflows.isMaterialized(1)).isTrue();
+        assertThat(notified).containsExactly(second);
+    }
+
+    @Test
+    void testListenerIsNotifiedAboutWorkflowsMaterializedBefore() {
+        // given
+        var lazyWorkflows = (LazyWorkflowList) new ArazzoDeserializer()
+                .deserialize(createSpec(), null, LAZY_OPTIONS).getArazzo().getWorkflows();
+        var first = lazyWorkflows.get(0);
+        List<Workflow> notified = new ArrayList<>();
+
+        // when
+        lazyWorkflows.addMaterializationListener(notified::add);
+
+        // then
+        assertThat(notified).containsExactly(first);
+    }
+
+    @Test
+    void testMessagesOfMaterializedWorkflowsAreKept() {
+        // given
+        var spec = createSpec();
+        ((ObjectNode) spec.get("workflows").get(1)).put("unexpected", "value");
+        var result = new ArazzoDeserializer().deserialize(spec, null, LAZY_OPTIONS);
+        var lazyWorkflows = (LazyWorkflowList) result.getArazzo().getWorkflows();
+
+        // when
+        lazyWorkflows.get(0);
+        var messagesOfFirst = lazyWorkflows.getMessages();
+        lazyWorkflows.get(1);
+
+        // then
+        assertThat(result.getMessages()).noneMatch(message -> message.contains("unexpected"));
+        assertThat(messagesOfFirst).isEmpty();
+        assertThat(lazyWorkflows.getMessages()).hasSize(1);
+        assertThat(lazyWorkflows.getMessages().get(0)).contains("unexpected");
+    }
+
+    @Test
+    void testEagerParsingMaterializesAllWorkflows() {
+        // given
+        var spec = createSpec();
+
+        // when
+        var workflows = new ArazzoDeserializer().deserialize(spec, null, ArazzoParseOptions.ofDefault())
+                .getArazzo().getWorkflows();
+
+        // then
+        assertThat(workflows).isNotInstanceOf(LazyWorkflowList.class);
+        assertThat(LazyWorkflowList.materializedOf(workflows)).hasSize(2);
+    }
+
+    @Test
+    void testMaterializedWorkflowsAreValidatedWithTheirSteps() {
+        // given
+        var spec = createSpec();
+        // steps refer to workflows as the operations of the source description are not initialized
+        var firstSteps = (ArrayNode) spec.get("workflows").get(0).get("steps");
+        ((ObjectNode) firstSteps.get(0)).remove("operationId");
+        ((ObjectNode) firstSteps.get(0)).put("workflowId", "second");
+        firstSteps.addObject()
+                .put("stepId", "step")
+                .put("workflowId", "second");
+        var secondStep = (ObjectNode) spec.get("workflows").get(1).get("steps").get(0);
+        secondStep.remove("operationId");
+        secondStep.put("workflowId", "first");
+        secondStep.putArray("onSuccess").addObject()
+                .put("name", "skip")
+                .put("type", "goto")
+                .put("stepId", "missing");
+        var arazzo = new ArazzoDeserializer().deserialize(spec, null, LAZY_OPTIONS).getArazzo();
+        var lazyWorkflows = (LazyWorkflowList) arazzo.getWorkflows();
+
+        // when
+        new ArazzoValidatorRegistry().validate(arazzo, ArazzoValidationOptions.ofDefault());
+
+        // then
+        assertThatThrownBy(() -> lazyWorkflows.get(0))
+                .isInstanceOf(ItarazzoIllegalStateException.class)
+                .hasMessageContaining("'stepId' must be unique within workflow 'first'")
+                .hasMessageNotContaining("parent workflow for step");
+        assertThatThrownBy(() -> lazyWorkflows.get(1))
+                .isInstanceOf(ItarazzoIllegalStateException.class)
+                .hasMessageContaining("step 'missing' not found")
+                .hasMessageNotContaining("parent workflow for step");
+        assertThat(lazyWorkflows.isMaterialized(0)).isFalse();
+        assertThat(LazyWorkflowList.materializedOf(lazyWorkflows)).isEmpty();
+    }
+
+    private static ObjectNode createSpec() {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode root = mapper.createObjectNode();
+        root.put("arazzo", "1.0.0");
+        root.putObject("info")
+                .put("title", "Lazy")
+                .put("version", "1.0.0");
+        root.putArray("sourceDescriptions").addObject()
+                .put("name", "api")
+                .put("url", "https://example.com/openapi.yaml")
+                .put("type", "openapi");
+
+        ArrayNode workflows = root.putArray("workflows");
+        for (String workflowId : List.of("first", "second")) {
+            ObjectNode workflow = workflows.addObject();
+            workflow.put("workflowId", workflowId);
+            if (workflowId.equals("second")) workflow.putArray("dependsOn").add("first");
+            workflow.putArray("steps").addObject()
+                    .put("stepId", "step")
+                    .put("operationId", "$sourceDescriptions.api.getPet");
+        }
+        return root;
+    }
+}
@@ -0,0 +1,72 @@
+package de.leidenheit.infrastructure.parsing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PerfectHashKeySetTest {
+
+    @Test
+    void testContainsExactlyTheKeys() {
+        // given
+        var keySet = new PerfectHashKeySet("workflowId", "summary", "description", "inputs", "dependsOn", "steps");
+
+        // when / then
+        assertThat(keySet).hasSize(6);
+        assertThat(keySet.contains("steps")).isTrue();
+        assertThat(keySet.contains(new String("dependsOn".toCharArray()))).isTrue();
+        assertThat(keySet.contains("step")).isFalse();
+        assertThat(keySet.contains("x-steps")).isFalse();
+        assertThat(keySet.contains(null)).isFalse();
+        assertThat(keySet.contains(42)).isFalse();
+    }
+
+    @Test
+    void testIteratesInOrderOfTheKeys() {
+        // given
+        var keySet = new PerfectHashKeySet("name", "in", "value", "extensions");
+
+        // when
+        List<String> iterated = new ArrayList<>(keySet);
+
+        // then
+        assertThat(iterated).containsExactly("name", "in", "value", "extensions");
+    }
+
+    @Test
+    void testManyKeys() {
+        // given
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            keys.add("key" + i);
+        }
+
+        // when
+        var keySet = new PerfectHashKeySet(keys.toArray(new String[0]));
+
+        // then
+        assertThat(keySet).containsExactlyElementsOf(keys);
+        assertThat(keys).allMatch(keySet::contains);
+        assertThat(keySet.contains("key200")).isFalse();
+    }
+
+    @Test
+    void testDuplicateKeysAreRejected() {
+        assertThatThrownBy(() -> new PerfectHashKeySet("name", "name"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testIsImmutable() {
+        // given
+        var keySet = new PerfectHashKeySet("name");
+
+        // when / then
+        assertThatThrownBy(() -> keySet.add("other")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> keySet.iterator().remove()).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
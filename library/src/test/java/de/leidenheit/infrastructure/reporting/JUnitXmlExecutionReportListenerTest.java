@@ -0,0 +1,111 @@
+package de.leidenheit.infrastructure.reporting;
+
+import de.leidenheit.core.model.Step;
+import de.leidenheit.core.model.Workflow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JUnitXmlExecutionReportListenerTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Workflow workflow = Workflow.builder().workflowId("bakeCookies").build();
+    private final Step step = Step.builder().stepId("bake").operationId("bakeCookies").build();
+
+    @Test
+    void testSuitePerWorkflowAndTestcasePerAttempt(@TempDir final Path directory) throws Exception {
+        // given
+        var reportPath = directory.resolve("report.xml");
+
+        // when
+        try (var listener = new JUnitXmlExecutionReportListener(reportPath)) {
+            runRetriedStep(listener);
+        }
+
+        // then
+        var document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(reportPath.toFile());
+        var suite = (Element) document.getElementsByTagName("testsuite").item(0);
+        assertThat(suite.getAttribute("name")).isEqualTo("bakeCookies");
+        assertThat(suite.getAttribute("tests")).isEqualTo("2");
+        assertThat(suite.getAttribute("failures")).isEqualTo("1");
+        assertThat(suite.getAttribute("errors")).isEqualTo("0");
+        assertThat(suite.getAttribute("time")).isEqualTo("0.006");
+        var testcases = suite.getElementsByTagName("testcase");
+        assertThat(testcases.getLength()).isEqualTo(2);
+        var failedAttempt = (Element) testcases.item(0);
+        assertThat(failedAttempt.getAttribute("name")).isEqualTo("bake (attempt 1)");
+        assertThat(((Element) failedAttempt.getElementsByTagName("failure").item(0)).getAttribute("message"))
+                .contains("status code 503");
+        var retriedAttempt = (Element) testcases.item(1);
+        assertThat(retriedAttempt.getAttribute("name")).isEqualTo("bake (attempt 2)");
+        assertThat(retriedAttempt.getAttribute("time")).isEqualTo("0.005");
+        assertThat(retriedAttempt.getElementsByTagName("failure").getLength()).isZero();
+    }
+
+    @Test
+    void testFlushedReportHoldsCompleteSuites(@TempDir final Path directory) throws Exception {
+        // given
+        var reportPath = directory.resolve("report.xml");
+
+        try (var listener = new JUnitXmlExecutionReportListener(reportPath)) {
+            runRetriedStep(listener);
+
+            // when
+            listener.onWorkflowStart(workflow, 0);
+            listener.onStepEnd(workflow, step, 0, MILLIS, true);
+            int suitesWhileRunning = countCompleteSuites(reportPath);
+            listener.onWorkflowEnd(workflow, 0, MILLIS, true);
+            int suitesAtCheckpoint = countCompleteSuites(reportPath);
+
+            // then
+            assertThat(suitesWhileRunning).isEqualTo(1);
+            assertThat(suitesAtCheckpoint).isEqualTo(2);
+        }
+        var document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(reportPath.toFile());
+        assertThat(document.getElementsByTagName("testsuite").getLength()).isEqualTo(2);
+    }
+
+    private void runRetriedStep(final ExecutionReportListener listener) {
+        listener.onWorkflowStart(workflow, 0);
+        listener.onStepStart(workflow, step, 0);
+        listener.onResponseReceived(workflow, step, 503, 0, MILLIS);
+        listener.onStepEnd(workflow, step, 0, MILLIS, false);
+        listener.onRetryScheduled(workflow, step, 2, 3, 0, 0);
+        listener.onStepStart(workflow, step, 0);
+        listener.onResponseReceived(workflow, step, 200, 0, 5 * MILLIS);
+        listener.onStepEnd(workflow, step, 0, 5 * MILLIS, true);
+        listener.onWorkflowEnd(workflow, 0, 6 * MILLIS, true);
+    }
+
+    // counts the suites written so far, the report itself is not closed yet
+    private static int countCompleteSuites(final Path reportPath) throws Exception {
+        int suites = 0;
+        try (InputStream inputStream = Files.newInputStream(reportPath)) {
+            var reader = XMLInputFactory.newFactory().createXMLStreamReader(inputStream);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("testsuite")) {
+                        suites++;
+                    }
+                }
+            } catch (XMLStreamException e) {
+                // end of the partial report
+            } finally {
+                reader.close();
+            }
+        }
+        return suites;
+    }
+}
@@ -0,0 +1,144 @@
+package de.leidenheit.infrastructure.reporting;
+
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.databind.JsonNode;
+import de.leidenheit.core.execution.listener.LatencyHistogram;
+import de.leidenheit.core.model.Step;
+import de.leidenheit.core.model.Workflow;
+import de.leidenheit.infrastructure.json.JsonRuntime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonExecutionReportListenerTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Workflow workflow = Workflow.builder().workflowId("bakeCookies").build();
+    private final Step step = Step.builder().stepId("bake").operationId("bakeCookies").build();
+
+    @Test
+    void testRecordsOfRetriedSteps(@TempDir final Path directory) throws IOException {
+        // given
+        var reportPath = directory.resolve("report.json");
+
+        // when
+        try (var listener = new JsonExecutionReportListener(reportPath)) {
+            runRetriedStep(listener, 5 * MILLIS);
+        }
+
+        // then
+        var records = JsonRuntime.jsonMapper().readTree(reportPath.toFile()).get("records");
+        assertThat(records).hasSize(4);
+        assertThat(records.get(0).get("type").asText()).isEqualTo("step");
+        assertThat(records.get(0).get("attempt").asInt()).isEqualTo(1);
+        assertThat(records.get(0).get("successful").asBoolean()).isFalse();
+        assertThat(records.get(0).get("statusCode").asInt()).isEqualTo(503);
+        assertThat(records.get(1).get("type").asText()).isEqualTo("retry");
+        assertThat(records.get(1).get("attempt").asInt()).isEqualTo(2);
+        assertThat(records.get(1).get("retryLimit").asInt()).isEqualTo(3);
+        assertThat(records.get(2).get("attempt").asInt()).isEqualTo(2);
+        assertThat(records.get(2).get("successful").asBoolean()).isTrue();
+        assertThat(records.get(2).get("statusCode").asInt()).isEqualTo(200);
+        assertThat(records.get(2).get("durationNanos").asLong()).isEqualTo(5 * MILLIS);
+        assertThat(records.get(3).get("type").asText()).isEqualTo("workflow");
+        assertThat(records.get(3).get("steps").asInt()).isEqualTo(2);
+        assertThat(records.get(3).get("failedSteps").asInt()).isEqualTo(1);
+        assertThat(records.get(3).get("retries").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    void testSummaryOfRuns(@TempDir final Path directory) throws IOException {
+        // given
+        var reportPath = directory.resolve("report.json");
+        var expectedDurations = new LatencyHistogram();
+
+        // when
+        try (var listener = new JsonExecutionReportListener(reportPath)) {
+            for (int run = 1; run <= 100; run++) {
+                runRetriedStep(listener, run * MILLIS);
+                expectedDurations.record(MILLIS);
+                expectedDurations.record(run * MILLIS);
+            }
+        }
+
+        // then
+        var summary = JsonRuntime.jsonMapper().readTree(reportPath.toFile()).get("summary");
+        var workflowSummary = summary.get("workflows").get("bakeCookies");
+        assertThat(workflowSummary.get("count").asInt()).isEqualTo(100);
+        assertThat(workflowSummary.get("failures").asInt()).isZero();
+        assertThat(workflowSummary.get("retries").asInt()).isEqualTo(100);
+        var stepSummary = summary.get("steps").get("bakeCookies.bake");
+        assertThat(stepSummary.get("count").asInt()).isEqualTo(200);
+        assertThat(stepSummary.get("failures").asInt()).isEqualTo(100);
+        assertThat(stepSummary.get("retries").asInt()).isEqualTo(100);
+        var durations = stepSummary.get("durationNanos");
+        assertThat(durations.get("p50").asLong()).isEqualTo(expectedDurations.getPercentileNanos(50));
+        assertThat(durations.get("p95").asLong()).isEqualTo(expectedDurations.getPercentileNanos(95));
+        assertThat(durations.get("p99").asLong()).isEqualTo(expectedDurations.getPercentileNanos(99));
+        // half of the attempts failed after a millisecond, the others took up to 100ms
+        assertThat(durations.get("p50").asLong()).isBetween(MILLIS, MILLIS + MILLIS / 8);
+        assertThat(durations.get("p95").asLong()).isBetween(90 * MILLIS, 100 * MILLIS);
+        assertThat(durations.get("max").asLong()).isEqualTo(100 * MILLIS);
+    }
+
+    @Test
+    void testFlushedReportHoldsCompleteRecords(@TempDir final Path directory) throws IOException {
+        // given
+        var reportPath = directory.resolve("report.json");
+
+        try (var listener = new JsonExecutionReportListener(reportPath)) {
+            listener.onWorkflowStart(workflow, 0);
+
+            // when
+            for (int i = 0; i < 1_000; i++) listener.onStepEnd(workflow, step, 0, MILLIS, true);
+            var flushedRecords = readRecords(reportPath);
+            listener.onStepEnd(workflow, step, 0, MILLIS, true);
+            listener.onWorkflowEnd(workflow, 0, MILLIS, true);
+            var recordsAtCheckpoint = readRecords(reportPath);
+
+            // then
+            assertThat(flushedRecords).hasSize(1_000).allMatch(record -> record.get("type").asText().equals("step"));
+            assertThat(recordsAtCheckpoint).hasSize(1_002);
+            assertThat(recordsAtCheckpoint.get(1_001).get("type").asText()).isEqualTo("workflow");
+        }
+        assertThat(JsonRuntime.jsonMapper().readTree(reportPath.toFile()).get("records")).hasSize(1_002);
+    }
+
+    private void runRetriedStep(final ExecutionReportListener listener, final long durationNanos) {
+        listener.onWorkflowStart(workflow, 0);
+        listener.onStepStart(workflow, step, 0);
+        listener.onResponseReceived(workflow, step, 503, 0, MILLIS);
+        listener.onStepEnd(workflow, step, 0, MILLIS, false);
+        listener.onRetryScheduled(workflow, step, 2, 3, 0, 0);
+        listener.onStepStart(workflow, step, 0);
+        listener.onResponseReceived(workflow, step, 200, 0, durationNanos);
+        listener.onStepEnd(workflow, step, 0, durationNanos, true);
+        listener.onWorkflowEnd(workflow, 0, MILLIS + durationNanos, true);
+    }
+
+    // reads the records written so far, the report itself is not closed yet
+    private static List<JsonNode> readRecords(final Path reportPath) throws IOException {
+        List<JsonNode> records = new ArrayList<>();
+        try (var parser = JsonRuntime.jsonMapper().getFactory().createParser(reportPath.toFile())) {
+            parser.setCodec(JsonRuntime.jsonMapper());
+            while (parser.nextToken() != JsonToken.START_ARRAY) {
+                // skips the header until the records
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                records.add(parser.readValueAsTree());
+            }
+        } catch (JsonEOFException e) {
+            // end of the partial report
+        }
+        return records;
+    }
+}
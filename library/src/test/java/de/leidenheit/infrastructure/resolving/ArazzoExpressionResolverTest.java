@@ -0,0 +1,116 @@
+package de.leidenheit.infrastructure.resolving;
+
+import de.leidenheit.core.execution.context.WorkflowOutputStore;
+import de.leidenheit.core.model.ArazzoSpecification;
+import de.leidenheit.core.model.SourceDescription;
+import de.leidenheit.core.model.Workflow;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArazzoExpressionResolverTest {
+
+    private static final String URL_EXPRESSION = "$sourceDescriptions.petApi.url";
+
+    @Test
+    void testResolversOfTwoSpecificationsUsedInTurn() {
+        // given
+        var one = new ArazzoExpressionResolver(specificationOf("https://one.example.com"), Map.of("id", 4));
+        var two = new ArazzoExpressionResolver(specificationOf("https://two.example.com"), Map.of("id", 5));
+        one.addResolved("$steps.bake.outputs.id", 4);
+
+        // when
+        var urlOfOne = one.resolveExpression(URL_EXPRESSION, null);
+        var urlOfTwo = two.resolveExpression(URL_EXPRESSION, null);
+        two.addResolved("$steps.bake.outputs.id", 5);
+
+        // then
+        assertThat(urlOfOne).isEqualTo("https://one.example.com");
+        assertThat(urlOfTwo).isEqualTo("https://two.example.com");
+        assertThat(one.resolveExpression(URL_EXPRESSION, null)).isEqualTo("https://one.example.com");
+        assertThat(one.resolveExpression("$steps.bake.outputs.id", null)).isEqualTo(4);
+        assertThat(one.resolveExpression("$inputs.id", null)).isEqualTo(4);
+        assertThat(two.resolveExpression("$steps.bake.outputs.id", null)).isEqualTo(5);
+        assertThat(two.resolveExpression("$inputs.id", null)).isEqualTo(5);
+    }
+
+    @Test
+    void testResolversOfExecutionsRunningInParallel() throws Exception {
+        // given
+        var executor = Executors.newFixedThreadPool(2);
+        List<Future<Boolean>> executions = new ArrayList<>();
+
+        // when
+        try {
+            for (String url : List.of("https://one.example.com", "https://two.example.com")) {
+                executions.add(executor.submit(() -> {
+                    var resolver = new ArazzoExpressionResolver(specificationOf(url), Map.of());
+                    for (int i = 0; i < 1_000; i++) {
+                        resolver.addResolved("$steps.bake.outputs.url", url + i);
+                        if (!(url + i).equals(resolver.resolveExpression("$steps.bake.outputs.url", null))
+                                || !url.equals(resolver.resolveExpression(URL_EXPRESSION, null))) return false;
+                    }
+                    return true;
+                }));
+            }
+
+            // then
+            for (var execution : executions) assertThat(execution.get(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testStaticExpressionsStayCached() {
+        // given
+        var resolver = new ArazzoExpressionResolver(specificationOf("https://example.com"), Map.of("id", 4));
+        resolver.resolveExpression("$inputs.id", null);
+        resolver.resolveExpression(URL_EXPRESSION, null);
+        long hitCount = resolver.getCacheStatistics().hitCount();
+
+        // when
+        resolver.addResolved("$steps.bake.outputs.id", 4);
+
+        // then
+        assertThat(resolver.resolveExpression("$inputs.id", null)).isEqualTo(4);
+        assertThat(resolver.resolveExpression(URL_EXPRESSION, null)).isEqualTo("https://example.com");
+        assertThat(resolver.getCacheStatistics().hitCount()).isEqualTo(hitCount + 2);
+    }
+
+    @Test
+    void testOutputsOfCompletedWorkflowsAreTakenFromTheStore() {
+        // given
+        var arazzo = ArazzoSpecification.builder()
+                .sourceDescriptions(List.of())
+                .workflows(List.of(
+                        Workflow.builder().workflowId("bake").build(),
+                        Workflow.builder().workflowId("pack").dependsOn(List.of("bake")).build()))
+                .build();
+        var store = WorkflowOutputStore.forWorkflows(arazzo, List.of("bake", "pack"), WorkflowOutputStore.ReleasePolicy.SPILL);
+        store.put("bake", Map.of("cookie.count", 12));
+        store.put("pack", Map.of());
+        var resolver = new ArazzoExpressionResolver(arazzo, Map.of());
+
+        // when
+        resolver.setWorkflowOutputs(store);
+
+        // then
+        assertThat(store.isSpilled("bake")).isTrue();
+        assertThat(resolver.resolveExpression("$workflows.bake.outputs.cookie.count", null)).isEqualTo(12);
+    }
+
+    private static ArazzoSpecification specificationOf(final String url) {
+        return ArazzoSpecification.builder()
+                .sourceDescriptions(List.of(SourceDescription.builder().name("petApi").url(url).build()))
+                .workflows(List.of())
+                .build();
+    }
+}
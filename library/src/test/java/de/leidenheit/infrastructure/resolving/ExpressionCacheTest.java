@@ -0,0 +1,68 @@
+package de.leidenheit.infrastructure.resolving;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpressionCacheTest {
+
+    @Test
+    void testEvictsTheLeastRecentlyUsedEntry() {
+        // given
+        var cache = new ExpressionCache(2);
+        cache.put("$inputs.id", 4, 1);
+        cache.put("$inputs.name", "Chocolate Chip", 1);
+        cache.get("$inputs.id", 1);
+
+        // when
+        cache.put("$inputs.price", 1.5, 1);
+
+        // then
+        assertThat(cache.get("$inputs.id", 1)).isEqualTo(4);
+        assertThat(cache.get("$inputs.name", 1)).isNull();
+        assertThat(cache.get("$inputs.price", 1)).isEqualTo(1.5);
+        assertThat(cache.getStatistics().size()).isEqualTo(2);
+        assertThat(cache.getStatistics().evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testLookupOfAnotherVersionDropsTheEntry() {
+        // given
+        var cache = new ExpressionCache(8);
+        cache.put("$steps.bake.outputs.id", 4, 1);
+
+        // when
+        var stale = cache.get("$steps.bake.outputs.id", 2);
+
+        // then
+        assertThat(stale).isNull();
+        assertThat(cache.get("$steps.bake.outputs.id", 1)).isNull();
+        assertThat(cache.getStatistics().size()).isZero();
+    }
+
+    @Test
+    void testStatistics() {
+        // given
+        var cache = new ExpressionCache(8);
+        cache.put("$sourceDescriptions.petApi.url", "https://example.com", ExpressionCache.STATIC_VERSION);
+
+        // when
+        cache.get("$sourceDescriptions.petApi.url", ExpressionCache.STATIC_VERSION);
+        cache.get("$sourceDescriptions.petApi.url", ExpressionCache.STATIC_VERSION);
+        cache.get("$sourceDescriptions.storeApi.url", ExpressionCache.STATIC_VERSION);
+        cache.clear();
+
+        // then
+        var statistics = cache.getStatistics();
+        assertThat(statistics.size()).isZero();
+        assertThat(statistics.hitCount()).isEqualTo(2);
+        assertThat(statistics.missCount()).isEqualTo(1);
+        assertThat(statistics.hitRate()).isEqualTo(2 / 3d);
+    }
+
+    @Test
+    void testMaximumSizeMustBePositive() {
+        assertThatThrownBy(() -> new ExpressionCache(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,55 @@
+package de.leidenheit.infrastructure.stub;
+
+import de.leidenheit.core.exception.ItarazzoIllegalStateException;
+import de.leidenheit.core.exception.ItarazzoUnsupportedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LatencyDistributionTest {
+
+    @Test
+    void testParse() {
+        // given
+        var random = new Random(42);
+
+        // when
+        var none = LatencyDistribution.parse(" ");
+        var fixed = LatencyDistribution.parse("fixed: 25");
+        var uniform = LatencyDistribution.parse("uniform:10-20");
+
+        // then
+        assertThat(none.nextNanos(random)).isZero();
+        assertThat(fixed.nextNanos(random)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(25));
+        assertThat(uniform.nextNanos(random)).isBetween(TimeUnit.MILLISECONDS.toNanos(10), TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    void testLogNormalIsCenteredAroundTheMedian() {
+        // given
+        var random = new Random(42);
+        var logNormal = LatencyDistribution.parse("lognormal:100,0.5");
+
+        // when
+        long belowMedian = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (logNormal.nextNanos(random) < TimeUnit.MILLISECONDS.toNanos(100)) belowMedian++;
+        }
+
+        // then
+        assertThat(belowMedian).isBetween(4_800L, 5_200L);
+    }
+
+    @Test
+    void testParseInvalid() {
+        assertThatThrownBy(() -> LatencyDistribution.parse("gamma:1,2"))
+                .isInstanceOf(ItarazzoUnsupportedException.class);
+        assertThatThrownBy(() -> LatencyDistribution.parse("uniform:10"))
+                .isInstanceOf(ItarazzoIllegalStateException.class)
+                .hasMessageContaining("uniform:10");
+    }
+}
@@ -0,0 +1,187 @@
+package de.leidenheit.infrastructure.stub;
+
+import de.leidenheit.infrastructure.json.JsonRuntime;
+import de.leidenheit.infrastructure.transport.InProcessTransport;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OpenApiStubTest {
+
+    private static final OpenAPI BAKERY = new OpenAPIV3Parser().readContents("""
+            openapi: 3.0.3
+            info:
+              title: Bakery
+              version: 1.0.0
+            servers:
+              - url: https://bakery.example/api
+            paths:
+              /cookies/{cookieId}:
+                get:
+                  operationId: findCookie
+                  responses:
+                    '200':
+                      description: The cookie
+                      headers:
+                        X-Batch:
+                          schema:
+                            type: integer
+                            minimum: 7
+                      content:
+                        application/json:
+                          example:
+                            name: Chocolate Chip
+                            crunchy: false
+              /cookies/recommended:
+                get:
+                  operationId: findRecommendedCookie
+                  responses:
+                    '200':
+                      description: The recommended cookie
+                      content:
+                        application/json:
+                          schema:
+                            $ref: '#/components/schemas/Cookie'
+              /orders:
+                post:
+                  operationId: orderCookies
+                  responses:
+                    '201':
+                      description: The order
+                      content:
+                        text/plain:
+                          schema:
+                            type: string
+                            format: uuid
+            components:
+              schemas:
+                Cookie:
+                  type: object
+                  properties:
+                    name:
+                      type: string
+                      example: Oatmeal
+                    bakedAt:
+                      type: string
+                      format: date-time
+                    pieces:
+                      type: integer
+                      minimum: 1
+                    ingredients:
+                      type: array
+                      items:
+                        type: string
+                        enum: [flour, sugar]
+            """).getOpenAPI();
+
+    @Test
+    void testExampleOfTheResponseIsServed() throws IOException {
+        // given
+        var stub = new OpenApiStub(BAKERY, OpenApiStubOptions.ofDefault());
+
+        // when
+        var response = stub.handle(request("GET", "https://bakery.example/api/cookies/42"));
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(new Headers(response.headers()).getValue("Content-Type")).isEqualTo("application/json");
+        assertThat(new Headers(response.headers()).getValue("X-Batch")).isEqualTo("7");
+        assertThat(JsonRuntime.jsonMapper().readValue(response.body(), Map.class))
+                .isEqualTo(Map.of("name", "Chocolate Chip", "crunchy", false));
+    }
+
+    @Test
+    void testBodyIsGeneratedFromTheSchemaWithoutExample() throws IOException {
+        // given
+        var stub = new OpenApiStub(BAKERY, OpenApiStubOptions.ofDefault());
+
+        // when
+        var recommended = stub.handle(request("GET", "https://bakery.example/api/cookies/recommended"));
+        var order = stub.handle(request("POST", "https://bakery.example/api/orders"));
+
+        // then
+        // the literal path takes precedence over the templated one
+        assertThat(JsonRuntime.jsonMapper().readValue(recommended.body(), Map.class)).isEqualTo(Map.of(
+                "name", "Oatmeal",
+                "bakedAt", "1970-01-01T00:00:00Z",
+                "pieces", 1,
+                "ingredients", List.of("flour")));
+        assertThat(order.statusCode()).isEqualTo(201);
+        assertThat(new String(order.body(), StandardCharsets.UTF_8)).isEqualTo("00000000-0000-0000-0000-000000000000");
+    }
+
+    @Test
+    void testUnknownRequestsAreAnsweredWithNotFound() {
+        // given
+        var stub = new OpenApiStub(BAKERY, OpenApiStubOptions.ofDefault());
+
+        // when
+        var unknownPath = stub.handle(request("GET", "https://bakery.example/api/cakes"));
+        var unknownMethod = stub.handle(request("DELETE", "https://bakery.example/api/orders"));
+
+        // then
+        assertThat(unknownPath.statusCode()).isEqualTo(404);
+        assertThat(unknownMethod.statusCode()).isEqualTo(404);
+    }
+
+    @Test
+    void testErrorsAndThrottlingAreAddedAtTheirRates() {
+        // given
+        var stub = new OpenApiStub(BAKERY, OpenApiStubOptions.builder()
+                .latency(LatencyDistribution.NONE)
+                .errorRate(0.1)
+                .throttleRate(0.2)
+                .retryAfterSeconds(7)
+                .build());
+        int requests = 10_000;
+        Map<Integer, Integer> statusCodes = new HashMap<>();
+
+        // when
+        for (int i = 0; i < requests; i++) {
+            var response = stub.handle(request("GET", "https://bakery.example/api/cookies/42"));
+            statusCodes.merge(response.statusCode(), 1, Integer::sum);
+            if (response.statusCode() == 429) {
+                assertThat(response.headers()).containsExactly(new Header("Retry-After", "7"));
+            }
+        }
+
+        // then
+        assertThat(statusCodes).containsOnlyKeys(200, 429, 500);
+        assertThat((double) statusCodes.get(429) / requests).isBetween(0.17, 0.23);
+        assertThat((double) statusCodes.get(500) / requests).isBetween(0.08, 0.12);
+    }
+
+    @Test
+    void testAllRequestsAreThrottledAtTheFullRate() {
+        // given
+        var stub = new OpenApiStub(BAKERY, OpenApiStubOptions.builder()
+                .latency(LatencyDistribution.NONE)
+                .errorRate(0)
+                .throttleRate(1)
+                .retryAfterSeconds(30)
+                .build());
+
+        // when
+        var response = stub.handle(request("POST", "https://bakery.example/api/orders"));
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(429);
+        assertThat(new Headers(response.headers()).getValue("Retry-After")).isEqualTo("30");
+        assertThat(response.body()).isEmpty();
+    }
+
+    private static InProcessTransport.InProcessRequest request(final String method, final String uri) {
+        return new InProcessTransport.InProcessRequest(method, URI.create(uri), new Headers(), new byte[0]);
+    }
+}
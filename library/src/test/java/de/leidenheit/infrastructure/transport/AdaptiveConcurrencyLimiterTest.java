@@ -0,0 +1,149 @@
+package de.leidenheit.infrastructure.transport;
+
+import de.leidenheit.core.model.SourceDescription;
+import de.leidenheit.core.model.Step;
+import io.restassured.RestAssured;
+import io.restassured.filter.Filter;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final SourceDescription bakery = SourceDescription.builder().name("bakery").build();
+    private final Step step = Step.builder().stepId("bake").operationId("bakeCookies").build();
+
+    @Test
+    void testLimitIncreasesWhileUsed() {
+        // given
+        var limiter = new AdaptiveConcurrencyLimiter(options(1));
+        var filter = limiter.filterFor(bakery, step);
+
+        // when
+        for (int i = 0; i < 10; i++) send(filter, 200, List.of());
+
+        // then
+        // a single request in flight uses a limit of 1 and 2, but no longer one of 2.5
+        assertThat(limiter.getLimit("bakery")).isEqualTo(2);
+        assertThat(limiter.getLimits()).containsEntry("bakery", 2);
+    }
+
+    @Test
+    void testCongestionDecreasesTheLimitOncePerRoundTrip() throws Exception {
+        // given
+        var limiter = new AdaptiveConcurrencyLimiter(options(8));
+        var filter = limiter.filterFor(bakery, step);
+        var inFlight = new CountDownLatch(2);
+        Filter congested = (requestSpec, responseSpec, ctx) -> {
+            inFlight.countDown();
+            try {
+                inFlight.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return respond(503, List.of());
+        };
+        var executor = Executors.newFixedThreadPool(2);
+        var responses = new ArrayList<Future<Integer>>();
+
+        // when
+        try {
+            for (int i = 0; i < 2; i++) {
+                responses.add(executor.submit(() ->
+                        RestAssured.given().filter(filter).filter(congested).get("http://localhost/cookies").statusCode()));
+            }
+            for (var response : responses) response.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        int limitOfTheRoundTrip = limiter.getLimit("bakery");
+        send(filter, 503, List.of());
+
+        // then
+        assertThat(limitOfTheRoundTrip).isEqualTo(4);
+        assertThat(limiter.getLimit("bakery")).isEqualTo(2);
+    }
+
+    @Test
+    void testRetryAfterHoldsTheLimit() {
+        // given
+        var limiter = new AdaptiveConcurrencyLimiter(options(2));
+        var filter = limiter.filterFor(bakery, step);
+
+        // when
+        send(filter, 429, List.of(new Header("Retry-After", "60")));
+        for (int i = 0; i < 10; i++) send(filter, 200, List.of());
+
+        // then
+        assertThat(limiter.getLimit("bakery")).isEqualTo(1);
+    }
+
+    @Test
+    void testFailedRequestsDecreaseTheLimit() {
+        // given
+        var limiter = new AdaptiveConcurrencyLimiter(options(4));
+        var filter = limiter.filterFor(bakery, step);
+
+        // when
+        assertThatThrownBy(() -> RestAssured.given()
+                .filter(filter)
+                .filter((requestSpec, responseSpec, ctx) -> {
+                    throw new IllegalStateException("oven broke");
+                })
+                .get("http://localhost/cookies"))
+                .hasMessage("oven broke");
+
+        // then
+        assertThat(limiter.getLimit("bakery")).isEqualTo(2);
+    }
+
+    @Test
+    void testLimitersAreNotifiedOfLimitedSourceDescriptions() {
+        // given
+        var limiter = new AdaptiveConcurrencyLimiter(options(4));
+        var limited = new ArrayList<String>();
+        limiter.filterFor(bakery, step);
+
+        // when
+        limiter.whenLimited(limited::add);
+        limiter.filterFor(SourceDescription.builder().name("creamery").build(), step);
+
+        // then
+        assertThat(limited).containsExactly("bakery", "creamery");
+    }
+
+    private static AdaptiveConcurrencyOptions options(final int initialLimit) {
+        return AdaptiveConcurrencyOptions.builder()
+                .initialLimit(initialLimit)
+                .minimumLimit(1)
+                .maximumLimit(16)
+                .backoffRatio(0.5)
+                .latencyBackoffRatio(0.9)
+                // the latency of the requests below is left out of the test
+                .latencyTolerance(1_000)
+                .build();
+    }
+
+    private static void send(final Filter filter, final int statusCode, final List<Header> headers) {
+        RestAssured.given()
+                .filter(filter)
+                .filter((requestSpec, responseSpec, ctx) -> respond(statusCode, headers))
+                .get("http://localhost/cookies");
+    }
+
+    private static Response respond(final int statusCode, final List<Header> headers) {
+        return Cassette.toResponse(new Cassette.Exchange(
+                "GET http://localhost/cookies", statusCode, headers, "[]".getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,105 @@
+package de.leidenheit.infrastructure.transport;
+
+import de.leidenheit.core.exception.ItarazzoIllegalStateException;
+import de.leidenheit.core.exception.ItarazzoUnsupportedException;
+import de.leidenheit.infrastructure.json.JsonRuntime;
+import io.restassured.RestAssured;
+import io.restassured.http.Header;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CassetteTest {
+
+    @Test
+    void testKeysAreNormalized() {
+        // when
+        var key = Cassette.keyOf("get", "https://one.example.com:8443/cookies?vegan=true&sort=name", null);
+        var otherServerKey = Cassette.keyOf("GET", "http://two.example.com/cookies?sort=name&vegan=true", null);
+        var bodyKey = Cassette.keyOf("POST", "/cookies", "{\"name\": \"Chocolate Chip\", \"price\": 1.5}");
+        var reorderedBodyKey = Cassette.keyOf("POST", "/cookies", "{\"price\":1.5,\"name\":\"Chocolate Chip\"}");
+
+        // then
+        assertThat(key).isEqualTo("GET /cookies?sort=name&vegan=true").isEqualTo(otherServerKey);
+        assertThat(bodyKey).startsWith("POST /cookies #").isEqualTo(reorderedBodyKey);
+        assertThat(Cassette.keyOf("POST", "/cookies", "{\"name\": \"Oatmeal\"}")).isNotEqualTo(bodyKey);
+    }
+
+    @Test
+    void testReadsExchangesInOrderOfRecording(@TempDir final Path directory) throws IOException {
+        // given
+        var cassettePath = directory.resolve("cookies.cassette");
+        writeCassette(cassettePath,
+                exchange("GET /cookies", 503, "busy"),
+                exchange("GET /cookies", 200, "[\"Chocolate Chip\"]"),
+                exchange("DELETE /cookies", 204, ""));
+
+        // when
+        var exchanges = Cassette.read(cassettePath);
+
+        // then
+        assertThat(exchanges).containsOnlyKeys("GET /cookies", "DELETE /cookies");
+        assertThat(exchanges.get("GET /cookies")).extracting(Cassette.Exchange::statusCode).containsExactly(503, 200);
+        var response = Cassette.toResponse(exchanges.get("GET /cookies").get(1));
+        assertThat(response.getContentType()).isEqualTo("application/json");
+        assertThat(response.asString()).isEqualTo("[\"Chocolate Chip\"]");
+    }
+
+    @Test
+    void testReplaysExchangesAndRepeatsTheLast(@TempDir final Path directory) throws IOException {
+        // given
+        var cassettePath = directory.resolve("cookies.cassette");
+        writeCassette(cassettePath,
+                exchange("GET /cookies", 503, "busy"),
+                exchange("GET /cookies", 200, "[\"Chocolate Chip\"]"));
+        var replay = new ReplayTransport(cassettePath);
+
+        // when
+        var statusCodes = List.of(
+                RestAssured.given().filter(replay).get("http://localhost:1/cookies").statusCode(),
+                RestAssured.given().filter(replay).get("http://localhost:1/cookies").statusCode(),
+                RestAssured.given().filter(replay).get("http://localhost:1/cookies").statusCode());
+
+        // then
+        assertThat(statusCodes).containsExactly(503, 200, 200);
+        assertThatThrownBy(() -> RestAssured.given().filter(replay).get("http://localhost:1/cakes"))
+                .isInstanceOf(ItarazzoIllegalStateException.class)
+                .hasMessageContaining("GET /cakes");
+    }
+
+    @Test
+    void testReadCassetteOfOtherFormatVersion(@TempDir final Path directory) throws IOException {
+        // given
+        var cassettePath = directory.resolve("other.cassette");
+        JsonRuntime.smileMapper().writeValue(cassettePath.toFile(),
+                JsonRuntime.smileMapper().createObjectNode().put("formatVersion", 0));
+
+        // when / then
+        assertThatThrownBy(() -> Cassette.read(cassettePath))
+                .isInstanceOf(ItarazzoUnsupportedException.class)
+                .hasMessageContaining("format version '0'");
+    }
+
+    private static Cassette.Exchange exchange(final String key, final int statusCode, final String body) {
+        return new Cassette.Exchange(key, statusCode, List.of(new Header("Content-Type", "application/json")),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeCassette(final Path cassettePath, final Cassette.Exchange... exchanges) throws IOException {
+        try (var generator = JsonRuntime.smileMapper().getFactory().createGenerator(Files.newOutputStream(cassettePath))) {
+            Cassette.writeHeader(generator);
+            for (Cassette.Exchange exchange : exchanges) {
+                Cassette.writeExchange(generator, exchange);
+            }
+            Cassette.writeFooter(generator);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package de.leidenheit.infrastructure.transport;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.RestAssured;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpCacheTransportTest {
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final HttpCacheTransport cache = new HttpCacheTransport(64 * 1024);
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/cookies", exchange -> respond(exchange, "max-age=60", null,
+                "cookies of " + exchange.getRequestHeaders().getFirst("Authorization")));
+        server.createContext("/recipes", exchange -> respond(exchange, "max-age=60", "Accept",
+                "recipes as " + exchange.getRequestHeaders().getFirst("Accept")));
+        server.createContext("/prices", exchange -> {
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                requestCount.incrementAndGet();
+                exchange.getResponseHeaders().add("ETag", "\"v1\"");
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            respond(exchange, "no-cache", null, "1.5");
+        });
+        server.createContext("/orders", exchange -> respond(exchange, "no-store", null, "order"));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void testFreshResponsesAreServedFromTheCache() {
+        // when
+        var first = request().get("/cookies").asString();
+        var second = request().get("/cookies").asString();
+
+        // then
+        assertThat(second).isEqualTo(first);
+        assertThat(requestCount).hasValue(1);
+        assertThat(cache.getStatistics().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testResponsesAreKeptPerCredentials() {
+        // when
+        var hugo = request().header("Authorization", "Bearer hugo").get("/cookies").asString();
+        var erna = request().header("Authorization", "Bearer erna").get("/cookies").asString();
+        var cookie = request().cookie("session", "erna").get("/cookies").asString();
+        var hugoAgain = request().header("Authorization", "Bearer hugo").get("/cookies").asString();
+
+        // then
+        assertThat(hugo).isEqualTo("cookies of Bearer hugo").isEqualTo(hugoAgain);
+        assertThat(erna).isEqualTo("cookies of Bearer erna");
+        assertThat(cookie).isEqualTo("cookies of null");
+        assertThat(requestCount).hasValue(3);
+    }
+
+    @Test
+    void testVariantsSelectedByVaryAreKeptSideBySide() {
+        // when
+        var json = request().accept("application/json").get("/recipes").asString();
+        var xml = request().accept("application/xml").get("/recipes").asString();
+        var jsonAgain = request().accept("application/json").get("/recipes").asString();
+        var xmlAgain = request().accept("application/xml").get("/recipes").asString();
+
+        // then
+        assertThat(json).isEqualTo("recipes as application/json").isEqualTo(jsonAgain);
+        assertThat(xml).isEqualTo("recipes as application/xml").isEqualTo(xmlAgain);
+        assertThat(requestCount).hasValue(2);
+        assertThat(cache.getStatistics().size()).isEqualTo(2);
+    }
+
+    @Test
+    void testNoCacheResponsesAreRevalidated() {
+        // when
+        request().get("/prices");
+        var revalidated = request().get("/prices");
+
+        // then
+        assertThat(revalidated.statusCode()).isEqualTo(200);
+        assertThat(revalidated.asString()).isEqualTo("1.5");
+        assertThat(requestCount).hasValue(2);
+        assertThat(cache.getStatistics().revalidationCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testNoStoreResponsesAreNotCached() {
+        // when
+        request().get("/orders");
+        request().get("/orders");
+
+        // then
+        assertThat(requestCount).hasValue(2);
+        assertThat(cache.getStatistics().size()).isZero();
+    }
+
+    @Test
+    void testEvictsTheLeastRecentlyUsedResponses() {
+        // given
+        var smallCache = new HttpCacheTransport(400);
+
+        // when
+        request(smallCache).header("Authorization", "Bearer hugo").get("/cookies");
+        request(smallCache).header("Authorization", "Bearer erna").get("/cookies");
+        request(smallCache).header("Authorization", "Bearer otto").get("/cookies");
+
+        // then
+        assertThat(smallCache.getStatistics().bytes()).isLessThanOrEqualTo(400);
+        assertThat(smallCache.getStatistics().evictionCount()).isPositive();
+    }
+
+    private RequestSpecification request() {
+        return request(cache);
+    }
+
+    private RequestSpecification request(final HttpCacheTransport httpCache) {
+        return RestAssured.given()
+                .baseUri("http://localhost:" + server.getAddress().getPort())
+                .filter(httpCache);
+    }
+
+    private void respond(final HttpExchange exchange, final String cacheControl, final String vary, final String body)
+            throws IOException {
+        requestCount.incrementAndGet();
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+        if (Objects.nonNull(vary)) exchange.getResponseHeaders().add("Vary", vary);
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,172 @@
+package de.leidenheit.infrastructure.transport;
+
+import com.sun.net.httpserver.HttpServer;
+import de.leidenheit.core.execution.ArazzoWorkflowExecutor;
+import de.leidenheit.core.execution.context.WorkflowOutputStore;
+import de.leidenheit.core.execution.listener.ExecutionListener;
+import de.leidenheit.core.execution.transport.StepTransports;
+import de.leidenheit.core.model.ArazzoSpecification;
+import de.leidenheit.core.model.SourceDescription;
+import de.leidenheit.infrastructure.parsing.ArazzoParseOptions;
+import de.leidenheit.infrastructure.parsing.ArazzoParser;
+import de.leidenheit.infrastructure.parsing.SourceDescriptionInitializer;
+import io.restassured.http.Header;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InProcessTransportTest {
+
+    private final AtomicInteger socketRequests = new AtomicInteger();
+    private final List<InProcessTransport.InProcessRequest> handled = new CopyOnWriteArrayList<>();
+    private final InProcessTransport transport = new InProcessTransport("oven", request -> {
+        handled.add(request);
+        return new InProcessTransport.InProcessResponse(200, List.of(new Header("Content-Type", "application/json")),
+                "{\"flavour\":\"in-process\"}".getBytes(StandardCharsets.UTF_8));
+    });
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/cookies", exchange -> {
+            socketRequests.incrementAndGet();
+            var body = "{\"flavour\":\"network\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        StepTransports.register(transport);
+    }
+
+    @AfterEach
+    void stopServer() {
+        StepTransports.unregister(transport);
+        server.stop(0);
+    }
+
+    @Test
+    void testStepsOfTheSelectedSourceDescriptionAreHandledInProcess(@TempDir final Path directory) throws IOException {
+        // given
+        var arazzo = readArazzo(directory, "x-arazzo-in-process: oven");
+
+        // when
+        var outputs = execute(arazzo);
+
+        // then
+        assertThat(outputs.get("bakeCookies")).containsEntry("flavour", "in-process");
+        assertThat(socketRequests).hasValue(0);
+        assertThat(handled).singleElement().satisfies(request -> {
+            assertThat(request.method()).isEqualTo("GET");
+            assertThat(request.uri().getPath()).isEqualTo("/cookies");
+            assertThat(request.uri().getQuery()).isEqualTo("flavour=chocolate");
+        });
+    }
+
+    @Test
+    void testStepsOfOtherSourceDescriptionsAreSentOverTheNetwork(@TempDir final Path directory) throws IOException {
+        // given
+        var arazzo = readArazzo(directory, "x-arazzo-in-process: freezer");
+
+        // when
+        var outputs = execute(arazzo);
+
+        // then
+        assertThat(outputs.get("bakeCookies")).containsEntry("flavour", "network");
+        assertThat(socketRequests).hasValue(1);
+        assertThat(handled).isEmpty();
+    }
+
+    @Test
+    void testSourceDescriptionIsSelectedByItsName() {
+        // given
+        var byName = InProcessTransport.forSourceDescription("bakery", request -> null);
+        var bakery = SourceDescription.builder().name("bakery").build();
+        var creamery = SourceDescription.builder().name("creamery")
+                .extensions(Map.of(InProcessTransport.EXTENSION_IN_PROCESS, "oven"))
+                .build();
+
+        // when / then
+        assertThat(byName.appliesTo(bakery)).isTrue();
+        assertThat(byName.appliesTo(creamery)).isFalse();
+        assertThat(transport.appliesTo(bakery)).isFalse();
+        assertThat(transport.appliesTo(creamery)).isTrue();
+    }
+
+    private static Map<String, Map<String, Object>> execute(final ArazzoSpecification arazzo) {
+        var executor = new ArazzoWorkflowExecutor(
+                arazzo, Map.of(), WorkflowOutputStore.of(Map.of()), new ExecutionListener() {
+                });
+        return executor.executeWorkflow(arazzo.getWorkflows().get(0));
+    }
+
+    private ArazzoSpecification readArazzo(final Path directory, final String extension) throws IOException {
+        var openApiPath = directory.resolve("bakery.openapi.yaml");
+        Files.writeString(openApiPath, """
+                openapi: 3.0.3
+                info:
+                  title: Bakery
+                  version: 1.0.0
+                servers:
+                  - url: http://localhost:%d
+                paths:
+                  /cookies:
+                    get:
+                      operationId: findCookies
+                      parameters:
+                        - name: flavour
+                          in: query
+                          schema:
+                            type: string
+                      responses:
+                        '200':
+                          description: The cookies
+                """.formatted(server.getAddress().getPort()));
+        var arazzoPath = directory.resolve("bakery.arazzo.yaml");
+        Files.writeString(arazzoPath, """
+                arazzo: 1.0.0
+                info:
+                  title: Bakery
+                  version: 1.0.0
+                sourceDescriptions:
+                  - name: bakery
+                    url: %s
+                    type: openapi
+                    %s
+                workflows:
+                  - workflowId: bakeCookies
+                    steps:
+                      - stepId: bake
+                        operationId: $sourceDescriptions.bakery.findCookies
+                        parameters:
+                          - name: flavour
+                            in: query
+                            value: chocolate
+                        successCriteria:
+                          - condition: $statusCode == 200
+                        outputs:
+                          flavour: $response.body.flavour
+                    outputs:
+                      flavour: $steps.bake.outputs.flavour
+                """.formatted(openApiPath, extension));
+        var parseResult = new ArazzoParser().readLocation(arazzoPath.toString(), ArazzoParseOptions.ofDefault());
+        assertThat(parseResult.isInvalid()).isFalse();
+        SourceDescriptionInitializer.initialize(parseResult.getArazzo());
+        return parseResult.getArazzo();
+    }
+}
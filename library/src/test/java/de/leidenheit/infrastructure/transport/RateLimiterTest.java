@@ -0,0 +1,180 @@
+package de.leidenheit.infrastructure.transport;
+
+import de.leidenheit.core.exception.ItarazzoIllegalStateException;
+import de.leidenheit.core.model.SourceDescription;
+import de.leidenheit.core.model.Step;
+import io.restassured.RestAssured;
+import io.restassured.filter.Filter;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.servers.Server;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Step step = Step.builder().stepId("bake").operationId("bakeCookies").build();
+
+    @Test
+    void testBurstIsSentAtOnceAndTheRestAtTheSustainedRate() {
+        // given
+        var rateLimiter = new RateLimiter(RateLimitOptions.ofDefault());
+        var filter = rateLimiter.filterFor(sourceDescription("bakery", "https://bakery.example",
+                Map.of("requestsPerSecond", 10, "burst", 3)), step);
+        // the first request of RestAssured is slowed down by loading its classes
+        send((requestSpec, responseSpec, ctx) -> ctx.next(requestSpec, responseSpec), 200, List.of());
+        long startNanos = System.nanoTime();
+
+        // when
+        for (int i = 0; i < 3; i++) send(filter, 200, List.of());
+        long burstNanos = System.nanoTime() - startNanos;
+        for (int i = 0; i < 2; i++) send(filter, 200, List.of());
+        long totalNanos = System.nanoTime() - startNanos;
+
+        // then
+        assertThat(burstNanos).isLessThan(50 * MILLIS);
+        // the fourth and fifth request are due 100ms and 200ms after the first one
+        assertThat(totalNanos).isBetween(190 * MILLIS, 1_000 * MILLIS);
+    }
+
+    @Test
+    void testRetryAfterPausesTheLimit() {
+        // given
+        var rateLimiter = new RateLimiter(RateLimitOptions.ofDefault());
+        var filter = rateLimiter.filterFor(sourceDescription("bakery", "https://bakery.example",
+                Map.of("requestsPerSecond", 100)), step);
+        send(filter, 429, List.of(new Header("Retry-After", "0.2")));
+        long startNanos = System.nanoTime();
+
+        // when
+        send(filter, 200, List.of());
+
+        // then
+        assertThat(System.nanoTime() - startNanos).isGreaterThanOrEqualTo(190 * MILLIS);
+    }
+
+    @Test
+    void testBulkheadLimitsRequestsInFlight() throws Exception {
+        // given
+        var rateLimiter = new RateLimiter(RateLimitOptions.ofDefault());
+        var filter = rateLimiter.filterFor(sourceDescription("bakery", "https://bakery.example",
+                Map.of("maxConcurrentRequests", 2)), step);
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        Filter blocking = (requestSpec, responseSpec, ctx) -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            return respond(200, List.of());
+        };
+        var executor = Executors.newFixedThreadPool(4);
+        var responses = new ArrayList<Future<Integer>>();
+
+        // when
+        try {
+            for (int i = 0; i < 4; i++) {
+                responses.add(executor.submit(() ->
+                        RestAssured.given().filter(filter).filter(blocking).get("http://localhost/cookies").statusCode()));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (inFlight.get() < 2 && System.nanoTime() < deadline) Thread.sleep(5);
+            Thread.sleep(50);
+            release.countDown();
+
+            // then
+            for (var response : responses) {
+                assertThat(response.get(10, TimeUnit.SECONDS)).isEqualTo(200);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(maxInFlight).hasValue(2);
+    }
+
+    @Test
+    void testLimitsAreSharedPerService() {
+        // given
+        var rateLimiter = new RateLimiter(RateLimitOptions.ofDefault());
+        var limit = Map.<String, Object>of("requestsPerSecond", 5);
+        var bakery = rateLimiter.filterFor(sourceDescription("bakery", "https://bakery.example", limit), step);
+        var sameBakery = rateLimiter.filterFor(sourceDescription("shop", "https://bakery.example", limit), step);
+        var otherBakery = rateLimiter.filterFor(sourceDescription("bakery", "https://other.example", limit), step);
+        send(bakery, 200, List.of());
+
+        // when
+        long startNanos = System.nanoTime();
+        send(otherBakery, 200, List.of());
+        long otherServiceNanos = System.nanoTime() - startNanos;
+        send(sameBakery, 200, List.of());
+        long sameServiceNanos = System.nanoTime() - startNanos;
+
+        // then
+        assertThat(otherServiceNanos).isLessThan(100 * MILLIS);
+        assertThat(sameServiceNanos).isGreaterThanOrEqualTo(150 * MILLIS);
+    }
+
+    @Test
+    void testUnlimitedStepsAreNotFiltered() {
+        // given
+        var rateLimiter = new RateLimiter(RateLimitOptions.ofDefault());
+
+        // when
+        var filter = rateLimiter.filterFor(SourceDescription.builder().name("bakery").build(), step);
+
+        // then
+        assertThat(filter).isNull();
+    }
+
+    @Test
+    void testInvalidOptions() {
+        // when / then
+        assertThatThrownBy(() -> RateLimitOptions.of("fast"))
+                .isInstanceOf(ItarazzoIllegalStateException.class);
+        assertThatThrownBy(() -> RateLimitOptions.of(Map.of("requestsPerSecond", "fast")))
+                .isInstanceOf(ItarazzoIllegalStateException.class);
+        assertThat(RateLimitOptions.of(Map.of("requestsPerSecond", "2.5")).getRequestsPerSecond()).isEqualTo(2.5);
+    }
+
+    private static SourceDescription sourceDescription(final String name,
+                                                       final String serverUrl,
+                                                       final Map<String, Object> rateLimit) {
+        return SourceDescription.builder()
+                .name(name)
+                .url("./%s.yaml".formatted(name))
+                .referencedOpenAPI(new OpenAPI().servers(List.of(new Server().url(serverUrl))))
+                .extensions(Map.of(RateLimiter.EXTENSION_RATE_LIMIT, rateLimit))
+                .build();
+    }
+
+    private static void send(final Filter filter, final int statusCode, final List<Header> headers) {
+        RestAssured.given()
+                .filter(filter)
+                .filter((requestSpec, responseSpec, ctx) -> respond(statusCode, headers))
+                .get("http://localhost/cookies");
+    }
+
+    private static Response respond(final int statusCode, final List<Header> headers) {
+        return Cassette.toResponse(new Cassette.Exchange(
+                "GET http://localhost/cookies", statusCode, headers, "[]".getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,184 @@
+package de.leidenheit.infrastructure.transport;
+
+import de.leidenheit.core.exception.ItarazzoIllegalStateException;
+import de.leidenheit.core.exception.ItarazzoUnsupportedException;
+import de.leidenheit.core.model.SourceDescription;
+import io.restassured.RestAssured;
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.servers.Server;
+import io.swagger.v3.oas.models.servers.ServerVariable;
+import io.swagger.v3.oas.models.servers.ServerVariables;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServerSelectorTest {
+
+    private static final String OVEN = "https://oven.example";
+    private static final String SPARE_OVEN = "https://spare-oven.example";
+
+    private final ServerSelector selector = new ServerSelector(ServerSelectionPolicy.ROUND_ROBIN, 8080, 2, 60_000);
+
+    @Test
+    void testServersAreSelectedInTurns() {
+        // given
+        var bakery = sourceDescription(new Server().url(OVEN), new Server().url(SPARE_OVEN));
+
+        // when
+        var urls = selectedUrls(bakery, 4);
+
+        // then
+        assertThat(urls).containsExactly(OVEN, SPARE_OVEN, OVEN, SPARE_OVEN);
+    }
+
+    @Test
+    void testFailingServerIsEjected() {
+        // given
+        var bakery = sourceDescription(new Server().url(OVEN), new Server().url(SPARE_OVEN));
+        var oven = selector.select(bakery);
+        send(oven, 503);
+        send(oven, 503);
+
+        // when
+        var urls = selectedUrls(bakery, 3);
+
+        // then
+        assertThat(oven.getUrl()).isEqualTo(OVEN);
+        assertThat(urls).containsOnly(SPARE_OVEN);
+    }
+
+    @Test
+    void testSuccessResetsTheFailuresOfAServer() {
+        // given
+        var bakery = sourceDescription(new Server().url(OVEN), new Server().url(SPARE_OVEN));
+        var oven = selector.select(bakery);
+        send(oven, 503);
+        send(oven, 200);
+        send(oven, 503);
+
+        // when
+        var urls = selectedUrls(bakery, 2);
+
+        // then
+        assertThat(urls).containsExactlyInAnyOrder(OVEN, SPARE_OVEN);
+    }
+
+    @Test
+    void testAllServersEjectedAreSelectedNonetheless() {
+        // given
+        var bakery = sourceDescription(new Server().url(OVEN), new Server().url(SPARE_OVEN));
+        var oven = selector.select(bakery);
+        var spareOven = selector.select(bakery);
+        for (int i = 0; i < 2; i++) {
+            send(oven, 502);
+            send(spareOven, 504);
+        }
+
+        // when
+        var urls = selectedUrls(bakery, 2);
+
+        // then
+        assertThat(urls).containsExactly(OVEN, SPARE_OVEN);
+    }
+
+    @Test
+    void testOnlyDesignatedServersAreSelected() {
+        // given
+        var designated = new Server().url(SPARE_OVEN);
+        designated.setExtensions(Map.of(ServerSelector.EXTENSION_DESIGNATED_SERVER, true));
+        var bakery = sourceDescription(new Server().url(OVEN), designated);
+
+        // when
+        var urls = selectedUrls(bakery, 3);
+
+        // then
+        assertThat(urls).containsOnly(SPARE_OVEN);
+    }
+
+    @Test
+    void testVariablesAreSubstitutedByTheirDefault() {
+        // given
+        var variables = new ServerVariables();
+        variables.addServerVariable("region", new ServerVariable()._default("eu")._enum(List.of("eu", "us")));
+        var withDefaults = new Server().url("https://{region}.oven.example").variables(variables);
+        var withoutDefault = new Server().url("https://{shard}.oven.example");
+        var bakery = sourceDescription(withoutDefault, withDefaults);
+
+        // when
+        var urls = selectedUrls(bakery, 2);
+
+        // then
+        assertThat(urls).containsOnly("https://eu.oven.example");
+    }
+
+    @Test
+    void testLocalhostWithoutPortFallsBack() {
+        // when
+        var server = selector.select(sourceDescription(new Server().url("http://localhost")));
+
+        // then
+        assertThat(server.getUrl()).isEqualTo("http://localhost:8080");
+    }
+
+    @Test
+    void testSourceDescriptionsOfTheSameServersShareTheirHealth() {
+        // given
+        var bakery = sourceDescription(new Server().url(OVEN), new Server().url(SPARE_OVEN));
+        var otherSpecification = sourceDescription(new Server().url(OVEN), new Server().url(SPARE_OVEN));
+        var oven = selector.select(bakery);
+        send(oven, 503);
+        send(oven, 503);
+
+        // when
+        var urls = selectedUrls(otherSpecification, 2);
+
+        // then
+        assertThat(urls).containsOnly(SPARE_OVEN);
+    }
+
+    @Test
+    void testInvalidServers() {
+        // given
+        var withoutServers = SourceDescription.builder().name("bakery").referencedOpenAPI(new OpenAPI()).build();
+        var withoutDefaults = sourceDescription(new Server().url("https://{shard}.oven.example"));
+
+        // when / then
+        assertThatThrownBy(() -> selector.select(withoutServers)).isInstanceOf(ItarazzoIllegalStateException.class);
+        assertThatThrownBy(() -> selector.select(withoutDefaults)).isInstanceOf(ItarazzoIllegalStateException.class);
+        assertThatThrownBy(() -> ServerSelectionPolicy.of("random")).isInstanceOf(ItarazzoUnsupportedException.class);
+        assertThat(ServerSelectionPolicy.of(" Failover ")).isEqualTo(ServerSelectionPolicy.FAILOVER);
+    }
+
+    private List<String> selectedUrls(final SourceDescription sourceDescription, final int count) {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < count; i++) urls.add(selector.select(sourceDescription).getUrl());
+        return urls;
+    }
+
+    private static SourceDescription sourceDescription(final Server... servers) {
+        return SourceDescription.builder()
+                .name("bakery")
+                .referencedOpenAPI(new OpenAPI().servers(List.of(servers)))
+                .build();
+    }
+
+    private static void send(final Filter server, final int statusCode) {
+        RestAssured.given()
+                .filter(server)
+                .filter((requestSpec, responseSpec, ctx) -> respond(statusCode))
+                .get("http://localhost/cookies");
+    }
+
+    private static Response respond(final int statusCode) {
+        return Cassette.toResponse(new Cassette.Exchange(
+                "GET http://localhost/cookies", statusCode, List.of(), "[]".getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,181 @@
+package de.leidenheit.infrastructure.transport;
+
+import com.sun.net.httpserver.HttpServer;
+import de.leidenheit.core.model.SourceDescription;
+import de.leidenheit.core.model.Step;
+import io.restassured.RestAssured;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTransportTest {
+
+    private static final int CONCURRENT_REQUESTS = 4;
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SingleFlightTransport singleFlight = new SingleFlightTransport(true);
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/cookies", exchange -> {
+            requestCount.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            var body = "cookie %d".formatted(requestCount.get()).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void testIdenticalRequestsInFlightShareOneExchange() throws Exception {
+        // given
+        var executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        var responses = new ArrayList<Future<String>>();
+
+        // when
+        try {
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                responses.add(executor.submit(() -> request().get("/cookies").asString()));
+            }
+            awaitCoalesced(CONCURRENT_REQUESTS - 1);
+            release.countDown();
+
+            // then
+            for (var response : responses) {
+                assertThat(response.get(10, TimeUnit.SECONDS)).isEqualTo("cookie 1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(requestCount).hasValue(1);
+        assertThat(singleFlight.getCoalescedCount()).isEqualTo(CONCURRENT_REQUESTS - 1);
+    }
+
+    @Test
+    void testRequestsAfterTheResponseAreSentAgain() {
+        // given
+        release.countDown();
+
+        // when
+        var first = request().get("/cookies").asString();
+        var second = request().get("/cookies").asString();
+
+        // then
+        assertThat(first).isEqualTo("cookie 1");
+        assertThat(second).isEqualTo("cookie 2");
+        assertThat(singleFlight.getCoalescedCount()).isZero();
+    }
+
+    @Test
+    void testWaitingRequestsReceiveTheFailureOfTheSharedOne() throws Exception {
+        // given
+        var sending = new CountDownLatch(1);
+        var failing = RestAssured.given()
+                .baseUri("http://localhost:" + server.getAddress().getPort())
+                .filter(singleFlight)
+                .filter((requestSpec, responseSpec, ctx) -> {
+                    sending.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IllegalStateException("oven broke");
+                });
+        var executor = Executors.newFixedThreadPool(2);
+
+        // when
+        try {
+            var sent = executor.submit(() -> failing.get("/cookies").asString());
+            assertThat(sending.await(10, TimeUnit.SECONDS)).isTrue();
+            var waiting = executor.submit(() -> request().get("/cookies").asString());
+            awaitCoalesced(1);
+            release.countDown();
+
+            // then
+            assertThatThrownBy(() -> sent.get(10, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class).hasRootCauseMessage("oven broke");
+            assertThatThrownBy(() -> waiting.get(10, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class).hasRootCauseMessage("oven broke");
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(requestCount).hasValue(0);
+    }
+
+    @Test
+    void testRequestsWithBodyAreNotCoalesced() {
+        // given
+        release.countDown();
+
+        // when
+        request().body("chocolate").get("/cookies");
+
+        // then
+        assertThat(requestCount).hasValue(1);
+        assertThat(singleFlight.getCoalescedCount()).isZero();
+    }
+
+    @Test
+    void testExtensionOfTheStepTakesPrecedence() {
+        // given
+        var optIn = new SingleFlightTransport(false);
+        var sourceDescription = SourceDescription.builder()
+                .extensions(Map.of(SingleFlightTransport.EXTENSION_SINGLE_FLIGHT, true)).build();
+        var step = Step.builder()
+                .extensions(Map.of(SingleFlightTransport.EXTENSION_SINGLE_FLIGHT, false)).build();
+
+        // when / then
+        assertThat(optIn.appliesTo(SourceDescription.builder().build(), Step.builder().build())).isFalse();
+        assertThat(optIn.appliesTo(sourceDescription, Step.builder().build())).isTrue();
+        assertThat(optIn.appliesTo(sourceDescription, step)).isFalse();
+        assertThat(singleFlight.appliesTo(SourceDescription.builder().build(), Step.builder().build())).isTrue();
+    }
+
+    private RequestSpecification request() {
+        return RestAssured.given()
+                .baseUri("http://localhost:" + server.getAddress().getPort())
+                .filter(singleFlight);
+    }
+
+    // requests waiting for another one are counted before they wait
+    private void awaitCoalesced(final long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (singleFlight.getCoalescedCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(singleFlight.getCoalescedCount()).isEqualTo(count);
+    }
+}